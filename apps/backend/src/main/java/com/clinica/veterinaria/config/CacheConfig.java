@@ -79,6 +79,12 @@ import java.util.concurrent.TimeUnit;
  *     <td>300</td>
  *     <td>Agenda de citas (alta volatilidad)</td>
  *   </tr>
+ *   <tr>
+ *     <td>historialMedico</td>
+ *     <td>5 min</td>
+ *     <td>500</td>
+ *     <td>Historial médico por paciente, versionado (ver HistorialMedicoCacheService)</td>
+ *   </tr>
  * </table>
  * 
  * <p><strong>ESTRATEGIA DE INVALIDACIÓN:</strong></p>
@@ -148,6 +154,7 @@ public class CacheConfig {
     public static final String CONSULTAS_CACHE = "consultas";
     public static final String CITAS_CACHE = "citas";
     public static final String PRESCRIPCIONES_CACHE = "prescripciones";
+    public static final String HISTORIAL_MEDICO_CACHE = "historialMedico";
 
     /**
      * Configura el CacheManager con Caffeine usando configuraciones personalizadas por caché.
@@ -228,6 +235,16 @@ public class CacheConfig {
                             .recordStats()
                             .build();
                     
+                    case HISTORIAL_MEDICO_CACHE -> 
+                        // Cada entrada lleva su versión, pero el contador es local a cada
+                        // instancia: el TTL acota cuánto tarda una instancia en ver los
+                        // cambios hechos a través de otra
+                        Caffeine.newBuilder()
+                            .maximumSize(500)
+                            .expireAfterWrite(5, TimeUnit.MINUTES)
+                            .recordStats()
+                            .build();
+                    
                     default -> 
                         // Configuración por defecto para nuevos cachés
                         defaultCaffeineConfig().build();
@@ -243,10 +260,11 @@ public class CacheConfig {
             USUARIOS_CACHE,
             CONSULTAS_CACHE,
             CITAS_CACHE,
-            PRESCRIPCIONES_CACHE
+            PRESCRIPCIONES_CACHE,
+            HISTORIAL_MEDICO_CACHE
         ));
         
-        log.info("✓ Cache Manager configurado con {} cachés personalizados", 7);
+        log.info("✓ Cache Manager configurado con {} cachés personalizados", 8);
         logCacheConfiguration();
         
         return cacheManager;
@@ -286,6 +304,7 @@ public class CacheConfig {
         log.info("  • {} - TTL: 3min, Max: 500 (consultas médicas)", CONSULTAS_CACHE);
         log.info("  • {} - TTL: 2min, Max: 300 (agenda de citas)", CITAS_CACHE);
         log.info("  • {} - TTL: 5min, Max: 200 (prescripciones)", PRESCRIPCIONES_CACHE);
+        log.info("  • {} - TTL: 5min, Max: 500 (historial médico versionado)", HISTORIAL_MEDICO_CACHE);
         log.info("🎯 Cache-Aside Pattern habilitado con Caffeine (Window TinyLfu)");
     }
 
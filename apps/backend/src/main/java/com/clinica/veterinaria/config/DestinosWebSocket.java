@@ -0,0 +1,78 @@
+package com.clinica.veterinaria.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Destinos STOMP de las notificaciones por usuario según el modo del broker.
+ *
+ * <p>Los clientes se suscriben a {@code /user/{id}/queue/{cola}}. Con el broker simple en
+ * memoria ese destino se usa tal cual. Un broker externo (RabbitMQ, ActiveMQ...) no admite
+ * destinos {@code /user/...}, y en él {@code /queue/...} reparte los mensajes entre los
+ * suscriptores en lugar de copiarlos a todos. Por eso, en modo {@code relay}, las suscripciones
+ * se traducen a {@code /topic/usuario.{id}.{cola}}: cada mensaje llega a todas las pestañas del
+ * usuario, esté conectada a la instancia que esté.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see WebSocketConfig
+ */
+@Component
+public class DestinosWebSocket {
+
+    /** Modo del broker en memoria (una sola instancia). */
+    public static final String MODO_SIMPLE = "simple";
+
+    /** Modo relay hacia un broker STOMP externo (varias instancias). */
+    public static final String MODO_RELAY = "relay";
+
+    private static final Pattern DESTINO_USUARIO = Pattern.compile("^/user/(\\d{1,18})/queue/([\\w-]+)$");
+
+    private final boolean relay;
+
+    public DestinosWebSocket(@Value("${app.websocket.broker.modo:simple}") String modo) {
+        if (!MODO_SIMPLE.equalsIgnoreCase(modo) && !MODO_RELAY.equalsIgnoreCase(modo)) {
+            throw new IllegalArgumentException(
+                "app.websocket.broker.modo debe ser '" + MODO_SIMPLE + "' o '" + MODO_RELAY + "': " + modo);
+        }
+        this.relay = MODO_RELAY.equalsIgnoreCase(modo);
+    }
+
+    /**
+     * Indica si los mensajes se reenvían a un broker externo.
+     */
+    public boolean esRelay() {
+        return relay;
+    }
+
+    /**
+     * Destino al que se envían los mensajes de una cola de usuario.
+     *
+     * @param usuarioId ID del usuario
+     * @param cola Nombre de la cola (p. ej. {@code notificaciones})
+     * @return Destino del broker
+     */
+    public String usuario(Long usuarioId, String cola) {
+        return relay
+            ? "/topic/usuario." + usuarioId + "." + cola
+            : "/user/" + usuarioId + "/queue/" + cola;
+    }
+
+    /**
+     * Traduce el destino de una suscripción del cliente al destino del broker.
+     *
+     * @param destino Destino solicitado por el cliente
+     * @return Destino del broker (el mismo si no es una cola de usuario o el modo es simple)
+     */
+    public String traducirSuscripcion(String destino) {
+        if (!relay || destino == null) {
+            return destino;
+        }
+        Matcher matcher = DESTINO_USUARIO.matcher(destino);
+        return matcher.matches() ? usuario(Long.valueOf(matcher.group(1)), matcher.group(2)) : destino;
+    }
+}
@@ -15,8 +15,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * 
  * <p><strong>Interceptores registrados:</strong></p>
  * <ul>
- *   <li><b>RequestResponseLoggingInterceptor:</b> Registra todas las peticiones HTTP y sus respuestas
- *       con información detallada (método, URL, headers, body, tiempo de respuesta)</li>
+ *   <li><b>RequestResponseLoggingInterceptor:</b> Mide la latencia de todas las peticiones HTTP por
+ *       ruta y registra en el log los errores, las peticiones lentas y una muestra del resto</li>
  * </ul>
  * 
  * <p><strong>Rutas excluidas del logging:</strong></p>
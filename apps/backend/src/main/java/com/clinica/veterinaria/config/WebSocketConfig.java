@@ -1,9 +1,20 @@
 package com.clinica.veterinaria.config;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.Ordered;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -14,6 +25,16 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * <p>Esta configuración habilita STOMP sobre WebSocket para permitir
  * comunicación bidireccional entre el servidor y los clientes.</p>
  * 
+ * <p><strong>Modos del broker</strong> ({@code app.websocket.broker.modo}):</p>
+ * <ul>
+ *   <li><b>simple</b> (por defecto): broker en memoria. Los mensajes solo llegan a los
+ *       clientes conectados a la misma instancia.</li>
+ *   <li><b>relay</b>: los destinos {@code /topic} y {@code /queue} se reenvían por TCP a un
+ *       broker STOMP externo (RabbitMQ con el plugin STOMP, ActiveMQ...), que los distribuye a
+ *       todas las instancias. Necesario para escalar el backend horizontalmente. Las colas de
+ *       usuario se traducen con {@link DestinosWebSocket}.</li>
+ * </ul>
+ * 
  * @author Sebastian Ordoñez
  * @version 1.0.0
  * @since 2025-11-30
@@ -21,18 +42,62 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @Configuration
 @EnableWebSocketMessageBroker
 @Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final DestinosWebSocket destinosWebSocket;
+
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${app.websocket.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${app.websocket.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${app.websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${app.websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${app.websocket.broker.relay.heartbeat-ms:10000}")
+    private long relayHeartbeatMs;
+
     /**
      * Configura el broker de mensajes.
      * 
-     * <p>Habilita un broker simple en memoria para enviar mensajes
-     * a los clientes suscritos a los destinos "/topic" y "/user".</p>
+     * <p>En modo simple habilita un broker en memoria para los destinos "/topic", "/queue"
+     * y "/user"; en modo relay reenvía "/topic" y "/queue" al broker externo.</p>
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Habilita un broker simple en memoria
-        config.enableSimpleBroker("/topic", "/queue", "/user");
+        if (destinosWebSocket.esRelay()) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayClientLogin)
+                .setClientPasscode(relayClientPasscode)
+                .setSystemLogin(relaySystemLogin)
+                .setSystemPasscode(relaySystemPasscode)
+                .setSystemHeartbeatSendInterval(relayHeartbeatMs)
+                .setSystemHeartbeatReceiveInterval(relayHeartbeatMs);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            log.info("✓ WebSocket: relay STOMP hacia {}:{}", relayHost, relayPort);
+        } else {
+            // Habilita un broker simple en memoria
+            config.enableSimpleBroker("/topic", "/queue", "/user");
+        }
         
         // Prefijo para mensajes destinados al servidor
         config.setApplicationDestinationPrefixes("/app");
@@ -53,5 +118,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    /**
+     * En modo relay, traduce las suscripciones a colas de usuario al destino del broker externo.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (!destinosWebSocket.esRelay()) {
+            return;
+        }
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+                    String destino = accessor.getDestination();
+                    String traducido = destinosWebSocket.traducirSuscripcion(destino);
+                    if (traducido != null && !traducido.equals(destino)) {
+                        accessor.setDestination(traducido);
+                    }
+                }
+                return message;
+            }
+        });
+    }
 }
 
@@ -1,8 +1,6 @@
 package com.clinica.veterinaria.config;
 
-import com.clinica.veterinaria.security.JwtUtil;
-import com.clinica.veterinaria.security.CustomUserDetailsService;
-import com.clinica.veterinaria.security.ClienteUserDetailsService;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
@@ -38,9 +36,7 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @Order(Ordered.HIGHEST_PRECEDENCE + 99)
 public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer {
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
-    private final ClienteUserDetailsService clienteUserDetailsService;
+    private final CacheAutenticacionJwt cacheAutenticacion;
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
@@ -55,40 +51,19 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
                     if (authToken != null && authToken.startsWith("Bearer ")) {
                         try {
                             String token = authToken.substring(7);
-                            String username = jwtUtil.extractUsername(token);
+                            UserDetails userDetails = cacheAutenticacion.autenticar(token);
                             
-                            if (username != null) {
-                                UserDetails userDetails = null;
+                            if (userDetails != null) {
+                                Authentication authentication = new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                                );
                                 
-                                // Intentar determinar el tipo de usuario
-                                try {
-                                    String rol = jwtUtil.extractRole(token);
-                                    if ("CLIENTE".equals(rol)) {
-                                        userDetails = clienteUserDetailsService.loadUserByUsername(username);
-                                    } else {
-                                        userDetails = userDetailsService.loadUserByUsername(username);
-                                    }
-                                } catch (Exception e) {
-                                    // Intentar como usuario del sistema primero
-                                    try {
-                                        userDetails = userDetailsService.loadUserByUsername(username);
-                                    } catch (Exception ex) {
-                                        userDetails = clienteUserDetailsService.loadUserByUsername(username);
-                                    }
-                                }
-                                
-                                if (userDetails != null && Boolean.TRUE.equals(jwtUtil.validateToken(token, userDetails))) {
-                                    Authentication authentication = new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities()
-                                    );
-                                    
-                                    accessor.setUser(authentication);
-                                    log.info("Usuario autenticado en WebSocket: {}", username);
-                                } else {
-                                    log.warn("Token JWT inválido en conexión WebSocket");
-                                }
+                                accessor.setUser(authentication);
+                                log.info("Usuario autenticado en WebSocket: {}", userDetails.getUsername());
+                            } else {
+                                log.warn("Token JWT inválido en conexión WebSocket");
                             }
                         } catch (Exception e) {
                             log.error("Error al autenticar conexión WebSocket: {}", e.getMessage(), e);
@@ -0,0 +1,76 @@
+package com.clinica.veterinaria.controller;
+
+import com.clinica.veterinaria.dto.CursorPageDTO;
+import com.clinica.veterinaria.dto.EventoAuditoriaDTO;
+import com.clinica.veterinaria.service.AuditoriaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controlador REST para consultar el historial de auditoría.
+ *
+ * <p>Solo accesible para administradores. Lee la tabla {@code audit_event} paginando por
+ * cursor, así que responder "quién cambió el peso de este paciente el mes pasado" es una
+ * consulta indexada en lugar de una búsqueda en los ficheros {@code audit.log}.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+@RestController
+@RequestMapping("/api/auditoria")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditoriaController {
+
+    private final AuditoriaService auditoriaService;
+
+    /**
+     * Historial de auditoría paginado por cursor, más recientes primero.
+     *
+     * <p><strong>Ejemplo:</strong></p>
+     * <pre>
+     * GET /api/auditoria?entidad=Paciente&entidadId=42&desde=2026-09-01T00:00:00
+     * GET /api/auditoria?usuario=vet@clinica.com&size=50&after=MjAyNi0xMC0xN1QxMDowMHw0Mg
+     * GET /api/auditoria?accion=LOGIN_FAILURE
+     * </pre>
+     *
+     * @param entidad Filtro opcional por entidad (Paciente, Producto, ...)
+     * @param entidadId Filtro opcional por ID del registro (requiere {@code entidad})
+     * @param usuario Filtro opcional por usuario que realizó la acción
+     * @param accion Filtro opcional por tipo de evento (CREATE, UPDATE, DELETE, LOGIN_FAILURE, ...)
+     * @param desde Fecha mínima, inclusive (formato ISO 8601)
+     * @param hasta Fecha máxima, exclusive (formato ISO 8601)
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @return Página de eventos con el cursor de la siguiente
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<EventoAuditoriaDTO>> buscar(
+            @RequestParam(required = false) String entidad,
+            @RequestParam(required = false) String entidadId,
+            @RequestParam(required = false) String usuario,
+            @RequestParam(required = false) String accion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.info("GET /api/auditoria - entidad: {} {}, usuario: {}, acción: {}, fechas: {} - {}, size: {}",
+            entidad, entidadId, usuario, accion, desde, hasta, size);
+
+        CursorPageDTO<EventoAuditoriaDTO> result = auditoriaService.buscar(
+            entidad, entidadId, usuario, accion, desde, hasta, after, size);
+
+        log.info("✓ Encontrados {} eventos de auditoría | Hay más: {}", result.getContent().size(), result.isHasNext());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,50 @@
+package com.clinica.veterinaria.controller;
+
+import com.clinica.veterinaria.dto.BusquedaGlobalDTO;
+import com.clinica.veterinaria.service.BusquedaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para la búsqueda global (autocompletado de la barra de búsqueda).
+ * 
+ * <p>Busca a la vez en pacientes, propietarios y productos activos, sin distinguir
+ * mayúsculas ni tildes.</p>
+ * 
+ * <p><strong>Ejemplo:</strong> {@code GET /api/buscar?q=munoz&limite=5}</p>
+ * 
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see BusquedaService
+ */
+@RestController
+@RequestMapping("/api/buscar")
+@RequiredArgsConstructor
+@Slf4j
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+
+    /**
+     * Busca el término en pacientes, propietarios y productos.
+     * 
+     * @param q Texto a buscar (mínimo 2 caracteres para obtener resultados)
+     * @param limite Máximo de resultados por tipo (por defecto 5, máximo 20)
+     * @return Resultados agrupados por tipo y ordenados por relevancia
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'VET', 'RECEPCION')")
+    public ResponseEntity<BusquedaGlobalDTO> buscar(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + BusquedaService.LIMITE_DEFECTO) int limite) {
+        log.debug("GET /api/buscar - q: '{}', limite: {}", q, limite);
+        return ResponseEntity.ok(busquedaService.buscar(q, limite));
+    }
+}
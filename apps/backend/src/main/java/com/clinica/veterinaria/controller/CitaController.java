@@ -1,6 +1,7 @@
 package com.clinica.veterinaria.controller;
 
 import com.clinica.veterinaria.dto.CitaDTO;
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.entity.Cita;
 import com.clinica.veterinaria.entity.Cita.EstadoCita;
 import com.clinica.veterinaria.exception.domain.InvalidDataException;
@@ -173,6 +174,50 @@ public class CitaController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Búsqueda con los mismos filtros que {@link #searchWithFilters}, paginada por cursor.
+     * 
+     * <p>Pensada para recorrer historiales largos: no usa OFFSET ni cuenta las filas en cada
+     * petición, por lo que cualquier página cuesta lo mismo que la primera. Orden fijo:
+     * más recientes primero.</p>
+     * 
+     * <p><strong>Ejemplo:</strong></p>
+     * <pre>
+     * GET /api/citas/search/cursor?pacienteId=10&size=20
+     * GET /api/citas/search/cursor?pacienteId=10&size=20&after=MjAyNi0xMC0xN1QxMDowMHw0Mg
+     * </pre>
+     * 
+     * @param estado Filtro opcional por estado de cita
+     * @param profesionalId Filtro opcional por ID de profesional (veterinario)
+     * @param pacienteId Filtro opcional por ID de paciente (mascota)
+     * @param fechaInicio Filtro opcional por fecha inicial (formato ISO 8601)
+     * @param fechaFin Filtro opcional por fecha final (formato ISO 8601)
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @param incluirTotal Si es true, incluye {@code totalElements} (ejecuta un COUNT adicional)
+     * @return Página de citas con el cursor de la siguiente
+     */
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPageDTO<CitaDTO>> searchWithCursor(
+            @RequestParam(required = false) EstadoCita estado,
+            @RequestParam(required = false) Long profesionalId,
+            @RequestParam(required = false) Long pacienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        
+        log.info("GET /api/citas/search/cursor - estado: {}, profesional: {}, paciente: {}, fechas: {} - {}, size: {}", 
+            estado, profesionalId, pacienteId, fechaInicio, fechaFin, size);
+        
+        CursorPageDTO<CitaDTO> result = citaService.searchWithCursor(
+            estado, profesionalId, pacienteId, fechaInicio, fechaFin, after, size, incluirTotal);
+        
+        log.info("✓ Encontradas {} citas | Hay más: {}", result.getContent().size(), result.isHasNext());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Obtener citas por paciente
      * 
@@ -1,6 +1,7 @@
 package com.clinica.veterinaria.controller;
 
 import com.clinica.veterinaria.dto.ConsultaDTO;
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.service.ConsultaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -170,6 +171,42 @@ public class ConsultaController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Búsqueda con los mismos filtros que {@link #searchWithFilters}, paginada por cursor.
+     * 
+     * <p>No usa OFFSET ni cuenta las filas en cada petición, por lo que cualquier página de
+     * una historia clínica larga cuesta lo mismo que la primera. Orden fijo: más recientes primero.</p>
+     * 
+     * @param pacienteId Filtro opcional por ID de paciente (historia clínica)
+     * @param profesionalId Filtro opcional por ID de profesional (veterinario)
+     * @param fechaInicio Filtro opcional por fecha inicial (formato ISO 8601)
+     * @param fechaFin Filtro opcional por fecha final (formato ISO 8601)
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @param incluirTotal Si es true, incluye {@code totalElements} (ejecuta un COUNT adicional)
+     * @return Página de consultas con el cursor de la siguiente
+     */
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VET')")
+    public ResponseEntity<CursorPageDTO<ConsultaDTO>> searchWithCursor(
+            @RequestParam(required = false) Long pacienteId,
+            @RequestParam(required = false) Long profesionalId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        
+        log.info("GET /api/consultas/search/cursor - paciente: {}, profesional: {}, fechas: {} - {}, size: {}", 
+            pacienteId, profesionalId, fechaInicio, fechaFin, size);
+        
+        CursorPageDTO<ConsultaDTO> result = consultaService.searchWithCursor(
+            pacienteId, profesionalId, fechaInicio, fechaFin, after, size, incluirTotal);
+        
+        log.info("✓ Encontradas {} consultas | Hay más: {}", result.getContent().size(), result.isHasNext());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Obtener consultas por paciente (historia clínica)
      * 
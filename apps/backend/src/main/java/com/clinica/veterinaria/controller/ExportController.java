@@ -0,0 +1,54 @@
+package com.clinica.veterinaria.controller;
+
+import com.clinica.veterinaria.service.ExportacionService;
+import com.clinica.veterinaria.service.ExportacionService.Entidad;
+import com.clinica.veterinaria.service.ExportacionService.Formato;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Controlador REST para la exportación masiva de datos (CSV / NDJSON).
+ *
+ * <p>Las filas se escriben en la respuesta a medida que se leen de la base de datos, por lo
+ * que se pueden descargar extractos de un año completo sin cargar la tabla en memoria.</p>
+ *
+ * <p><strong>Ejemplo:</strong> {@code GET /api/export/facturas?formato=csv&desde=2026-01-01&hasta=2026-12-31}</p>
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private final ExportacionService exportacionService;
+
+    @GetMapping("/{entidad}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportar(
+            @PathVariable String entidad,
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) throws IOException {
+        // Validar antes de escribir nada: después la respuesta ya está comprometida
+        Entidad tipo = Entidad.desde(entidad);
+        Formato salida = Formato.desde(formato);
+        exportacionService.validarRango(desde, hasta);
+
+        String nombreArchivo = tipo.name().toLowerCase(Locale.ROOT) + "-" + LocalDate.now() + "." + salida.getExtension();
+        response.setContentType(salida.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nombreArchivo + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        exportacionService.exportar(tipo, salida, desde, hasta, response.getOutputStream());
+    }
+}
@@ -1,26 +1,65 @@
 package com.clinica.veterinaria.controller;
 
 import com.clinica.veterinaria.dto.HistorialMedicoDTO;
-import com.clinica.veterinaria.service.HistorialMedicoService;
+import com.clinica.veterinaria.service.HistorialMedicoCacheService;
+import com.clinica.veterinaria.service.HistorialMedicoCacheService.HistorialVersionado;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
+
 /**
  * Controlador REST para el historial médico completo de pacientes
+ * 
+ * <p>El historial se sirve desde una caché versionada con ETag: si el cliente envía
+ * {@code If-None-Match} con el ETag vigente se responde 304 sin construir el historial.
+ * Sin entrada vigente en la caché no hay ETag con el que comparar y se responde 200.</p>
  */
 @RestController
 @RequestMapping("/api/historial-medico")
 @RequiredArgsConstructor
 public class HistorialMedicoController {
 
-    private final HistorialMedicoService historialMedicoService;
+    private final HistorialMedicoCacheService historialMedicoCacheService;
 
     @GetMapping("/paciente/{pacienteId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'VET', 'RECEPCION', 'ESTUDIANTE')")
-    public ResponseEntity<HistorialMedicoDTO> getHistorialCompleto(@PathVariable Long pacienteId) {
-        return ResponseEntity.ok(historialMedicoService.getHistorialCompleto(pacienteId));
+    public ResponseEntity<HistorialMedicoDTO> getHistorialCompleto(
+            @PathVariable Long pacienteId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Datos clínicos: solo caché privada y siempre revalidando con el ETag
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        String etag = historialMedicoCacheService.getEtag(pacienteId);
+        if (etag != null && coincideEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+        }
+
+        HistorialVersionado historial = historialMedicoCacheService.getHistorial(pacienteId);
+        return ResponseEntity.ok()
+            .eTag(historial.etag())
+            .cacheControl(cacheControl)
+            .body(historial.historial());
     }
-}
 
+    /**
+     * Comprueba si alguno de los ETag de {@code If-None-Match} coincide (comparación débil).
+     */
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+            .anyMatch(valor -> valor.equals("*") || valor.equals(etag));
+    }
+}
@@ -1,5 +1,6 @@
 package com.clinica.veterinaria.controller;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.NotificacionCreateDTO;
 import com.clinica.veterinaria.dto.NotificacionDTO;
 import com.clinica.veterinaria.service.NotificacionService;
@@ -33,7 +34,8 @@ public class NotificacionController {
     private final UsuarioService usuarioService;
 
     /**
-     * Obtiene todas las notificaciones del usuario autenticado
+     * Obtiene las notificaciones más recientes del usuario autenticado (máximo 50).
+     * El historial completo se recorre con {@code /cursor}.
      */
     @GetMapping
     public ResponseEntity<List<NotificacionDTO>> getMisNotificaciones() {
@@ -45,7 +47,51 @@ public class NotificacionController {
     }
 
     /**
-     * Obtiene las notificaciones no leídas del usuario autenticado
+     * Bandeja del usuario autenticado paginada por cursor, más recientes primero.
+     *
+     * <p><strong>Ejemplo:</strong></p>
+     * <pre>
+     * GET /api/notificaciones/cursor?size=20
+     * GET /api/notificaciones/cursor?size=20&after=MjAyNi0xMC0xN1QxMDowMHw0Mg
+     * </pre>
+     *
+     * @param soloNoLeidas Si es true, solo incluye las no leídas
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @return Página de notificaciones con el cursor de la siguiente
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<NotificacionDTO>> getMisNotificacionesPorCursor(
+            @RequestParam(defaultValue = "false") boolean soloNoLeidas,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("GET /api/notificaciones/cursor - email: {}, soloNoLeidas: {}, size: {}", email, soloNoLeidas, size);
+
+        Long usuarioId = usuarioService.findByEmail(email).getId();
+        return ResponseEntity.ok(notificacionService.findPaginaPorCursor(usuarioId, soloNoLeidas, after, size));
+    }
+
+    /**
+     * Notificaciones archivadas del usuario autenticado paginadas por cursor, más recientes primero
+     *
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @return Página de notificaciones archivadas con el cursor de la siguiente
+     */
+    @GetMapping("/archivadas")
+    public ResponseEntity<CursorPageDTO<NotificacionDTO>> getMisArchivadas(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("GET /api/notificaciones/archivadas - email: {}, size: {}", email, size);
+
+        Long usuarioId = usuarioService.findByEmail(email).getId();
+        return ResponseEntity.ok(notificacionService.findArchivadasPorCursor(usuarioId, after, size));
+    }
+
+    /**
+     * Obtiene las notificaciones no leídas más recientes del usuario autenticado (máximo 50)
      */
     @GetMapping("/no-leidas")
     public ResponseEntity<List<NotificacionDTO>> getNoLeidas() {
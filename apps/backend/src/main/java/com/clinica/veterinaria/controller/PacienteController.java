@@ -1,5 +1,6 @@
 package com.clinica.veterinaria.controller;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.PacienteDTO;
 import com.clinica.veterinaria.service.PacienteService;
 import jakarta.validation.Valid;
@@ -128,6 +129,30 @@ public class PacienteController {
         return ResponseEntity.ok(pacienteService.searchWithFilters(nombre, especie, pageable));
     }
 
+    /**
+     * Búsqueda con los mismos filtros que {@link #searchWithFilters}, paginada por cursor.
+     * 
+     * <p>No usa OFFSET ni cuenta las filas en cada petición. Orden fijo: registrados más
+     * recientemente primero.</p>
+     * 
+     * @param nombre Texto a buscar en el nombre (opcional)
+     * @param especie Especie a filtrar (opcional)
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @param incluirTotal Si es true, incluye {@code totalElements} (ejecuta un COUNT adicional)
+     * @return Página de pacientes con el cursor de la siguiente
+     */
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPageDTO<PacienteDTO>> searchWithCursor(
+            @RequestParam(required = false) String nombre,
+            @RequestParam(required = false) String especie,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        log.info("GET /api/pacientes/search/cursor - nombre: {}, especie: {}, size: {}", nombre, especie, size);
+        return ResponseEntity.ok(pacienteService.searchWithCursor(nombre, especie, after, size, incluirTotal));
+    }
+
     /**
      * Obtener un paciente por ID
      */
@@ -2,6 +2,7 @@ package com.clinica.veterinaria.controller;
 
 import com.clinica.veterinaria.dto.ConsultaDTO;
 import com.clinica.veterinaria.dto.PacienteDTO;
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.PrescripcionDTO;
 import com.clinica.veterinaria.dto.PropietarioDTO;
 import com.clinica.veterinaria.dto.UsuarioDTO;
@@ -137,6 +138,41 @@ public class PrescripcionController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Búsqueda con los mismos filtros que {@link #searchWithFilters}, paginada por cursor.
+     * 
+     * <p>No usa OFFSET ni cuenta las filas en cada petición. Orden fijo: más recientes primero.</p>
+     * 
+     * @param pacienteId Filtro opcional por ID de paciente
+     * @param consultaId Filtro opcional por ID de consulta
+     * @param fechaInicio Filtro opcional por fecha inicial (formato ISO 8601)
+     * @param fechaFin Filtro opcional por fecha final (formato ISO 8601)
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @param incluirTotal Si es true, incluye {@code totalElements} (ejecuta un COUNT adicional)
+     * @return Página de prescripciones con el cursor de la siguiente
+     */
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VET')")
+    public ResponseEntity<CursorPageDTO<PrescripcionDTO>> searchWithCursor(
+            @RequestParam(required = false) Long pacienteId,
+            @RequestParam(required = false) Long consultaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        
+        log.info("GET /api/prescripciones/search/cursor - paciente: {}, consulta: {}, fechas: {} - {}, size: {}",
+            pacienteId, consultaId, fechaInicio, fechaFin, size);
+        
+        CursorPageDTO<PrescripcionDTO> result = prescripcionService.searchWithCursor(
+            pacienteId, consultaId, fechaInicio, fechaFin, after, size, incluirTotal);
+        
+        log.info("✓ Encontradas {} prescripciones | Hay más: {}", result.getContent().size(), result.isHasNext());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Obtener prescripciones por consulta
      * @deprecated Usar {@link #searchWithFilters} con consultaId
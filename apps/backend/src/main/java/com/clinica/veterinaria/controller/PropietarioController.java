@@ -1,5 +1,6 @@
 package com.clinica.veterinaria.controller;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.PropietarioDTO;
 import com.clinica.veterinaria.service.PropietarioService;
 import jakarta.validation.Valid;
@@ -169,6 +170,41 @@ public class PropietarioController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Búsqueda paginada por cursor; los filtros indicados se combinan con AND.
+     * 
+     * <p>No usa OFFSET ni cuenta las filas en cada petición. Orden fijo: registrados más
+     * recientemente primero.</p>
+     * 
+     * @param nombre Filtro opcional de nombre (búsqueda parcial)
+     * @param documento Filtro opcional de documento (búsqueda parcial)
+     * @param telefono Filtro opcional de teléfono (búsqueda parcial)
+     * @param email Filtro opcional de email (búsqueda parcial)
+     * @param after Cursor opaco devuelto en {@code nextCursor} (omitir para la primera página)
+     * @param size Tamaño de página (máximo 100)
+     * @param incluirTotal Si es true, incluye {@code totalElements} (ejecuta un COUNT adicional)
+     * @return Página de propietarios con el cursor de la siguiente
+     */
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPageDTO<PropietarioDTO>> searchWithCursor(
+            @RequestParam(required = false) String nombre,
+            @RequestParam(required = false) String documento,
+            @RequestParam(required = false) String telefono,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        
+        log.info("GET /api/propietarios/search/cursor - nombre: {}, documento: {}, telefono: {}, email: {}, size: {}", 
+            nombre, documento, telefono, email, size);
+        
+        CursorPageDTO<PropietarioDTO> result = propietarioService.searchWithCursor(
+            nombre, documento, telefono, email, after, size, incluirTotal);
+        
+        log.info("✓ Encontrados {} propietarios | Hay más: {}", result.getContent().size(), result.isHasNext());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Crear un nuevo propietario
      * ADMIN y RECEPCION
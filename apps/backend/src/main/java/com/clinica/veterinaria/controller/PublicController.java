@@ -1,9 +1,9 @@
 package com.clinica.veterinaria.controller;
 
-import com.clinica.veterinaria.dto.CitaDTO;
+import com.clinica.veterinaria.dto.HuecoDisponibleDTO;
 import com.clinica.veterinaria.dto.UsuarioDTO;
-import com.clinica.veterinaria.entity.Cita;
-import com.clinica.veterinaria.service.CitaService;
+import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
+import com.clinica.veterinaria.service.DisponibilidadService;
 import com.clinica.veterinaria.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
 
 /**
@@ -26,6 +25,8 @@ import java.util.List;
  * <ul>
  *   <li><b>GET /api/public/veterinarios:</b> Lista veterinarios activos disponibles</li>
  *   <li><b>GET /api/public/veterinarios/{id}/horas-ocupadas:</b> Obtiene las horas ocupadas de un veterinario en una fecha</li>
+ *   <li><b>GET /api/public/veterinarios/{id}/proximos-huecos:</b> Obtiene los próximos huecos libres de un veterinario</li>
+ *   <li><b>GET /api/public/proximos-huecos:</b> Obtiene los próximos huecos libres de cualquier veterinario</li>
  * </ul>
  * 
  * @author Sebastian Ordoñez
@@ -40,7 +41,7 @@ import java.util.List;
 public class PublicController {
 
     private final UsuarioService usuarioService;
-    private final CitaService citaService;
+    private final DisponibilidadService disponibilidadService;
 
     /**
      * Obtiene la lista de veterinarios activos disponibles para agendar citas.
@@ -60,12 +61,15 @@ public class PublicController {
     /**
      * Obtiene las horas ocupadas de un veterinario en una fecha específica.
      * 
-     * <p>Este endpoint es público y retorna las citas no canceladas de un veterinario
-     * en un día específico, útil para mostrar solo las horas disponibles al cliente.</p>
+     * <p>Este endpoint es público y retorna las franjas de 30 minutos ocupadas por citas
+     * no canceladas de un veterinario en un día específico, útil para mostrar solo las
+     * horas disponibles al cliente. Se responde desde el índice de disponibilidad en
+     * memoria, sin cargar las citas desde la base de datos.</p>
      * 
      * @param veterinarioId ID del veterinario
      * @param fecha Fecha en formato yyyy-MM-dd
-     * @return Lista de citas ocupadas (solo horas, sin información sensible)
+     * @return Lista de horas ocupadas (formato HH:mm, sin información sensible)
+     * @throws ResourceNotFoundException si el veterinario no existe o no está activo
      */
     @GetMapping("/veterinarios/{veterinarioId}/horas-ocupadas")
     public ResponseEntity<List<String>> getHorasOcupadas(
@@ -73,31 +77,60 @@ public class PublicController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
         log.info("GET /api/public/veterinarios/{}/horas-ocupadas?fecha={}", veterinarioId, fecha);
         
-        // Calcular inicio y fin del día
-        LocalDateTime inicioDia = fecha.atStartOfDay();
-        LocalDateTime finDia = fecha.atTime(LocalTime.MAX);
-        
-        // Obtener citas del veterinario en ese día
-        List<CitaDTO> citas = citaService.findByProfesionalAndFechaRange(
-            veterinarioId, inicioDia, finDia);
-        
-        // Extraer solo las horas (formato HH:mm) de las citas no canceladas
-        List<String> horasOcupadas = citas.stream()
-            .filter(cita -> {
-                Cita.EstadoCita estado = cita.getEstado();
-                return estado != null && estado != Cita.EstadoCita.CANCELADA;
-            })
-            .map(cita -> {
-                LocalDateTime fechaCita = cita.getFecha();
-                if (fechaCita == null) return null;
-                return fechaCita.toLocalTime().toString().substring(0, 5); // HH:mm
-            })
-            .filter(hora -> hora != null)
-            .distinct()
-            .sorted()
-            .toList();
+        UsuarioDTO veterinario = buscarVeterinarioActivo(veterinarioId);
+        return ResponseEntity.ok(disponibilidadService.getHorasOcupadas(veterinario.getId(), fecha));
+    }
+
+    /**
+     * Obtiene los próximos huecos libres en la agenda de un veterinario.
+     * 
+     * <p>Recorre el horario de atención de la clínica a partir de {@code desde} y devuelve
+     * las primeras {@code n} franjas libres, evitando que el cliente tenga que probar
+     * horas hasta encontrar una disponible.</p>
+     * 
+     * @param veterinarioId ID del veterinario
+     * @param desde Fecha y hora desde la que buscar (opcional, por defecto ahora)
+     * @param n Número de huecos a devolver (por defecto 5, máximo 50)
+     * @return Lista de huecos libres en orden cronológico
+     * @throws ResourceNotFoundException si el veterinario no existe o no está activo
+     */
+    @GetMapping("/veterinarios/{veterinarioId}/proximos-huecos")
+    public ResponseEntity<List<HuecoDisponibleDTO>> getProximosHuecos(
+            @PathVariable Long veterinarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(defaultValue = "5") int n) {
+        log.info("GET /api/public/veterinarios/{}/proximos-huecos?desde={}&n={}", veterinarioId, desde, n);
         
-        return ResponseEntity.ok(horasOcupadas);
+        UsuarioDTO veterinario = buscarVeterinarioActivo(veterinarioId);
+        return ResponseEntity.ok(disponibilidadService.buscarProximosHuecos(List.of(veterinario), desde, n));
     }
-}
 
+    /**
+     * Obtiene los próximos huecos libres de cualquier veterinario activo.
+     * 
+     * <p>Combina las agendas de todos los veterinarios activos y devuelve las primeras
+     * {@code n} franjas libres en orden cronológico, indicando el veterinario de cada una.</p>
+     * 
+     * @param desde Fecha y hora desde la que buscar (opcional, por defecto ahora)
+     * @param n Número de huecos a devolver (por defecto 5, máximo 50)
+     * @return Lista de huecos libres en orden cronológico
+     */
+    @GetMapping("/proximos-huecos")
+    public ResponseEntity<List<HuecoDisponibleDTO>> getProximosHuecosCualquierVeterinario(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(defaultValue = "5") int n) {
+        log.info("GET /api/public/proximos-huecos?desde={}&n={}", desde, n);
+        return ResponseEntity.ok(disponibilidadService.buscarProximosHuecos(
+            usuarioService.findVeterinariosActivos(), desde, n));
+    }
+
+    /**
+     * Busca un veterinario entre los activos, para no consultar agendas de IDs arbitrarios.
+     */
+    private UsuarioDTO buscarVeterinarioActivo(Long veterinarioId) {
+        return usuarioService.findVeterinariosActivos().stream()
+            .filter(v -> v.getId().equals(veterinarioId))
+            .findFirst()
+            .orElseThrow(() -> new ResourceNotFoundException("Veterinario", "id", veterinarioId));
+    }
+}
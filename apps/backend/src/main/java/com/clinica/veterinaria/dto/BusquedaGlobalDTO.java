@@ -0,0 +1,33 @@
+package com.clinica.veterinaria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) para la respuesta de la búsqueda global ({@code GET /api/buscar}).
+ * 
+ * <p>Agrupa por tipo los pacientes, propietarios y productos que coinciden con el término,
+ * cada lista ordenada por relevancia.</p>
+ * 
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.service.BusquedaService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaGlobalDTO {
+
+    /** Término buscado, tal como se recibió. */
+    private String termino;
+
+    private List<ResultadoBusquedaDTO> pacientes;
+    private List<ResultadoBusquedaDTO> propietarios;
+    private List<ResultadoBusquedaDTO> productos;
+}
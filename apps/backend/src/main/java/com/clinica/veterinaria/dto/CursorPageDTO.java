@@ -0,0 +1,50 @@
+package com.clinica.veterinaria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) para una página obtenida con paginación por cursor (keyset).
+ *
+ * <p>A diferencia de {@link org.springframework.data.domain.Page}, no lleva número de página:
+ * el cliente pide la siguiente enviando {@code nextCursor} en el parámetro {@code after}.
+ * El total solo se calcula si se solicita explícitamente, ya que requiere un {@code COUNT(*)}
+ * adicional.</p>
+ *
+ * <p><strong>Ejemplo de respuesta:</strong></p>
+ * <pre>
+ * {
+ *   "content": [ ... ],
+ *   "size": 20,
+ *   "hasNext": true,
+ *   "nextCursor": "MjAyNi0xMC0xN1QxMDowMHw0Mg",
+ *   "totalElements": null
+ * }
+ * </pre>
+ *
+ * @param <T> Tipo de los elementos de la página
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.service.CursorPaginacion
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    /** Cursor opaco para pedir la siguiente página (null si no hay más). */
+    private String nextCursor;
+
+    /** Total de elementos que cumplen los filtros (null salvo que se solicite). */
+    private Long totalElements;
+}
@@ -0,0 +1,51 @@
+package com.clinica.veterinaria.dto;
+
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) para la entidad {@link EventoAuditoria}.
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see EventoAuditoria
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoAuditoriaDTO {
+
+    private Long id;
+    private LocalDateTime fecha;
+    private String accion;
+    private String entidad;
+    private String entidadId;
+    private String usuario;
+    private String ip;
+    private String correlationId;
+    private String detalle;
+
+    /**
+     * Convierte una entidad EventoAuditoria a su DTO correspondiente.
+     */
+    public static EventoAuditoriaDTO fromEntity(EventoAuditoria evento) {
+        return EventoAuditoriaDTO.builder()
+                .id(evento.getId())
+                .fecha(evento.getFecha())
+                .accion(evento.getAccion())
+                .entidad(evento.getEntidad())
+                .entidadId(evento.getEntidadId())
+                .usuario(evento.getUsuario())
+                .ip(evento.getIp())
+                .correlationId(evento.getCorrelationId())
+                .detalle(evento.getDetalle())
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.clinica.veterinaria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) para un hueco libre en la agenda de un veterinario.
+ * 
+ * <p>Devuelto por la búsqueda de próximos huecos disponibles del endpoint público,
+ * sin información sensible de otras citas.</p>
+ * 
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.service.DisponibilidadService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HuecoDisponibleDTO {
+
+    private Long veterinarioId;
+    private String veterinarioNombre;
+    private LocalDateTime fecha;
+}
@@ -1,6 +1,7 @@
 package com.clinica.veterinaria.dto;
 
 import com.clinica.veterinaria.entity.Notificacion;
+import com.clinica.veterinaria.entity.NotificacionArchivada;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -51,5 +52,22 @@ public class NotificacionDTO {
                 .entidadId(notificacion.getEntidadId())
                 .build();
     }
+
+    /**
+     * Convierte una notificación archivada a DTO (siempre leída).
+     */
+    public static NotificacionDTO fromArchivada(NotificacionArchivada notificacion) {
+        return NotificacionDTO.builder()
+                .id(notificacion.getId())
+                .usuarioId(notificacion.getUsuarioId())
+                .titulo(notificacion.getTitulo())
+                .mensaje(notificacion.getMensaje())
+                .tipo(notificacion.getTipo())
+                .leida(true)
+                .fechaCreacion(notificacion.getFechaCreacion())
+                .entidadTipo(notificacion.getEntidadTipo())
+                .entidadId(notificacion.getEntidadId())
+                .build();
+    }
 }
 
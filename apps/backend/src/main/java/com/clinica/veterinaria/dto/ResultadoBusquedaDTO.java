@@ -0,0 +1,43 @@
+package com.clinica.veterinaria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) para un resultado de la búsqueda global.
+ * 
+ * <p>Formato ligero pensado para autocompletado: solo lleva lo necesario para mostrar la
+ * sugerencia y navegar al detalle del recurso por su ID.</p>
+ * 
+ * <p><strong>Ejemplo:</strong></p>
+ * <pre>
+ * { "tipo": "PACIENTE", "id": 12, "titulo": "Max", "detalle": "Perro · Labrador · Juan Pérez" }
+ * </pre>
+ * 
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see BusquedaGlobalDTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBusquedaDTO {
+
+    /**
+     * Tipo de recurso encontrado.
+     */
+    public enum Tipo {
+        PACIENTE,
+        PROPIETARIO,
+        PRODUCTO
+    }
+
+    private Tipo tipo;
+    private Long id;
+    private String titulo;
+    private String detalle;
+}
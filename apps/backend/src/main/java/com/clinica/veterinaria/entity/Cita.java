@@ -53,7 +53,10 @@ import java.time.LocalDateTime;
     @Index(name = "idx_cita_fecha", columnList = "fecha"),
     @Index(name = "idx_cita_paciente", columnList = "paciente_id"),
     @Index(name = "idx_cita_profesional", columnList = "profesional_id"),
-    @Index(name = "idx_cita_estado", columnList = "estado")
+    @Index(name = "idx_cita_estado", columnList = "estado"),
+    @Index(name = "idx_cita_fecha_id", columnList = "fecha, id"),
+    @Index(name = "idx_cita_profesional_fecha_id", columnList = "profesional_id, fecha, id"),
+    @Index(name = "idx_cita_paciente_fecha_id", columnList = "paciente_id, fecha, id")
 })
 @Data
 @Builder
@@ -90,6 +93,24 @@ public class Cita {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Fecha de la cita para la que ya se reclamó el recordatorio de 24 horas.
+     *
+     * <p>Solo la escribe {@link com.clinica.veterinaria.repository.CitaRepository#reclamarRecordatorio24h}
+     * (no es insertable ni actualizable desde la entidad, para que guardar una cita no pise una
+     * reclamación concurrente).</p>
+     */
+    @Column(name = "recordatorio_24h_para", insertable = false, updatable = false)
+    private LocalDateTime recordatorio24hPara;
+
+    /**
+     * Fecha de la cita para la que ya se reclamó el recordatorio de 1 hora.
+     *
+     * @see #recordatorio24hPara
+     */
+    @Column(name = "recordatorio_1h_para", insertable = false, updatable = false)
+    private LocalDateTime recordatorio1hPara;
+
     /**
      * Relación muchos a uno con Paciente
      */
@@ -61,7 +61,9 @@ import java.util.List;
 @Table(name = "consultas", indexes = {
     @Index(name = "idx_consulta_fecha", columnList = "fecha"),
     @Index(name = "idx_consulta_paciente", columnList = "paciente_id"),
-    @Index(name = "idx_consulta_profesional", columnList = "profesional_id")
+    @Index(name = "idx_consulta_profesional", columnList = "profesional_id"),
+    @Index(name = "idx_consulta_fecha_id", columnList = "fecha, id"),
+    @Index(name = "idx_consulta_paciente_fecha_id", columnList = "paciente_id, fecha, id")
 })
 @Data
 @Builder
@@ -0,0 +1,86 @@
+package com.clinica.veterinaria.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa un evento de auditoría persistido.
+ *
+ * <p>Copia consultable de cada línea que {@code AuditLogger} escribe en {@code audit.log}: el
+ * hilo consumidor de la auditoría las inserta por lotes con JDBC ({@code AlmacenAuditoria}) y
+ * {@code /api/auditoria} las consulta paginando por cursor. La tabla es de solo inserción: la
+ * entidad es {@link Immutable} y su repositorio no expone operaciones de escritura.</p>
+ *
+ * <p><strong>Índices:</strong></p>
+ * <ul>
+ *   <li>{@code (entidad, entidad_id, fecha, id)}: historial de un registro concreto
+ *       ("quién cambió el peso de este paciente el mes pasado")</li>
+ *   <li>{@code (entidad, fecha, id)}: historial de un tipo de entidad</li>
+ *   <li>{@code (usuario, fecha, id)}: actividad de un usuario</li>
+ *   <li>{@code (fecha, id)}: listado general por fecha</li>
+ * </ul>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.logging.AuditLogger
+ */
+@Entity
+@Immutable
+@Table(name = "audit_event", indexes = {
+    @Index(name = "idx_audit_event_entidad", columnList = "entidad, entidad_id, fecha, id"),
+    @Index(name = "idx_audit_event_entidad_fecha", columnList = "entidad, fecha, id"),
+    @Index(name = "idx_audit_event_usuario", columnList = "usuario, fecha, id"),
+    @Index(name = "idx_audit_event_fecha", columnList = "fecha, id")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoAuditoria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    /** Tipo de evento: CREATE, UPDATE, DELETE, LOGIN_FAILURE, SECURITY_EVENT, ... */
+    @Column(nullable = false, length = 50)
+    private String accion;
+
+    @Column(length = 100)
+    private String entidad;
+
+    @Column(name = "entidad_id", length = 100)
+    private String entidadId;
+
+    @Column(length = 150)
+    private String usuario;
+
+    @Column(length = 64)
+    private String ip;
+
+    @Column(name = "correlation_id", length = 64)
+    private String correlationId;
+
+    /** Mensaje completo del evento, ya sanitizado. */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String detalle;
+
+    @Override
+    public String toString() {
+        return "EventoAuditoria{" +
+                "id=" + id +
+                ", fecha=" + fecha +
+                ", accion='" + accion + '\'' +
+                ", entidad='" + entidad + '\'' +
+                ", entidadId='" + entidadId + '\'' +
+                ", usuario='" + usuario + '\'' +
+                '}';
+    }
+}
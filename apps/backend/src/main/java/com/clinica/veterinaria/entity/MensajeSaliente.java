@@ -0,0 +1,132 @@
+package com.clinica.veterinaria.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa un mensaje pendiente de envío (outbox transaccional).
+ *
+ * <p>Los servicios de dominio no envían emails ni SMS dentro de sus transacciones: escriben
+ * una fila en {@code mensaje_saliente} en la misma transacción que el cambio que la origina
+ * (por ejemplo, la creación de una cita) y retornan. Si la transacción se revierte, el mensaje
+ * desaparece con ella; si se confirma, el mensaje queda guardado aunque la aplicación se
+ * detenga antes de enviarlo.</p>
+ *
+ * <p>El {@code DespachadorMensajesService} recoge las filas pendientes, renderiza y envía cada
+ * mensaje fuera de la transacción original y lo marca como enviado, o lo reprograma con
+ * espera exponencial si falla.</p>
+ *
+ * <p><strong>Ciclo de vida:</strong></p>
+ * <ul>
+ *   <li><b>PENDIENTE:</b> Esperando a {@link #proximoIntento}</li>
+ *   <li><b>EN_PROCESO:</b> Reclamado por un despachador hasta {@link #proximoIntento}; si el
+ *       proceso muere, al vencer vuelve a estar disponible</li>
+ *   <li><b>ENVIADO:</b> Entregado al servidor SMTP o al proveedor de SMS</li>
+ *   <li><b>FALLIDO:</b> Agotó los reintentos; se conserva con el último error</li>
+ * </ul>
+ *
+ * <p>Las filas ENVIADO y FALLIDO se eliminan por lotes pasados unos días
+ * ({@code MensajeSalienteRetencionService}).</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+@Entity
+@Table(name = "mensaje_saliente", indexes = {
+    @Index(name = "idx_mensaje_saliente_estado_intento", columnList = "estado, proximo_intento")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MensajeSaliente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private Tipo tipo;
+
+    /** Email o teléfono del destinatario. */
+    @Column(nullable = false, length = 150)
+    private String destinatario;
+
+    /** Parámetros del mensaje en JSON (nombres, fecha, motivo...). */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Estado estado = Estado.PENDIENTE;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    /** Momento a partir del cual puede (re)intentarse el envío. */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    /** Entidad que originó el mensaje (p. ej. "CITA"), para trazabilidad. */
+    @Column(name = "entidad_tipo", length = 30)
+    private String entidadTipo;
+
+    @Column(name = "entidad_id")
+    private Long entidadId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "enviado_at")
+    private LocalDateTime enviadoAt;
+
+    /**
+     * Tipos de mensaje que sabe enviar el despachador
+     */
+    public enum Tipo {
+        EMAIL_CITA_CONFIRMACION(Canal.EMAIL),
+        EMAIL_CITA_CANCELACION(Canal.EMAIL),
+        EMAIL_CITA_CAMBIO_ESTADO(Canal.EMAIL),
+        SMS_CITA_CONFIRMACION(Canal.SMS);
+
+        private final Canal canal;
+
+        Tipo(Canal canal) {
+            this.canal = canal;
+        }
+
+        public Canal getCanal() {
+            return canal;
+        }
+    }
+
+    /**
+     * Canal de envío
+     */
+    public enum Canal {
+        EMAIL,
+        SMS
+    }
+
+    /**
+     * Estados del mensaje
+     */
+    public enum Estado {
+        PENDIENTE,
+        EN_PROCESO,
+        ENVIADO,
+        FALLIDO
+    }
+}
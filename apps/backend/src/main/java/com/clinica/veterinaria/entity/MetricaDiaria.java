@@ -0,0 +1,81 @@
+package com.clinica.veterinaria.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa un contador agregado de la tabla {@code daily_metrics}.
+ *
+ * <p>Cada fila guarda el total de un indicador para un día y una clave concreta, de modo
+ * que el dashboard y los reportes leen unas pocas filas por día en lugar de recorrer las
+ * tablas de hechos (citas, consultas, pacientes, prescripciones).</p>
+ *
+ * <p><strong>Indicadores mantenidos:</strong></p>
+ * <ul>
+ *   <li><b>CITAS:</b> Citas por día de atención; la clave es el estado de la cita</li>
+ *   <li><b>CONSULTAS:</b> Consultas por día; clave {@link #CLAVE_TOTAL}</li>
+ *   <li><b>PRESCRIPCIONES:</b> Prescripciones por día de emisión; clave {@link #CLAVE_TOTAL}</li>
+ *   <li><b>PACIENTES_ACTIVOS:</b> Pacientes activos por especie (tal como está registrada);
+ *       no depende del día, por lo que se guarda con la fecha {@link #FECHA_ACUMULADO}</li>
+ * </ul>
+ *
+ * <p>Los contadores se actualizan desde {@code MetricaDiariaService} tras confirmar cada
+ * transacción y se concilian cada noche con los datos reales.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+@Entity
+@Table(name = "daily_metrics",
+    uniqueConstraints = @UniqueConstraint(name = "uk_daily_metrics_tipo_fecha_clave",
+        columnNames = {"tipo", "fecha", "clave"}),
+    indexes = @Index(name = "idx_daily_metrics_tipo_fecha", columnList = "tipo, fecha"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricaDiaria {
+
+    /** Fecha usada por los indicadores que no dependen del día (instantáneas). */
+    public static final LocalDate FECHA_ACUMULADO = LocalDate.of(1970, 1, 1);
+
+    /** Clave usada por los indicadores que no se desglosan. */
+    public static final String CLAVE_TOTAL = "TOTAL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Tipo tipo;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(nullable = false, length = 50)
+    private String clave;
+
+    @Column(nullable = false)
+    private Long valor;
+
+    @Column(name = "updated_at")
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    /**
+     * Indicadores agregados en la tabla
+     */
+    public enum Tipo {
+        CITAS,
+        CONSULTAS,
+        PRESCRIPCIONES,
+        PACIENTES_ACTIVOS
+    }
+}
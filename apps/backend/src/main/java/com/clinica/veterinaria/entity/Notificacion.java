@@ -20,6 +20,7 @@ import java.time.LocalDateTime;
  *   <li><b>Estado:</b> Leída o no leída</li>
  *   <li><b>Usuario:</b> Relación con el usuario destinatario</li>
  *   <li><b>Auditoría:</b> Timestamp automático de creación</li>
+ *   <li><b>Retención:</b> Las leídas antiguas se mueven a {@link NotificacionArchivada}</li>
  * </ul>
  * 
  * @author Sebastian Ordoñez
@@ -28,7 +29,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "notificaciones", indexes = {
-    @Index(name = "idx_notificacion_usuario", columnList = "usuario_id"),
+    @Index(name = "idx_notificacion_usuario_fecha", columnList = "usuario_id, fecha_creacion, id"),
     @Index(name = "idx_notificacion_leida", columnList = "leida"),
     @Index(name = "idx_notificacion_fecha", columnList = "fecha_creacion")
 })
@@ -0,0 +1,78 @@
+package com.clinica.veterinaria.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa una notificación leída movida al archivo.
+ *
+ * <p>La tabla {@code notificaciones} solo conserva la bandeja reciente de cada usuario: el
+ * {@code NotificacionRetencionService} mueve aquí, por lotes, las notificaciones leídas con
+ * más antigüedad que la configurada, y más adelante las elimina también del archivo. Así las
+ * consultas de bandeja y los contadores trabajan sobre una tabla de tamaño acotado.</p>
+ *
+ * <p><strong>Características principales:</strong></p>
+ * <ul>
+ *   <li><b>ID:</b> Conserva el ID original de la notificación</li>
+ *   <li><b>Usuario:</b> Solo el ID, sin clave foránea, para no encarecer el archivado</li>
+ *   <li><b>Orden:</b> Índice {@code (usuario_id, fecha_creacion, id)} para la consulta
+ *       paginada por cursor del historial de cada usuario</li>
+ * </ul>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see Notificacion
+ */
+@Entity
+@Table(name = "notificaciones_archivadas", indexes = {
+    @Index(name = "idx_notificacion_archivada_usuario_fecha", columnList = "usuario_id, fecha_creacion, id"),
+    @Index(name = "idx_notificacion_archivada_fecha", columnList = "fecha_creacion")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificacionArchivada {
+
+    @Id
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(nullable = false, length = 200)
+    private String titulo;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String mensaje;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private Notificacion.Tipo tipo;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "entidad_tipo", length = 50)
+    private String entidadTipo;
+
+    @Column(name = "entidad_id")
+    private Long entidadId;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDateTime fechaArchivado;
+
+    @Override
+    public String toString() {
+        return "NotificacionArchivada{" +
+                "id=" + id +
+                ", titulo='" + titulo + '\'' +
+                ", tipo=" + tipo +
+                ", fechaCreacion=" + fechaCreacion +
+                '}';
+    }
+}
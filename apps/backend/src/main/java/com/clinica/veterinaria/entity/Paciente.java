@@ -64,7 +64,8 @@ import java.util.List;
 @Table(name = "pacientes", indexes = {
     @Index(name = "idx_paciente_nombre", columnList = "nombre"),
     @Index(name = "idx_paciente_especie", columnList = "especie"),
-    @Index(name = "idx_paciente_propietario", columnList = "propietario_id")
+    @Index(name = "idx_paciente_propietario", columnList = "propietario_id"),
+    @Index(name = "idx_paciente_created_id", columnList = "created_at, id")
 })
 @Data
 @Builder
@@ -108,6 +109,12 @@ public class Paciente {
     @Column(nullable = false)
     private Boolean activo = true;
 
+    /**
+     * Nombre y raza normalizados para la búsqueda global (ver {@link TextoBusqueda}).
+     */
+    @Column(name = "texto_busqueda", length = TextoBusqueda.LONGITUD_MAXIMA)
+    private String textoBusqueda;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -152,6 +159,22 @@ public class Paciente {
         if (activo == null) {
             activo = true;
         }
+        actualizarTextoBusqueda();
+    }
+
+    /**
+     * Hook antes de actualizar
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        actualizarTextoBusqueda();
+    }
+
+    /**
+     * Recalcula {@code textoBusqueda} a partir del nombre y la raza.
+     */
+    public void actualizarTextoBusqueda() {
+        textoBusqueda = TextoBusqueda.componer(nombre, raza);
     }
 }
 
@@ -51,7 +51,8 @@ import java.util.List;
 @Entity
 @Table(name = "prescripciones", indexes = {
     @Index(name = "idx_prescripcion_consulta", columnList = "consulta_id"),
-    @Index(name = "idx_prescripcion_fecha", columnList = "fecha_emision")
+    @Index(name = "idx_prescripcion_fecha", columnList = "fecha_emision"),
+    @Index(name = "idx_prescripcion_fecha_id", columnList = "fecha_emision, id")
 })
 @Data
 @Builder
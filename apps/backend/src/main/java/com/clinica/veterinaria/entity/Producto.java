@@ -174,6 +174,12 @@ public class Producto {
     @Column(nullable = false)
     private Boolean activo = true;
 
+    /**
+     * Nombre y código normalizados para la búsqueda global (ver {@link TextoBusqueda}).
+     */
+    @Column(name = "texto_busqueda", length = TextoBusqueda.LONGITUD_MAXIMA)
+    private String textoBusqueda;
+
     /**
      * Fecha y hora de creación del registro (automático).
      */
@@ -196,5 +202,13 @@ public class Producto {
     @ToString.Exclude
     @Builder.Default
     private List<MovimientoInventario> movimientos = new ArrayList<>();
-}
 
+    /**
+     * Recalcula {@code textoBusqueda} a partir del nombre y el código antes de guardar.
+     */
+    @PrePersist
+    @PreUpdate
+    public void actualizarTextoBusqueda() {
+        textoBusqueda = TextoBusqueda.componer(nombre, codigo);
+    }
+}
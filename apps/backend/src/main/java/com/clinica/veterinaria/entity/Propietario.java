@@ -52,7 +52,8 @@ import java.util.List;
 @Entity
 @Table(name = "propietarios", indexes = {
     @Index(name = "idx_propietario_documento", columnList = "documento"),
-    @Index(name = "idx_propietario_email", columnList = "email")
+    @Index(name = "idx_propietario_email", columnList = "email"),
+    @Index(name = "idx_propietario_created_id", columnList = "created_at, id")
 })
 @Data
 @Builder
@@ -96,6 +97,12 @@ public class Propietario {
     @Column(nullable = false)
     private Boolean activo = true;
 
+    /**
+     * Nombre, documento, teléfono y email normalizados para la búsqueda global (ver {@link TextoBusqueda}).
+     */
+    @Column(name = "texto_busqueda", length = TextoBusqueda.LONGITUD_MAXIMA)
+    private String textoBusqueda;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -122,6 +129,22 @@ public class Propietario {
         if (activo == null) {
             activo = true;
         }
+        actualizarTextoBusqueda();
+    }
+
+    /**
+     * Hook antes de actualizar
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        actualizarTextoBusqueda();
+    }
+
+    /**
+     * Recalcula {@code textoBusqueda} a partir del nombre y los datos de contacto.
+     */
+    public void actualizarTextoBusqueda() {
+        textoBusqueda = TextoBusqueda.componer(nombre, documento, telefono, email);
     }
 }
 
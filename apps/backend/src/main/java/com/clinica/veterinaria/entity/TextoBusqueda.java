@@ -0,0 +1,63 @@
+package com.clinica.veterinaria.entity;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Normalización de texto para la búsqueda global.
+ *
+ * <p>Las entidades buscables ({@link Paciente}, {@link Propietario}, {@link Producto}) guardan
+ * en la columna {@code texto_busqueda} sus datos identificativos en minúsculas, sin tildes ni
+ * diéresis y con los espacios colapsados. El término buscado se normaliza igual, de modo que
+ * "Muñoz", "MUNOZ" y "muñóz" coinciden sin depender de la intercalación de la base de datos.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.service.BusquedaService
+ */
+public final class TextoBusqueda {
+
+    /** Longitud de la columna {@code texto_busqueda}. */
+    public static final int LONGITUD_MAXIMA = 500;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private TextoBusqueda() {
+    }
+
+    /**
+     * Normaliza un texto: sin tildes, en minúsculas y con espacios simples.
+     *
+     * @param texto Texto original (puede ser null)
+     * @return Texto normalizado (vacío si era null)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinMarcas = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinMarcas.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Compone el valor de {@code texto_busqueda} a partir de varios campos, en orden de
+     * relevancia (el primero es el que se usa para el ranking por prefijo).
+     *
+     * @param campos Campos a incluir (los null o vacíos se omiten)
+     * @return Texto normalizado, truncado a {@value #LONGITUD_MAXIMA} caracteres
+     */
+    public static String componer(String... campos) {
+        String texto = Arrays.stream(campos)
+            .filter(Objects::nonNull)
+            .map(TextoBusqueda::normalizar)
+            .filter(campo -> !campo.isEmpty())
+            .collect(Collectors.joining(" "));
+        return texto.length() > LONGITUD_MAXIMA ? texto.substring(0, LONGITUD_MAXIMA) : texto;
+    }
+}
@@ -2,9 +2,12 @@ package com.clinica.veterinaria.exception;
 
 import com.clinica.veterinaria.dto.ErrorResponseDTO;
 import com.clinica.veterinaria.exception.domain.BusinessException;
+import com.clinica.veterinaria.exception.domain.DemasiadasSolicitudesException;
 import com.clinica.veterinaria.exception.domain.DuplicateResourceException;
 import com.clinica.veterinaria.exception.domain.InvalidDataException;
 import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
+import com.clinica.veterinaria.exception.domain.ServicioSaturadoException;
+import org.springframework.http.HttpHeaders;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -34,6 +37,8 @@ import java.util.Map;
  *   <li><b>DuplicateResourceException</b> → 409 Conflict</li>
  *   <li><b>InvalidDataException</b> → 400 Bad Request</li>
  *   <li><b>BusinessException</b> → 422 Unprocessable Entity</li>
+ *   <li><b>DemasiadasSolicitudesException</b> → 429 Too Many Requests (con Retry-After)</li>
+ *   <li><b>ServicioSaturadoException</b> → 503 Service Unavailable (con Retry-After)</li>
  *   <li><b>MethodArgumentNotValidException</b> → 400 Bad Request</li>
  *   <li><b>AuthenticationException</b> → 401 Unauthorized</li>
  *   <li><b>AccessDeniedException</b> → 403 Forbidden</li>
@@ -144,6 +149,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
     }
     
+    /**
+     * Maneja DemasiadasSolicitudesException (límite de intentos superado).
+     * 
+     * @param ex Excepción lanzada
+     * @param request Información del request
+     * @return ResponseEntity con status 429, cabecera Retry-After y detalles del error
+     */
+    @ExceptionHandler(DemasiadasSolicitudesException.class)
+    public ResponseEntity<ErrorResponseDTO> handleDemasiadasSolicitudesException(
+            DemasiadasSolicitudesException ex, WebRequest request) {
+        log.warn("DemasiadasSolicitudesException: {}", ex.getMessage());
+        
+        ErrorResponseDTO errorResponse = ErrorResponseDTO.builder()
+            .mensaje(ex.getMessage())
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+            .body(errorResponse);
+    }
+    
+    /**
+     * Maneja ServicioSaturadoException (recurso del servidor saturado).
+     * 
+     * @param ex Excepción lanzada
+     * @param request Información del request
+     * @return ResponseEntity con status 503, cabecera Retry-After y detalles del error
+     */
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<ErrorResponseDTO> handleServicioSaturadoException(
+            ServicioSaturadoException ex, WebRequest request) {
+        log.warn("ServicioSaturadoException: {}", ex.getMessage());
+        
+        ErrorResponseDTO errorResponse = ErrorResponseDTO.builder()
+            .mensaje(ex.getMessage())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+            .body(errorResponse);
+    }
+    
     /**
      * Maneja RuntimeException genérico (fallback para excepciones no específicas).
      * 
@@ -0,0 +1,37 @@
+package com.clinica.veterinaria.exception.domain;
+
+/**
+ * Excepción lanzada cuando un cliente supera el límite de intentos de una operación
+ * sensible (inicio de sesión, recuperación de contraseña).
+ *
+ * <p>El GlobalExceptionHandler convierte esta excepción en una respuesta HTTP 429
+ * (Too Many Requests) con la cabecera {@code Retry-After}.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.security.LimitadorIntentos
+ * @see com.clinica.veterinaria.exception.GlobalExceptionHandler
+ */
+public class DemasiadasSolicitudesException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    /**
+     * Constructor con mensaje y tiempo de reintento.
+     *
+     * @param message Mensaje descriptivo para el cliente
+     * @param reintentarEnSegundos Segundos tras los que habrá un nuevo intento disponible
+     */
+    public DemasiadasSolicitudesException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    /**
+     * @return Segundos tras los que habrá un nuevo intento disponible
+     */
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
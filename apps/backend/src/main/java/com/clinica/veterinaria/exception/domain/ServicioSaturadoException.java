@@ -0,0 +1,41 @@
+package com.clinica.veterinaria.exception.domain;
+
+/**
+ * Excepción lanzada cuando un recurso limitado del servidor está saturado y la petición
+ * se rechaza en lugar de encolarse sin límite.
+ *
+ * <p>El GlobalExceptionHandler convierte esta excepción en una respuesta HTTP 503
+ * (Service Unavailable) con la cabecera {@code Retry-After}.</p>
+ *
+ * <p><strong>Ejemplo de uso:</strong></p>
+ * <pre>
+ * throw new ServicioSaturadoException("Demasiados inicios de sesión simultáneos", 2);
+ * </pre>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.exception.GlobalExceptionHandler
+ */
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    /**
+     * Constructor con mensaje y tiempo sugerido de reintento.
+     *
+     * @param message Mensaje descriptivo para el cliente
+     * @param reintentarEnSegundos Segundos tras los que el cliente puede reintentar
+     */
+    public ServicioSaturadoException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    /**
+     * @return Segundos tras los que el cliente puede reintentar
+     */
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -12,7 +12,9 @@
  *   ├── ResourceNotFoundException      (HTTP 404)
  *   ├── DuplicateResourceException     (HTTP 409)
  *   ├── InvalidDataException           (HTTP 400)
- *   └── BusinessException              (HTTP 422)
+ *   ├── BusinessException              (HTTP 422)
+ *   ├── DemasiadasSolicitudesException (HTTP 429)
+ *   └── ServicioSaturadoException      (HTTP 503)
  * </pre>
  * 
  * <h3>Excepciones Disponibles</h3>
@@ -43,6 +45,16 @@
  *     <td>Errores de lógica de negocio genéricos</td>
  *     <td>422 Unprocessable Entity</td>
  *   </tr>
+ *   <tr>
+ *     <td><b>DemasiadasSolicitudesException</b></td>
+ *     <td>Límite de intentos de login o recuperación superado</td>
+ *     <td>429 Too Many Requests</td>
+ *   </tr>
+ *   <tr>
+ *     <td><b>ServicioSaturadoException</b></td>
+ *     <td>Recurso limitado del servidor saturado (se indica cuándo reintentar)</td>
+ *     <td>503 Service Unavailable</td>
+ *   </tr>
  * </table>
  * 
  * <h3>Ejemplos de Uso</h3>
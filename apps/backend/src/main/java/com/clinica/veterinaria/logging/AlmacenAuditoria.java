@@ -0,0 +1,73 @@
+package com.clinica.veterinaria.logging;
+
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserta por lotes los eventos de auditoría en la tabla {@code audit_event}.
+ *
+ * <p>Lo invoca el hilo consumidor de {@link AuditLogger}, nunca el hilo de una petición. Se
+ * usa un batch JDBC en una única transacción porque Hibernate no agrupa inserciones con IDs
+ * {@code IDENTITY}: un lote de 500 eventos es una sola ida y vuelta a la base de datos.</p>
+ *
+ * <p>Se desactiva con {@code app.audit.persistencia.habilitada=false}; entonces la auditoría
+ * solo se escribe en {@code audit.log}.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see EventoAuditoria
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.persistencia.habilitada", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AlmacenAuditoria {
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO audit_event (fecha, accion, entidad, entidad_id, usuario, ip, correlation_id, detalle) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta un lote de eventos.
+     *
+     * @param eventos Eventos sin ID
+     */
+    @Transactional
+    public void insertarLote(List<EventoAuditoria> eventos) {
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                EventoAuditoria evento = eventos.get(i);
+                ps.setTimestamp(1, Timestamp.valueOf(evento.getFecha()));
+                ps.setString(2, recortar(evento.getAccion(), 50));
+                ps.setString(3, recortar(evento.getEntidad(), 100));
+                ps.setString(4, recortar(evento.getEntidadId(), 100));
+                ps.setString(5, recortar(evento.getUsuario(), 150));
+                ps.setString(6, recortar(evento.getIp(), 64));
+                ps.setString(7, recortar(evento.getCorrelationId(), 64));
+                ps.setString(8, evento.getDetalle());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return eventos.size();
+            }
+        });
+    }
+
+    private static String recortar(String valor, int longitud) {
+        return valor == null || valor.length() <= longitud ? valor : valor.substring(0, longitud);
+    }
+}
@@ -0,0 +1,99 @@
+package com.clinica.veterinaria.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular acotado y sin bloqueos para varios productores y un consumidor.
+ *
+ * <p>Implementa la cola acotada de Dmitry Vyukov: cada celda guarda un número de secuencia
+ * que indica si está libre para el productor de la vuelta actual o lista para el consumidor.
+ * Publicar un evento es un compare-and-set sobre la posición de escritura y dos escrituras en
+ * la celda; no hay locks ni se reserva memoria por evento.</p>
+ *
+ * <p>Si el buffer está lleno, {@link #ofrecer(Object)} devuelve {@code false} inmediatamente;
+ * la política de desborde la decide quien lo usa.</p>
+ *
+ * @param <T> Tipo de los elementos
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see AuditLogger
+ */
+final class AnilloEventos<T> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong escritura = new AtomicLong();
+    private final AtomicLong lectura = new AtomicLong();
+
+    /**
+     * @param capacidad Capacidad mínima; se redondea a la siguiente potencia de dos
+     */
+    AnilloEventos(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad del buffer debe ser positiva: " + capacidad);
+        }
+        int tamano = Integer.highestOneBit(capacidad - 1) << 1;
+        tamano = Math.max(2, tamano);
+        this.mascara = tamano - 1;
+        this.elementos = new AtomicReferenceArray<>(tamano);
+        this.secuencias = new AtomicLongArray(tamano);
+        for (int i = 0; i < tamano; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Publica un elemento.
+     *
+     * @return {@code false} si el buffer está lleno
+     */
+    boolean ofrecer(T elemento) {
+        while (true) {
+            long posicion = escritura.get();
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    elementos.lazySet(indice, elemento);
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Extrae el elemento más antiguo. Solo debe llamarlo el hilo consumidor.
+     *
+     * @return El elemento, o {@code null} si no hay ninguno publicado
+     */
+    T extraer() {
+        long posicion = lectura.get();
+        int indice = (int) (posicion & mascara);
+        if (secuencias.get(indice) != posicion + 1) {
+            return null;
+        }
+        T elemento = elementos.get(indice);
+        elementos.lazySet(indice, null);
+        secuencias.set(indice, posicion + mascara + 1);
+        lectura.lazySet(posicion + 1);
+        return elemento;
+    }
+
+    /**
+     * Elementos publicados pendientes de extraer (aproximado bajo concurrencia).
+     */
+    int tamano() {
+        return (int) Math.max(0, escritura.get() - lectura.get());
+    }
+
+    int capacidad() {
+        return mascara + 1;
+    }
+}
@@ -1,22 +1,46 @@
 package com.clinica.veterinaria.logging;
 
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
 
 /**
  * Servicio de auditoría para registrar eventos importantes del negocio.
- * 
+ *
  * <p>Este servicio proporciona métodos especializados para registrar eventos de auditoría
  * que son críticos para la trazabilidad, seguridad y cumplimiento normativo. Utiliza un
  * logger dedicado separado del logging general de la aplicación.</p>
- * 
+ *
  * <p><strong>Eventos auditados:</strong></p>
  * <ul>
  *   <li>Operaciones CRUD en entidades críticas (CREATE, UPDATE, DELETE)</li>
@@ -27,7 +51,7 @@ import java.time.format.DateTimeFormatter;
  *   <li>Exportaciones de datos</li>
  *   <li>Eventos de seguridad</li>
  * </ul>
- * 
+ *
  * <p><strong>Características:</strong></p>
  * <ul>
  *   <li>Uso de MDC (Mapped Diagnostic Context) para contexto adicional</li>
@@ -35,20 +59,44 @@ import java.time.format.DateTimeFormatter;
  *   <li>Inclusión automática de usuario actual y correlation ID</li>
  *   <li>Logger separado para facilitar filtrado y análisis</li>
  * </ul>
- * 
+ *
+ * <p><strong>Escritura asíncrona:</strong> los métodos {@code log*} se llaman desde rutas de
+ * escritura frecuentes (pacientes, productos, movimientos de inventario). El hilo de la petición
+ * solo captura el usuario, el correlation ID y el instante, y publica un evento inmutable en un
+ * {@link AnilloEventos} acotado y sin bloqueos. Un único hilo consumidor ({@code audit-logger})
+ * rellena el MDC, sanitiza, formatea y escribe en el logger.</p>
+ *
+ * <p><strong>Desborde:</strong> si el buffer está lleno, los eventos críticos (seguridad, login
+ * fallido, cambios de permisos y eliminaciones) se escriben en el hilo llamante para no
+ * perderlos; el resto se descarta o se escribe en el hilo llamante según
+ * {@code app.audit.desborde}.</p>
+ *
+ * <p><strong>Persistencia:</strong> si existe {@link AlmacenAuditoria}, cada evento escrito
+ * se guarda también en la tabla {@code audit_event} para consultarlo desde
+ * {@code /api/auditoria}. El consumidor acumula las filas y las inserta por lotes de hasta
+ * {@code app.audit.persistencia.lote}, o antes si se queda sin eventos que escribir; con poca
+ * carga los lotes son pequeños y la latencia baja, y con mucha crecen solos.</p>
+ *
+ * <p><strong>Métricas:</strong> {@code clinica.audit.eventos} (por resultado: encolado,
+ * descartado, sincrono), {@code clinica.audit.pendientes}, {@code clinica.audit.latencia}
+ * (desde la publicación hasta la escritura) y {@code clinica.audit.persistidos} (por resultado:
+ * ok, error).</p>
+ *
  * <p><strong>Logger:</strong> com.clinica.veterinaria.audit</p>
- * 
+ *
  * @author Sebastian Ordoñez
  * @version 1.0.0
  * @since 2025-11-06
  * @see CorrelationIdFilter
  */
 @Service
+@Slf4j
 public class AuditLogger implements IAuditLogger {
-    
+
     private static final Logger logger = LoggerFactory.getLogger("com.clinica.veterinaria.audit");
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
+    private static final DateTimeFormatter formatter =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
     // Constantes para claves MDC
     private static final String MDC_ACTION = "action";
     private static final String MDC_ENTITY = "entity";
@@ -58,7 +106,133 @@ public class AuditLogger implements IAuditLogger {
     private static final String MDC_TARGET_USER = "targetUser";
     private static final String MDC_DATA_TYPE = "dataType";
     private static final String MDC_CORRELATION_ID = "correlationId";
-    
+
+    /** Claves sensibles (password, token, secret) seguidas de su valor. */
+    private static final Pattern DATOS_SENSIBLES =
+            Pattern.compile("(?i)(password|token|secret)[\"']?\\s*[:=]\\s*[\"']?[^,}\"']+");
+    private static final int LONGITUD_MAXIMA_DATOS = 500;
+
+    /** Espera máxima del consumidor sin eventos, por si se pierde un aviso del productor. */
+    private static final long ESPERA_CONSUMIDOR_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Qué hacer con un evento no crítico cuando el buffer está lleno.
+     */
+    public enum PoliticaDesborde {
+        /** Descartarlo y contarlo en {@code clinica.audit.eventos{resultado=descartado}}. */
+        DESCARTAR,
+        /** Escribirlo en el hilo llamante (no se pierde, pero la petición paga la escritura). */
+        SINCRONO
+    }
+
+    private enum Tipo {
+        CREATE(Level.INFO), UPDATE(Level.INFO), DELETE(Level.WARN), ACCESS(Level.INFO),
+        LOGIN_SUCCESS(Level.INFO), LOGIN_FAILURE(Level.WARN), LOGOUT(Level.INFO),
+        PERMISSION_CHANGE(Level.WARN), DATA_EXPORT(Level.INFO), STATUS_CHANGE(Level.INFO),
+        CUSTOM(Level.INFO), SECURITY_EVENT(Level.ERROR);
+
+        private final Level nivel;
+
+        Tipo(Level nivel) {
+            this.nivel = nivel;
+        }
+
+        /** Eventos que nunca se descartan. */
+        boolean critico() {
+            return this == DELETE || this == LOGIN_FAILURE || this == PERMISSION_CHANGE || this == SECURITY_EVENT;
+        }
+    }
+
+    /**
+     * Evento capturado en el hilo de la petición. Los argumentos son inmutables (ver
+     * {@link #instantanea(Object)}), así que el consumidor puede formatearlos más tarde.
+     */
+    private record Evento(Tipo tipo, String accion, long instanteMs, long publicadoNanos,
+                          String usuario, String correlationId,
+                          Object a, Object b, Object c, Object d, Object[] params) {
+    }
+
+    private final AnilloEventos<Evento> anillo;
+    private final PoliticaDesborde politicaDesborde;
+    private final AlmacenAuditoria almacen;
+    private final int lotePersistencia;
+    /** Filas escritas en el log pendientes de insertar (también las de escrituras síncronas). */
+    private final Queue<EventoAuditoria> filasPendientes = new ConcurrentLinkedQueue<>();
+    private final Counter encolados;
+    private final Counter descartados;
+    private final Counter sincronos;
+    private final Counter persistidos;
+    private final Counter erroresPersistencia;
+    private final Timer latencia;
+
+    private volatile Thread consumidor;
+    private volatile boolean consumidorEsperando;
+    private volatile boolean detenido;
+
+    public AuditLogger(MeterRegistry meterRegistry,
+                       Optional<AlmacenAuditoria> almacen,
+                       @Value("${app.audit.capacidad:8192}") int capacidad,
+                       @Value("${app.audit.desborde:DESCARTAR}") PoliticaDesborde politicaDesborde,
+                       @Value("${app.audit.persistencia.lote:500}") int lotePersistencia) {
+        this.anillo = new AnilloEventos<>(capacidad);
+        this.politicaDesborde = politicaDesborde;
+        this.almacen = almacen.orElse(null);
+        this.lotePersistencia = lotePersistencia;
+        this.encolados = Counter.builder("clinica.audit.eventos").tag("resultado", "encolado")
+                .description("Eventos de auditoría publicados en el buffer").register(meterRegistry);
+        this.descartados = Counter.builder("clinica.audit.eventos").tag("resultado", "descartado")
+                .description("Eventos de auditoría descartados por buffer lleno").register(meterRegistry);
+        this.sincronos = Counter.builder("clinica.audit.eventos").tag("resultado", "sincrono")
+                .description("Eventos de auditoría escritos en el hilo llamante por buffer lleno").register(meterRegistry);
+        this.persistidos = Counter.builder("clinica.audit.persistidos").tag("resultado", "ok")
+                .description("Eventos de auditoría insertados en audit_event").register(meterRegistry);
+        this.erroresPersistencia = Counter.builder("clinica.audit.persistidos").tag("resultado", "error")
+                .description("Eventos de auditoría que no se pudieron insertar en audit_event").register(meterRegistry);
+        this.latencia = Timer.builder("clinica.audit.latencia")
+                .description("Tiempo desde la publicación de un evento de auditoría hasta su escritura")
+                .register(meterRegistry);
+        Gauge.builder("clinica.audit.pendientes", anillo, AnilloEventos::tamano)
+                .description("Eventos de auditoría pendientes de escribir").register(meterRegistry);
+    }
+
+    /**
+     * Arranca el hilo consumidor.
+     */
+    @PostConstruct
+    void iniciar() {
+        Thread hilo = new Thread(this::consumir, "audit-logger");
+        hilo.setDaemon(true);
+        consumidor = hilo;
+        hilo.start();
+        log.info("✓ Auditoría asíncrona iniciada (buffer de {} eventos, desborde {}, persistencia {})",
+                anillo.capacidad(), politicaDesborde, almacen != null ? "habilitada" : "deshabilitada");
+    }
+
+    /**
+     * Escribe los eventos pendientes y detiene el hilo consumidor.
+     */
+    @PreDestroy
+    void detener() {
+        detenido = true;
+        Thread hilo = consumidor;
+        if (hilo == null) {
+            return;
+        }
+        LockSupport.unpark(hilo);
+        try {
+            hilo.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        consumidor = null;
+        // Eventos publicados después de que el consumidor terminara
+        Evento evento;
+        while ((evento = anillo.extraer()) != null) {
+            escribirMedido(evento);
+        }
+        persistir();
+    }
+
     /**
      * Registra un evento de creación
      */
@@ -66,23 +240,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "CREATE");
-            MDC.put(MDC_ENTITY, entity);
-            MDC.put(MDC_ENTITY_ID, String.valueOf(entityId));
-            
-            logger.info("✓ CREATED {} with ID {} | User: {} | Data: {}", 
-                    entity, 
-                    entityId, 
-                    getCurrentUsername(),
-                    sanitizeData(data));
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_ENTITY);
-            MDC.remove(MDC_ENTITY_ID);
-        }
+        publicar(Tipo.CREATE, "CREATE", getCurrentUsername(), entity, instantanea(entityId), instantanea(data), null, null);
     }
-    
+
     /**
      * Registra un evento de actualización
      */
@@ -90,24 +250,10 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "UPDATE");
-            MDC.put(MDC_ENTITY, entity);
-            MDC.put(MDC_ENTITY_ID, String.valueOf(entityId));
-            
-            logger.info("✎ UPDATED {} with ID {} | User: {} | Old: {} | New: {}", 
-                    entity, 
-                    entityId, 
-                    getCurrentUsername(),
-                    sanitizeData(oldData),
-                    sanitizeData(newData));
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_ENTITY);
-            MDC.remove(MDC_ENTITY_ID);
-        }
+        publicar(Tipo.UPDATE, "UPDATE", getCurrentUsername(), entity, instantanea(entityId),
+                instantanea(oldData), instantanea(newData), null);
     }
-    
+
     /**
      * Registra un evento de eliminación
      */
@@ -115,23 +261,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isWarnEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "DELETE");
-            MDC.put(MDC_ENTITY, entity);
-            MDC.put(MDC_ENTITY_ID, String.valueOf(entityId));
-            
-            logger.warn("⚠ DELETED {} with ID {} | User: {} | Timestamp: {}", 
-                    entity, 
-                    entityId, 
-                    getCurrentUsername(),
-                    LocalDateTime.now().format(formatter));
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_ENTITY);
-            MDC.remove(MDC_ENTITY_ID);
-        }
+        publicar(Tipo.DELETE, "DELETE", getCurrentUsername(), entity, instantanea(entityId), null, null, null);
     }
-    
+
     /**
      * Registra un evento de acceso/lectura a información sensible
      */
@@ -139,23 +271,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "ACCESS");
-            MDC.put(MDC_ENTITY, entity);
-            MDC.put(MDC_ENTITY_ID, String.valueOf(entityId));
-            
-            logger.info("👁 ACCESSED {} with ID {} | User: {} | Reason: {}", 
-                    entity, 
-                    entityId, 
-                    getCurrentUsername(),
-                    reason);
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_ENTITY);
-            MDC.remove(MDC_ENTITY_ID);
-        }
+        publicar(Tipo.ACCESS, "ACCESS", getCurrentUsername(), entity, instantanea(entityId), reason, null, null);
     }
-    
+
     /**
      * Registra un evento de autenticación exitosa
      */
@@ -163,22 +281,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "LOGIN_SUCCESS");
-            MDC.put(MDC_USERNAME, username);
-            MDC.put(MDC_CLIENT_IP, ipAddress);
-            
-            logger.info("🔓 LOGIN SUCCESS | User: {} | IP: {} | Timestamp: {}", 
-                    username, 
-                    ipAddress,
-                    LocalDateTime.now().format(formatter));
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_USERNAME);
-            MDC.remove(MDC_CLIENT_IP);
-        }
+        publicar(Tipo.LOGIN_SUCCESS, "LOGIN_SUCCESS", username, ipAddress, null, null, null, null);
     }
-    
+
     /**
      * Registra un intento de autenticación fallido
      */
@@ -186,23 +291,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isWarnEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "LOGIN_FAILURE");
-            MDC.put(MDC_USERNAME, username);
-            MDC.put(MDC_CLIENT_IP, ipAddress);
-            
-            logger.warn("🔒 LOGIN FAILURE | User: {} | IP: {} | Reason: {} | Timestamp: {}", 
-                    username, 
-                    ipAddress,
-                    reason,
-                    LocalDateTime.now().format(formatter));
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_USERNAME);
-            MDC.remove(MDC_CLIENT_IP);
-        }
+        publicar(Tipo.LOGIN_FAILURE, "LOGIN_FAILURE", username, ipAddress, reason, null, null, null);
     }
-    
+
     /**
      * Registra un evento de logout
      */
@@ -210,19 +301,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "LOGOUT");
-            MDC.put(MDC_USERNAME, username);
-            
-            logger.info("🚪 LOGOUT | User: {} | Timestamp: {}", 
-                    username,
-                    LocalDateTime.now().format(formatter));
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_USERNAME);
-        }
+        publicar(Tipo.LOGOUT, "LOGOUT", username, null, null, null, null, null);
     }
-    
+
     /**
      * Registra un cambio de permisos o roles
      */
@@ -230,21 +311,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isWarnEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "PERMISSION_CHANGE");
-            MDC.put(MDC_TARGET_USER, targetUser);
-            
-            logger.warn("⚡ PERMISSION CHANGE | Target: {} | Action: {} | Details: {} | By: {}", 
-                    targetUser,
-                    action,
-                    details,
-                    getCurrentUsername());
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_TARGET_USER);
-        }
+        publicar(Tipo.PERMISSION_CHANGE, "PERMISSION_CHANGE", getCurrentUsername(), targetUser, action, details, null, null);
     }
-    
+
     /**
      * Registra una exportación de datos
      */
@@ -252,21 +321,9 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "DATA_EXPORT");
-            MDC.put(MDC_DATA_TYPE, dataType);
-            
-            logger.info("📊 DATA EXPORT | Type: {} | Records: {} | Format: {} | User: {}", 
-                    dataType,
-                    recordCount,
-                    format,
-                    getCurrentUsername());
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_DATA_TYPE);
-        }
+        publicar(Tipo.DATA_EXPORT, "DATA_EXPORT", getCurrentUsername(), dataType, recordCount, format, null, null);
     }
-    
+
     /**
      * Registra un cambio de estado importante
      */
@@ -274,24 +331,10 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, "STATUS_CHANGE");
-            MDC.put(MDC_ENTITY, entity);
-            MDC.put(MDC_ENTITY_ID, String.valueOf(entityId));
-            
-            logger.info("🔄 STATUS CHANGE | {} ID: {} | From: {} → To: {} | User: {}", 
-                    entity,
-                    entityId,
-                    oldStatus,
-                    newStatus,
-                    getCurrentUsername());
-        } finally {
-            MDC.remove(MDC_ACTION);
-            MDC.remove(MDC_ENTITY);
-            MDC.remove(MDC_ENTITY_ID);
-        }
+        publicar(Tipo.STATUS_CHANGE, "STATUS_CHANGE", getCurrentUsername(), entity, instantanea(entityId),
+                oldStatus, newStatus, null);
     }
-    
+
     /**
      * Registra un evento personalizado
      */
@@ -299,18 +342,13 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isInfoEnabled()) {
             return;
         }
-        try {
-            MDC.put(MDC_ACTION, eventType);
-            
-            logger.info("📝 {} | {} | User: {}", 
-                    eventType,
-                    String.format(message, params),
-                    getCurrentUsername());
-        } finally {
-            MDC.remove(MDC_ACTION);
+        Object[] copia = params == null ? null : new Object[params.length];
+        for (int i = 0; copia != null && i < params.length; i++) {
+            copia[i] = instantanea(params[i]);
         }
+        publicar(Tipo.CUSTOM, eventType, getCurrentUsername(), message, null, null, null, copia);
     }
-    
+
     /**
      * Registra un error de seguridad
      */
@@ -318,26 +356,250 @@ public class AuditLogger implements IAuditLogger {
         if (!logger.isErrorEnabled()) {
             return;
         }
+        publicar(Tipo.SECURITY_EVENT, "SECURITY_EVENT", getCurrentUsername(), eventType, details, null, null, null);
+    }
+
+    /**
+     * Eventos publicados pendientes de escribir.
+     */
+    int pendientes() {
+        return anillo.tamano();
+    }
+
+    private void publicar(Tipo tipo, String accion, String usuario, Object a, Object b, Object c, Object d,
+                          Object[] params) {
+        Evento evento = new Evento(tipo, accion, System.currentTimeMillis(), System.nanoTime(), usuario,
+                MDC.get(MDC_CORRELATION_ID), a, b, c, d, params);
+        if (detenido) {
+            sincronos.increment();
+            escribirMedido(evento);
+            persistir();
+            return;
+        }
+        if (anillo.ofrecer(evento)) {
+            encolados.increment();
+            if (consumidorEsperando) {
+                Thread hilo = consumidor;
+                if (hilo != null) {
+                    LockSupport.unpark(hilo);
+                }
+            }
+            return;
+        }
+        if (tipo.critico() || politicaDesborde == PoliticaDesborde.SINCRONO) {
+            sincronos.increment();
+            escribirMedido(evento);
+        } else {
+            descartados.increment();
+        }
+    }
+
+    /**
+     * Bucle del hilo consumidor: escribe los eventos en orden y duerme cuando no hay ninguno.
+     */
+    private void consumir() {
+        int sinPersistir = 0;
+        while (true) {
+            Evento evento = anillo.extraer();
+            if (evento != null) {
+                escribirMedido(evento);
+                if (++sinPersistir >= lotePersistencia) {
+                    persistir();
+                    sinPersistir = 0;
+                }
+                continue;
+            }
+            persistir();
+            sinPersistir = 0;
+            if (detenido) {
+                return;
+            }
+            consumidorEsperando = true;
+            if (anillo.tamano() == 0 && !detenido) {
+                LockSupport.parkNanos(this, ESPERA_CONSUMIDOR_NANOS);
+            }
+            consumidorEsperando = false;
+        }
+    }
+
+    private void escribirMedido(Evento evento) {
+        try {
+            escribir(evento);
+        } catch (RuntimeException e) {
+            log.error("✗ Error escribiendo evento de auditoría {}: {}", evento.accion(), e.getMessage());
+        }
+        latencia.record(System.nanoTime() - evento.publicadoNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Inserta por lotes las filas pendientes. Un lote que falla se descarta (el evento ya está
+     * en {@code audit.log}) para que una caída de la base de datos no acumule memoria.
+     */
+    private void persistir() {
+        if (almacen == null) {
+            return;
+        }
+        while (!filasPendientes.isEmpty()) {
+            List<EventoAuditoria> lote = new ArrayList<>(Math.min(lotePersistencia, 64));
+            EventoAuditoria fila;
+            while (lote.size() < lotePersistencia && (fila = filasPendientes.poll()) != null) {
+                lote.add(fila);
+            }
+            try {
+                almacen.insertarLote(lote);
+                persistidos.increment(lote.size());
+            } catch (RuntimeException e) {
+                erroresPersistencia.increment(lote.size());
+                log.error("✗ Error guardando {} eventos de auditoría en audit_event: {}", lote.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rellena el MDC con el contexto del evento, lo escribe en el logger de auditoría y deja su
+     * fila pendiente de persistir.
+     */
+    private void escribir(Evento e) {
         try {
-            MDC.put(MDC_ACTION, "SECURITY_EVENT");
-            
-            logger.error("🚨 SECURITY EVENT | Type: {} | Details: {} | User: {} | Correlation-ID: {}", 
-                    eventType,
-                    details,
-                    getCurrentUsername(),
-                    MDC.get(MDC_CORRELATION_ID));
+            MDC.put(MDC_ACTION, e.accion());
+            if (e.correlationId() != null) {
+                MDC.put(MDC_CORRELATION_ID, e.correlationId());
+            }
+            String entidad = null;
+            Object entidadId = null;
+            String ip = null;
+            String mensaje;
+            switch (e.tipo()) {
+                case CREATE -> {
+                    entidad = ponerEntidad(e);
+                    entidadId = e.b();
+                    mensaje = formatear("✓ CREATED {} with ID {} | User: {} | Data: {}",
+                            e.a(), e.b(), e.usuario(), sanitizeData(e.c()));
+                }
+                case UPDATE -> {
+                    entidad = ponerEntidad(e);
+                    entidadId = e.b();
+                    mensaje = formatear("✎ UPDATED {} with ID {} | User: {} | Old: {} | New: {}",
+                            e.a(), e.b(), e.usuario(), sanitizeData(e.c()), sanitizeData(e.d()));
+                }
+                case DELETE -> {
+                    entidad = ponerEntidad(e);
+                    entidadId = e.b();
+                    mensaje = formatear("⚠ DELETED {} with ID {} | User: {} | Timestamp: {}",
+                            e.a(), e.b(), e.usuario(), formatearInstante(e));
+                }
+                case ACCESS -> {
+                    entidad = ponerEntidad(e);
+                    entidadId = e.b();
+                    mensaje = formatear("👁 ACCESSED {} with ID {} | User: {} | Reason: {}",
+                            e.a(), e.b(), e.usuario(), e.c());
+                }
+                case LOGIN_SUCCESS -> {
+                    ip = (String) e.a();
+                    MDC.put(MDC_USERNAME, e.usuario());
+                    MDC.put(MDC_CLIENT_IP, ip);
+                    mensaje = formatear("🔓 LOGIN SUCCESS | User: {} | IP: {} | Timestamp: {}",
+                            e.usuario(), e.a(), formatearInstante(e));
+                }
+                case LOGIN_FAILURE -> {
+                    ip = (String) e.a();
+                    MDC.put(MDC_USERNAME, e.usuario());
+                    MDC.put(MDC_CLIENT_IP, ip);
+                    mensaje = formatear("🔒 LOGIN FAILURE | User: {} | IP: {} | Reason: {} | Timestamp: {}",
+                            e.usuario(), e.a(), e.b(), formatearInstante(e));
+                }
+                case LOGOUT -> {
+                    MDC.put(MDC_USERNAME, e.usuario());
+                    mensaje = formatear("🚪 LOGOUT | User: {} | Timestamp: {}", e.usuario(), formatearInstante(e));
+                }
+                case PERMISSION_CHANGE -> {
+                    entidad = "Usuario";
+                    entidadId = e.a();
+                    MDC.put(MDC_TARGET_USER, (String) e.a());
+                    mensaje = formatear("⚡ PERMISSION CHANGE | Target: {} | Action: {} | Details: {} | By: {}",
+                            e.a(), e.b(), e.c(), e.usuario());
+                }
+                case DATA_EXPORT -> {
+                    entidad = (String) e.a();
+                    MDC.put(MDC_DATA_TYPE, entidad);
+                    mensaje = formatear("📊 DATA EXPORT | Type: {} | Records: {} | Format: {} | User: {}",
+                            e.a(), e.b(), e.c(), e.usuario());
+                }
+                case STATUS_CHANGE -> {
+                    entidad = ponerEntidad(e);
+                    entidadId = e.b();
+                    mensaje = formatear("🔄 STATUS CHANGE | {} ID: {} | From: {} → To: {} | User: {}",
+                            e.a(), e.b(), e.c(), e.d(), e.usuario());
+                }
+                case CUSTOM -> mensaje = formatear("📝 {} | {} | User: {}",
+                        e.accion(), String.format((String) e.a(), e.params()), e.usuario());
+                case SECURITY_EVENT -> mensaje = formatear(
+                        "🚨 SECURITY EVENT | Type: {} | Details: {} | User: {} | Correlation-ID: {}",
+                        e.a(), e.b(), e.usuario(), e.correlationId());
+                default -> throw new IllegalStateException("Tipo de evento no soportado: " + e.tipo());
+            }
+            logger.atLevel(e.tipo().nivel).log(mensaje);
+            if (almacen != null) {
+                filasPendientes.add(EventoAuditoria.builder()
+                        .fecha(LocalDateTime.ofInstant(Instant.ofEpochMilli(e.instanteMs()), ZoneId.systemDefault()))
+                        .accion(e.accion())
+                        .entidad(entidad)
+                        .entidadId(entidadId != null ? String.valueOf(entidadId) : null)
+                        .usuario(e.usuario())
+                        .ip(ip)
+                        .correlationId(e.correlationId())
+                        .detalle(mensaje)
+                        .build());
+            }
         } finally {
             MDC.remove(MDC_ACTION);
+            MDC.remove(MDC_ENTITY);
+            MDC.remove(MDC_ENTITY_ID);
+            MDC.remove(MDC_USERNAME);
+            MDC.remove(MDC_CLIENT_IP);
+            MDC.remove(MDC_TARGET_USER);
+            MDC.remove(MDC_DATA_TYPE);
+            if (e.correlationId() != null) {
+                MDC.remove(MDC_CORRELATION_ID);
+            }
         }
     }
-    
+
+    private static String formatear(String plantilla, Object... argumentos) {
+        return MessageFormatter.arrayFormat(plantilla, argumentos).getMessage();
+    }
+
+    private static String ponerEntidad(Evento e) {
+        MDC.put(MDC_ENTITY, (String) e.a());
+        MDC.put(MDC_ENTITY_ID, String.valueOf(e.b()));
+        return (String) e.a();
+    }
+
+    private static String formatearInstante(Evento e) {
+        return formatter.format(Instant.ofEpochMilli(e.instanteMs()));
+    }
+
+    /**
+     * Devuelve el valor tal cual si es inmutable; si no, su {@code toString()} en este momento,
+     * para que el consumidor no vea cambios posteriores de la entidad (ni toque proxies de
+     * Hibernate fuera de su sesión).
+     */
+    private static Object instantanea(Object valor) {
+        if (valor == null || valor instanceof String || valor instanceof Number || valor instanceof Boolean
+                || valor instanceof Character || valor instanceof Enum<?> || valor instanceof UUID
+                || valor instanceof TemporalAccessor) {
+            return valor;
+        }
+        return valor.toString();
+    }
+
     /**
      * Obtiene el nombre del usuario actual
      */
     private String getCurrentUsername() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated() && 
+            if (authentication != null && authentication.isAuthenticated() &&
                 !"anonymousUser".equals(authentication.getPrincipal())) {
                 return authentication.getName();
             }
@@ -346,28 +608,24 @@ public class AuditLogger implements IAuditLogger {
         }
         return "system";
     }
-    
+
     /**
      * Sanitiza datos sensibles antes de registrarlos
      */
-    private String sanitizeData(Object data) {
+    static String sanitizeData(Object data) {
         if (data == null) {
             return "null";
         }
-        
-        String dataStr = data.toString();
-        
+
         // Ofuscar información sensible
-        dataStr = dataStr.replaceAll("(?i)password[\"']?\\s*[:=]\\s*[\"']?[^,}\"']+", "password=***");
-        dataStr = dataStr.replaceAll("(?i)token[\"']?\\s*[:=]\\s*[\"']?[^,}\"']+", "token=***");
-        dataStr = dataStr.replaceAll("(?i)secret[\"']?\\s*[:=]\\s*[\"']?[^,}\"']+", "secret=***");
-        
+        String dataStr = DATOS_SENSIBLES.matcher(data.toString())
+                .replaceAll(m -> m.group(1).toLowerCase(Locale.ROOT) + "=***");
+
         // Limitar longitud para evitar logs enormes
-        if (dataStr.length() > 500) {
-            dataStr = dataStr.substring(0, 500) + "... (truncated)";
+        if (dataStr.length() > LONGITUD_MAXIMA_DATOS) {
+            dataStr = dataStr.substring(0, LONGITUD_MAXIMA_DATOS) + "... (truncated)";
         }
-        
+
         return dataStr;
     }
 }
-
@@ -1,166 +1,279 @@
 package com.clinica.veterinaria.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Interceptor que registra información detallada de cada request y response HTTP.
- * 
+ * Interceptor que mide cada request HTTP y registra una muestra de ellas en el log.
+ *
  * Registra:
- * - Método HTTP, URI, parámetros
- * - Headers importantes
- * - Usuario autenticado
- * - Tiempo de procesamiento
- * - Código de respuesta
- * - IP del cliente
+ * - Latencia de todas las peticiones en el timer {@code clinica.http.peticiones}, etiquetado
+ *   por método, plantilla de la ruta ({@code /api/pacientes/{id}}, no la URI concreta) y
+ *   familia del código de respuesta (2xx, 4xx, ...)
+ * - Una línea de log por petición con método, URI, ruta, código, duración, usuario e IP:
+ *   siempre para errores (4xx, 5xx, excepciones) y peticiones lentas; para el resto, una de
+ *   cada {@code app.http.log.muestreo}
+ * - Las peticiones lentas, además, en el logger {@code com.clinica.veterinaria.performance}
+ *
+ * Durante la petición deja {@code username} y {@code userId} en el MDC, para que las líneas JSON
+ * de {@code application.log} y {@code error.log} indiquen quién hizo la petición; se retiran en
+ * {@code afterCompletion}.
+ *
+ * El umbral de petición lenta es {@code app.http.lento.umbral-ms}, y puede ajustarse por ruta
+ * con {@code app.http.lento.rutas} (patrones Ant sobre la plantilla de la ruta). El umbral y
+ * los timers de cada ruta se resuelven una sola vez y quedan cacheados, así que el coste por
+ * petición es un {@code System.nanoTime()}, dos búsquedas en mapas y el registro en el timer.
  */
 @Component
 public class RequestResponseLoggingInterceptor implements HandlerInterceptor {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(RequestResponseLoggingInterceptor.class);
     private static final Logger performanceLogger = LoggerFactory.getLogger("com.clinica.veterinaria.performance");
-    
-    private static final String START_TIME_ATTRIBUTE = "startTime";
-    private static final long SLOW_REQUEST_THRESHOLD_MS = 1000; // 1 segundo
-    private static final String MDC_USERNAME_KEY = "username";
-    private static final String RESPONSE_LOG_FORMAT = "← Response {} {} | Status: {} | Duration: {}ms";
-    private static final String RESPONSE_ERROR_LOG_FORMAT = "← Response {} {} | Status: 500 | Duration: {}ms | Error: {}";
+
+    private static final String START_TIME_ATTRIBUTE = RequestResponseLoggingInterceptor.class.getName() + ".inicio";
+    private static final String RESPONSE_LOG_FORMAT = "← Response {} {} [{}] | Status: {} | Duration: {}ms | User: {} | IP: {}";
+    private static final String RESPONSE_ERROR_LOG_FORMAT =
+            "← Response {} {} [{}] | Status: 500 | Duration: {}ms | User: {} | IP: {} | Error: {}";
     private static final String UNKNOWN_IP = "unknown";
-    
+    private static final String ANONYMOUS = "anonymous";
+    private static final String MDC_USERNAME_KEY = "username";
+    private static final String MDC_USER_ID_KEY = "userId";
+    /** Ruta de las peticiones sin handler (404, recursos no mapeados), para acotar las etiquetas. */
+    static final String RUTA_SIN_PLANTILLA = "SIN_RUTA";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final MeterRegistry meterRegistry;
+    private final int muestreo;
+    private final long umbralDefectoMs;
+    private final List<UmbralRuta> umbralesPorRuta;
+    private final Map<String, Ruta> rutas = new ConcurrentHashMap<>();
+
+    /**
+     * @param muestreo Una de cada N peticiones correctas y rápidas se registra (1 = todas, 0 = ninguna)
+     * @param umbralMs Umbral por defecto de petición lenta
+     * @param umbralesPorRuta Umbrales por ruta: {@code patron=ms} separados por comas
+     */
+    public RequestResponseLoggingInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${app.http.log.muestreo:100}") int muestreo,
+            @Value("${app.http.lento.umbral-ms:1000}") long umbralMs,
+            @Value("${app.http.lento.rutas:}") String umbralesPorRuta) {
+        this.meterRegistry = meterRegistry;
+        this.muestreo = muestreo;
+        this.umbralDefectoMs = umbralMs;
+        this.umbralesPorRuta = parsearUmbrales(umbralesPorRuta);
+    }
+
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
         // Registrar tiempo de inicio
-        request.setAttribute(START_TIME_ATTRIBUTE, System.currentTimeMillis());
-        
-        // Añadir información del request al MDC
-        String clientIp = getClientIp(request);
-        MDC.put("requestUri", request.getRequestURI());
-        MDC.put("requestMethod", request.getMethod());
-        MDC.put("clientIp", clientIp);
-        MDC.put("userAgent", request.getHeader("User-Agent"));
-        
-        // Añadir información del usuario si está autenticado
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated() && 
-            !"anonymousUser".equals(authentication.getPrincipal())) {
-            String username = authentication.getName();
+        request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+
+        // Usuario autenticado en el MDC (el filtro JWT ya se ha ejecutado)
+        String username = usuarioAutenticado();
+        if (username != null) {
             MDC.put(MDC_USERNAME_KEY, username);
-            MDC.put("userId", username); // Puedes mejorar esto obteniendo el ID real del usuario
+            MDC.put(MDC_USER_ID_KEY, username);
         }
-        
-        // Log del request entrante
-        String username = MDC.get(MDC_USERNAME_KEY);
-        String correlationId = MDC.get("correlationId");
-        logger.info("→ Incoming {} {} from {} | User: {} | Correlation-ID: {}", 
-                request.getMethod(),
-                request.getRequestURI(),
-                clientIp,
-                username != null ? username : "anonymous",
-                correlationId);
-        
-        // Log de query parameters si existen
-        if (request.getQueryString() != null) {
-            logger.debug("  Query params: {}", request.getQueryString());
-        }
-        
-        // Log de headers importantes (solo en DEBUG)
+
+        // Log del request entrante (solo en DEBUG)
         if (logger.isDebugEnabled()) {
+            logger.debug("→ Incoming {} {} from {} | User: {} | Correlation-ID: {}",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    getClientIp(request),
+                    username != null ? username : ANONYMOUS,
+                    MDC.get("correlationId"));
+            if (request.getQueryString() != null) {
+                logger.debug("  Query params: {}", request.getQueryString());
+            }
             Map<String, String> headers = getImportantHeaders(request);
             if (!headers.isEmpty()) {
                 logger.debug("  Headers: {}", headers);
             }
         }
-        
+
         return true;
     }
-    
+
     @Override
     public void postHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler,
                           @Nullable ModelAndView modelAndView) {
         // Este método se ejecuta después del controller pero antes de renderizar la vista
         // No lo usamos por ahora, pero está disponible si se necesita
     }
-    
+
     @Override
     public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler,
                                @Nullable Exception ex) {
-        // Calcular duración del request
-        Long startTime = (Long) request.getAttribute(START_TIME_ATTRIBUTE);
-        long duration = 0;
-        
-        if (startTime != null) {
-            duration = System.currentTimeMillis() - startTime;
-            MDC.put("duration", String.valueOf(duration));
-        }
-        
+        try {
+            registrar(request, response, ex);
+        } finally {
+            MDC.remove(MDC_USERNAME_KEY);
+            MDC.remove(MDC_USER_ID_KEY);
+        }
+    }
+
+    /**
+     * Registra la latencia en el timer de la ruta y, si toca, la línea de log del response.
+     */
+    private void registrar(HttpServletRequest request, HttpServletResponse response, @Nullable Exception ex) {
+        if (!(request.getAttribute(START_TIME_ATTRIBUTE) instanceof Long inicio)) {
+            return;
+        }
+        long duracionNanos = System.nanoTime() - inicio;
+        int status = ex != null ? 500 : response.getStatus();
+
+        Ruta ruta = ruta(request);
+        ruta.timer(request.getMethod(), status).record(duracionNanos, TimeUnit.NANOSECONDS);
+
+        boolean lenta = duracionNanos > ruta.umbralNanos;
+        boolean error = ex != null || status >= 400;
+        if (!lenta && !error && !muestreada()) {
+            return;
+        }
+
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(duracionNanos);
+        String username = MDC.get(MDC_USERNAME_KEY);
+        if (username == null) {
+            username = ANONYMOUS;
+        }
+        String clientIp = getClientIp(request);
+
         // Log del response
         if (ex != null) {
-            // Si hubo una excepción
-            logger.error(RESPONSE_ERROR_LOG_FORMAT, 
+            logger.error(RESPONSE_ERROR_LOG_FORMAT,
                     request.getMethod(),
                     request.getRequestURI(),
-                    duration,
+                    ruta.plantilla,
+                    duracionMs,
+                    username,
+                    clientIp,
                     ex.getMessage());
+        } else if (status >= 500) {
+            logger.error(RESPONSE_LOG_FORMAT,
+                    request.getMethod(), request.getRequestURI(), ruta.plantilla, status, duracionMs, username, clientIp);
+        } else if (status >= 400) {
+            logger.warn(RESPONSE_LOG_FORMAT,
+                    request.getMethod(), request.getRequestURI(), ruta.plantilla, status, duracionMs, username, clientIp);
         } else {
-            // Response normal
-            int status = response.getStatus();
-            String logLevel = getLogLevelForStatus(status);
-            
-            if ("ERROR".equals(logLevel)) {
-                logger.error(RESPONSE_LOG_FORMAT, 
-                        request.getMethod(),
-                        request.getRequestURI(),
-                        status,
-                        duration);
-            } else if ("WARN".equals(logLevel)) {
-                logger.warn(RESPONSE_LOG_FORMAT, 
-                        request.getMethod(),
-                        request.getRequestURI(),
-                        status,
-                        duration);
-            } else {
-                logger.info(RESPONSE_LOG_FORMAT, 
-                        request.getMethod(),
-                        request.getRequestURI(),
-                        status,
-                        duration);
-            }
+            logger.info(RESPONSE_LOG_FORMAT,
+                    request.getMethod(), request.getRequestURI(), ruta.plantilla, status, duracionMs, username, clientIp);
         }
-        
+
         // Log de performance para requests lentos
-        if (duration > SLOW_REQUEST_THRESHOLD_MS) {
-            String username = MDC.get(MDC_USERNAME_KEY);
-            String correlationId = MDC.get("correlationId");
-            performanceLogger.warn("⚠️ SLOW REQUEST: {} {} took {}ms (threshold: {}ms) | User: {} | Correlation-ID: {}", 
+        if (lenta) {
+            performanceLogger.warn("⚠️ SLOW REQUEST: {} {} [{}] took {}ms (threshold: {}ms) | User: {} | Correlation-ID: {}",
                     request.getMethod(),
                     request.getRequestURI(),
-                    duration,
-                    SLOW_REQUEST_THRESHOLD_MS,
-                    username != null ? username : "anonymous",
-                    correlationId);
-        }
-        
-        // También registrar todas las requests en el log de performance
-        performanceLogger.info("Performance: {} {} | {}ms | Status: {}", 
-                request.getMethod(),
-                request.getRequestURI(),
-                duration,
-                response.getStatus());
+                    ruta.plantilla,
+                    duracionMs,
+                    ruta.umbralMs,
+                    username,
+                    MDC.get("correlationId"));
+        }
+    }
+
+    /**
+     * Umbral de petición lenta (ms) que se aplica a una plantilla de ruta.
+     */
+    long umbralMs(String plantilla) {
+        for (UmbralRuta umbral : umbralesPorRuta) {
+            if (PATH_MATCHER.match(umbral.patron(), plantilla)) {
+                return umbral.ms();
+            }
+        }
+        return umbralDefectoMs;
+    }
+
+    private boolean muestreada() {
+        return muestreo == 1 || (muestreo > 1 && ThreadLocalRandom.current().nextInt(muestreo) == 0);
+    }
+
+    /**
+     * Métricas y umbral de la ruta que atendió la petición, creados la primera vez que se usa.
+     */
+    private Ruta ruta(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String plantilla = patron != null ? patron.toString() : RUTA_SIN_PLANTILLA;
+        Ruta ruta = rutas.get(plantilla);
+        return ruta != null ? ruta : rutas.computeIfAbsent(plantilla, p -> new Ruta(p, umbralMs(p)));
     }
-    
+
+    /**
+     * Parsea {@code /api/reportes/**=5000,/api/export/**=10000} conservando el orden: gana el
+     * primer patrón que encaja.
+     */
+    private static List<UmbralRuta> parsearUmbrales(String configuracion) {
+        List<UmbralRuta> umbrales = new ArrayList<>();
+        if (configuracion == null || configuracion.isBlank()) {
+            return umbrales;
+        }
+        for (String entrada : configuracion.split(",")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int separador = entrada.lastIndexOf('=');
+            try {
+                if (separador <= 0) {
+                    throw new NumberFormatException("Falta '='");
+                }
+                umbrales.add(new UmbralRuta(entrada.substring(0, separador).trim(),
+                        Long.parseLong(entrada.substring(separador + 1).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "app.http.lento.rutas: entrada inválida '" + entrada.trim() + "' (formato patron=ms)", e);
+            }
+        }
+        return List.copyOf(umbrales);
+    }
+
+    /**
+     * Normaliza el método HTTP para que un método arbitrario no cree series nuevas.
+     */
+    private static String metodo(String metodo) {
+        return switch (metodo) {
+            case "GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS" -> metodo;
+            default -> "OTRO";
+        };
+    }
+
+    /**
+     * Obtiene el usuario autenticado, o null si la petición es anónima
+     */
+    @Nullable
+    private String usuarioAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() &&
+            !"anonymousUser".equals(authentication.getPrincipal())) {
+            return authentication.getName();
+        }
+        return null;
+    }
+
     /**
      * Obtiene la IP real del cliente, considerando proxies y load balancers
      */
@@ -180,17 +293,17 @@ public class RequestResponseLoggingInterceptor implements HandlerInterceptor {
         // Asegurar que siempre retornamos un valor no nulo
         return ip != null ? ip : UNKNOWN_IP;
     }
-    
+
     /**
      * Obtiene los headers más importantes para debugging
      */
     private Map<String, String> getImportantHeaders(HttpServletRequest request) {
         Map<String, String> headers = new HashMap<>();
         String[] importantHeaders = {
-            "Content-Type", "Accept", "Authorization", "Origin", 
+            "Content-Type", "Accept", "Authorization", "Origin",
             "Referer", "User-Agent", "X-Correlation-ID"
         };
-        
+
         for (String headerName : importantHeaders) {
             String headerValue = request.getHeader(headerName);
             if (headerValue != null) {
@@ -201,21 +314,48 @@ public class RequestResponseLoggingInterceptor implements HandlerInterceptor {
                 headers.put(headerName, headerValue);
             }
         }
-        
+
         return headers;
     }
-    
+
     /**
-     * Determina el nivel de log según el código de estado HTTP
+     * Umbral de petición lenta configurado para un patrón de rutas.
      */
-    private String getLogLevelForStatus(int status) {
-        if (status >= 500) {
-            return "ERROR";
-        } else if (status >= 400) {
-            return "WARN";
-        } else {
-            return "INFO";
+    private record UmbralRuta(String patron, long ms) {
+    }
+
+    /**
+     * Umbral y timers de una plantilla de ruta. Los timers se crean al primer uso de cada
+     * método y familia de código; si dos hilos lo crean a la vez, Micrometer devuelve el mismo.
+     */
+    private final class Ruta {
+
+        private final String plantilla;
+        private final long umbralMs;
+        private final long umbralNanos;
+        private final Map<String, Timer[]> timersPorMetodo = new ConcurrentHashMap<>(4);
+
+        Ruta(String plantilla, long umbralMs) {
+            this.plantilla = plantilla;
+            this.umbralMs = umbralMs;
+            this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        }
+
+        Timer timer(String metodoHttp, int status) {
+            String metodo = metodo(metodoHttp);
+            Timer[] timers = timersPorMetodo.computeIfAbsent(metodo, m -> new Timer[5]);
+            int familia = Math.min(Math.max(status / 100, 1), 5);
+            Timer timer = timers[familia - 1];
+            if (timer == null) {
+                timer = Timer.builder("clinica.http.peticiones")
+                        .description("Latencia de las peticiones HTTP por ruta")
+                        .tag("metodo", metodo)
+                        .tag("ruta", plantilla)
+                        .tag("estado", familia + "xx")
+                        .register(meterRegistry);
+                timers[familia - 1] = timer;
+            }
+            return timer;
         }
     }
 }
-
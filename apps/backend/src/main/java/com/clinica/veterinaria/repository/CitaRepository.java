@@ -2,15 +2,24 @@ package com.clinica.veterinaria.repository;
 
 import com.clinica.veterinaria.entity.Cita;
 import com.clinica.veterinaria.entity.Cita.EstadoCita;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad {@link Cita}.
@@ -34,7 +43,7 @@ import java.util.List;
  * @see CitaService
  */
 @Repository
-public interface CitaRepository extends JpaRepository<Cita, Long> {
+public interface CitaRepository extends JpaRepository<Cita, Long>, JpaSpecificationExecutor<Cita> {
 
     /**
      * Busca citas por paciente
@@ -232,5 +241,300 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
         Long profesionalId, 
         LocalDateTime fechaInicio, 
         LocalDateTime fechaFin);
-}
 
+    /**
+     * Proyección mínima de una cita para el índice de disponibilidad.
+     * 
+     * <p>Solo contiene los campos necesarios para marcar franjas ocupadas,
+     * evitando hidratar la entidad {@link Cita} y sus relaciones.</p>
+     */
+    interface CitaSlotView {
+        Long getId();
+        Long getProfesionalId();
+        LocalDateTime getFecha();
+    }
+
+    /**
+     * Obtiene las franjas ocupadas (citas no canceladas) de todos los profesionales
+     * en un rango de fechas.
+     * 
+     * <p>Usado para precargar el índice de disponibilidad al iniciar la aplicación.</p>
+     * 
+     * @param fechaInicio Fecha inicial del rango (inclusivo)
+     * @param fechaFin Fecha final del rango (exclusivo)
+     * @return Proyecciones de las citas activas en el rango
+     */
+    @Query("SELECT c.id AS id, c.profesional.id AS profesionalId, c.fecha AS fecha FROM Cita c " +
+           "WHERE c.fecha >= :fechaInicio AND c.fecha < :fechaFin " +
+           "AND c.estado <> 'CANCELADA'")
+    List<CitaSlotView> findSlotsOcupados(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Obtiene las franjas ocupadas (citas no canceladas) de un profesional
+     * en un rango de fechas.
+     * 
+     * <p>Usado por el índice de disponibilidad para cargar bajo demanda los días
+     * que no fueron precargados.</p>
+     * 
+     * @param profesionalId ID del profesional
+     * @param fechaInicio Fecha inicial del rango (inclusivo)
+     * @param fechaFin Fecha final del rango (exclusivo)
+     * @return Proyecciones de las citas activas del profesional en el rango
+     */
+    @Query("SELECT c.id AS id, c.profesional.id AS profesionalId, c.fecha AS fecha FROM Cita c " +
+           "WHERE c.profesional.id = :profesionalId " +
+           "AND c.fecha >= :fechaInicio AND c.fecha < :fechaFin " +
+           "AND c.estado <> 'CANCELADA'")
+    List<CitaSlotView> findSlotsOcupadosPorProfesional(
+        @Param("profesionalId") Long profesionalId,
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Proyección de una cita con los datos necesarios para sus recordatorios.
+     */
+    interface CitaRecordatorioView {
+        Long getId();
+        LocalDateTime getFecha();
+        EstadoCita getEstado();
+        String getMotivo();
+        String getPacienteNombre();
+        Long getProfesionalId();
+    }
+
+    /**
+     * Proyección de una cita activa con la fecha para la que se reclamó cada recordatorio.
+     */
+    interface CitaRecordatorioPendienteView {
+        Long getId();
+        LocalDateTime getFecha();
+        LocalDateTime getRecordatorio24hPara();
+        LocalDateTime getRecordatorio1hPara();
+    }
+
+    /**
+     * Obtiene las citas activas (PENDIENTE o CONFIRMADA) de una ventana a las que aún les
+     * falta algún recordatorio para su fecha actual.
+     * 
+     * <p>Usado para programar en cada instancia los recordatorios próximos, incluidas las
+     * citas creadas o movidas en otras instancias. Recorre el índice por fecha.</p>
+     * 
+     * @param desde Fecha a partir de la cual buscar (exclusivo)
+     * @param hasta Fecha límite (inclusivo)
+     * @return Proyecciones de las citas con recordatorios pendientes
+     */
+    @Query("SELECT c.id AS id, c.fecha AS fecha, c.recordatorio24hPara AS recordatorio24hPara, " +
+           "c.recordatorio1hPara AS recordatorio1hPara " +
+           "FROM Cita c " +
+           "WHERE c.fecha > :desde AND c.fecha <= :hasta AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "AND (c.recordatorio1hPara IS NULL OR c.recordatorio1hPara <> c.fecha " +
+           "OR c.recordatorio24hPara IS NULL OR c.recordatorio24hPara <> c.fecha)")
+    List<CitaRecordatorioPendienteView> findConRecordatoriosPendientes(
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Reclama el recordatorio de 24 horas de una cita para su fecha actual.
+     * 
+     * <p>Solo una instancia consigue la reclamación: la actualización es condicional y falla si
+     * la cita ya no está activa, cambió de fecha o el recordatorio ya se reclamó para esa
+     * fecha.</p>
+     * 
+     * @param id ID de la cita
+     * @param fecha Fecha de la cita tal como está en la base de datos
+     * @return 1 si se reclamó, 0 en caso contrario
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.recordatorio24hPara = :fecha " +
+           "WHERE c.id = :id AND c.fecha = :fecha AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "AND (c.recordatorio24hPara IS NULL OR c.recordatorio24hPara <> :fecha)")
+    int reclamarRecordatorio24h(@Param("id") Long id, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Reclama el recordatorio de 1 hora de una cita para su fecha actual.
+     * 
+     * @param id ID de la cita
+     * @param fecha Fecha de la cita tal como está en la base de datos
+     * @return 1 si se reclamó, 0 en caso contrario
+     * @see #reclamarRecordatorio24h(Long, LocalDateTime)
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.recordatorio1hPara = :fecha " +
+           "WHERE c.id = :id AND c.fecha = :fecha AND c.estado IN ('PENDIENTE', 'CONFIRMADA') " +
+           "AND (c.recordatorio1hPara IS NULL OR c.recordatorio1hPara <> :fecha)")
+    int reclamarRecordatorio1h(@Param("id") Long id, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Obtiene los datos de recordatorio de un conjunto de citas.
+     * 
+     * @param ids IDs de las citas
+     * @return Proyecciones de las citas encontradas
+     */
+    @Query("SELECT c.id AS id, c.fecha AS fecha, c.estado AS estado, c.motivo AS motivo, " +
+           "p.nombre AS pacienteNombre, c.profesional.id AS profesionalId " +
+           "FROM Cita c LEFT JOIN c.paciente p WHERE c.id IN :ids")
+    List<CitaRecordatorioView> findDatosRecordatorio(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Proyección de un conteo de citas agrupado por día y estado.
+     */
+    interface ConteoPorDiaYEstado {
+        LocalDate getDia();
+        EstadoCita getEstado();
+        Long getTotal();
+    }
+
+    /**
+     * Estadísticas: cuenta todas las citas agrupadas por día de atención y estado.
+     * 
+     * <p>Usado por la conciliación nocturna de {@code daily_metrics}.</p>
+     * 
+     * @return Conteos por día y estado (las combinaciones sin citas no aparecen)
+     */
+    @Query("SELECT CAST(c.fecha AS LocalDate) AS dia, c.estado AS estado, COUNT(c) AS total " +
+           "FROM Cita c GROUP BY CAST(c.fecha AS LocalDate), c.estado")
+    List<ConteoPorDiaYEstado> countAgrupadasPorDiaYEstado();
+
+    /**
+     * Proyección de un conteo de citas agrupado por motivo.
+     */
+    interface ConteoPorMotivo {
+        String getMotivo();
+        Long getTotal();
+    }
+
+    /**
+     * Estadísticas: cuenta las citas de un rango agrupadas por motivo (en minúsculas).
+     * 
+     * <p>Las citas sin motivo no aparecen.</p>
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return Conteos por motivo
+     */
+    @Query("SELECT LOWER(c.motivo) AS motivo, COUNT(c) AS total FROM Cita c " +
+           "WHERE c.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND c.motivo IS NOT NULL AND TRIM(c.motivo) <> '' " +
+           "GROUP BY LOWER(c.motivo)")
+    List<ConteoPorMotivo> countAgrupadasPorMotivo(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Busca las primeras citas de un rango ordenadas por hora, con paciente y propietario cargados.
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param pageable Configuración de paginación (límite)
+     * @return Citas del rango en orden cronológico
+     */
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.paciente LEFT JOIN FETCH c.propietario " +
+           "WHERE c.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY c.fecha")
+    List<Cita> findPrimerasCitasEnRango(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin,
+        Pageable pageable);
+
+    /**
+     * Busca las citas de un rango creadas más recientemente, con paciente cargado.
+     * 
+     * <p>Las citas sin fecha de creación se ordenan por su fecha de atención.</p>
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param pageable Configuración de paginación (límite)
+     * @return Citas del rango, las creadas más recientemente primero
+     */
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.paciente " +
+           "WHERE c.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY COALESCE(c.createdAt, c.fecha) DESC")
+    List<Cita> findUltimasCitasCreadas(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin,
+        Pageable pageable);
+
+    /**
+     * Recorre las citas de un rango para exportación, con paciente, propietario y profesional cargados.
+     * 
+     * <p>Devuelve un cursor de solo lectura que trae las filas de 500 en 500: debe consumirse
+     * dentro de una transacción y cerrarse al terminar.</p>
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return Stream de citas en orden cronológico
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.paciente LEFT JOIN FETCH c.propietario " +
+           "LEFT JOIN FETCH c.profesional " +
+           "WHERE c.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY c.fecha, c.id")
+    Stream<Cita> streamParaExportacion(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Página de citas por cursor (keyset), más recientes primero.
+     * 
+     * <p>Todos los filtros son opcionales y solo se añaden al query los indicados, para que
+     * PostgreSQL pueda usar {@code profesional_id}/{@code paciente_id} y el cursor como
+     * condición de los índices {@code (profesional_id, fecha, id)}, {@code (paciente_id, fecha, id)}
+     * o {@code (fecha, id)}. Si se indica cursor, devuelve solo las citas posteriores a él en el
+     * orden {@code (fecha DESC, id DESC)} sin recorrer las páginas anteriores
+     * (ver {@link CondicionesCursor}).</p>
+     * 
+     * @param estado Estado (puede ser null)
+     * @param profesionalId ID del profesional (puede ser null)
+     * @param pacienteId ID del paciente (puede ser null)
+     * @param fechaInicio Fecha mínima inclusiva (puede ser null)
+     * @param fechaFin Fecha máxima inclusiva (puede ser null)
+     * @param cursorFecha Fecha de la última cita entregada (null para la primera página)
+     * @param cursorId ID de la última cita entregada (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Citas de la página con paciente, propietario y profesional cargados
+     */
+    default List<Cita> findPaginaPorCursor(
+        EstadoCita estado,
+        Long profesionalId,
+        Long pacienteId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            filtros(estado, profesionalId, pacienteId, fechaInicio, fechaFin),
+            CondicionesCursor.despuesDe("fecha", cursorFecha, cursorId),
+            CondicionesCursor.cargando("paciente", "propietario", "profesional")), "fecha", limite);
+    }
+
+    /**
+     * Cuenta las citas que cumplen los filtros de {@link #findPaginaPorCursor}.
+     * 
+     * <p>Solo se ejecuta cuando el cliente solicita el total.</p>
+     * 
+     * @return Total de citas que cumplen los filtros
+     */
+    default long countConFiltros(
+        EstadoCita estado,
+        Long profesionalId,
+        Long pacienteId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+        return count(filtros(estado, profesionalId, pacienteId, fechaInicio, fechaFin));
+    }
+
+    private static Specification<Cita> filtros(
+        EstadoCita estado, Long profesionalId, Long pacienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return Specification.allOf(
+            CondicionesCursor.igual("estado", estado),
+            CondicionesCursor.igual("profesional.id", profesionalId),
+            CondicionesCursor.igual("paciente.id", pacienteId),
+            CondicionesCursor.desde("fecha", fechaInicio),
+            CondicionesCursor.hasta("fecha", fechaFin));
+    }
+}
@@ -0,0 +1,188 @@
+package com.clinica.veterinaria.repository;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Piezas comunes de los queries de paginación por cursor (keyset) con filtros opcionales.
+ *
+ * <p>Los queries se construyen con {@link Specification} y cada filtro se añade solo si tiene
+ * valor, en lugar de escribirse como {@code (:p IS NULL OR x = :p)}. Con esa forma PostgreSQL
+ * no puede usar la columna como condición de índice (y con un plan genérico no puede
+ * descartarla), así que recorre el índice desde la fila más reciente filtrando todas las de las
+ * páginas anteriores.</p>
+ *
+ * <p>El cursor se expresa como {@code fecha <= :fecha AND (fecha < :fecha OR id < :id)},
+ * equivalente a {@code fecha < :fecha OR (fecha = :fecha AND id < :id)}: la primera parte es un
+ * rango sobre los índices {@code (fecha, id)} o {@code (x_id, fecha, id)} y la segunda solo
+ * descarta los empates con la fecha del cursor. Así la página N lee las mismas filas que la
+ * primera.</p>
+ *
+ * <p>Los queries JPQL con columnas de índice fijas usan en su lugar un {@link Tramo}, que
+ * convierte los filtros de fecha opcionales y el cursor en límites siempre presentes.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+final class CondicionesCursor {
+
+    /** Límites de un {@link Tramo} sin filtro de fecha ni cursor. */
+    static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private CondicionesCursor() {
+    }
+
+    /**
+     * Rango de fechas de una página para queries JPQL, en la forma
+     * {@code fecha >= :desde AND fecha <= :hasta AND (fecha < :hasta OR id < :hastaId)}.
+     *
+     * <p>Los tres parámetros tienen siempre valor, así que no hacen falta condiciones
+     * {@code :p IS NULL OR ...} y la base de datos recorre solo el rango del índice.</p>
+     *
+     * @param desde Fecha mínima inclusiva
+     * @param hasta Fecha máxima
+     * @param hastaId Desempate en {@code hasta}: solo las filas con id menor ({@link Long#MIN_VALUE}
+     *                excluye {@code hasta}, {@link Long#MAX_VALUE} la incluye)
+     */
+    record Tramo(LocalDateTime desde, LocalDateTime hasta, long hastaId) {
+
+        /**
+         * @param desde Fecha mínima inclusiva (null sin límite)
+         * @param hastaExclusiva Fecha máxima exclusiva (null sin límite)
+         * @param cursorFecha Fecha de la última fila entregada (null para la primera página)
+         * @param cursorId ID de la última fila entregada
+         */
+        static Tramo de(LocalDateTime desde, LocalDateTime hastaExclusiva, LocalDateTime cursorFecha, Long cursorId) {
+            LocalDateTime inferior = desde != null ? desde : FECHA_MINIMA;
+            boolean hayCursor = cursorFecha != null && cursorId != null;
+            if (hayCursor && (hastaExclusiva == null || hastaExclusiva.isAfter(cursorFecha))) {
+                return new Tramo(inferior, cursorFecha, cursorId);
+            }
+            if (hastaExclusiva != null) {
+                return new Tramo(inferior, hastaExclusiva, Long.MIN_VALUE);
+            }
+            return new Tramo(inferior, FECHA_MAXIMA, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Lee una página en orden {@code (campoFecha DESC, id DESC)}.
+     *
+     * @param repositorio Repositorio de la entidad
+     * @param condiciones Filtros y cursor
+     * @param campoFecha Atributo de fecha del orden
+     * @param limite Número máximo de filas (solo se usa el tamaño)
+     * @return Filas de la página
+     */
+    static <T> List<T> pagina(JpaSpecificationExecutor<T> repositorio, Specification<T> condiciones,
+                              String campoFecha, Pageable limite) {
+        Sort orden = Sort.by(Sort.Direction.DESC, campoFecha, "id");
+        return repositorio.findBy(condiciones, q -> q.sortBy(orden).limit(limite.getPageSize()).all());
+    }
+
+    /**
+     * Filas posteriores al cursor en el orden {@code (campoFecha DESC, id DESC)}.
+     *
+     * @param cursorFecha Fecha de la última fila entregada (null para la primera página)
+     * @param cursorId ID de la última fila entregada
+     */
+    static <T> Specification<T> despuesDe(String campoFecha, LocalDateTime cursorFecha, Long cursorId) {
+        if (cursorFecha == null || cursorId == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<LocalDateTime> fecha = root.get(campoFecha);
+            return cb.and(
+                cb.lessThanOrEqualTo(fecha, cursorFecha),
+                cb.or(cb.lessThan(fecha, cursorFecha), cb.lessThan(root.get("id"), cursorId)));
+        };
+    }
+
+    /**
+     * Igualdad sobre un atributo; admite rutas con punto ({@code paciente.id}).
+     */
+    static <T> Specification<T> igual(String atributo, Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(ruta(root, atributo), valor);
+    }
+
+    /**
+     * Contiene el texto.
+     */
+    static <T> Specification<T> contiene(String atributo, String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String patron = "%" + texto + "%";
+        return (root, query, cb) -> cb.like(ruta(root, atributo), patron);
+    }
+
+    /**
+     * Contiene el texto, sin distinguir mayúsculas.
+     */
+    static <T> Specification<T> contieneIgnorandoMayusculas(String atributo, String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String patron = "%" + texto.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(ruta(root, atributo)), patron);
+    }
+
+    /**
+     * Fecha mínima inclusiva.
+     */
+    static <T> Specification<T> desde(String atributo, LocalDateTime fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(atributo), fecha);
+    }
+
+    /**
+     * Fecha máxima inclusiva.
+     */
+    static <T> Specification<T> hasta(String atributo, LocalDateTime fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get(atributo), fecha);
+    }
+
+    /**
+     * Carga las relaciones con LEFT JOIN FETCH. No añade condiciones y se ignora en los
+     * queries de conteo.
+     */
+    static <T> Specification<T> cargando(String... relaciones) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                for (String relacion : relaciones) {
+                    root.fetch(relacion, JoinType.LEFT);
+                }
+            }
+            return null;
+        };
+    }
+
+    private static <Y> Path<Y> ruta(From<?, ?> root, String atributo) {
+        Path<?> ruta = root;
+        for (String parte : atributo.split("\\.")) {
+            ruta = ruta.get(parte);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> tipada = (Path<Y>) ruta;
+        return tipada;
+    }
+}
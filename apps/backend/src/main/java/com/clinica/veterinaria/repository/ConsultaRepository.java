@@ -1,15 +1,22 @@
 package com.clinica.veterinaria.repository;
 
 import com.clinica.veterinaria.entity.Consulta;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad {@link Consulta}.
@@ -34,7 +41,7 @@ import java.util.List;
  * @see ConsultaService
  */
 @Repository
-public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
+public interface ConsultaRepository extends JpaRepository<Consulta, Long>, JpaSpecificationExecutor<Consulta> {
 
     /**
      * Busca consultas por paciente ordenadas por fecha descendente
@@ -44,6 +51,15 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
     @Query("SELECT c FROM Consulta c WHERE c.paciente.id = :pacienteId ORDER BY c.fecha DESC")
     List<Consulta> findByPacienteIdOrderByFechaDesc(@Param("pacienteId") Long pacienteId);
 
+    /**
+     * Busca las consultas de un paciente con el profesional cargado, para el historial médico
+     * @param pacienteId ID del paciente
+     * @return Lista de consultas del paciente (más recientes primero)
+     */
+    @Query("SELECT c FROM Consulta c LEFT JOIN FETCH c.profesional " +
+           "WHERE c.paciente.id = :pacienteId ORDER BY c.fecha DESC")
+    List<Consulta> findHistorialByPacienteId(@Param("pacienteId") Long pacienteId);
+
     /**
      * Busca consultas por profesional
      * @param profesionalId ID del profesional
@@ -203,5 +219,132 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
         LocalDateTime fechaInicio, 
         LocalDateTime fechaFin, 
         Pageable pageable);
-}
 
+    /**
+     * Proyección de un conteo de consultas agrupado por día.
+     */
+    interface ConteoPorDia {
+        LocalDate getDia();
+        Long getTotal();
+    }
+
+    /**
+     * Estadísticas: cuenta todas las consultas agrupadas por día calendario.
+     * 
+     * <p>Usado por la conciliación nocturna de {@code daily_metrics}. Los días sin
+     * consultas no aparecen.</p>
+     * 
+     * @return Conteos por día
+     */
+    @Query("SELECT CAST(c.fecha AS LocalDate) AS dia, COUNT(c) AS total " +
+           "FROM Consulta c GROUP BY CAST(c.fecha AS LocalDate)")
+    List<ConteoPorDia> countAgrupadasPorDia();
+
+    /**
+     * Proyección de un conteo de consultas agrupado por profesional.
+     */
+    interface ConteoPorProfesional {
+        Long getProfesionalId();
+        Long getTotal();
+    }
+
+    /**
+     * Estadísticas: cuenta todas las consultas agrupadas por profesional.
+     * 
+     * <p>Los profesionales sin consultas no aparecen.</p>
+     * 
+     * @return Conteos por profesional
+     */
+    @Query("SELECT c.profesional.id AS profesionalId, COUNT(c) AS total " +
+           "FROM Consulta c GROUP BY c.profesional.id")
+    List<ConteoPorProfesional> countAgrupadasPorProfesional();
+
+    /**
+     * Busca las consultas más recientes de un rango con el paciente cargado.
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param pageable Configuración de paginación (límite)
+     * @return Consultas del rango, más recientes primero
+     */
+    @Query("SELECT c FROM Consulta c LEFT JOIN FETCH c.paciente " +
+           "WHERE c.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY c.fecha DESC")
+    List<Consulta> findUltimasConsultas(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin,
+        Pageable pageable
+    );
+
+    /**
+     * Recorre las consultas de un rango para exportación, con paciente y profesional cargados.
+     * 
+     * <p>Devuelve un cursor de solo lectura que trae las filas de 500 en 500: debe consumirse
+     * dentro de una transacción y cerrarse al terminar.</p>
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return Stream de consultas en orden cronológico
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Consulta c LEFT JOIN FETCH c.paciente LEFT JOIN FETCH c.profesional " +
+           "WHERE c.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY c.fecha, c.id")
+    Stream<Consulta> streamParaExportacion(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Página de consultas por cursor (keyset), más recientes primero.
+     * 
+     * <p>Todos los filtros son opcionales y solo se añaden al query los indicados. Si se indica
+     * cursor, devuelve solo las consultas posteriores a él en el orden {@code (fecha DESC, id DESC)},
+     * como rango sobre los índices {@code (paciente_id, fecha, id)} o {@code (fecha, id)}
+     * (ver {@link CondicionesCursor}).</p>
+     * 
+     * @param pacienteId ID del paciente (puede ser null)
+     * @param profesionalId ID del profesional (puede ser null)
+     * @param fechaInicio Fecha mínima inclusiva (puede ser null)
+     * @param fechaFin Fecha máxima inclusiva (puede ser null)
+     * @param cursorFecha Fecha de la última consulta entregada (null para la primera página)
+     * @param cursorId ID de la última consulta entregada (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Consultas de la página con paciente y profesional cargados
+     */
+    default List<Consulta> findPaginaPorCursor(
+        Long pacienteId,
+        Long profesionalId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            filtros(pacienteId, profesionalId, fechaInicio, fechaFin),
+            CondicionesCursor.despuesDe("fecha", cursorFecha, cursorId),
+            CondicionesCursor.cargando("paciente", "profesional")), "fecha", limite);
+    }
+
+    /**
+     * Cuenta las consultas que cumplen los filtros de {@link #findPaginaPorCursor}.
+     * 
+     * @return Total de consultas que cumplen los filtros
+     */
+    default long countConFiltros(
+        Long pacienteId,
+        Long profesionalId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+        return count(filtros(pacienteId, profesionalId, fechaInicio, fechaFin));
+    }
+
+    private static Specification<Consulta> filtros(
+        Long pacienteId, Long profesionalId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return Specification.allOf(
+            CondicionesCursor.igual("paciente.id", pacienteId),
+            CondicionesCursor.igual("profesional.id", profesionalId),
+            CondicionesCursor.desde("fecha", fechaInicio),
+            CondicionesCursor.hasta("fecha", fechaFin));
+    }
+}
@@ -0,0 +1,138 @@
+package com.clinica.veterinaria.repository;
+
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura para {@link EventoAuditoria}.
+ *
+ * <p>Extiende {@link Repository} y no {@code JpaRepository} para que la tabla sea de solo
+ * inserción también desde el código: las filas las inserta {@code AlmacenAuditoria} por JDBC.
+ * Cada consulta recorre uno de los índices de la entidad en orden {@code (fecha DESC, id DESC)}
+ * y pagina por cursor (keyset): las columnas del índice, los filtros de fecha y el cursor
+ * llegan a la base de datos como condiciones del índice, sin {@code :p IS NULL OR ...}. Solo
+ * el usuario (por entidad) y la acción quedan como filtros opcionales sobre las filas del
+ * rango.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see EventoAuditoria
+ */
+@org.springframework.stereotype.Repository
+public interface EventoAuditoriaRepository extends Repository<EventoAuditoria, Long> {
+
+    /**
+     * Historial de una entidad (y opcionalmente de un registro concreto), más recientes primero.
+     *
+     * <p>Con {@code entidadId} usa el índice {@code (entidad, entidad_id, fecha, id)}; sin él,
+     * {@code (entidad, fecha, id)}, para no ordenar todos los eventos del tipo de entidad.</p>
+     *
+     * @param entidad Nombre de la entidad (Paciente, Producto, ...)
+     * @param entidadId ID del registro (null para toda la entidad)
+     * @param usuario Usuario que realizó la acción (null para todos)
+     * @param desde Fecha mínima, inclusive (null sin límite)
+     * @param hasta Fecha máxima, exclusive (null sin límite)
+     * @param cursorFecha Fecha del último evento entregado (null para la primera página)
+     * @param cursorId ID del último evento entregado (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Eventos de la página
+     */
+    default List<EventoAuditoria> findPorEntidad(String entidad, String entidadId, String usuario,
+            LocalDateTime desde, LocalDateTime hasta, LocalDateTime cursorFecha, Long cursorId, Pageable limite) {
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(desde, hasta, cursorFecha, cursorId);
+        return entidadId != null
+            ? findPaginaPorRegistro(entidad, entidadId, usuario, tramo.desde(), tramo.hasta(), tramo.hastaId(), limite)
+            : findPaginaPorEntidad(entidad, usuario, tramo.desde(), tramo.hasta(), tramo.hastaId(), limite);
+    }
+
+    /**
+     * Actividad de un usuario, más recientes primero. Usa el índice {@code (usuario, fecha, id)}.
+     *
+     * @return Eventos de la página
+     * @see #findPorEntidad
+     */
+    default List<EventoAuditoria> findPorUsuario(String usuario, String accion,
+            LocalDateTime desde, LocalDateTime hasta, LocalDateTime cursorFecha, Long cursorId, Pageable limite) {
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(desde, hasta, cursorFecha, cursorId);
+        return findPaginaPorUsuario(usuario, accion, tramo.desde(), tramo.hasta(), tramo.hastaId(), limite);
+    }
+
+    /**
+     * Todos los eventos, más recientes primero. Usa el índice {@code (fecha, id)}.
+     *
+     * @return Eventos de la página
+     * @see #findPorEntidad
+     */
+    default List<EventoAuditoria> findRecientes(String accion,
+            LocalDateTime desde, LocalDateTime hasta, LocalDateTime cursorFecha, Long cursorId, Pageable limite) {
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(desde, hasta, cursorFecha, cursorId);
+        return findPagina(accion, tramo.desde(), tramo.hasta(), tramo.hastaId(), limite);
+    }
+
+    /**
+     * Página del historial de un registro dentro de un {@link CondicionesCursor.Tramo}.
+     */
+    @Query("SELECT e FROM EventoAuditoria e WHERE e.entidad = :entidad AND e.entidadId = :entidadId AND " +
+           "e.fecha >= :desde AND e.fecha <= :hasta AND (e.fecha < :hasta OR e.id < :hastaId) AND " +
+           "(:usuario IS NULL OR e.usuario = :usuario) " +
+           "ORDER BY e.fecha DESC, e.id DESC")
+    List<EventoAuditoria> findPaginaPorRegistro(
+        @Param("entidad") String entidad,
+        @Param("entidadId") String entidadId,
+        @Param("usuario") String usuario,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("hastaId") long hastaId,
+        Pageable limite);
+
+    /**
+     * Página del historial de un tipo de entidad dentro de un {@link CondicionesCursor.Tramo}.
+     */
+    @Query("SELECT e FROM EventoAuditoria e WHERE e.entidad = :entidad AND " +
+           "e.fecha >= :desde AND e.fecha <= :hasta AND (e.fecha < :hasta OR e.id < :hastaId) AND " +
+           "(:usuario IS NULL OR e.usuario = :usuario) " +
+           "ORDER BY e.fecha DESC, e.id DESC")
+    List<EventoAuditoria> findPaginaPorEntidad(
+        @Param("entidad") String entidad,
+        @Param("usuario") String usuario,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("hastaId") long hastaId,
+        Pageable limite);
+
+    /**
+     * Página de la actividad de un usuario dentro de un {@link CondicionesCursor.Tramo}.
+     */
+    @Query("SELECT e FROM EventoAuditoria e WHERE e.usuario = :usuario AND " +
+           "e.fecha >= :desde AND e.fecha <= :hasta AND (e.fecha < :hasta OR e.id < :hastaId) AND " +
+           "(:accion IS NULL OR e.accion = :accion) " +
+           "ORDER BY e.fecha DESC, e.id DESC")
+    List<EventoAuditoria> findPaginaPorUsuario(
+        @Param("usuario") String usuario,
+        @Param("accion") String accion,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("hastaId") long hastaId,
+        Pageable limite);
+
+    /**
+     * Página de todos los eventos dentro de un {@link CondicionesCursor.Tramo}.
+     */
+    @Query("SELECT e FROM EventoAuditoria e WHERE " +
+           "e.fecha >= :desde AND e.fecha <= :hasta AND (e.fecha < :hasta OR e.id < :hastaId) AND " +
+           "(:accion IS NULL OR e.accion = :accion) " +
+           "ORDER BY e.fecha DESC, e.id DESC")
+    List<EventoAuditoria> findPagina(
+        @Param("accion") String accion,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("hastaId") long hastaId,
+        Pageable limite);
+}
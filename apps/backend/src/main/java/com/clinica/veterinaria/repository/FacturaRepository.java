@@ -1,10 +1,13 @@
 package com.clinica.veterinaria.repository;
 
 import com.clinica.veterinaria.entity.Factura;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FacturaRepository extends JpaRepository<Factura, Long> {
@@ -37,5 +41,24 @@ public interface FacturaRepository extends JpaRepository<Factura, Long> {
     @Query("SELECT COALESCE(SUM(f.montoPagado), 0) FROM Factura f WHERE f.fechaEmision BETWEEN :fechaInicio AND :fechaFin AND f.estado != 'CANCELADA'")
     BigDecimal sumMontoPagadoByFechaBetween(@Param("fechaInicio") LocalDate fechaInicio, 
                                              @Param("fechaFin") LocalDate fechaFin);
-}
 
+    /**
+     * Recorre las facturas emitidas en un rango para exportación, con el propietario cargado.
+     * 
+     * <p>Devuelve un cursor de solo lectura que trae las filas de 500 en 500: debe consumirse
+     * dentro de una transacción y cerrarse al terminar.</p>
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return Stream de facturas por fecha de emisión
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Factura f LEFT JOIN FETCH f.propietario " +
+           "WHERE f.fechaEmision BETWEEN :fechaInicio AND :fechaFin ORDER BY f.fechaEmision, f.id")
+    Stream<Factura> streamParaExportacion(
+        @Param("fechaInicio") LocalDate fechaInicio,
+        @Param("fechaFin") LocalDate fechaFin);
+}
@@ -0,0 +1,95 @@
+package com.clinica.veterinaria.repository;
+
+import com.clinica.veterinaria.entity.MensajeSaliente;
+import com.clinica.veterinaria.entity.MensajeSaliente.Estado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio JPA para la entidad {@link MensajeSaliente} (outbox de emails y SMS).
+ *
+ * <p>Un mensaje está "listo" si está PENDIENTE o EN_PROCESO con {@code proximoIntento}
+ * vencido; en el segundo caso el despachador que lo reclamó no terminó a tiempo (p. ej. se
+ * detuvo la aplicación) y otro puede retomarlo.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see MensajeSaliente
+ */
+@Repository
+public interface MensajeSalienteRepository extends JpaRepository<MensajeSaliente, Long> {
+
+    /**
+     * Busca los IDs de los mensajes listos para enviar, los más antiguos primero.
+     *
+     * @param ahora Momento actual
+     * @param limite Número máximo de IDs
+     * @return IDs de mensajes listos
+     */
+    @Query("SELECT m.id FROM MensajeSaliente m WHERE m.estado IN ('PENDIENTE', 'EN_PROCESO') " +
+           "AND m.proximoIntento <= :ahora ORDER BY m.proximoIntento, m.id")
+    List<Long> findIdsListos(@Param("ahora") LocalDateTime ahora, Pageable limite);
+
+    /**
+     * Reclama un mensaje listo para enviarlo, de forma atómica.
+     *
+     * <p>Solo actualiza la fila si sigue lista, por lo que si dos despachadores intentan
+     * reclamar el mismo mensaje solo uno obtiene 1 como resultado.</p>
+     *
+     * @param id ID del mensaje
+     * @param ahora Momento actual
+     * @param bloqueoHasta Momento hasta el que queda reservado para este despachador
+     * @return 1 si se reclamó, 0 si ya no estaba listo
+     */
+    @Modifying
+    @Query("UPDATE MensajeSaliente m SET m.estado = 'EN_PROCESO', m.proximoIntento = :bloqueoHasta, " +
+           "m.intentos = m.intentos + 1 " +
+           "WHERE m.id = :id AND m.estado IN ('PENDIENTE', 'EN_PROCESO') AND m.proximoIntento <= :ahora")
+    int reclamar(
+        @Param("id") Long id,
+        @Param("ahora") LocalDateTime ahora,
+        @Param("bloqueoHasta") LocalDateTime bloqueoHasta);
+
+    /**
+     * IDs de los mensajes en un estado final (ENVIADO o FALLIDO) cuyo último intento fue antes
+     * de la fecha límite, en lotes.
+     *
+     * <p>Al enviarse o agotar los reintentos, {@code proximoIntento} queda en el momento del
+     * último intento, por lo que el lote se resuelve con el índice (estado, proximo_intento).</p>
+     *
+     * @param estado Estado final
+     * @param fechaLimite Fecha límite (exclusiva)
+     * @param limite Tamaño del lote
+     * @return IDs de mensajes a eliminar
+     */
+    @Query("SELECT m.id FROM MensajeSaliente m WHERE m.estado = :estado AND m.proximoIntento < :fechaLimite " +
+           "ORDER BY m.proximoIntento")
+    List<Long> findIdsTerminadosAnteriores(
+        @Param("estado") Estado estado,
+        @Param("fechaLimite") LocalDateTime fechaLimite,
+        Pageable limite);
+
+    /**
+     * Elimina los mensajes indicados
+     */
+    @Modifying
+    @Query("DELETE FROM MensajeSaliente m WHERE m.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cuenta los mensajes en un estado (para monitorización).
+     *
+     * @param estado Estado a contar
+     * @return Número de mensajes
+     */
+    long countByEstado(Estado estado);
+}
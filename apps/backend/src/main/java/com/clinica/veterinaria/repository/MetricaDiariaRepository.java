@@ -0,0 +1,113 @@
+package com.clinica.veterinaria.repository;
+
+import com.clinica.veterinaria.entity.MetricaDiaria;
+import com.clinica.veterinaria.entity.MetricaDiaria.Tipo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio JPA para la entidad {@link MetricaDiaria}.
+ *
+ * <p>Proporciona el incremento atómico de contadores y las lecturas agregadas
+ * usadas por el dashboard y los reportes. Todas las lecturas recorren filas de
+ * la tabla {@code daily_metrics} (como mucho unas pocas por día), nunca las
+ * tablas de hechos.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see MetricaDiaria
+ */
+@Repository
+public interface MetricaDiariaRepository extends JpaRepository<MetricaDiaria, Long> {
+
+    /**
+     * Proyección de un total agrupado por clave.
+     */
+    interface TotalPorClave {
+        String getClave();
+        Long getTotal();
+    }
+
+    /**
+     * Incrementa atómicamente un contador existente.
+     *
+     * @param tipo Indicador
+     * @param fecha Día del contador
+     * @param clave Clave del contador
+     * @param delta Cantidad a sumar (negativa para restar)
+     * @return Número de filas actualizadas (0 si el contador aún no existe)
+     */
+    @Modifying
+    @Query("UPDATE MetricaDiaria m SET m.valor = m.valor + :delta " +
+           "WHERE m.tipo = :tipo AND m.fecha = :fecha AND m.clave = :clave")
+    int incrementar(
+        @Param("tipo") Tipo tipo,
+        @Param("fecha") LocalDate fecha,
+        @Param("clave") String clave,
+        @Param("delta") long delta);
+
+    /**
+     * Busca los contadores de un indicador en un rango de días
+     * @param tipo Indicador
+     * @param fechaInicio Primer día (inclusivo)
+     * @param fechaFin Último día (inclusivo)
+     * @return Contadores del rango
+     */
+    List<MetricaDiaria> findByTipoAndFechaBetween(Tipo tipo, LocalDate fechaInicio, LocalDate fechaFin);
+
+    /**
+     * Busca todos los contadores de un indicador
+     * @param tipo Indicador
+     * @return Contadores del indicador
+     */
+    List<MetricaDiaria> findByTipo(Tipo tipo);
+
+    /**
+     * Suma los contadores de un indicador en un rango de días
+     * @param tipo Indicador
+     * @param fechaInicio Primer día (inclusivo)
+     * @param fechaFin Último día (inclusivo)
+     * @return Total del rango (0 si no hay contadores)
+     */
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM MetricaDiaria m " +
+           "WHERE m.tipo = :tipo AND m.fecha BETWEEN :fechaInicio AND :fechaFin")
+    long sumarEnRango(
+        @Param("tipo") Tipo tipo,
+        @Param("fechaInicio") LocalDate fechaInicio,
+        @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Suma todos los contadores de un indicador con alguna de las claves indicadas
+     * @param tipo Indicador
+     * @param claves Claves a sumar
+     * @return Total (0 si no hay contadores)
+     */
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM MetricaDiaria m " +
+           "WHERE m.tipo = :tipo AND m.clave IN :claves")
+    long sumarPorClaves(@Param("tipo") Tipo tipo, @Param("claves") Collection<String> claves);
+
+    /**
+     * Suma todos los contadores de un indicador
+     * @param tipo Indicador
+     * @return Total (0 si no hay contadores)
+     */
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM MetricaDiaria m WHERE m.tipo = :tipo")
+    long sumarTotal(@Param("tipo") Tipo tipo);
+
+    /**
+     * Suma todos los contadores de un indicador agrupados por clave
+     * @param tipo Indicador
+     * @return Totales por clave
+     */
+    @Query("SELECT m.clave AS clave, SUM(m.valor) AS total FROM MetricaDiaria m " +
+           "WHERE m.tipo = :tipo GROUP BY m.clave")
+    List<TotalPorClave> sumarPorClave(@Param("tipo") Tipo tipo);
+}
@@ -3,13 +3,17 @@ package com.clinica.veterinaria.repository;
 import com.clinica.veterinaria.entity.MovimientoInventario;
 import com.clinica.veterinaria.entity.Producto;
 import com.clinica.veterinaria.entity.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la gestión de movimientos de inventario.
@@ -137,5 +141,25 @@ public interface MovimientoInventarioRepository extends JpaRepository<Movimiento
         @Param("fechaInicio") LocalDateTime fechaInicio,
         @Param("fechaFin") LocalDateTime fechaFin
     );
-}
 
+    /**
+     * Recorre los movimientos de un rango para exportación, con producto, usuario y proveedor cargados.
+     * 
+     * <p>Devuelve un cursor de solo lectura que trae las filas de 500 en 500: debe consumirse
+     * dentro de una transacción y cerrarse al terminar.</p>
+     * 
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return Stream de movimientos en orden cronológico
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM MovimientoInventario m LEFT JOIN FETCH m.producto LEFT JOIN FETCH m.usuario " +
+           "LEFT JOIN FETCH m.proveedor " +
+           "WHERE m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY m.fecha, m.id")
+    Stream<MovimientoInventario> streamParaExportacion(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin);
+}
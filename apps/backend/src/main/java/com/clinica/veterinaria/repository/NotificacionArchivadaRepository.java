@@ -0,0 +1,62 @@
+package com.clinica.veterinaria.repository;
+
+import com.clinica.veterinaria.entity.NotificacionArchivada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Repositorio JPA para la entidad {@link NotificacionArchivada}.
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see NotificacionArchivada
+ */
+@Repository
+public interface NotificacionArchivadaRepository extends JpaRepository<NotificacionArchivada, Long>, JpaSpecificationExecutor<NotificacionArchivada> {
+
+    /**
+     * Página del archivo de un usuario por cursor (keyset), más recientes primero.
+     *
+     * <p>Rango sobre el índice {@code (usuario_id, fecha_creacion, id)} (ver {@link CondicionesCursor}).</p>
+     *
+     * @param usuarioId ID del usuario
+     * @param cursorFecha Fecha de creación de la última notificación entregada (null para la primera página)
+     * @param cursorId ID de la última notificación entregada (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Notificaciones archivadas de la página
+     */
+    default List<NotificacionArchivada> findPaginaPorCursor(
+        Long usuarioId,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            CondicionesCursor.igual("usuarioId", Objects.requireNonNull(usuarioId, "usuarioId")),
+            CondicionesCursor.despuesDe("fechaCreacion", cursorFecha, cursorId)), "fechaCreacion", limite);
+    }
+
+    /**
+     * IDs de las notificaciones archivadas creadas antes de la fecha límite, en lotes.
+     */
+    @Query("SELECT n.id FROM NotificacionArchivada n WHERE n.fechaCreacion < :fechaLimite ORDER BY n.fechaCreacion")
+    List<Long> findIdsAnteriores(@Param("fechaLimite") LocalDateTime fechaLimite, Pageable limite);
+
+    /**
+     * Elimina las notificaciones archivadas indicadas
+     */
+    @Modifying
+    @Query("DELETE FROM NotificacionArchivada n WHERE n.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,13 +1,19 @@
 package com.clinica.veterinaria.repository;
 
 import com.clinica.veterinaria.entity.Notificacion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Repositorio JPA para la entidad {@link Notificacion}.
@@ -18,23 +24,71 @@ import java.util.List;
  * @see Notificacion
  */
 @Repository
-public interface NotificacionRepository extends JpaRepository<Notificacion, Long> {
+public interface NotificacionRepository extends JpaRepository<Notificacion, Long>, JpaSpecificationExecutor<Notificacion> {
 
     /**
-     * Busca todas las notificaciones de un usuario, ordenadas por fecha de creación descendente
+     * Busca las notificaciones más recientes de un usuario, hasta el límite indicado
      */
-    List<Notificacion> findByUsuarioIdOrderByFechaCreacionDesc(Long usuarioId);
+    List<Notificacion> findByUsuarioIdOrderByFechaCreacionDescIdDesc(Long usuarioId, Pageable limite);
 
     /**
-     * Busca las notificaciones no leídas de un usuario
+     * Busca las notificaciones no leídas más recientes de un usuario, hasta el límite indicado
      */
-    List<Notificacion> findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDesc(Long usuarioId);
+    List<Notificacion> findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDescIdDesc(Long usuarioId, Pageable limite);
+
+    /**
+     * Página de la bandeja de un usuario por cursor (keyset), más recientes primero.
+     *
+     * <p>Se resuelve con el índice compuesto {@code (usuario_id, fecha_creacion, id)}: el usuario
+     * y el cursor llegan a la base de datos como condiciones del índice (ver
+     * {@link CondicionesCursor}), así que cualquier página cuesta lo mismo que la primera, sea
+     * cual sea el tamaño del historial. El filtro de no leídas solo se añade si se pide.</p>
+     *
+     * @param usuarioId ID del usuario
+     * @param soloNoLeidas Si es true, solo devuelve las no leídas
+     * @param cursorFecha Fecha de creación de la última notificación entregada (null para la primera página)
+     * @param cursorId ID de la última notificación entregada (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Notificaciones de la página
+     */
+    default List<Notificacion> findPaginaPorCursor(
+        Long usuarioId,
+        boolean soloNoLeidas,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            CondicionesCursor.igual("usuario.id", Objects.requireNonNull(usuarioId, "usuarioId")),
+            CondicionesCursor.igual("leida", soloNoLeidas ? Boolean.FALSE : null),
+            CondicionesCursor.despuesDe("fechaCreacion", cursorFecha, cursorId)), "fechaCreacion", limite);
+    }
 
     /**
      * Cuenta las notificaciones no leídas de un usuario
      */
     long countByUsuarioIdAndLeidaFalse(Long usuarioId);
 
+    /**
+     * Indica si existe una notificación con ese ID perteneciente al usuario
+     */
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    /**
+     * Proyección del número de notificaciones no leídas de un usuario.
+     */
+    interface ConteoNoLeidasView {
+        Long getUsuarioId();
+        Long getTotal();
+    }
+
+    /**
+     * Cuenta las notificaciones no leídas de varios usuarios en una sola consulta.
+     * Los usuarios sin notificaciones no leídas no aparecen en el resultado.
+     */
+    @Query("SELECT n.usuario.id AS usuarioId, COUNT(n) AS total FROM Notificacion n " +
+           "WHERE n.usuario.id IN :usuarioIds AND n.leida = false GROUP BY n.usuario.id")
+    List<ConteoNoLeidasView> contarNoLeidasPorUsuario(@Param("usuarioIds") Collection<Long> usuarioIds);
+
     /**
      * Marca todas las notificaciones de un usuario como leídas
      */
@@ -43,17 +97,31 @@ public interface NotificacionRepository extends JpaRepository<Notificacion, Long
     int marcarTodasComoLeidas(@Param("usuarioId") Long usuarioId);
 
     /**
-     * Marca una notificación específica como leída
+     * Marca una notificación específica como leída si aún no lo estaba
+     * @return 1 si pasó a leída, 0 si ya estaba leída o no existe
      */
     @Modifying
-    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.id = :id AND n.usuario.id = :usuarioId")
+    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.id = :id AND n.usuario.id = :usuarioId AND n.leida = false")
     int marcarComoLeida(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
 
     /**
-     * Elimina notificaciones antiguas (más de X días)
+     * IDs de las notificaciones leídas creadas antes de la fecha límite, en lotes
+     */
+    @Query("SELECT n.id FROM Notificacion n WHERE n.leida = true AND n.fechaCreacion < :fechaLimite " +
+           "ORDER BY n.fechaCreacion")
+    List<Long> findIdsLeidasAnteriores(@Param("fechaLimite") LocalDateTime fechaLimite, Pageable limite);
+
+    /**
+     * IDs de las notificaciones (leídas o no) creadas antes de la fecha límite, en lotes
+     */
+    @Query("SELECT n.id FROM Notificacion n WHERE n.fechaCreacion < :fechaLimite ORDER BY n.fechaCreacion")
+    List<Long> findIdsAnteriores(@Param("fechaLimite") LocalDateTime fechaLimite, Pageable limite);
+
+    /**
+     * Elimina las notificaciones indicadas
      */
     @Modifying
-    @Query("DELETE FROM Notificacion n WHERE n.fechaCreacion < :fechaLimite")
-    int eliminarAntiguas(@Param("fechaLimite") java.time.LocalDateTime fechaLimite);
+    @Query("DELETE FROM Notificacion n WHERE n.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
 }
 
@@ -3,11 +3,14 @@ package com.clinica.veterinaria.repository;
 import com.clinica.veterinaria.entity.Paciente;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -33,7 +36,7 @@ import java.util.List;
  * @see PacienteService
  */
 @Repository
-public interface PacienteRepository extends JpaRepository<Paciente, Long> {
+public interface PacienteRepository extends JpaRepository<Paciente, Long>, JpaSpecificationExecutor<Paciente> {
 
     /**
      * Busca pacientes por propietario
@@ -141,5 +144,108 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
         @Param("activo") Boolean activo,
         Pageable pageable
     );
-}
 
+    /**
+     * Proyección de un conteo de pacientes agrupado por especie.
+     */
+    interface ConteoPorEspecie {
+        String getEspecie();
+        Long getTotal();
+    }
+
+    /**
+     * Estadísticas: cuenta pacientes activos agrupados por especie
+     * 
+     * <p>Usado por la conciliación nocturna de {@code daily_metrics}.</p>
+     * 
+     * @return Conteos por especie tal como está registrada
+     */
+    @Query("SELECT p.especie AS especie, COUNT(p) AS total FROM Paciente p " +
+           "WHERE p.activo = true GROUP BY p.especie")
+    List<ConteoPorEspecie> countActivosAgrupadosPorEspecie();
+
+    /**
+     * Página de pacientes por cursor (keyset), registrados más recientemente primero.
+     * 
+     * <p>Todos los filtros son opcionales y solo se añaden al query los indicados. El cursor es
+     * {@code (createdAt, id)} y se resuelve como rango sobre el índice {@code (created_at, id)}
+     * (ver {@link CondicionesCursor}).</p>
+     * 
+     * @param nombre Parte del nombre, sin distinguir mayúsculas (puede ser null)
+     * @param especie Especie exacta (puede ser null)
+     * @param cursorFecha Fecha de registro del último paciente entregado (null para la primera página)
+     * @param cursorId ID del último paciente entregado (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Pacientes de la página con propietario cargado
+     */
+    default List<Paciente> findPaginaPorCursor(
+        String nombre,
+        String especie,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            filtros(nombre, especie),
+            CondicionesCursor.despuesDe("createdAt", cursorFecha, cursorId),
+            CondicionesCursor.cargando("propietario")), "createdAt", limite);
+    }
+
+    /**
+     * Cuenta los pacientes que cumplen los filtros de {@link #findPaginaPorCursor}.
+     * 
+     * @return Total de pacientes que cumplen los filtros
+     */
+    default long countConFiltros(String nombre, String especie) {
+        return count(filtros(nombre, especie));
+    }
+
+    private static Specification<Paciente> filtros(String nombre, String especie) {
+        return Specification.allOf(
+            CondicionesCursor.contieneIgnorandoMayusculas("nombre", nombre),
+            CondicionesCursor.igual("especie", especie));
+    }
+
+    /**
+     * Proyección de un paciente para la búsqueda global.
+     */
+    interface ResultadoBusqueda {
+        Long getId();
+        String getNombre();
+        String getEspecie();
+        String getRaza();
+        String getPropietarioNombre();
+    }
+
+    /**
+     * Búsqueda global: pacientes activos cuyo nombre o raza contiene el término.
+     * 
+     * <p>Ordena primero los que empiezan por el término, después los que tienen una palabra
+     * que empieza por él, y a igualdad los de texto más corto. En PostgreSQL el
+     * {@code LIKE '%término%'} usa el índice trigram de {@code texto_busqueda}.</p>
+     * 
+     * @param patron Término normalizado como {@code %término%}
+     * @param prefijo Término normalizado como {@code término%}
+     * @param palabra Término normalizado como {@code % término%}
+     * @param limite Número máximo de resultados
+     * @return Pacientes encontrados, por relevancia
+     */
+    @Query("SELECT p.id AS id, p.nombre AS nombre, p.especie AS especie, p.raza AS raza, " +
+           "pr.nombre AS propietarioNombre FROM Paciente p LEFT JOIN p.propietario pr " +
+           "WHERE p.activo = true AND p.textoBusqueda LIKE :patron ESCAPE '\\' " +
+           "ORDER BY CASE WHEN p.textoBusqueda LIKE :prefijo ESCAPE '\\' THEN 0 " +
+           "WHEN p.textoBusqueda LIKE :palabra ESCAPE '\\' THEN 1 ELSE 2 END, " +
+           "LENGTH(p.textoBusqueda), p.id")
+    List<ResultadoBusqueda> buscarPorTexto(
+        @Param("patron") String patron,
+        @Param("prefijo") String prefijo,
+        @Param("palabra") String palabra,
+        Pageable limite);
+
+    /**
+     * Pacientes sin {@code texto_busqueda} (creados antes de existir la columna).
+     * 
+     * @param limite Tamaño del lote
+     * @return Lote de pacientes pendientes
+     */
+    List<Paciente> findByTextoBusquedaIsNull(Pageable limite);
+}
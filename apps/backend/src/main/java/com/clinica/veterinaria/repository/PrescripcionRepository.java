@@ -3,11 +3,14 @@ package com.clinica.veterinaria.repository;
 import com.clinica.veterinaria.entity.Prescripcion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,7 +19,7 @@ import java.util.List;
  * Proporciona métodos de acceso a datos para prescripciones médicas
  */
 @Repository
-public interface PrescripcionRepository extends JpaRepository<Prescripcion, Long> {
+public interface PrescripcionRepository extends JpaRepository<Prescripcion, Long>, JpaSpecificationExecutor<Prescripcion> {
 
     /**
      * Busca prescripciones por consulta
@@ -51,6 +54,15 @@ public interface PrescripcionRepository extends JpaRepository<Prescripcion, Long
            "WHERE p.consulta.id = :consultaId")
     List<Prescripcion> findPrescripcionesConItems(@Param("consultaId") Long consultaId);
 
+    /**
+     * Busca todas las prescripciones de un paciente con items cargados, para el historial médico
+     * @param pacienteId ID del paciente
+     * @return Lista de prescripciones con items (más recientes primero)
+     */
+    @Query("SELECT DISTINCT p FROM Prescripcion p LEFT JOIN FETCH p.items " +
+           "WHERE p.consulta.paciente.id = :pacienteId ORDER BY p.fechaEmision DESC, p.id")
+    List<Prescripcion> findHistorialByPacienteIdConItems(@Param("pacienteId") Long pacienteId);
+
     /**
      * Busca última prescripción de una consulta
      * @param consultaId ID de la consulta
@@ -83,5 +95,98 @@ public interface PrescripcionRepository extends JpaRepository<Prescripcion, Long
         @Param("fechaInicio") LocalDateTime fechaInicio,
         @Param("fechaFin") LocalDateTime fechaFin,
         Pageable pageable);
-}
 
+    /**
+     * Proyección de un conteo de prescripciones agrupado por día.
+     */
+    interface ConteoPorDia {
+        LocalDate getDia();
+        Long getTotal();
+    }
+
+    /**
+     * Estadísticas: cuenta todas las prescripciones agrupadas por día de emisión
+     * 
+     * <p>Usado por la conciliación nocturna de {@code daily_metrics}.</p>
+     * 
+     * @return Conteos por día
+     */
+    @Query("SELECT CAST(p.fechaEmision AS LocalDate) AS dia, COUNT(p) AS total " +
+           "FROM Prescripcion p GROUP BY CAST(p.fechaEmision AS LocalDate)")
+    List<ConteoPorDia> countAgrupadasPorDia();
+
+    /**
+     * Busca las prescripciones más recientes de un rango
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param pageable Configuración de paginación (límite)
+     * @return Prescripciones del rango, más recientes primero
+     */
+    @Query("SELECT p FROM Prescripcion p WHERE p.fechaEmision BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY p.fechaEmision DESC")
+    List<Prescripcion> findUltimasPrescripciones(
+        @Param("fechaInicio") LocalDateTime fechaInicio,
+        @Param("fechaFin") LocalDateTime fechaFin,
+        Pageable pageable);
+
+    /**
+     * Página de prescripciones por cursor (keyset), más recientes primero.
+     * 
+     * <p>Todos los filtros son opcionales y solo se añaden al query los indicados; el cursor se
+     * resuelve como rango sobre el índice {@code (fecha_emision, id)} (ver {@link CondicionesCursor}).
+     * No carga los items: la página se completa con {@link #findConItemsByIdIn} para no paginar
+     * en memoria un JOIN FETCH de colección.</p>
+     * 
+     * @param pacienteId ID del paciente (puede ser null)
+     * @param consultaId ID de la consulta (puede ser null)
+     * @param fechaInicio Fecha de emisión mínima inclusiva (puede ser null)
+     * @param fechaFin Fecha de emisión máxima inclusiva (puede ser null)
+     * @param cursorFecha Fecha de emisión de la última prescripción entregada (null para la primera página)
+     * @param cursorId ID de la última prescripción entregada (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Prescripciones de la página en orden {@code (fechaEmision DESC, id DESC)}
+     */
+    default List<Prescripcion> findPaginaPorCursor(
+        Long pacienteId,
+        Long consultaId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            filtros(pacienteId, consultaId, fechaInicio, fechaFin),
+            CondicionesCursor.despuesDe("fechaEmision", cursorFecha, cursorId)), "fechaEmision", limite);
+    }
+
+    /**
+     * Cuenta las prescripciones que cumplen los filtros de {@link #findPaginaPorCursor}.
+     * 
+     * @return Total de prescripciones que cumplen los filtros
+     */
+    default long countConFiltros(
+        Long pacienteId,
+        Long consultaId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+        return count(filtros(pacienteId, consultaId, fechaInicio, fechaFin));
+    }
+
+    private static Specification<Prescripcion> filtros(
+        Long pacienteId, Long consultaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return Specification.allOf(
+            CondicionesCursor.igual("consulta.paciente.id", pacienteId),
+            CondicionesCursor.igual("consulta.id", consultaId),
+            CondicionesCursor.desde("fechaEmision", fechaInicio),
+            CondicionesCursor.hasta("fechaEmision", fechaFin));
+    }
+
+    /**
+     * Carga un conjunto de prescripciones con sus items en un solo query.
+     * 
+     * @param ids IDs de las prescripciones
+     * @return Prescripciones con items cargados (sin orden garantizado)
+     */
+    @Query("SELECT DISTINCT p FROM Prescripcion p LEFT JOIN FETCH p.items WHERE p.id IN :ids")
+    List<Prescripcion> findConItemsByIdIn(@Param("ids") List<Long> ids);
+}
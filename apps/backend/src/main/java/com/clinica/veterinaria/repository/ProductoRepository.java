@@ -2,6 +2,7 @@ package com.clinica.veterinaria.repository;
 
 import com.clinica.veterinaria.entity.CategoriaProducto;
 import com.clinica.veterinaria.entity.Producto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -132,5 +133,46 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
            "AND p.stockMinimo IS NOT NULL " +
            "AND p.stockActual <= p.stockMinimo")
     long countProductosConStockBajo();
-}
 
+    /**
+     * Proyección de un producto para la búsqueda global.
+     */
+    interface ResultadoBusqueda {
+        Long getId();
+        String getNombre();
+        String getCodigo();
+        BigDecimal getStockActual();
+        String getUnidadMedida();
+    }
+
+    /**
+     * Búsqueda global: productos activos cuyo nombre o código contiene el término.
+     * 
+     * <p>Mismo ranking que {@link PacienteRepository#buscarPorTexto}.</p>
+     * 
+     * @param patron Término normalizado como {@code %término%}
+     * @param prefijo Término normalizado como {@code término%}
+     * @param palabra Término normalizado como {@code % término%}
+     * @param limite Número máximo de resultados
+     * @return Productos encontrados, por relevancia
+     */
+    @Query("SELECT p.id AS id, p.nombre AS nombre, p.codigo AS codigo, p.stockActual AS stockActual, " +
+           "p.unidadMedida AS unidadMedida FROM Producto p " +
+           "WHERE p.activo = true AND p.textoBusqueda LIKE :patron ESCAPE '\\' " +
+           "ORDER BY CASE WHEN p.textoBusqueda LIKE :prefijo ESCAPE '\\' THEN 0 " +
+           "WHEN p.textoBusqueda LIKE :palabra ESCAPE '\\' THEN 1 ELSE 2 END, " +
+           "LENGTH(p.textoBusqueda), p.id")
+    List<ResultadoBusqueda> buscarPorTexto(
+        @Param("patron") String patron,
+        @Param("prefijo") String prefijo,
+        @Param("palabra") String palabra,
+        Pageable limite);
+
+    /**
+     * Productos sin {@code texto_busqueda} (creados antes de existir la columna).
+     * 
+     * @param limite Tamaño del lote
+     * @return Lote de productos pendientes
+     */
+    List<Producto> findByTextoBusquedaIsNull(Pageable limite);
+}
@@ -3,11 +3,14 @@ package com.clinica.veterinaria.repository;
 import com.clinica.veterinaria.entity.Propietario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +19,7 @@ import java.util.Optional;
  * Proporciona métodos de acceso a datos para propietarios de mascotas
  */
 @Repository
-public interface PropietarioRepository extends JpaRepository<Propietario, Long> {
+public interface PropietarioRepository extends JpaRepository<Propietario, Long>, JpaSpecificationExecutor<Propietario> {
 
     /**
      * Busca propietario por documento
@@ -144,5 +147,92 @@ public interface PropietarioRepository extends JpaRepository<Propietario, Long>
      * @return Página de propietarios con el estado especificado
      */
     Page<Propietario> findByActivo(Boolean activo, Pageable pageable);
-}
 
+    /**
+     * Página de propietarios por cursor (keyset), registrados más recientemente primero.
+     * 
+     * <p>Todos los filtros son opcionales, se combinan con AND y solo se añaden al query los
+     * indicados. El cursor es {@code (createdAt, id)} y se resuelve como rango sobre el índice
+     * {@code (created_at, id)} (ver {@link CondicionesCursor}).</p>
+     * 
+     * @param nombre Parte del nombre, sin distinguir mayúsculas (puede ser null)
+     * @param documento Parte del documento (puede ser null)
+     * @param telefono Parte del teléfono (puede ser null)
+     * @param email Parte del email, sin distinguir mayúsculas (puede ser null)
+     * @param cursorFecha Fecha de registro del último propietario entregado (null para la primera página)
+     * @param cursorId ID del último propietario entregado (null para la primera página)
+     * @param limite Número máximo de filas
+     * @return Propietarios de la página
+     */
+    default List<Propietario> findPaginaPorCursor(
+        String nombre,
+        String documento,
+        String telefono,
+        String email,
+        LocalDateTime cursorFecha,
+        Long cursorId,
+        Pageable limite) {
+        return CondicionesCursor.pagina(this, Specification.allOf(
+            filtros(nombre, documento, telefono, email),
+            CondicionesCursor.despuesDe("createdAt", cursorFecha, cursorId)), "createdAt", limite);
+    }
+
+    /**
+     * Cuenta los propietarios que cumplen los filtros de {@link #findPaginaPorCursor}.
+     * 
+     * @return Total de propietarios que cumplen los filtros
+     */
+    default long countConFiltros(String nombre, String documento, String telefono, String email) {
+        return count(filtros(nombre, documento, telefono, email));
+    }
+
+    private static Specification<Propietario> filtros(String nombre, String documento, String telefono, String email) {
+        return Specification.allOf(
+            CondicionesCursor.contieneIgnorandoMayusculas("nombre", nombre),
+            CondicionesCursor.contiene("documento", documento),
+            CondicionesCursor.contiene("telefono", telefono),
+            CondicionesCursor.contieneIgnorandoMayusculas("email", email));
+    }
+
+    /**
+     * Proyección de un propietario para la búsqueda global.
+     */
+    interface ResultadoBusqueda {
+        Long getId();
+        String getNombre();
+        String getDocumento();
+        String getTelefono();
+    }
+
+    /**
+     * Búsqueda global: propietarios activos cuyo nombre, documento, teléfono o email
+     * contiene el término.
+     * 
+     * <p>Mismo ranking que {@link PacienteRepository#buscarPorTexto}; como el nombre va primero
+     * en {@code texto_busqueda}, las coincidencias por prefijo son las del nombre.</p>
+     * 
+     * @param patron Término normalizado como {@code %término%}
+     * @param prefijo Término normalizado como {@code término%}
+     * @param palabra Término normalizado como {@code % término%}
+     * @param limite Número máximo de resultados
+     * @return Propietarios encontrados, por relevancia
+     */
+    @Query("SELECT p.id AS id, p.nombre AS nombre, p.documento AS documento, p.telefono AS telefono " +
+           "FROM Propietario p WHERE p.activo = true AND p.textoBusqueda LIKE :patron ESCAPE '\\' " +
+           "ORDER BY CASE WHEN p.textoBusqueda LIKE :prefijo ESCAPE '\\' THEN 0 " +
+           "WHEN p.textoBusqueda LIKE :palabra ESCAPE '\\' THEN 1 ELSE 2 END, " +
+           "LENGTH(p.textoBusqueda), p.id")
+    List<ResultadoBusqueda> buscarPorTexto(
+        @Param("patron") String patron,
+        @Param("prefijo") String prefijo,
+        @Param("palabra") String palabra,
+        Pageable limite);
+
+    /**
+     * Propietarios sin {@code texto_busqueda} (creados antes de existir la columna).
+     * 
+     * @param limite Tamaño del lote
+     * @return Lote de propietarios pendientes
+     */
+    List<Propietario> findByTextoBusquedaIsNull(Pageable limite);
+}
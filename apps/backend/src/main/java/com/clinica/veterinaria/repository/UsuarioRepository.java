@@ -6,8 +6,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -105,6 +107,14 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     @Query("SELECT u FROM Usuario u WHERE u.rol = 'VET' AND u.activo = true ORDER BY u.nombre")
     List<Usuario> findVeterinariosActivos();
+
+    /**
+     * Devuelve cuáles de los IDs indicados corresponden a usuarios existentes
+     * @param ids IDs a comprobar
+     * @return IDs existentes (sin cargar las entidades)
+     */
+    @Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
     
     // Métodos de paginación
     Page<Usuario> findByRol(Rol rol, Pageable pageable);
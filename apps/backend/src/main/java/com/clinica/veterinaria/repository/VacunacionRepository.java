@@ -76,6 +76,32 @@ public interface VacunacionRepository extends JpaRepository<Vacunacion, Long> {
            "ORDER BY v.proximaDosis ASC")
     List<Vacunacion> findVencidas(@Param("fechaActual") LocalDate fechaActual);
 
+    /**
+     * Proyección de una vacunación con los datos mostrados en las alertas.
+     */
+    interface VacunacionAlertaView {
+        Long getId();
+        String getPacienteNombre();
+        String getVacunaNombre();
+        LocalDate getProximaDosis();
+    }
+
+    /**
+     * Busca las vacunaciones vencidas o próximas a vencer de pacientes con propietario.
+     * 
+     * <p>Una sola consulta sin cargar entidades: la separación entre vencidas y próximas
+     * se hace comparando {@code proximaDosis} con la fecha actual.</p>
+     * 
+     * @param fechaFin Fecha límite (inclusive) de la próxima dosis
+     * @return Proyecciones ordenadas por próxima dosis ascendente
+     */
+    @Query("SELECT v.id AS id, p.nombre AS pacienteNombre, va.nombre AS vacunaNombre, " +
+           "v.proximaDosis AS proximaDosis " +
+           "FROM Vacunacion v JOIN v.paciente p JOIN p.propietario JOIN v.vacuna va " +
+           "WHERE v.proximaDosis IS NOT NULL AND v.proximaDosis <= :fechaFin " +
+           "ORDER BY v.proximaDosis ASC")
+    List<VacunacionAlertaView> findParaAlertas(@Param("fechaFin") LocalDate fechaFin);
+
     /**
      * Busca vacunaciones por paciente con paginación ordenadas por fecha descendente
      */
@@ -90,5 +116,23 @@ public interface VacunacionRepository extends JpaRepository<Vacunacion, Long> {
      * Cuenta vacunaciones por vacuna
      */
     long countByVacunaId(Long vacunaId);
-}
 
+    /**
+     * Cuenta vacunaciones próximas a vencer (próxima dosis dentro de un rango)
+     */
+    @Query("SELECT COUNT(v) FROM Vacunacion v WHERE " +
+           "v.proximaDosis IS NOT NULL AND " +
+           "v.proximaDosis BETWEEN :fechaInicio AND :fechaFin")
+    long countProximasAVencer(
+        @Param("fechaInicio") LocalDate fechaInicio,
+        @Param("fechaFin") LocalDate fechaFin
+    );
+
+    /**
+     * Cuenta vacunaciones vencidas (próxima dosis pasada)
+     */
+    @Query("SELECT COUNT(v) FROM Vacunacion v WHERE " +
+           "v.proximaDosis IS NOT NULL AND " +
+           "v.proximaDosis < :fechaActual")
+    long countVencidas(@Param("fechaActual") LocalDate fechaActual);
+}
@@ -0,0 +1,201 @@
+package com.clinica.veterinaria.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Caché de tokens JWT ya verificados y de los {@link UserDetails} de su titular.
+ *
+ * <p>Sin caché, cada petición autenticada verificaba la firma del token tres veces
+ * (username, rol y validación) y consultaba la base de datos para cargar el usuario. Con ella,
+ * la primera petición de un token hace una única verificación HMAC y una única consulta, y las
+ * siguientes solo calculan el SHA-256 del token y buscan en memoria.</p>
+ *
+ * <p><strong>Claves y expiración:</strong> la clave es el SHA-256 del token (el token en claro
+ * no se retiene en memoria). Cada entrada vive como máximo {@code ttl-segundos} y nunca más allá
+ * de la expiración del propio token, de modo que un token expirado no puede autenticarse desde
+ * la caché.</p>
+ *
+ * <p><strong>Invalidación:</strong> los servicios que desactivan un usuario o propietario, o
+ * cambian su contraseña, email o rol, llaman a {@link #invalidarUsuario(String)}. Las entradas
+ * se eliminan en el momento y otra vez al terminar la transacción en curso, para que una
+ * petición concurrente no vuelva a cachear el estado anterior antes del commit.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see JwtAuthenticationFilter
+ * @see com.clinica.veterinaria.config.WebSocketSecurityConfig
+ */
+@Component
+@Slf4j
+public class CacheAutenticacionJwt {
+
+    private static final String ROL_CLIENTE = "CLIENTE";
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final ClienteUserDetailsService clienteUserDetailsService;
+    private final Cache<String, Entrada> cache;
+
+    public CacheAutenticacionJwt(
+            JwtUtil jwtUtil,
+            CustomUserDetailsService userDetailsService,
+            ClienteUserDetailsService clienteUserDetailsService,
+            @Value("${app.security.jwt.cache.ttl-segundos:60}") long ttlSegundos,
+            @Value("${app.security.jwt.cache.max-entradas:10000}") long maxEntradas) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.clienteUserDetailsService = clienteUserDetailsService;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfter(new ExpiraConElToken(Duration.ofSeconds(ttlSegundos).toNanos()))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Autentica un token JWT.
+     *
+     * @param token Token JWT compacto (sin el prefijo {@code Bearer })
+     * @return Detalles del usuario, o null si el token no es válido o el usuario no existe o
+     *         está inactivo
+     */
+    public UserDetails autenticar(String token) {
+        String clave = hash(token);
+        Entrada entrada = cache.getIfPresent(clave);
+        if (entrada != null) {
+            return entrada.userDetails();
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("✗ Token JWT rechazado: {}", e.getMessage());
+            return null;
+        }
+
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+        UserDetails userDetails = cargarUsuario(username, claims.get("rol", String.class));
+        if (userDetails == null) {
+            return null;
+        }
+        cache.put(clave, new Entrada(username, userDetails, claims.getExpiration().getTime()));
+        return userDetails;
+    }
+
+    /**
+     * Elimina de la caché todos los tokens de un usuario o propietario.
+     *
+     * <p>Si hay una transacción activa, la eliminación se repite al terminar, cuando el cambio
+     * ya es visible para las demás peticiones.</p>
+     *
+     * @param email Email del usuario o propietario
+     */
+    public void invalidarUsuario(String email) {
+        if (email == null) {
+            return;
+        }
+        eliminar(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eliminar(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Número aproximado de tokens en caché.
+     */
+    public long tamano() {
+        return cache.estimatedSize();
+    }
+
+    private void eliminar(String email) {
+        if (cache.asMap().values().removeIf(entrada -> entrada.username().equalsIgnoreCase(email))) {
+            log.debug("→ Tokens en caché invalidados para: {}", email);
+        }
+    }
+
+    /**
+     * Carga los detalles según el rol del token; si falla, prueba como usuario del sistema y
+     * después como cliente (mismo orden que antes de existir la caché).
+     */
+    private UserDetails cargarUsuario(String username, String rol) {
+        try {
+            return ROL_CLIENTE.equals(rol)
+                ? clienteUserDetailsService.loadUserByUsername(username)
+                : userDetailsService.loadUserByUsername(username);
+        } catch (RuntimeException e) {
+            try {
+                return userDetailsService.loadUserByUsername(username);
+            } catch (UsernameNotFoundException ex) {
+                try {
+                    return clienteUserDetailsService.loadUserByUsername(username);
+                } catch (UsernameNotFoundException ex2) {
+                    log.warn("✗ Usuario del token no encontrado o inactivo: {}", username);
+                    return null;
+                }
+            }
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 no disponible", e);
+        }
+    }
+
+    private record Entrada(String username, UserDetails userDetails, long expiraEpochMs) {}
+
+    /**
+     * Expira cada entrada al cumplirse el TTL o la expiración del token, lo que ocurra antes.
+     */
+    private record ExpiraConElToken(long ttlNanos) implements Expiry<String, Entrada> {
+
+        @Override
+        public long expireAfterCreate(@NonNull String clave, @NonNull Entrada entrada, long ahoraNanos) {
+            long restanteMs = entrada.expiraEpochMs() - System.currentTimeMillis();
+            return Math.max(0, Math.min(ttlNanos, Duration.ofMillis(restanteMs).toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull String clave, @NonNull Entrada entrada, long ahoraNanos,
+                long duracionActual) {
+            return expireAfterCreate(clave, entrada, ahoraNanos);
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull String clave, @NonNull Entrada entrada, long ahoraNanos,
+                long duracionActual) {
+            return duracionActual;
+        }
+    }
+}
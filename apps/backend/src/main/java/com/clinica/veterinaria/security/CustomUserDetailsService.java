@@ -3,10 +3,12 @@ package com.clinica.veterinaria.security;
 import com.clinica.veterinaria.entity.Usuario;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -47,6 +49,10 @@ import java.util.Collections;
  * <p><strong>Formato de roles:</strong> Los roles se convierten a "ROLE_ROLNAME" (ej: "ROLE_VET")
  * para compatibilidad con Spring Security.</p>
  * 
+ * <p><strong>Actualización de hashes:</strong> como {@link UserDetailsPasswordService}, recibe de
+ * Spring Security el nuevo hash tras un login correcto cuyo hash almacenado tenga un coste BCrypt
+ * menor que el configurado ({@code app.security.bcrypt.coste}).</p>
+ * 
  * @author Sebastian Ordoñez
  * @version 1.0.0
  * @since 2025-11-06
@@ -58,7 +64,8 @@ import java.util.Collections;
 @Service
 @Primary
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UsuarioRepository usuarioRepository;
 
@@ -90,5 +97,19 @@ public class CustomUserDetailsService implements UserDetailsService {
             .disabled(!usuario.getActivo())
             .build();
     }
+
+    /**
+     * Guarda el hash recalculado con el coste BCrypt actual.
+     * Spring Security lo llama tras un login correcto si el hash almacenado debe actualizarse.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usuarioRepository.findByEmail(user.getUsername()).ifPresent(usuario -> {
+            usuario.setPassword(newPassword);
+            usuarioRepository.save(usuario);
+            log.info("✓ Hash de contraseña actualizado al coste actual para: {}", user.getUsername());
+        });
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
 
@@ -0,0 +1,92 @@
+package com.clinica.veterinaria.security;
+
+import com.clinica.veterinaria.dto.ErrorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Filtro que limita por IP los intentos de login y de recuperación de contraseña.
+ *
+ * <p>Se ejecuta antes de que Spring MVC lea el cuerpo de la petición: una IP que agota su
+ * cubeta recibe 429 con {@code Retry-After} sin que se consulte la base de datos ni se calcule
+ * ningún hash. El límite por email lo aplican los servicios.</p>
+ *
+ * <p>La cubeta se asigna por {@code request.getRemoteAddr()} y no por {@code X-Forwarded-For}:
+ * esa cabecera la controla el cliente, y con un valor nuevo en cada petición obtendría una
+ * cubeta nueva cada vez (y podría llenar el mapa de cubetas desalojando las legítimas). Detrás
+ * de un proxy, la IP real la resuelve Tomcat ({@code server.forward-headers-strategy=native})
+ * solo para conexiones de los proxies de {@code server.tomcat.remoteip.internal-proxies}.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see LimitadorIntentos
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class FiltroLimiteIntentos extends OncePerRequestFilter {
+
+    /** Endpoints limitados (todos POST) y su familia. */
+    private static final Map<String, LimitadorIntentos.Familia> RUTAS = Map.of(
+        "/api/auth/login", LimitadorIntentos.Familia.LOGIN,
+        "/api/public/clientes/auth/login", LimitadorIntentos.Familia.LOGIN,
+        "/api/public/password/forgot-usuario", LimitadorIntentos.Familia.RECUPERACION,
+        "/api/public/password/forgot-cliente", LimitadorIntentos.Familia.RECUPERACION,
+        "/api/public/password/reset", LimitadorIntentos.Familia.RECUPERACION
+    );
+
+    private final LimitadorIntentos limitadorIntentos;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !RUTAS.containsKey(ruta(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        LimitadorIntentos.Familia familia = RUTAS.get(ruta(request));
+        long reintentar = limitadorIntentos.consumirIp(familia, request.getRemoteAddr());
+        if (reintentar == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ErrorResponseDTO errorResponse = ErrorResponseDTO.builder()
+            .mensaje("Demasiados intentos desde esta dirección. Espera unos segundos antes de volver a intentarlo.")
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .timestamp(LocalDateTime.now())
+            .path(request.getRequestURI())
+            .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(reintentar));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static String ruta(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -9,7 +9,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,14 +18,16 @@ import java.io.IOException;
 /**
  * Filtro para interceptar requests y validar tokens JWT
  * Se ejecuta una vez por cada request
+ * 
+ * <p>La verificación del token y la carga del usuario se delegan en
+ * {@link CacheAutenticacionJwt}: en el camino habitual no hay verificación de firma ni
+ * consulta a la base de datos.</p>
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
-    private final ClienteUserDetailsService clienteUserDetailsService;
+    private final CacheAutenticacionJwt cacheAutenticacion;
 
     /**
      * Filtra cada request para validar el token JWT
@@ -40,50 +41,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extraer el header Authorization
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        // Validar que el header existe y tiene el formato correcto, y que no hay autenticación en el contexto
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7); // Extraer el token
 
-        // Validar que el header existe y tiene el formato correcto
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7); // Extraer el token
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("Error extrayendo username del token JWT", e);
-            }
-        }
-
-        // Si tenemos username y no hay autenticación en el contexto
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            
             UserDetails userDetails = null;
-            
             try {
-                // Intentar extraer el rol del token
-                String rol = jwtUtil.extractRole(jwt);
-                
-                // Cargar los detalles según el tipo de usuario
-                if ("CLIENTE".equals(rol)) {
-                    userDetails = this.clienteUserDetailsService.loadUserByUsername(username);
-                } else {
-                    userDetails = this.userDetailsService.loadUserByUsername(username);
-                }
+                userDetails = cacheAutenticacion.autenticar(jwt);
             } catch (Exception e) {
-                // Si no se puede extraer el rol, intentar como usuario del sistema
-                try {
-                    userDetails = this.userDetailsService.loadUserByUsername(username);
-                } catch (UsernameNotFoundException ex) {
-                    // Si falla, intentar como cliente
-                    try {
-                        userDetails = this.clienteUserDetailsService.loadUserByUsername(username);
-                    } catch (UsernameNotFoundException ex2) {
-                        logger.error("Usuario no encontrado: " + username);
-                    }
-                }
+                logger.error("Error validando el token JWT", e);
             }
 
-            // Validar el token si tenemos userDetails
-            if (userDetails != null && Boolean.TRUE.equals(jwtUtil.validateToken(jwt, userDetails))) {
+            if (userDetails != null) {
                 
                 // Crear el objeto de autenticación
                 UsernamePasswordAuthenticationToken authenticationToken = 
@@ -106,4 +76,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 }
-
@@ -1,8 +1,10 @@
 package com.clinica.veterinaria.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -43,6 +45,9 @@ import java.util.function.Function;
  *   <li>Los tokens expirados son rechazados automáticamente</li>
  * </ul>
  * 
+ * <p>La clave de firma y el parser se construyen una sola vez al arrancar; ambos son
+ * inmutables y seguros entre hilos.</p>
+ * 
  * @author Sebastian Ordoñez
  * @version 1.0.0
  * @since 2025-11-06
@@ -58,6 +63,15 @@ public class JwtUtil {
 
     private static final long JWT_TOKEN_VALIDITY = 10L * 60L * 60L * 1000L; // 10 horas
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void inicializar() {
+        signingKey = buildSigningKey();
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     /**
      * Obtiene la clave de firma garantizando al menos 256 bits (32 bytes).
      * 
@@ -67,7 +81,7 @@ public class JwtUtil {
      * @return SecretKey con al menos 256 bits
      * @throws IllegalStateException si no se puede generar la clave
      */
-    private SecretKey getSigningKey() {
+    private SecretKey buildSigningKey() {
         byte[] keyBytes = secret.getBytes();
         
         // Si el secret tiene menos de 32 bytes, generar hash SHA-256 para obtener exactamente 32 bytes
@@ -113,26 +127,23 @@ public class JwtUtil {
      * Extrae un claim específico del token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
     /**
-     * Extrae todos los claims del token
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-    }
-
-    /**
-     * Verifica si el token ha expirado
+     * Verifica la firma y la expiración del token y devuelve todos sus claims.
+     * 
+     * <p>Es una única verificación HMAC; quien necesite varios claims del mismo token debe
+     * llamar a este método una vez en lugar de a varios {@code extractX}.</p>
+     * 
+     * @param token Token JWT compacto
+     * @return Claims del token
+     * @throws io.jsonwebtoken.JwtException si el token está mal formado, la firma no es válida
+     *         o ha expirado
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -174,7 +185,7 @@ public class JwtUtil {
             .subject(subject)
             .issuedAt(now)
             .expiration(expiration)
-            .signWith(getSigningKey())
+            .signWith(signingKey)
             .compact();
     }
 
@@ -182,8 +193,8 @@ public class JwtUtil {
      * Valida el token
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = parseClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 }
 
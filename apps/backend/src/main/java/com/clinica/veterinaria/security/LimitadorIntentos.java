@@ -0,0 +1,206 @@
+package com.clinica.veterinaria.security;
+
+import com.clinica.veterinaria.exception.domain.DemasiadasSolicitudesException;
+import com.clinica.veterinaria.logging.IAuditLogger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de intentos para los endpoints de autenticación, con cubetas de tokens por IP y
+ * por email.
+ *
+ * <p>Cada intento de login o de recuperación de contraseña cuesta una consulta y un hash BCrypt
+ * (y, en la recuperación, una fila de token y un email). Este componente se consulta
+ * <em>antes</em> de hacer ese trabajo:</p>
+ * <ul>
+ *   <li><b>Por IP:</b> {@link FiltroLimiteIntentos} lo comprueba antes de leer el cuerpo de la
+ *       petición.</li>
+ *   <li><b>Por email:</b> {@code AuthService}, {@code ClienteAuthService} y
+ *       {@code PasswordResetService} lo comprueban antes de consultar la base de datos, lo que
+ *       frena los ataques a una misma cuenta desde muchas IPs.</li>
+ * </ul>
+ *
+ * <p><strong>Cubetas:</strong> cada clave (familia + IP o email) tiene una cubeta de
+ * {@code capacidad} intentos que recupera uno cada {@code recarga-segundos}. Se implementa con
+ * el algoritmo GCRA sobre un único {@link AtomicLong} (el instante teórico en que la cubeta
+ * vuelve a estar llena), así que consumir un intento es una lectura y un compare-and-set, sin
+ * bloqueos. Las cubetas viven en un mapa Caffeine acotado a {@code max-claves}; una cubeta sin
+ * uso durante el tiempo que tarda en rellenarse se elimina, porque volvería a estar llena.</p>
+ *
+ * <p><strong>Auditoría:</strong> el primer rechazo de cada racha se registra con
+ * {@link IAuditLogger#logSecurityEvent(String, String)}; los siguientes no, para que un ataque
+ * no inunde el log de seguridad.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see FiltroLimiteIntentos
+ */
+@Component
+@Slf4j
+public class LimitadorIntentos {
+
+    /**
+     * Familias de endpoints con límites independientes.
+     */
+    public enum Familia {
+        /** Inicio de sesión de usuarios del sistema y clientes. */
+        LOGIN,
+        /** Solicitud y uso de enlaces de recuperación de contraseña. */
+        RECUPERACION
+    }
+
+    private static final String MSG_LIMITE =
+        "Demasiados intentos. Espera unos segundos antes de volver a intentarlo.";
+
+    private final IAuditLogger auditLogger;
+    private final LongSupplier reloj;
+    private final boolean habilitado;
+    private final Limite loginIp;
+    private final Limite loginEmail;
+    private final Limite recuperacionIp;
+    private final Limite recuperacionEmail;
+    private final Cache<String, Cubeta> cubetas;
+
+    @Autowired
+    public LimitadorIntentos(
+            IAuditLogger auditLogger,
+            @Value("${app.rate-limit.habilitado:true}") boolean habilitado,
+            @Value("${app.rate-limit.max-claves:100000}") long maxClaves,
+            @Value("${app.rate-limit.login.ip.capacidad:20}") int loginIpCapacidad,
+            @Value("${app.rate-limit.login.ip.recarga-segundos:3}") long loginIpRecarga,
+            @Value("${app.rate-limit.login.email.capacidad:5}") int loginEmailCapacidad,
+            @Value("${app.rate-limit.login.email.recarga-segundos:60}") long loginEmailRecarga,
+            @Value("${app.rate-limit.recuperacion.ip.capacidad:5}") int recuperacionIpCapacidad,
+            @Value("${app.rate-limit.recuperacion.ip.recarga-segundos:60}") long recuperacionIpRecarga,
+            @Value("${app.rate-limit.recuperacion.email.capacidad:3}") int recuperacionEmailCapacidad,
+            @Value("${app.rate-limit.recuperacion.email.recarga-segundos:600}") long recuperacionEmailRecarga) {
+        this(auditLogger, System::nanoTime, habilitado, maxClaves,
+            new Limite(loginIpCapacidad, Duration.ofSeconds(loginIpRecarga)),
+            new Limite(loginEmailCapacidad, Duration.ofSeconds(loginEmailRecarga)),
+            new Limite(recuperacionIpCapacidad, Duration.ofSeconds(recuperacionIpRecarga)),
+            new Limite(recuperacionEmailCapacidad, Duration.ofSeconds(recuperacionEmailRecarga)));
+    }
+
+    LimitadorIntentos(IAuditLogger auditLogger, LongSupplier reloj, boolean habilitado, long maxClaves,
+            Limite loginIp, Limite loginEmail, Limite recuperacionIp, Limite recuperacionEmail) {
+        this.auditLogger = auditLogger;
+        this.reloj = reloj;
+        this.habilitado = habilitado;
+        this.loginIp = loginIp;
+        this.loginEmail = loginEmail;
+        this.recuperacionIp = recuperacionIp;
+        this.recuperacionEmail = recuperacionEmail;
+        long inactividadMaxima = Math.max(Math.max(loginIp.rellenoNanos(), loginEmail.rellenoNanos()),
+            Math.max(recuperacionIp.rellenoNanos(), recuperacionEmail.rellenoNanos()));
+        this.cubetas = Caffeine.newBuilder()
+            .maximumSize(maxClaves)
+            .expireAfterAccess(inactividadMaxima, TimeUnit.NANOSECONDS)
+            .build();
+    }
+
+    /**
+     * Consume un intento de la cubeta de una IP.
+     *
+     * @param familia Familia del endpoint
+     * @param ip IP del cliente
+     * @return 0 si el intento está permitido; si no, segundos hasta el siguiente intento
+     */
+    public long consumirIp(Familia familia, String ip) {
+        return consumir(familia, "ip", ip, familia == Familia.LOGIN ? loginIp : recuperacionIp);
+    }
+
+    /**
+     * Consume un intento de la cubeta de un email.
+     *
+     * @param familia Familia del endpoint
+     * @param email Email de la cuenta
+     * @throws DemasiadasSolicitudesException si la cubeta está vacía
+     */
+    public void verificarEmail(Familia familia, String email) {
+        if (email == null) {
+            return;
+        }
+        long reintentar = consumir(familia, "email", email.trim().toLowerCase(Locale.ROOT),
+            familia == Familia.LOGIN ? loginEmail : recuperacionEmail);
+        if (reintentar > 0) {
+            throw new DemasiadasSolicitudesException(MSG_LIMITE, reintentar);
+        }
+    }
+
+    private long consumir(Familia familia, String tipo, String valor, Limite limite) {
+        if (!habilitado || valor == null) {
+            return 0;
+        }
+        String clave = familia.name() + ':' + tipo + ':' + valor;
+        Cubeta cubeta = cubetas.get(clave, k -> new Cubeta());
+        long esperaNanos = cubeta.intentar(reloj.getAsLong(), limite);
+        if (esperaNanos == 0) {
+            return 0;
+        }
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+        if (cubeta.rechazoNotificado.compareAndSet(false, true)) {
+            log.warn("⚠ Límite de intentos alcanzado - {} {}: {}", familia, tipo, valor);
+            auditLogger.logSecurityEvent("RATE_LIMIT_" + familia,
+                String.format("Límite por %s alcanzado para %s; siguiente intento en %d s", tipo, valor, segundos));
+        }
+        return segundos;
+    }
+
+    /**
+     * Límite de una cubeta: {@code capacidad} intentos seguidos y uno nuevo cada {@code recarga}.
+     */
+    record Limite(int capacidad, long intervaloNanos) {
+
+        Limite(int capacidad, Duration recarga) {
+            this(capacidad, recarga.toNanos());
+        }
+
+        /** Tiempo que tarda una cubeta vacía en llenarse. */
+        long rellenoNanos() {
+            return capacidad * intervaloNanos;
+        }
+    }
+
+    /**
+     * Cubeta de tokens según GCRA: {@code tat} es el instante teórico en que la cubeta vuelve
+     * a estar llena. Un intento se permite si, tras sumarle un intervalo, la cubeta no queda más
+     * allá de su capacidad.
+     */
+    static final class Cubeta {
+
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicBoolean rechazoNotificado = new AtomicBoolean();
+
+        /**
+         * @return 0 si el intento se permite; si no, nanosegundos hasta que se permita uno
+         */
+        long intentar(long ahora, Limite limite) {
+            while (true) {
+                long actual = tat.get();
+                long nuevo = Math.max(actual, ahora) + limite.intervaloNanos();
+                long exceso = nuevo - ahora - limite.rellenoNanos();
+                if (exceso > 0) {
+                    return exceso;
+                }
+                if (tat.compareAndSet(actual, nuevo)) {
+                    if (rechazoNotificado.get()) {
+                        rechazoNotificado.set(false);
+                    }
+                    return 0;
+                }
+            }
+        }
+    }
+}
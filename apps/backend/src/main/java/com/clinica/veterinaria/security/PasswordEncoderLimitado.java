@@ -0,0 +1,119 @@
+package com.clinica.veterinaria.security;
+
+import com.clinica.veterinaria.exception.domain.ServicioSaturadoException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link PasswordEncoder} que calcula los hashes en un pool de hilos acotado.
+ *
+ * <p>BCrypt consume CPU a propósito (decenas o cientos de milisegundos por hash). Si cada hilo
+ * de Tomcat lo calcula por su cuenta, una ráfaga de inicios de sesión ocupa todos los núcleos y
+ * todos los hilos del servidor, y el resto de endpoints deja de responder. Con este encoder:</p>
+ * <ul>
+ *   <li>Como mucho {@code hilos} hashes se calculan a la vez (por defecto, uno por núcleo).</li>
+ *   <li>Como mucho {@code cola} peticiones esperan turno; las demás se rechazan al instante con
+ *       {@link ServicioSaturadoException} (HTTP 503 + {@code Retry-After}).</li>
+ *   <li>Una petición que espera más de {@code espera-maxima} también se rechaza y su tarea se
+ *       cancela si aún no había empezado, para no gastar CPU en respuestas que nadie espera.</li>
+ * </ul>
+ *
+ * <p>Así, los hilos de Tomcat ocupados por el hashing quedan limitados a {@code hilos + cola}
+ * y la CPU restante sigue disponible para las demás peticiones.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see SecurityConfig#passwordEncoder()
+ */
+@Slf4j
+public class PasswordEncoderLimitado implements PasswordEncoder, DisposableBean {
+
+    private static final String MSG_SATURADO =
+        "El servidor está procesando demasiados inicios de sesión. Inténtalo de nuevo en unos segundos.";
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolTaskExecutor pool;
+    private final long esperaMaximaMs;
+    private final long reintentarEnSegundos;
+
+    /**
+     * @param delegado Encoder que calcula los hashes (BCrypt)
+     * @param hilos Hashes simultáneos como máximo
+     * @param cola Peticiones en espera como máximo
+     * @param esperaMaxima Tiempo máximo que una petición espera su hash
+     * @param reintentarEnSegundos Valor de {@code Retry-After} cuando se rechaza una petición
+     */
+    public PasswordEncoderLimitado(PasswordEncoder delegado, int hilos, int cola, Duration esperaMaxima,
+            long reintentarEnSegundos) {
+        this.delegado = delegado;
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+        this.reintentarEnSegundos = reintentarEnSegundos;
+        this.pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("hashing-");
+        pool.setCorePoolSize(hilos);
+        pool.setMaxPoolSize(hilos);
+        pool.setQueueCapacity(cola);
+        pool.initialize();
+        log.info("✓ Hashing de contraseñas limitado a {} hilos y {} en espera", hilos, cola);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * No calcula ningún hash (solo lee el coste del hash almacenado), así que no pasa por el pool.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> futuro;
+        try {
+            futuro = pool.submit(tarea);
+        } catch (TaskRejectedException e) {
+            log.warn("⚠ Pool de hashing lleno: petición rechazada");
+            throw new ServicioSaturadoException(MSG_SATURADO, reintentarEnSegundos);
+        }
+        try {
+            return futuro.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(false);
+            log.warn("⚠ Hash de contraseña no calculado tras {} ms: petición rechazada", esperaMaximaMs);
+            throw new ServicioSaturadoException(MSG_SATURADO, reintentarEnSegundos);
+        } catch (InterruptedException e) {
+            futuro.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se calculaba el hash de la contraseña", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error calculando el hash de la contraseña", e.getCause());
+        }
+    }
+}
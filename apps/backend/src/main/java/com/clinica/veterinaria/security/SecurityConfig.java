@@ -21,6 +21,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -61,7 +62,8 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>CSRF deshabilitado (no necesario con JWT stateless)</li>
  *   <li>Sesiones stateless (sin almacenamiento de sesión en servidor)</li>
- *   <li>Password encoder: BCrypt (hashing seguro de contraseñas)</li>
+ *   <li>Password encoder: BCrypt con coste configurable, calculado en un pool acotado
+ *       ({@link PasswordEncoderLimitado}); los hashes con coste menor se actualizan al iniciar sesión</li>
  * </ul>
  * 
  * @author Sebastian Ordoñez
@@ -83,12 +85,37 @@ public class SecurityConfig {
 private String allowedOrigins;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.security.bcrypt.coste:10}")
+    private int bcryptCoste;
+
+    @Value("${app.security.hashing.hilos:0}")
+    private int hashingHilos;
+
+    @Value("${app.security.hashing.cola:64}")
+    private int hashingCola;
+
+    @Value("${app.security.hashing.espera-maxima-ms:5000}")
+    private long hashingEsperaMaximaMs;
+
+    @Value("${app.security.hashing.reintentar-segundos:2}")
+    private long hashingReintentarSegundos;
+
     /**
-     * Configura el password encoder (BCrypt)
+     * Configura el password encoder (BCrypt con el coste configurado, en un pool acotado).
+     * 
+     * <p>{@code BCryptPasswordEncoder.upgradeEncoding} indica que un hash debe actualizarse
+     * cuando su coste es menor que {@code app.security.bcrypt.coste}; el proveedor de
+     * autenticación lo recalcula tras un login correcto.</p>
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int hilos = hashingHilos > 0 ? hashingHilos : Runtime.getRuntime().availableProcessors();
+        return new PasswordEncoderLimitado(
+            new BCryptPasswordEncoder(bcryptCoste),
+            hilos,
+            hashingCola,
+            Duration.ofMillis(hashingEsperaMaximaMs),
+            hashingReintentarSegundos);
     }
 
     /**
@@ -99,6 +126,7 @@ private String allowedOrigins;
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -9,6 +9,7 @@
  * <ul>
  *   <li><strong>JwtUtil</strong> - Utilidad para generar y validar tokens JWT</li>
  *   <li><strong>JwtAuthenticationFilter</strong> - Filtro para interceptar y validar requests</li>
+ *   <li><strong>CacheAutenticacionJwt</strong> - Caché de tokens verificados y sus UserDetails</li>
  *   <li><strong>CustomUserDetailsService</strong> - Carga de usuarios para autenticación</li>
  *   <li><strong>SecurityConfig</strong> - Configuración de Spring Security</li>
  * </ul>
@@ -0,0 +1,84 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.CursorPageDTO;
+import com.clinica.veterinaria.dto.EventoAuditoriaDTO;
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
+import com.clinica.veterinaria.repository.EventoAuditoriaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio de consulta del historial de auditoría persistido en {@code audit_event}.
+ *
+ * <p>Elige la consulta según los filtros para que cada una recorra su índice: por entidad
+ * (y registro), por usuario o, sin ninguno de los dos, por fecha.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see EventoAuditoriaRepository
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditoriaService {
+
+    private final EventoAuditoriaRepository eventoAuditoriaRepository;
+
+    /**
+     * Página del historial de auditoría por cursor, más recientes primero.
+     *
+     * @param entidad Filtro opcional por entidad (Paciente, Producto, ...)
+     * @param entidadId Filtro opcional por ID del registro (requiere {@code entidad})
+     * @param usuario Filtro opcional por usuario que realizó la acción
+     * @param accion Filtro opcional por tipo de evento (no combinable con {@code entidad})
+     * @param desde Fecha mínima, inclusive
+     * @param hasta Fecha máxima, exclusive
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value CursorPaginacion#TAMANO_MAXIMO})
+     * @return Página de eventos con el cursor de la siguiente
+     * @throws InvalidDataException si la combinación de filtros no es válida
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<EventoAuditoriaDTO> buscar(String entidad, String entidadId, String usuario, String accion,
+            LocalDateTime desde, LocalDateTime hasta, String after, int size) {
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        if (entidadId != null && entidad == null) {
+            throw new InvalidDataException("entidadId", entidadId, "Requiere indicar también la entidad");
+        }
+        if (accion != null && entidad != null) {
+            throw new InvalidDataException("accion", accion, "No se puede combinar con el filtro por entidad");
+        }
+        if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+            throw new InvalidDataException("desde", desde, "Debe ser anterior a 'hasta'");
+        }
+        log.debug("Consultando auditoría - entidad: {} {}, usuario: {}, acción: {}, fechas: {} - {}, cursor: {}",
+            entidad, entidadId, usuario, accion, desde, hasta, cursor);
+
+        LocalDateTime cursorFecha = cursor != null ? cursor.fecha() : null;
+        Long cursorId = cursor != null ? cursor.id() : null;
+        List<EventoAuditoria> eventos;
+        if (entidad != null) {
+            eventos = eventoAuditoriaRepository.findPorEntidad(entidad, entidadId, usuario, desde, hasta,
+                cursorFecha, cursorId, CursorPaginacion.limite(size));
+        } else if (usuario != null) {
+            eventos = eventoAuditoriaRepository.findPorUsuario(usuario, accion, desde, hasta,
+                cursorFecha, cursorId, CursorPaginacion.limite(size));
+        } else {
+            eventos = eventoAuditoriaRepository.findRecientes(accion, desde, hasta,
+                cursorFecha, cursorId, CursorPaginacion.limite(size));
+        }
+
+        return CursorPaginacion.pagina(eventos, size,
+            e -> new CursorPaginacion(e.getFecha(), e.getId()),
+            EventoAuditoriaDTO::fromEntity,
+            null);
+    }
+}
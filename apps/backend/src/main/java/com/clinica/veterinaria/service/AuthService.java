@@ -7,10 +7,13 @@ import com.clinica.veterinaria.dto.LoginResponseDTO;
 import com.clinica.veterinaria.dto.UsuarioDTO;
 import com.clinica.veterinaria.entity.Usuario;
 import com.clinica.veterinaria.exception.domain.BusinessException;
+import com.clinica.veterinaria.exception.domain.DemasiadasSolicitudesException;
 import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
+import com.clinica.veterinaria.exception.domain.ServicioSaturadoException;
 import com.clinica.veterinaria.logging.IAuditLogger;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import com.clinica.veterinaria.security.JwtUtil;
+import com.clinica.veterinaria.security.LimitadorIntentos;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -99,6 +102,7 @@ public class AuthService {
     private final UsuarioRepository usuarioRepository;
     private final IAuditLogger auditLogger;
     private final ClienteAuthService clienteAuthService;
+    private final LimitadorIntentos limitadorIntentos;
 
     /**
      * Autentica un usuario y genera un token JWT para acceso stateless.
@@ -142,6 +146,9 @@ public class AuthService {
         String ipAddress = getClientIp();
         log.info("→ Intento de login unificado para: {} desde IP: {}", request.getEmail(), ipAddress);
 
+        // Límite por cuenta antes de consultar la base de datos o calcular ningún hash
+        limitadorIntentos.verificarEmail(LimitadorIntentos.Familia.LOGIN, request.getEmail());
+
         // Intentar primero autenticar como usuario del sistema
         try {
             // Autenticar con Spring Security
@@ -214,7 +221,8 @@ public class AuthService {
             clienteRequest.setEmail(request.getEmail());
             clienteRequest.setPassword(request.getPassword());
             
-            ClienteLoginResponseDTO clienteResponse = clienteAuthService.login(clienteRequest);
+            // El límite por email ya se aplicó en login()
+            ClienteLoginResponseDTO clienteResponse = clienteAuthService.autenticar(clienteRequest);
             
             log.info("✓ Login exitoso para cliente: {} desde IP: {}", request.getEmail(), ipAddress);
             
@@ -224,6 +232,9 @@ public class AuthService {
                 .propietario(clienteResponse.getPropietario())
                 .userType("CLIENTE")
                 .build();
+        } catch (ServicioSaturadoException | DemasiadasSolicitudesException e) {
+            // Pool de hashing lleno o límite de intentos: no son credenciales inválidas, el cliente debe reintentar
+            throw e;
         } catch (Exception e) {
             log.error("✗ Credenciales inválidas para cliente: {} desde IP: {}", request.getEmail(), ipAddress);
             auditLogger.logLoginFailure(request.getEmail(), ipAddress, "Credenciales inválidas (sistema y cliente)");
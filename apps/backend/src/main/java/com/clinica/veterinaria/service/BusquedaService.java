@@ -0,0 +1,232 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.BusquedaGlobalDTO;
+import com.clinica.veterinaria.dto.ResultadoBusquedaDTO;
+import com.clinica.veterinaria.dto.ResultadoBusquedaDTO.Tipo;
+import com.clinica.veterinaria.entity.Paciente;
+import com.clinica.veterinaria.entity.Producto;
+import com.clinica.veterinaria.entity.Propietario;
+import com.clinica.veterinaria.entity.TextoBusqueda;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
+import com.clinica.veterinaria.repository.PacienteRepository;
+import com.clinica.veterinaria.repository.ProductoRepository;
+import com.clinica.veterinaria.repository.PropietarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de búsqueda global de pacientes, propietarios y productos.
+ *
+ * <p>Cada entidad buscable mantiene una columna {@code texto_busqueda} con sus datos
+ * identificativos normalizados (minúsculas, sin tildes; ver {@link TextoBusqueda}). El término
+ * se normaliza igual y se busca con {@code LIKE '%término%'} sobre esa columna, así que la
+ * búsqueda no distingue mayúsculas ni tildes en ninguna base de datos.</p>
+ *
+ * <p><strong>Índices:</strong> En PostgreSQL, al arrancar se crea la extensión {@code pg_trgm}
+ * y un índice GIN trigram sobre cada {@code texto_busqueda}, que resuelve los
+ * {@code LIKE '%término%'} sin recorrer la tabla (a partir de 3 caracteres). En H2 (tests) no
+ * hay índice y se recorre la tabla, con los mismos resultados.</p>
+ *
+ * <p><strong>Ranking:</strong> Primero las coincidencias al inicio del texto (el nombre),
+ * después las que empiezan una palabra y por último el resto; a igualdad, el texto más corto.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.controller.BusquedaController
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BusquedaService {
+
+    /** Resultados por tipo si no se indica límite. */
+    public static final int LIMITE_DEFECTO = 5;
+
+    /** Máximo de resultados por tipo. */
+    public static final int LIMITE_MAXIMO = 20;
+
+    /** Longitud mínima del término normalizado para lanzar la búsqueda. */
+    public static final int LONGITUD_MINIMA = 2;
+
+    private static final int LOTE_MIGRACION = 500;
+
+    private static final List<String> TABLAS_BUSCABLES = List.of("pacientes", "propietarios", "productos");
+
+    private final PacienteRepository pacienteRepository;
+    private final PropietarioRepository propietarioRepository;
+    private final ProductoRepository productoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Busca el término en pacientes, propietarios y productos activos.
+     *
+     * <p>Los términos con menos de {@value #LONGITUD_MINIMA} caracteres (tras normalizar)
+     * devuelven listas vacías sin consultar la base de datos.</p>
+     *
+     * @param termino Texto a buscar
+     * @param limite Máximo de resultados por tipo (1..{@value #LIMITE_MAXIMO})
+     * @return Resultados agrupados por tipo, ordenados por relevancia
+     * @throws InvalidDataException si el límite está fuera de rango
+     */
+    @Transactional(readOnly = true)
+    public BusquedaGlobalDTO buscar(String termino, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new InvalidDataException("limite", limite, "Debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+
+        String normalizado = TextoBusqueda.normalizar(termino);
+        if (normalizado.length() < LONGITUD_MINIMA) {
+            return BusquedaGlobalDTO.builder()
+                .termino(termino)
+                .pacientes(List.of())
+                .propietarios(List.of())
+                .productos(List.of())
+                .build();
+        }
+
+        long inicio = System.nanoTime();
+        String escapado = escaparLike(normalizado);
+        String patron = "%" + escapado + "%";
+        String prefijo = escapado + "%";
+        String palabra = "% " + escapado + "%";
+        Pageable tope = PageRequest.of(0, limite);
+
+        List<ResultadoBusquedaDTO> pacientes = pacienteRepository.buscarPorTexto(patron, prefijo, palabra, tope)
+            .stream()
+            .map(p -> resultado(Tipo.PACIENTE, p.getId(), p.getNombre(),
+                p.getEspecie(), p.getRaza(), p.getPropietarioNombre()))
+            .toList();
+        List<ResultadoBusquedaDTO> propietarios = propietarioRepository.buscarPorTexto(patron, prefijo, palabra, tope)
+            .stream()
+            .map(p -> resultado(Tipo.PROPIETARIO, p.getId(), p.getNombre(), p.getDocumento(), p.getTelefono()))
+            .toList();
+        List<ResultadoBusquedaDTO> productos = productoRepository.buscarPorTexto(patron, prefijo, palabra, tope)
+            .stream()
+            .map(p -> resultado(Tipo.PRODUCTO, p.getId(), p.getNombre(),
+                p.getCodigo(), stock(p.getStockActual(), p.getUnidadMedida())))
+            .toList();
+
+        log.debug("Búsqueda global '{}': {} pacientes, {} propietarios, {} productos en {} ms",
+            normalizado, pacientes.size(), propietarios.size(), productos.size(),
+            (System.nanoTime() - inicio) / 1_000_000);
+
+        return BusquedaGlobalDTO.builder()
+            .termino(termino)
+            .pacientes(pacientes)
+            .propietarios(propietarios)
+            .productos(productos)
+            .build();
+    }
+
+    // ========================================================================
+    // Inicialización
+    // ========================================================================
+
+    /**
+     * Prepara la búsqueda al arrancar: crea los índices trigram (solo PostgreSQL) y calcula
+     * {@code texto_busqueda} de las filas que aún no lo tienen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        crearIndicesTrigram();
+        try {
+            int pendientes = completarTextoBusqueda(pacienteRepository::findByTextoBusquedaIsNull,
+                    Paciente::actualizarTextoBusqueda, pacienteRepository::saveAll)
+                + completarTextoBusqueda(propietarioRepository::findByTextoBusquedaIsNull,
+                    Propietario::actualizarTextoBusqueda, propietarioRepository::saveAll)
+                + completarTextoBusqueda(productoRepository::findByTextoBusquedaIsNull,
+                    Producto::actualizarTextoBusqueda, productoRepository::saveAll);
+            if (pendientes > 0) {
+                log.info("✓ texto_busqueda calculado para {} registros existentes", pendientes);
+            }
+        } catch (RuntimeException e) {
+            log.error("✗ Error al calcular texto_busqueda de registros existentes: {}", e.getMessage());
+        }
+    }
+
+    private void crearIndicesTrigram() {
+        try {
+            String motor = jdbcTemplate.execute(
+                (ConnectionCallback<String>) conexion -> conexion.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(motor)) {
+                log.debug("Base de datos {}: búsqueda global sin índices trigram", motor);
+                return;
+            }
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String tabla : TABLAS_BUSCABLES) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + tabla + "_texto_busqueda_trgm ON "
+                    + tabla + " USING gin (texto_busqueda gin_trgm_ops)");
+            }
+            log.info("✓ Índices trigram de búsqueda global verificados");
+        } catch (RuntimeException e) {
+            // Sin permisos para crear la extensión la búsqueda sigue funcionando, pero recorre las tablas
+            log.warn("⚠ No se pudieron crear los índices trigram de búsqueda global: {}", e.getMessage());
+        }
+    }
+
+    private <E> int completarTextoBusqueda(
+            Function<Pageable, List<E>> pendientes, Consumer<E> actualizar, Consumer<List<E>> guardar) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer lote = transaccion.execute(status -> {
+                List<E> filas = pendientes.apply(PageRequest.of(0, LOTE_MIGRACION));
+                filas.forEach(actualizar);
+                guardar.accept(filas);
+                return filas.size();
+            });
+            if (lote == null || lote == 0) {
+                return total;
+            }
+            total += lote;
+        }
+    }
+
+    // ========================================================================
+    // Helpers
+    // ========================================================================
+
+    private static ResultadoBusquedaDTO resultado(Tipo tipo, Long id, String titulo, String... detalles) {
+        return ResultadoBusquedaDTO.builder()
+            .tipo(tipo)
+            .id(id)
+            .titulo(titulo)
+            .detalle(Stream.of(detalles)
+                .filter(Objects::nonNull)
+                .filter(detalle -> !detalle.isBlank())
+                .collect(Collectors.joining(" · ")))
+            .build();
+    }
+
+    private static String stock(BigDecimal cantidad, String unidad) {
+        return cantidad == null ? null : "Stock: " + cantidad.stripTrailingZeros().toPlainString()
+            + (unidad != null ? " " + unidad : "");
+    }
+
+    /**
+     * Escapa los comodines de LIKE para que el término se busque literalmente.
+     */
+    static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
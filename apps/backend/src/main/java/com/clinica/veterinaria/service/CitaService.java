@@ -1,6 +1,7 @@
 package com.clinica.veterinaria.service;
 
 import com.clinica.veterinaria.dto.CitaDTO;
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.entity.Cita;
 import com.clinica.veterinaria.entity.Cita.EstadoCita;
 import com.clinica.veterinaria.entity.Paciente;
@@ -27,6 +28,11 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Objects;
 
+import static com.clinica.veterinaria.service.HorarioAtencion.HORARIO_FIN_MANANA;
+import static com.clinica.veterinaria.service.HorarioAtencion.HORARIO_FIN_TARDE;
+import static com.clinica.veterinaria.service.HorarioAtencion.HORARIO_INICIO_MANANA;
+import static com.clinica.veterinaria.service.HorarioAtencion.HORARIO_INICIO_TARDE;
+
 /**
  * Servicio para gestionar citas médicas de la clínica veterinaria.
  * 
@@ -70,15 +76,11 @@ public class CitaService {
     private final PropietarioRepository propietarioRepository;
     private final UsuarioRepository usuarioRepository;
     private final NotificacionService notificacionService;
-    private final EmailService emailService;
+    private final MensajeSalienteService mensajeSalienteService;
     private final SMSService smsService;
-    
-    // Configuración de horarios de atención
-    private static final LocalTime HORARIO_INICIO_MANANA = LocalTime.of(8, 0);   // 8:00 AM
-    private static final LocalTime HORARIO_FIN_MANANA = LocalTime.of(12, 0);     // 12:00 PM (mediodía)
-    private static final LocalTime HORARIO_INICIO_TARDE = LocalTime.of(14, 0);   // 2:00 PM
-    private static final LocalTime HORARIO_FIN_TARDE = LocalTime.of(18, 0);     // 6:00 PM
-    private static final int DURACION_CITA_MINUTOS = 30;                         // Duración estándar
+    private final DisponibilidadService disponibilidadService;
+    private final MetricaDiariaService metricaDiariaService;
+    private final RecordatorioCitaService recordatorioCitaService;
     
     // Mensajes de log constantes
     private static final String MSG_CITA_NO_ENCONTRADA = "✗ Cita no encontrada con ID: {}";
@@ -266,7 +268,7 @@ public class CitaService {
                 "No se puede agendar una cita en el pasado. Fecha proporcionada: " + fecha);
         }
         
-        // 2. Validar horario de atención
+        // 2. Validar horario de atención (ver HorarioAtencion)
         // Lunes a viernes: 8am-12m y 2pm-6pm
         // Sábados: 8am-12m
         // Domingos: cerrado
@@ -274,18 +276,17 @@ public class CitaService {
         LocalTime hora = fecha.toLocalTime();
         
         // Validar domingos (cerrado)
-        if (diaSemana == DayOfWeek.SUNDAY) {
+        if (!HorarioAtencion.atiende(diaSemana)) {
             log.error("✗ No se atiende los domingos: {}", fecha);
             throw new BusinessException(
                 "La clínica no atiende los domingos. Por favor, seleccione otro día.");
         }
         
         // Validar horarios según el día
-        boolean horarioValido = false;
+        boolean horarioValido = HorarioAtencion.esHorarioValido(fecha);
         
         if (diaSemana == DayOfWeek.SATURDAY) {
             // Sábados: solo 8am-12m
-            horarioValido = !hora.isBefore(HORARIO_INICIO_MANANA) && !hora.isAfter(HORARIO_FIN_MANANA);
             if (!horarioValido) {
                 log.error("✗ Horario inválido para sábado: {}. Horario permitido: {} - {}", 
                     hora, HORARIO_INICIO_MANANA, HORARIO_FIN_MANANA);
@@ -295,10 +296,6 @@ public class CitaService {
             }
         } else {
             // Lunes a viernes: 8am-12m o 2pm-6pm
-            boolean enHorarioManana = !hora.isBefore(HORARIO_INICIO_MANANA) && !hora.isAfter(HORARIO_FIN_MANANA);
-            boolean enHorarioTarde = !hora.isBefore(HORARIO_INICIO_TARDE) && !hora.isAfter(HORARIO_FIN_TARDE);
-            horarioValido = enHorarioManana || enHorarioTarde;
-            
             if (!horarioValido) {
                 log.error("✗ Horario fuera de atención: {}. Horarios permitidos: {} - {} o {} - {}", 
                     hora, HORARIO_INICIO_MANANA, HORARIO_FIN_MANANA, HORARIO_INICIO_TARDE, HORARIO_FIN_TARDE);
@@ -324,8 +321,9 @@ public class CitaService {
     /**
      * Valida que el profesional esté disponible en el horario solicitado.
      * 
-     * <p>Busca citas existentes del mismo profesional en un rango de ±30 minutos
-     * para detectar solapamientos.</p>
+     * <p>Lee las franjas ocupadas del día con la consulta de proyección de
+     * {@link DisponibilidadService} dentro de la transacción, sin cargar las citas completas.
+     * No usa el índice en memoria, que es local a cada instancia.</p>
      * 
      * @param fecha Fecha y hora de la cita a validar
      * @param profesionalId ID del profesional
@@ -333,24 +331,13 @@ public class CitaService {
      * @throws BusinessException si hay solapamiento
      */
     private void validarDisponibilidadProfesional(@NonNull LocalDateTime fecha, @NonNull Long profesionalId, Long citaId) {
-        LocalDateTime inicio = fecha.minusMinutes(DURACION_CITA_MINUTOS);
-        LocalDateTime fin = fecha.plusMinutes(DURACION_CITA_MINUTOS);
-        
-        List<Cita> citasSolapadas = citaRepository
-            .findByProfesionalIdAndFechaBetween(profesionalId, inicio, fin)
-            .stream()
-            .filter(c -> !c.getEstado().equals(EstadoCita.CANCELADA))  // Ignorar canceladas
-            .filter(c -> citaId == null || !c.getId().equals(citaId))  // Excluir la misma cita en actualización
-            .toList();
-        
-        if (!citasSolapadas.isEmpty()) {
-            Cita citaExistente = citasSolapadas.get(0);
-            log.error("✗ El profesional ya tiene una cita a las {}", citaExistente.getFecha());
+        disponibilidadService.buscarConflictoEnBaseDeDatos(profesionalId, fecha, citaId).ifPresent(horaExistente -> {
+            log.error("✗ El profesional ya tiene una cita a las {}", horaExistente);
             throw new BusinessException(
                 String.format("El profesional ya tiene una cita programada a las %s. " +
                     "Por favor, seleccione otro horario.",
-                    citaExistente.getFecha().toLocalTime()));
-        }
+                    horaExistente));
+        });
     }
     
     /**
@@ -424,6 +411,12 @@ public class CitaService {
         cita = citaRepository.save(cita);
         log.info("Cita creada exitosamente con ID: {}", cita.getId());
         
+        if (cita.getEstado() != EstadoCita.CANCELADA) {
+            disponibilidadService.reservar(cita.getId(), profesional.getId(), cita.getFecha());
+        }
+        metricaDiariaService.registrarCita(cita.getFecha(), cita.getEstado(), 1);
+        recordatorioCitaService.programar(cita.getId(), cita.getFecha(), cita.getEstado());
+        
         // Crear notificación automática para el veterinario
         try {
             String titulo = "Nueva cita programada";
@@ -446,52 +439,20 @@ public class CitaService {
             log.warn("No se pudo crear notificación para la cita: {}", e.getMessage());
         }
         
-        // Enviar email de confirmación al propietario
+        // Encolar email de confirmación al propietario (se envía tras el commit)
         if (propietario.getEmail() != null && !propietario.getEmail().trim().isEmpty()) {
-            try {
-                boolean emailEnviado = emailService.enviarEmailConfirmacionCita(
-                        propietario.getEmail(),
-                        propietario.getNombre(),
-                        paciente.getNombre(),
-                        dto.getFecha(),
-                        dto.getMotivo(),
-                        profesional.getNombre()
-                );
-                if (emailEnviado) {
-                    log.info("✓ Email de confirmación enviado exitosamente a: {}", propietario.getEmail());
-                } else {
-                    log.warn("✗ No se pudo enviar email de confirmación a: {}", propietario.getEmail());
-                }
-            } catch (Exception e) {
-                log.error("✗ Error al enviar email de confirmación: {}", e.getMessage(), e);
-                // No lanzar excepción para no interrumpir el flujo principal
-            }
+            mensajeSalienteService.encolarEmailConfirmacionCita(cita);
+            log.info("✓ Email de confirmación encolado para: {}", propietario.getEmail());
         } else {
             log.debug("Propietario sin email, no se envía confirmación por correo");
         }
         
-        // Enviar SMS de confirmación al propietario (si está habilitado)
-        if (propietario.getTelefono() != null && !propietario.getTelefono().trim().isEmpty()) {
-            try {
-                String telefonoNormalizado = smsService.normalizePhoneNumber(propietario.getTelefono());
-                boolean smsEnviado = smsService.sendCitaConfirmacionSMS(
-                        telefonoNormalizado,
-                        propietario.getNombre(),
-                        paciente.getNombre(),
-                        dto.getFecha(),
-                        dto.getMotivo()
-                );
-                if (smsEnviado) {
-                    log.info("✓ SMS de confirmación enviado a: {}", telefonoNormalizado);
-                } else {
-                    log.debug("SMS no enviado (puede estar deshabilitado o sin configuración)");
-                }
-            } catch (Exception e) {
-                log.error("Error al enviar SMS de confirmación: {}", e.getMessage());
-                // No lanzar excepción para no interrumpir el flujo principal
-            }
+        // Encolar SMS de confirmación al propietario (si está habilitado)
+        if (smsService.isEnabled() && propietario.getTelefono() != null && !propietario.getTelefono().trim().isEmpty()) {
+            mensajeSalienteService.encolarSmsConfirmacionCita(cita, smsService.normalizePhoneNumber(propietario.getTelefono()));
+            log.info("✓ SMS de confirmación encolado para: {}", propietario.getTelefono());
         } else {
-            log.debug("Propietario sin teléfono, no se envía confirmación por SMS");
+            log.debug("SMS deshabilitado o propietario sin teléfono, no se envía confirmación por SMS");
         }
         
         return CitaDTO.fromEntity(cita, true);
@@ -564,6 +525,7 @@ public class CitaService {
         Cita.EstadoCita estadoAnterior = cita.getEstado();
         LocalDateTime fechaAnterior = cita.getFecha();
         String motivoAnterior = cita.getMotivo();
+        Long profesionalAnteriorId = cita.getProfesional().getId();
 
         // Actualizar todos los campos
         cita.setFecha(dto.getFecha());
@@ -577,6 +539,15 @@ public class CitaService {
         cita = citaRepository.save(cita);
         log.info("✓ Cita actualizada exitosamente con ID: {}", id);
         
+        // Mantener sincronizado el índice de disponibilidad
+        disponibilidadService.liberar(id, profesionalAnteriorId, fechaAnterior);
+        if (cita.getEstado() != EstadoCita.CANCELADA) {
+            disponibilidadService.reservar(id, profesional.getId(), cita.getFecha());
+        }
+        metricaDiariaService.registrarCita(fechaAnterior, estadoAnterior, -1);
+        metricaDiariaService.registrarCita(cita.getFecha(), cita.getEstado(), 1);
+        recordatorioCitaService.programar(id, cita.getFecha(), cita.getEstado());
+        
         // Detectar cambios importantes para notificar al propietario
         boolean fechaCambio = !fechaAnterior.equals(dto.getFecha());
         boolean motivoCambio = !Objects.equals(motivoAnterior, dto.getMotivo());
@@ -592,24 +563,8 @@ public class CitaService {
         } else if (fechaCambio || motivoCambio) {
             // Cambio de fecha o motivo sin cambio de estado: enviar email de actualización
             if (propietario != null && propietario.getEmail() != null && !propietario.getEmail().trim().isEmpty()) {
-                try {
-                    boolean emailEnviado = emailService.enviarEmailCambioEstadoCita(
-                        propietario.getEmail(),
-                        propietario.getNombre(),
-                        cita.getPaciente().getNombre(),
-                        cita.getFecha(),
-                        cita.getMotivo(),
-                        cita.getProfesional().getNombre(),
-                        "ACTUALIZADA"
-                    );
-                    if (emailEnviado) {
-                        log.info("✓ Email de actualización enviado a: {}", propietario.getEmail());
-                    } else {
-                        log.warn("No se pudo enviar email de actualización a: {}", propietario.getEmail());
-                    }
-                } catch (Exception e) {
-                    log.error("Error al enviar email de actualización: {}", e.getMessage(), e);
-                }
+                mensajeSalienteService.encolarEmailCambioEstadoCita(cita, "ACTUALIZADA");
+                log.info("✓ Email de actualización encolado para: {}", propietario.getEmail());
             }
         }
         
@@ -660,6 +615,15 @@ public class CitaService {
         cita.setEstado(nuevoEstado);
         cita = citaRepository.save(cita);
         
+        if (nuevoEstado == EstadoCita.CANCELADA) {
+            disponibilidadService.liberar(id, cita.getProfesional().getId(), cita.getFecha());
+        } else if (estadoAnterior == EstadoCita.CANCELADA) {
+            disponibilidadService.reservar(id, cita.getProfesional().getId(), cita.getFecha());
+        }
+        metricaDiariaService.registrarCita(cita.getFecha(), estadoAnterior, -1);
+        metricaDiariaService.registrarCita(cita.getFecha(), nuevoEstado, 1);
+        recordatorioCitaService.programar(id, cita.getFecha(), nuevoEstado);
+        
         log.info("✅ Estado de cita ID {} actualizado exitosamente: {} → {}", id, estadoAnterior, nuevoEstado);
         
         // Enviar correo cuando el estado cambia
@@ -692,35 +656,23 @@ public class CitaService {
         // Obtener información antes de eliminar para enviar email
         Propietario propietario = cita.getPropietario();
         
-        // Enviar email de cancelación antes de eliminar
+        // Encolar email de cancelación antes de eliminar (se envía solo si la eliminación se confirma)
         if (propietario != null && propietario.getEmail() != null && !propietario.getEmail().trim().isEmpty()) {
-            try {
-                String razonCancelacion = cita.getObservaciones() != null 
-                    ? cita.getObservaciones() 
-                    : "La cita ha sido eliminada del sistema";
-                
-                boolean emailEnviado = emailService.enviarEmailCancelacionCita(
-                    propietario.getEmail(),
-                    propietario.getNombre(),
-                    cita.getPaciente().getNombre(),
-                    cita.getFecha(),
-                    cita.getMotivo(),
-                    cita.getProfesional().getNombre(),
-                    razonCancelacion
-                );
-                
-                if (emailEnviado) {
-                    log.info("✓ Email de cancelación enviado a: {} antes de eliminar la cita", propietario.getEmail());
-                } else {
-                    log.warn("No se pudo enviar email de cancelación a: {}", propietario.getEmail());
-                }
-            } catch (Exception e) {
-                log.error("Error al enviar email de cancelación antes de eliminar cita: {}", e.getMessage());
-                // No lanzar excepción para no interrumpir la eliminación
-            }
+            String razonCancelacion = cita.getObservaciones() != null 
+                ? cita.getObservaciones() 
+                : "La cita ha sido eliminada del sistema";
+            mensajeSalienteService.encolarEmailCancelacionCita(cita, razonCancelacion);
+            log.info("✓ Email de cancelación encolado para: {} antes de eliminar la cita", propietario.getEmail());
         }
         
+        Long profesionalId = cita.getProfesional().getId();
+        LocalDateTime fecha = cita.getFecha();
+        EstadoCita estado = cita.getEstado();
+        
         citaRepository.deleteById(id);
+        disponibilidadService.liberar(id, profesionalId, fecha);
+        metricaDiariaService.registrarCita(fecha, estado, -1);
+        recordatorioCitaService.cancelar(id);
         log.warn("⚠ Cita eliminada exitosamente con ID: {}", id);
     }
     
@@ -839,7 +791,56 @@ public class CitaService {
     }
 
     /**
-     * Método auxiliar para enviar correos electrónicos según el cambio de estado de una cita.
+     * Busca citas con filtros combinados y paginación por cursor (keyset).
+     * 
+     * <p>Alternativa a {@link #searchWithFilters} para recorrer historiales largos: cada página
+     * se pide a partir de la última cita de la anterior ({@code after}), por lo que no hay
+     * {@code OFFSET} y la página N cuesta lo mismo que la primera. El orden es siempre
+     * {@code (fecha DESC, id DESC)}. El {@code COUNT(*)} solo se ejecuta si se pide el total.</p>
+     * 
+     * @param estado Filtro opcional por estado de cita
+     * @param profesionalId Filtro opcional por ID de profesional
+     * @param pacienteId Filtro opcional por ID de paciente
+     * @param fechaInicio Filtro opcional por fecha inicial (inclusivo)
+     * @param fechaFin Filtro opcional por fecha final (inclusivo)
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (1..{@value CursorPaginacion#TAMANO_MAXIMO})
+     * @param incluirTotal Si es true, calcula también el total de citas que cumplen los filtros
+     * @return Página de citas con el cursor de la siguiente
+     * @throws InvalidDataException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CitaDTO> searchWithCursor(
+            EstadoCita estado,
+            Long profesionalId,
+            Long pacienteId,
+            LocalDateTime fechaInicio,
+            LocalDateTime fechaFin,
+            String after,
+            int size,
+            boolean incluirTotal) {
+        
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        log.debug("Buscando citas por cursor - estado: {}, profesional: {}, paciente: {}, fechas: {} - {}, cursor: {}", 
+            estado, profesionalId, pacienteId, fechaInicio, fechaFin, cursor);
+        
+        List<Cita> citas = citaRepository.findPaginaPorCursor(
+            estado, profesionalId, pacienteId, fechaInicio, fechaFin,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+        Long total = incluirTotal
+            ? citaRepository.countConFiltros(estado, profesionalId, pacienteId, fechaInicio, fechaFin)
+            : null;
+        
+        return CursorPaginacion.pagina(citas, size,
+            c -> new CursorPaginacion(c.getFecha(), c.getId()),
+            c -> CitaDTO.fromEntity(c, true),
+            total);
+    }
+
+    /**
+     * Método auxiliar para encolar en el outbox los correos electrónicos según el cambio de estado de una cita.
      * 
      * <p>Envía diferentes tipos de correos según el estado nuevo:</p>
      * <ul>
@@ -862,51 +863,17 @@ public class CitaService {
             return;
         }
 
-        try {
-            String propietarioEmail = propietario.getEmail();
-            String propietarioNombre = propietario.getNombre();
-            String pacienteNombre = cita.getPaciente() != null ? cita.getPaciente().getNombre() : "N/A";
-            LocalDateTime fecha = cita.getFecha();
-            String motivo = cita.getMotivo() != null ? cita.getMotivo() : "N/A";
-            String profesionalNombre = cita.getProfesional() != null ? cita.getProfesional().getNombre() : "N/A";
-            String razonCancelacion = cita.getObservaciones() != null ? cita.getObservaciones() : "No especificada";
+        String razonCancelacion = cita.getObservaciones() != null ? cita.getObservaciones() : "No especificada";
 
-            boolean emailEnviado = false;
-
-            // Enviar correo según el nuevo estado
-            if (nuevoEstado == Cita.EstadoCita.CANCELADA) {
-                emailEnviado = emailService.enviarEmailCancelacionCita(
-                    propietarioEmail,
-                    propietarioNombre,
-                    pacienteNombre,
-                    fecha,
-                    motivo,
-                    profesionalNombre,
-                    razonCancelacion
-                );
-            } else {
-                // Para otros estados (CONFIRMADA, ATENDIDA, COMPLETADA, PENDIENTE, etc.)
-                emailEnviado = emailService.enviarEmailCambioEstadoCita(
-                    propietarioEmail,
-                    propietarioNombre,
-                    pacienteNombre,
-                    fecha,
-                    motivo,
-                    profesionalNombre,
-                    nuevoEstado.name()
-                );
-            }
-
-            if (emailEnviado) {
-                log.info("✓ Email de cambio de estado enviado exitosamente a: {} ({} → {})", 
-                    propietarioEmail, estadoAnterior, nuevoEstado);
-            } else {
-                log.warn("✗ No se pudo enviar email de cambio de estado a: {}", propietarioEmail);
-            }
-        } catch (Exception e) {
-            log.error("✗ Error inesperado al enviar email por cambio de estado de cita: {}", e.getMessage(), e);
-            // No lanzar excepción para no interrumpir el flujo principal
+        // Encolar correo según el nuevo estado
+        if (nuevoEstado == Cita.EstadoCita.CANCELADA) {
+            mensajeSalienteService.encolarEmailCancelacionCita(cita, razonCancelacion);
+        } else {
+            // Para otros estados (CONFIRMADA, ATENDIDA, COMPLETADA, PENDIENTE, etc.)
+            mensajeSalienteService.encolarEmailCambioEstadoCita(cita, nuevoEstado.name());
         }
+        log.info("✓ Email de cambio de estado encolado para: {} ({} → {})",
+            propietario.getEmail(), estadoAnterior, nuevoEstado);
     }
 }
 
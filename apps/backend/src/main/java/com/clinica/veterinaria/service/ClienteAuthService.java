@@ -7,6 +7,7 @@ import com.clinica.veterinaria.entity.Propietario;
 import com.clinica.veterinaria.exception.domain.BusinessException;
 import com.clinica.veterinaria.repository.PropietarioRepository;
 import com.clinica.veterinaria.security.JwtUtil;
+import com.clinica.veterinaria.security.LimitadorIntentos;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
@@ -34,11 +35,24 @@ public class ClienteAuthService {
     private final PropietarioRepository propietarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final LimitadorIntentos limitadorIntentos;
 
     /**
      * Autentica un cliente (propietario) y genera un token JWT.
+     * 
+     * @throws com.clinica.veterinaria.exception.domain.DemasiadasSolicitudesException si se
+     *         superó el límite de intentos para el email
      */
     public ClienteLoginResponseDTO login(@NonNull ClienteLoginRequestDTO request) {
+        limitadorIntentos.verificarEmail(LimitadorIntentos.Familia.LOGIN, request.getEmail());
+        return autenticar(request);
+    }
+
+    /**
+     * Autentica un cliente sin aplicar el límite de intentos.
+     * Lo usa el login unificado de {@link AuthService}, que ya lo aplicó.
+     */
+    ClienteLoginResponseDTO autenticar(@NonNull ClienteLoginRequestDTO request) {
         log.info("→ Intento de login de cliente: {}", request.getEmail());
 
         // Buscar propietario por email
@@ -66,6 +80,13 @@ public class ClienteAuthService {
             throw new BadCredentialsException("Email o contraseña incorrectos");
         }
 
+        // Recalcular el hash si se guardó con un coste BCrypt menor que el configurado
+        if (passwordEncoder.upgradeEncoding(propietario.getPassword())) {
+            propietario.setPassword(passwordEncoder.encode(request.getPassword()));
+            propietarioRepository.save(propietario);
+            log.info("✓ Hash de contraseña actualizado al coste actual - Cliente ID: {}", propietario.getId());
+        }
+
         // Crear UserDetails para generar token
         UserDetails userDetails = User.builder()
             .username(propietario.getEmail())
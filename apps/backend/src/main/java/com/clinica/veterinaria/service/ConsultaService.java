@@ -1,9 +1,11 @@
 package com.clinica.veterinaria.service;
 
 import com.clinica.veterinaria.dto.ConsultaDTO;
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.entity.Consulta;
 import com.clinica.veterinaria.entity.Paciente;
 import com.clinica.veterinaria.entity.Usuario;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
 import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.repository.ConsultaRepository;
 import com.clinica.veterinaria.repository.PacienteRepository;
@@ -62,6 +64,8 @@ public class ConsultaService {
     private final ConsultaRepository consultaRepository;
     private final PacienteRepository pacienteRepository;
     private final UsuarioRepository usuarioRepository;
+    private final MetricaDiariaService metricaDiariaService;
+    private final HistorialMedicoCacheService historialMedicoCacheService;
 
     /**
      * Obtiene todas las consultas médicas registradas en el sistema.
@@ -220,6 +224,8 @@ public class ConsultaService {
         consulta = consultaRepository.save(consulta);
         log.info("✓ Consulta creada exitosamente con ID: {} | Paciente: {}", 
                 consulta.getId(), paciente.getNombre());
+        metricaDiariaService.registrarConsulta(consulta.getFecha(), 1);
+        historialMedicoCacheService.invalidar(paciente.getId());
         
         return ConsultaDTO.fromEntity(consulta, true);
     }
@@ -260,6 +266,8 @@ public class ConsultaService {
                 return new ResourceNotFoundException("Consulta", "id", id);
             });
 
+        LocalDateTime fechaAnterior = consulta.getFecha();
+
         // Actualizar campos
         consulta.setFecha(dto.getFecha());
         consulta.setFrecuenciaCardiaca(dto.getFrecuenciaCardiaca());
@@ -282,6 +290,9 @@ public class ConsultaService {
 
         consulta = consultaRepository.save(consulta);
         log.info("✓ Consulta actualizada exitosamente con ID: {}", id);
+        metricaDiariaService.registrarConsulta(fechaAnterior, -1);
+        metricaDiariaService.registrarConsulta(consulta.getFecha(), 1);
+        historialMedicoCacheService.invalidar(pacienteIdDe(consulta));
         
         return ConsultaDTO.fromEntity(consulta, true);
     }
@@ -302,12 +313,15 @@ public class ConsultaService {
     public void delete(@NonNull Long id) {
         log.warn("→ Eliminando consulta con ID: {}", id);
         
-        if (!consultaRepository.existsById(id)) {
-            log.error("✗ Consulta no encontrada con ID: {}", id);
-            throw new ResourceNotFoundException("Consulta", "id", id);
-        }
+        Consulta consulta = consultaRepository.findById(id)
+            .orElseThrow(() -> {
+                log.error("✗ Consulta no encontrada con ID: {}", id);
+                return new ResourceNotFoundException("Consulta", "id", id);
+            });
         
-        consultaRepository.deleteById(id);
+        consultaRepository.delete(consulta);
+        metricaDiariaService.registrarConsulta(consulta.getFecha(), -1);
+        historialMedicoCacheService.invalidar(pacienteIdDe(consulta));
         log.warn("⚠ Consulta eliminada exitosamente con ID: {}", id);
     }
     
@@ -405,5 +419,54 @@ public class ConsultaService {
         
         return consultas.map(c -> ConsultaDTO.fromEntity(c, true));
     }
-}
 
+    /**
+     * Busca consultas con filtros combinados y paginación por cursor (keyset).
+     * 
+     * <p>Cada página se pide a partir de la última consulta de la anterior ({@code after}),
+     * sin {@code OFFSET}, en orden {@code (fecha DESC, id DESC)}. El {@code COUNT(*)} solo se
+     * ejecuta si se pide el total.</p>
+     * 
+     * @param pacienteId Filtro opcional por ID de paciente
+     * @param profesionalId Filtro opcional por ID de profesional
+     * @param fechaInicio Filtro opcional por fecha inicial (inclusivo)
+     * @param fechaFin Filtro opcional por fecha final (inclusivo)
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (1..{@value CursorPaginacion#TAMANO_MAXIMO})
+     * @param incluirTotal Si es true, calcula también el total de consultas que cumplen los filtros
+     * @return Página de consultas con el cursor de la siguiente
+     * @throws InvalidDataException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ConsultaDTO> searchWithCursor(
+            Long pacienteId,
+            Long profesionalId,
+            LocalDateTime fechaInicio,
+            LocalDateTime fechaFin,
+            String after,
+            int size,
+            boolean incluirTotal) {
+        
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        log.debug("Buscando consultas por cursor - paciente: {}, profesional: {}, fechas: {} - {}, cursor: {}", 
+            pacienteId, profesionalId, fechaInicio, fechaFin, cursor);
+        
+        List<Consulta> consultas = consultaRepository.findPaginaPorCursor(
+            pacienteId, profesionalId, fechaInicio, fechaFin,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+        Long total = incluirTotal
+            ? consultaRepository.countConFiltros(pacienteId, profesionalId, fechaInicio, fechaFin)
+            : null;
+        
+        return CursorPaginacion.pagina(consultas, size,
+            c -> new CursorPaginacion(c.getFecha(), c.getId()),
+            c -> ConsultaDTO.fromEntity(c, true),
+            total);
+    }
+
+    private static Long pacienteIdDe(Consulta consulta) {
+        return consulta.getPaciente() != null ? consulta.getPaciente().getId() : null;
+    }
+}
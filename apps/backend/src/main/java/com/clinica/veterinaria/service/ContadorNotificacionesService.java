@@ -0,0 +1,156 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.repository.NotificacionRepository;
+import com.clinica.veterinaria.repository.NotificacionRepository.ConteoNoLeidasView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Contadores en memoria de notificaciones no leídas por usuario.
+ *
+ * <p>Evitan ejecutar {@code countByUsuarioIdAndLeidaFalse} en cada creación, lectura y consulta
+ * del contador (el frontend lo consulta periódicamente):</p>
+ * <ul>
+ *   <li>El contador de un usuario se inicializa desde la base de datos la primera vez que se
+ *       necesita; a partir de ahí se mantiene en memoria.</li>
+ *   <li>{@link NotificacionService} lo ajusta en cada creación, lectura, lectura masiva o
+ *       eliminación. Si la transacción se revierte, el contador se descarta y se vuelve a
+ *       inicializar en el siguiente acceso.</li>
+ *   <li>Un reconciliador periódico lo compara con la base de datos (una consulta agrupada por
+ *       cada {@value #LOTE_RECONCILIACION} usuarios) y corrige las desviaciones, por ejemplo
+ *       las producidas por escrituras de otra instancia o por carreras con la inicialización.</li>
+ * </ul>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see NotificacionService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContadorNotificacionesService {
+
+    private static final int LOTE_RECONCILIACION = 500;
+
+    private final NotificacionRepository notificacionRepository;
+    private final WebSocketNotificationService webSocketNotificationService;
+
+    private final ConcurrentMap<Long, AtomicLong> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene el número de notificaciones no leídas de un usuario.
+     *
+     * @param usuarioId ID del usuario
+     * @return Notificaciones no leídas
+     */
+    public long obtener(Long usuarioId) {
+        return contador(usuarioId).get();
+    }
+
+    /**
+     * Suma (o resta) al contador de un usuario, sin bajar de cero.
+     *
+     * <p>Debe llamarse después de escribir el cambio en la transacción: si el contador aún no
+     * estaba en memoria, se inicializa desde la base de datos, que ya lo incluye.</p>
+     *
+     * @param usuarioId ID del usuario
+     * @param delta Cantidad a sumar (negativa para restar)
+     * @return Valor actualizado del contador
+     */
+    public long sumar(Long usuarioId, long delta) {
+        descartarSiSeRevierte(usuarioId);
+        AtomicLong contador = contadores.get(usuarioId);
+        if (contador == null) {
+            return obtener(usuarioId);
+        }
+        return contador.updateAndGet(valor -> Math.max(0, valor + delta));
+    }
+
+    /**
+     * Pone a cero el contador de un usuario (todas sus notificaciones leídas).
+     *
+     * @param usuarioId ID del usuario
+     */
+    public void reiniciar(Long usuarioId) {
+        descartarSiSeRevierte(usuarioId);
+        contadores.computeIfAbsent(usuarioId, id -> new AtomicLong()).set(0);
+    }
+
+    /**
+     * Corrige los contadores en memoria con los valores de la base de datos y envía por
+     * WebSocket los que hayan cambiado.
+     *
+     * @return Número de contadores corregidos
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.contador.reconciliar-ms:300000}")
+    public int reconciliar() {
+        List<Long> usuarioIds = new ArrayList<>(contadores.keySet());
+        int corregidos = 0;
+        for (int desde = 0; desde < usuarioIds.size(); desde += LOTE_RECONCILIACION) {
+            List<Long> lote = usuarioIds.subList(desde, Math.min(desde + LOTE_RECONCILIACION, usuarioIds.size()));
+            Map<Long, Long> reales;
+            try {
+                reales = notificacionRepository.contarNoLeidasPorUsuario(lote).stream()
+                    .collect(Collectors.toMap(ConteoNoLeidasView::getUsuarioId, ConteoNoLeidasView::getTotal));
+            } catch (Exception e) {
+                log.warn("⚠ No se pudieron reconciliar los contadores de notificaciones: {}", e.getMessage());
+                return corregidos;
+            }
+
+            for (Long usuarioId : lote) {
+                AtomicLong contador = contadores.get(usuarioId);
+                long real = reales.getOrDefault(usuarioId, 0L);
+                if (contador == null || contador.getAndSet(real) == real) {
+                    continue;
+                }
+                corregidos++;
+                try {
+                    webSocketNotificationService.enviarContadorNotificaciones(usuarioId, real);
+                } catch (Exception e) {
+                    log.warn("Error al enviar contador por WebSocket: {}", e.getMessage());
+                }
+            }
+        }
+        if (corregidos > 0) {
+            log.info("→ Contadores de notificaciones corregidos: {} de {}", corregidos, usuarioIds.size());
+        }
+        return corregidos;
+    }
+
+    private void descartarSiSeRevierte(Long usuarioId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        contadores.remove(usuarioId);
+                    }
+                }
+            });
+        }
+    }
+
+    private AtomicLong contador(Long usuarioId) {
+        AtomicLong contador = contadores.get(usuarioId);
+        if (contador != null) {
+            return contador;
+        }
+        // Inicializado dentro de una transacción: puede incluir escrituras que aún se reviertan
+        descartarSiSeRevierte(usuarioId);
+        return contadores.computeIfAbsent(usuarioId,
+            id -> new AtomicLong(notificacionRepository.countByUsuarioIdAndLeidaFalse(id)));
+    }
+}
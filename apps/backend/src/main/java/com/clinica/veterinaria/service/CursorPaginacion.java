@@ -0,0 +1,127 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.CursorPageDTO;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Posición de una fila dentro de un listado ordenado por {@code (fecha DESC, id DESC)}.
+ *
+ * <p>Es la base de la paginación por cursor (keyset) de los endpoints {@code /search/cursor}:
+ * en lugar de {@code OFFSET n}, cada página se pide "a partir de" la última fila de la anterior
+ * con la condición {@code fecha <= :fecha AND (fecha < :fecha OR id < :id)}, que la base de datos
+ * resuelve como rango sobre un índice compuesto {@code (fecha, id)}. Así la página 500 cuesta lo
+ * mismo que la primera. El {@code id} desempata filas con la misma fecha, por lo que ninguna se repite
+ * ni se pierde entre páginas.</p>
+ *
+ * <p>El cursor viaja al cliente como un token opaco (Base64 URL-safe de {@code fecha|id}).</p>
+ *
+ * @param fecha Fecha de la última fila entregada
+ * @param id ID de la última fila entregada
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see CursorPageDTO
+ */
+public record CursorPaginacion(LocalDateTime fecha, Long id) {
+
+    /** Tamaño de página por defecto. */
+    public static final int TAMANO_DEFECTO = 20;
+
+    /** Tamaño máximo de página permitido. */
+    public static final int TAMANO_MAXIMO = 100;
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Decodifica el cursor recibido en el parámetro {@code after}.
+     *
+     * @param token Cursor opaco (null o vacío para la primera página)
+     * @return Posición decodificada, o null para empezar desde el principio
+     * @throws InvalidDataException si el cursor está mal formado
+     */
+    public static CursorPaginacion decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Sin separador");
+            }
+            return new CursorPaginacion(
+                LocalDateTime.parse(valor.substring(0, separador)),
+                Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidDataException("after", token, "Cursor de paginación inválido");
+        }
+    }
+
+    /**
+     * Codifica esta posición como cursor opaco.
+     *
+     * @return Token Base64 URL-safe sin relleno
+     */
+    public String codificar() {
+        String valor = fecha + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Valida el tamaño de página solicitado.
+     *
+     * @param size Tamaño solicitado
+     * @return El mismo tamaño si es válido
+     * @throws InvalidDataException si está fuera de 1..{@value #TAMANO_MAXIMO}
+     */
+    public static int validarTamano(int size) {
+        if (size < 1 || size > TAMANO_MAXIMO) {
+            throw new InvalidDataException("size", size, "Debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+        return size;
+    }
+
+    /**
+     * Límite para el query de la página: se pide una fila de más para saber si hay siguiente
+     * página sin necesidad de contar.
+     *
+     * @param size Tamaño de página ya validado
+     * @return Pageable sin orden (el orden lo fija el query)
+     */
+    public static Pageable limite(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con {@link #limite(int)}.
+     *
+     * @param filas Filas leídas (hasta {@code size + 1})
+     * @param size Tamaño de página solicitado
+     * @param clave Extrae la posición (fecha, id) de una fila
+     * @param mapper Convierte cada fila a DTO
+     * @param total Total de elementos, o null si no se solicitó
+     * @return Página con el cursor de la siguiente
+     */
+    public static <E, T> CursorPageDTO<T> pagina(
+            List<E> filas, int size, Function<E, CursorPaginacion> clave, Function<E, T> mapper, Long total) {
+        boolean hasNext = filas.size() > size;
+        List<E> visibles = hasNext ? filas.subList(0, size) : filas;
+
+        return CursorPageDTO.<T>builder()
+            .content(visibles.stream().map(mapper).toList())
+            .size(size)
+            .hasNext(hasNext)
+            .nextCursor(hasNext ? clave.apply(visibles.get(visibles.size() - 1)).codificar() : null)
+            .totalElements(total)
+            .build();
+    }
+}
@@ -6,9 +6,9 @@ import com.clinica.veterinaria.entity.Consulta;
 import com.clinica.veterinaria.entity.Paciente;
 import com.clinica.veterinaria.entity.Prescripcion;
 import com.clinica.veterinaria.repository.*;
-import com.clinica.veterinaria.entity.Vacunacion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +27,11 @@ import java.util.stream.Collectors;
  * para el dashboard principal, incluyendo contadores, próximas citas,
  * gráficos y distribuciones.</p>
  * 
+ * <p>Los contadores de citas, consultas, pacientes y prescripciones se leen de la tabla
+ * agregada {@code daily_metrics} a través de {@link MetricaDiariaService}; el resto de
+ * indicadores se calculan con consultas COUNT o con consultas limitadas. El coste de cargar
+ * el dashboard depende del número de días mostrados, no del tamaño de las tablas.</p>
+ * 
  * @author Sebastian Ordoñez
  * @version 1.0.0
  * @since 2025-11-06
@@ -38,12 +43,17 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
     private final CitaRepository citaRepository;
-    private final PacienteRepository pacienteRepository;
     private final PropietarioRepository propietarioRepository;
     private final ConsultaRepository consultaRepository;
     private final VacunacionRepository vacunacionRepository;
     private final ProductoRepository productoRepository;
     private final PrescripcionRepository prescripcionRepository;
+    private final MetricaDiariaService metricaDiariaService;
+
+    private static final int MAX_PROXIMAS_CITAS = 4;
+    private static final int MAX_CONSULTAS_RECIENTES = 3;
+    private static final int MAX_PRESCRIPCIONES_RECIENTES = 2;
+    private static final int MAX_CITAS_RECIENTES = 2;
 
     /**
      * Obtiene todas las estadísticas del dashboard.
@@ -69,22 +79,20 @@ public class DashboardService {
         LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
 
         // Estadísticas básicas
-        long citasHoy = citaRepository.findByFechaBetween(inicioHoy, finHoy).size();
-        long pacientesActivos = pacienteRepository.findByActivo(true).size();
-        long consultasPendientes = citaRepository.findByEstadoIn(
+        long citasHoy = metricaDiariaService.contarCitas(hoy, hoy);
+        long pacientesActivos = metricaDiariaService.contarPacientesActivos();
+        long consultasPendientes = metricaDiariaService.contarCitasEnEstados(
             Arrays.asList(Cita.EstadoCita.PENDIENTE, Cita.EstadoCita.CONFIRMADA)
-        ).size();
-        long totalPropietarios = propietarioRepository.findByActivo(true).size();
+        );
+        long totalPropietarios = propietarioRepository.countActivos();
 
         // Nuevas métricas
-        long vacunacionesProximas = vacunacionRepository.findProximasAVencer(hoy, hoy.plusDays(30)).size();
-        long vacunacionesVencidas = vacunacionRepository.findVencidas(hoy).size();
-        long productosStockBajo = productoRepository.findProductosConStockBajo().size();
+        long vacunacionesProximas = vacunacionRepository.countProximasAVencer(hoy, hoy.plusDays(30));
+        long vacunacionesVencidas = vacunacionRepository.countVencidas(hoy);
+        long productosStockBajo = productoRepository.countProductosConStockBajo();
         
         // Prescripciones del mes actual
-        LocalDateTime inicioMes = hoy.withDayOfMonth(1).atStartOfDay();
-        LocalDateTime finMes = hoy.atTime(LocalTime.MAX);
-        long prescripcionesMes = prescripcionRepository.findByFechaEmisionBetween(inicioMes, finMes).size();
+        long prescripcionesMes = metricaDiariaService.contarPrescripciones(hoy.withDayOfMonth(1), hoy);
 
         // Próximas citas de hoy
         List<DashboardStatsDTO.ProximaCitaDTO> proximasCitas = getProximasCitas(inicioHoy, finHoy);
@@ -126,13 +134,12 @@ public class DashboardService {
      * Obtiene las próximas citas de hoy ordenadas por hora.
      */
     private List<DashboardStatsDTO.ProximaCitaDTO> getProximasCitas(LocalDateTime inicio, LocalDateTime fin) {
-        List<Cita> citasHoy = citaRepository.findByFechaBetween(inicio, fin);
+        List<Cita> citasHoy = citaRepository.findPrimerasCitasEnRango(
+            inicio, fin, PageRequest.of(0, MAX_PROXIMAS_CITAS));
         
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
 
         return citasHoy.stream()
-            .sorted(Comparator.comparing(Cita::getFecha))
-            .limit(4)
             .map(cita -> {
                 Paciente paciente = cita.getPaciente();
                 return DashboardStatsDTO.ProximaCitaDTO.builder()
@@ -162,18 +169,8 @@ public class DashboardService {
             inicioSemana = hoy.minusDays(6);
             finSemana = hoy;
         }
-        
-        LocalDateTime inicio = inicioSemana.atStartOfDay();
-        LocalDateTime fin = finSemana.atTime(LocalTime.MAX);
-
-        List<Consulta> consultas = consultaRepository.findByFechaBetween(inicio, fin);
 
-        // Agrupar por día
-        Map<LocalDate, Long> consultasPorDiaMap = consultas.stream()
-            .collect(Collectors.groupingBy(
-                consulta -> consulta.getFecha().toLocalDate(),
-                Collectors.counting()
-            ));
+        Map<LocalDate, Long> consultasPorDiaMap = metricaDiariaService.contarConsultasPorDia(inicioSemana, finSemana);
 
         // Mapear nombres de días en español
         Map<DayOfWeek, String> nombresDias = Map.of(
@@ -207,18 +204,16 @@ public class DashboardService {
      * Obtiene la distribución de pacientes por especie.
      */
     private List<DashboardStatsDTO.DistribucionEspecieDTO> getDistribucionEspecies() {
-        List<Paciente> pacientes = pacienteRepository.findByActivo(true);
-
         // Constantes para categorías de especies
         final String CATEGORIA_CANINOS = "Caninos";
         final String CATEGORIA_FELINOS = "Felinos";
         final String CATEGORIA_OTROS = "Otros";
 
-        // Contar por especie
-        Map<String, Long> especiesMap = pacientes.stream()
+        // Contadores por especie de daily_metrics; aquí solo se agrupan en categorías
+        Map<String, Long> especiesMap = metricaDiariaService.contarPacientesActivosPorEspecie().entrySet().stream()
             .collect(Collectors.groupingBy(
-                paciente -> {
-                    String especie = paciente.getEspecie();
+                conteo -> {
+                    String especie = conteo.getKey();
                     if (especie == null || especie.trim().isEmpty()) {
                         return CATEGORIA_OTROS;
                     }
@@ -231,7 +226,7 @@ public class DashboardService {
                         return CATEGORIA_OTROS;
                     }
                 },
-                Collectors.counting()
+                Collectors.summingLong(Map.Entry::getValue)
             ));
 
         // Crear lista con colores
@@ -254,13 +249,7 @@ public class DashboardService {
      * Obtiene la distribución de citas por estado.
      */
     private List<DashboardStatsDTO.CitasPorEstadoDTO> getCitasPorEstado() {
-        List<Cita> todasLasCitas = citaRepository.findAll();
-        
-        Map<Cita.EstadoCita, Long> citasPorEstadoMap = todasLasCitas.stream()
-            .collect(Collectors.groupingBy(
-                Cita::getEstado,
-                Collectors.counting()
-            ));
+        Map<Cita.EstadoCita, Long> citasPorEstadoMap = metricaDiariaService.contarCitasPorEstado();
 
         Map<Cita.EstadoCita, String> colores = Map.of(
             Cita.EstadoCita.PENDIENTE, "hsl(var(--status-pending))",
@@ -284,18 +273,8 @@ public class DashboardService {
     private List<DashboardStatsDTO.TendenciaConsultaDTO> getTendenciasConsultas() {
         LocalDate hoy = LocalDate.now();
         LocalDate inicio = hoy.minusDays(29);
-        
-        LocalDateTime inicioDateTime = inicio.atStartOfDay();
-        LocalDateTime finDateTime = hoy.atTime(LocalTime.MAX);
-
-        List<Consulta> consultas = consultaRepository.findByFechaBetween(inicioDateTime, finDateTime);
 
-        // Agrupar por fecha
-        Map<LocalDate, Long> consultasPorFecha = consultas.stream()
-            .collect(Collectors.groupingBy(
-                consulta -> consulta.getFecha().toLocalDate(),
-                Collectors.counting()
-            ));
+        Map<LocalDate, Long> consultasPorFecha = metricaDiariaService.contarConsultasPorDia(inicio, hoy);
 
         // Crear lista para los últimos 30 días
         List<DashboardStatsDTO.TendenciaConsultaDTO> resultado = new ArrayList<>();
@@ -325,11 +304,8 @@ public class DashboardService {
 
         // Últimas consultas (últimas 3 del último mes)
         LocalDateTime inicioMes = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        List<Consulta> consultasRecientes = consultaRepository.findByFechaBetween(inicioMes, ahora);
-        List<Consulta> ultimasConsultas = consultasRecientes.stream()
-            .sorted(Comparator.comparing(Consulta::getFecha).reversed())
-            .limit(3)
-            .toList();
+        List<Consulta> ultimasConsultas = consultaRepository.findUltimasConsultas(
+            inicioMes, ahora, PageRequest.of(0, MAX_CONSULTAS_RECIENTES));
 
         for (Consulta consulta : ultimasConsultas) {
             Paciente paciente = consulta.getPaciente();
@@ -342,11 +318,8 @@ public class DashboardService {
         }
 
         // Últimas prescripciones (últimas 2 del último mes)
-        List<Prescripcion> prescripcionesRecientes = prescripcionRepository.findByFechaEmisionBetween(inicioMes, ahora);
-        List<Prescripcion> ultimasPrescripciones = prescripcionesRecientes.stream()
-            .sorted(Comparator.comparing(Prescripcion::getFechaEmision).reversed())
-            .limit(2)
-            .toList();
+        List<Prescripcion> ultimasPrescripciones = prescripcionRepository.findUltimasPrescripciones(
+            inicioMes, ahora, PageRequest.of(0, MAX_PRESCRIPCIONES_RECIENTES));
 
         for (Prescripcion prescripcion : ultimasPrescripciones) {
             actividades.add(DashboardStatsDTO.ActividadRecienteDTO.builder()
@@ -358,15 +331,8 @@ public class DashboardService {
         }
 
         // Últimas citas creadas (últimas 2)
-        List<Cita> citasRecientes = citaRepository.findByFechaBetween(hace7Dias, ahora);
-        List<Cita> ultimasCitas = citasRecientes.stream()
-            .sorted((c1, c2) -> {
-                LocalDateTime fecha1 = c1.getCreatedAt() != null ? c1.getCreatedAt() : c1.getFecha();
-                LocalDateTime fecha2 = c2.getCreatedAt() != null ? c2.getCreatedAt() : c2.getFecha();
-                return fecha2.compareTo(fecha1);
-            })
-            .limit(2)
-            .toList();
+        List<Cita> ultimasCitas = citaRepository.findUltimasCitasCreadas(
+            hace7Dias, ahora, PageRequest.of(0, MAX_CITAS_RECIENTES));
 
         for (Cita cita : ultimasCitas) {
             Paciente paciente = cita.getPaciente();
@@ -394,4 +360,3 @@ public class DashboardService {
             .toList();
     }
 }
-
@@ -0,0 +1,296 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.MensajeSaliente;
+import com.clinica.veterinaria.entity.MensajeSaliente.Canal;
+import com.clinica.veterinaria.entity.MensajeSaliente.Estado;
+import com.clinica.veterinaria.repository.MensajeSalienteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Despachador en segundo plano del outbox de emails y SMS ({@code mensaje_saliente}).
+ *
+ * <p>Envía los mensajes encolados por {@link MensajeSalienteService} con un pool acotado de
+ * hilos, de forma que el renderizado de plantillas y la conexión SMTP (hasta 5 s por
+ * {@code mail.smtp.timeout}) nunca ocurren dentro de la transacción ni del hilo de la petición
+ * que originó el mensaje.</p>
+ *
+ * <p><strong>Funcionamiento:</strong></p>
+ * <ol>
+ *   <li>Tras el commit, {@link MensajeSalienteService} entrega el ID al pool con
+ *       {@link #despachar(Long)}; además, cada {@code app.outbox.intervalo-ms} se sondean los
+ *       mensajes listos (reintentos vencidos, avisos perdidos o rechazados por pool lleno).</li>
+ *   <li>El hilo trabajador reclama el mensaje con un UPDATE condicional que lo pasa a
+ *       EN_PROCESO durante {@code app.outbox.bloqueo-segundos}; solo un despachador lo obtiene,
+ *       aunque haya varias instancias de la aplicación.</li>
+ *   <li>Se envía fuera de cualquier transacción (los emails de un mismo lote por una sola
+ *       conexión SMTP) y se registra el resultado: ENVIADO, o
+ *       PENDIENTE con espera exponencial ({@code espera-inicial-segundos × 2^(intento-1)},
+ *       máximo 1 hora), o FALLIDO al agotar {@code app.outbox.max-intentos}.</li>
+ * </ol>
+ *
+ * <p>La entrega es "al menos una vez": si la aplicación se detiene tras enviar pero antes de
+ * registrar el resultado, el mensaje se reenviará cuando venza el bloqueo.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see MensajeSaliente
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DespachadorMensajesService {
+
+    private static final Duration ESPERA_MAXIMA = Duration.ofHours(1);
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+    private static final TypeReference<Map<String, String>> TIPO_PAYLOAD = new TypeReference<>() { };
+
+    private final MensajeSalienteRepository mensajeSalienteRepository;
+    private final EmailService emailService;
+    private final SMSService smsService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.outbox.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${app.outbox.hilos:4}")
+    private int hilos;
+
+    @Value("${app.outbox.max-intentos:6}")
+    private int maxIntentos;
+
+    @Value("${app.outbox.espera-inicial-segundos:30}")
+    private long esperaInicialSegundos;
+
+    @Value("${app.outbox.bloqueo-segundos:120}")
+    private long bloqueoSegundos;
+
+    @Value("${app.mail.lote.tamano:50}")
+    private int tamanoLote;
+
+    private ThreadPoolTaskExecutor trabajadores;
+
+    @PostConstruct
+    void iniciar() {
+        trabajadores = new ThreadPoolTaskExecutor();
+        trabajadores.setThreadNamePrefix("outbox-");
+        trabajadores.setCorePoolSize(hilos);
+        trabajadores.setMaxPoolSize(hilos);
+        trabajadores.setQueueCapacity(hilos * 25);
+        trabajadores.setWaitForTasksToCompleteOnShutdown(true);
+        trabajadores.setAwaitTerminationSeconds(10);
+        trabajadores.initialize();
+    }
+
+    @PreDestroy
+    void detener() {
+        trabajadores.shutdown();
+    }
+
+    /**
+     * Entrega un mensaje al pool de envío sin esperar al resultado.
+     *
+     * <p>Si el pool está lleno no hace nada: el mensaje sigue listo en la base de datos y lo
+     * recogerá el siguiente sondeo.</p>
+     *
+     * @param mensajeId ID del mensaje encolado
+     */
+    public void despachar(Long mensajeId) {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            trabajadores.execute(() -> procesar(mensajeId));
+        } catch (TaskRejectedException e) {
+            log.debug("Pool de envío lleno, el mensaje {} se enviará en el próximo sondeo", mensajeId);
+        }
+    }
+
+    /**
+     * Sondea los mensajes listos y los entrega al pool en lotes de {@code app.mail.lote.tamano},
+     * sin superar el hueco libre de su cola.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:5000}")
+    public void sondear() {
+        if (!habilitado) {
+            return;
+        }
+        int huecos = trabajadores.getThreadPoolExecutor().getQueue().remainingCapacity();
+        if (huecos == 0) {
+            return;
+        }
+        List<Long> listos = mensajeSalienteRepository.findIdsListos(
+            LocalDateTime.now(), PageRequest.of(0, huecos * tamanoLote));
+        if (listos.isEmpty()) {
+            return;
+        }
+        log.debug("→ Outbox: {} mensajes listos para enviar", listos.size());
+        for (int desde = 0; desde < listos.size(); desde += tamanoLote) {
+            List<Long> lote = List.copyOf(listos.subList(desde, Math.min(desde + tamanoLote, listos.size())));
+            try {
+                trabajadores.execute(() -> procesarLote(lote));
+            } catch (TaskRejectedException e) {
+                log.debug("Pool de envío lleno, {} mensajes quedan para el próximo sondeo", listos.size() - desde);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reclama, envía y registra el resultado de un mensaje (se ejecuta en el pool).
+     *
+     * @param mensajeId ID del mensaje
+     */
+    void procesar(Long mensajeId) {
+        procesarLote(List.of(mensajeId));
+    }
+
+    /**
+     * Reclama, envía y registra el resultado de un grupo de mensajes (se ejecuta en el pool).
+     *
+     * <p>Los emails del grupo se envían juntos con {@link EmailService#enviarLote(Map)}, por una
+     * sola conexión SMTP; los SMS, uno a uno. El fallo de un mensaje no afecta al resto.</p>
+     *
+     * @param ids IDs de los mensajes
+     */
+    void procesarLote(List<Long> ids) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime bloqueoHasta = ahora.plusSeconds(bloqueoSegundos);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        List<Long> reclamados = transaccion.execute(status -> ids.stream()
+            .filter(id -> mensajeSalienteRepository.reclamar(id, ahora, bloqueoHasta) == 1)
+            .toList());
+        if (reclamados == null || reclamados.isEmpty()) {
+            return;
+        }
+
+        List<MensajeSaliente> mensajes = mensajeSalienteRepository.findAllById(reclamados);
+        Map<MensajeSaliente, String> errores = enviar(mensajes);
+        mensajes.forEach(mensaje -> registrarResultado(mensaje, errores.get(mensaje)));
+        transaccion.executeWithoutResult(status -> mensajeSalienteRepository.saveAll(mensajes));
+    }
+
+    /**
+     * Envía los mensajes y devuelve el error de cada uno que falló.
+     */
+    private Map<MensajeSaliente, String> enviar(List<MensajeSaliente> mensajes) {
+        Map<MensajeSaliente, String> errores = new HashMap<>();
+        Map<MensajeSaliente, MimeMessage> emails = new LinkedHashMap<>();
+        for (MensajeSaliente mensaje : mensajes) {
+            try {
+                if (mensaje.getTipo().getCanal() == Canal.EMAIL) {
+                    emails.put(mensaje, prepararEmail(mensaje));
+                } else if (!enviarSms(mensaje)) {
+                    errores.put(mensaje, "El envío fue rechazado (ver logs de SMSService)");
+                }
+            } catch (MessagingException | RuntimeException e) {
+                errores.put(mensaje, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        if (!emails.isEmpty()) {
+            errores.putAll(emailService.enviarLote(emails));
+        }
+        return errores;
+    }
+
+    private MimeMessage prepararEmail(MensajeSaliente mensaje) throws MessagingException {
+        Map<String, String> datos = leerPayload(mensaje);
+        String destinatario = mensaje.getDestinatario();
+        LocalDateTime fecha = LocalDateTime.parse(datos.get("fecha"));
+
+        return switch (mensaje.getTipo()) {
+            case EMAIL_CITA_CONFIRMACION -> emailService.prepararEmailConfirmacionCita(
+                destinatario, datos.get("propietarioNombre"), datos.get("pacienteNombre"),
+                fecha, datos.get("motivo"), datos.get("profesionalNombre"));
+            case EMAIL_CITA_CANCELACION -> emailService.prepararEmailCancelacionCita(
+                destinatario, datos.get("propietarioNombre"), datos.get("pacienteNombre"),
+                fecha, datos.get("motivo"), datos.get("profesionalNombre"), datos.get("razonCancelacion"));
+            case EMAIL_CITA_CAMBIO_ESTADO -> emailService.prepararEmailCambioEstadoCita(
+                destinatario, datos.get("propietarioNombre"), datos.get("pacienteNombre"),
+                fecha, datos.get("motivo"), datos.get("profesionalNombre"), datos.get("nuevoEstado"));
+            default -> throw new IllegalStateException("Tipo de mensaje no es un email: " + mensaje.getTipo());
+        };
+    }
+
+    private boolean enviarSms(MensajeSaliente mensaje) {
+        Map<String, String> datos = leerPayload(mensaje);
+        return switch (mensaje.getTipo()) {
+            case SMS_CITA_CONFIRMACION -> smsService.sendCitaConfirmacionSMS(
+                mensaje.getDestinatario(), datos.get("propietarioNombre"), datos.get("pacienteNombre"),
+                LocalDateTime.parse(datos.get("fecha")), datos.get("motivo"));
+            default -> throw new IllegalStateException("Tipo de mensaje no es un SMS: " + mensaje.getTipo());
+        };
+    }
+
+    /**
+     * Actualiza el estado del mensaje según el resultado del envío.
+     *
+     * @param mensaje Mensaje reclamado (con {@code intentos} ya incrementado)
+     * @param error Descripción del fallo, o null si se envió
+     */
+    void registrarResultado(MensajeSaliente mensaje, String error) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (error == null) {
+            mensaje.setEstado(Estado.ENVIADO);
+            mensaje.setEnviadoAt(ahora);
+            mensaje.setUltimoError(null);
+            log.info("✓ Mensaje {} enviado a {} (intento {})",
+                mensaje.getTipo(), mensaje.getDestinatario(), mensaje.getIntentos());
+            return;
+        }
+
+        mensaje.setUltimoError(error.length() > LONGITUD_MAXIMA_ERROR ? error.substring(0, LONGITUD_MAXIMA_ERROR) : error);
+        if (mensaje.getIntentos() >= maxIntentos) {
+            mensaje.setEstado(Estado.FALLIDO);
+            log.error("✗ Mensaje {} (ID: {}) descartado tras {} intentos: {}",
+                mensaje.getTipo(), mensaje.getId(), mensaje.getIntentos(), error);
+        } else {
+            Duration espera = calcularEspera(mensaje.getIntentos());
+            mensaje.setEstado(Estado.PENDIENTE);
+            mensaje.setProximoIntento(ahora.plus(espera));
+            log.warn("⚠ Falló el envío del mensaje {} (ID: {}, intento {}), se reintentará en {} s: {}",
+                mensaje.getTipo(), mensaje.getId(), mensaje.getIntentos(), espera.toSeconds(), error);
+        }
+    }
+
+    /**
+     * Espera antes del siguiente intento: exponencial desde la espera inicial, con tope de 1 hora.
+     */
+    Duration calcularEspera(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 20);
+        Duration espera = Duration.ofSeconds(esperaInicialSegundos).multipliedBy(1L << exponente);
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+
+    private Map<String, String> leerPayload(MensajeSaliente mensaje) {
+        try {
+            return objectMapper.readValue(mensaje.getPayload(), TIPO_PAYLOAD);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload ilegible: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.HuecoDisponibleDTO;
+import com.clinica.veterinaria.dto.UsuarioDTO;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.CitaSlotView;
+import com.clinica.veterinaria.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Índice en memoria de la disponibilidad de los profesionales.
+ *
+ * <p>Mantiene, por cada veterinario y día, un mapa de bits de las franjas de
+ * {@value #DURACION_SLOT_MINUTOS} minutos ocupadas por citas no canceladas. Las 48 franjas
+ * de un día caben en un único {@code long}, por lo que la verificación de solapamiento
+ * se reduce a una operación AND sin consultar la base de datos.</p>
+ *
+ * <p><strong>Ciclo de vida del índice:</strong></p>
+ * <ul>
+ *   <li><b>Precarga:</b> Al iniciar la aplicación se cargan los próximos días
+ *       ({@code app.agenda.precarga-dias}) con una única consulta de proyección</li>
+ *   <li><b>Carga bajo demanda:</b> Los días no precargados se cargan la primera vez que se consultan</li>
+ *   <li><b>Sincronización:</b> {@link CitaService} notifica cada reserva y liberación de franja,
+ *       que se aplica al confirmar la transacción (otras peticiones nunca ven reservas sin confirmar)</li>
+ *   <li><b>Límite:</b> Como máximo {@value #MAX_DIAS_EN_MEMORIA} días en memoria; por encima se
+ *       responde desde la base de datos sin guardar el día</li>
+ *   <li><b>Limpieza:</b> Los días pasados se descartan diariamente</li>
+ * </ul>
+ *
+ * <p><strong>Escrituras:</strong> El índice es local a cada instancia y solo sirve para las
+ * consultas de disponibilidad. Al crear o mover una cita, {@link CitaService} valida el
+ * solapamiento con {@link #buscarConflictoEnBaseDeDatos}, que lee el día del profesional con
+ * la consulta de proyección dentro de la propia transacción.</p>
+ *
+ * <p>Una cita ocupa todas las franjas que toca su intervalo {@code [fecha, fecha + 30 min)}:
+ * una cita a las 10:15 ocupa las franjas de 10:00 y 10:30.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see CitaService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibilidadService {
+
+    /** Duración de una franja de agenda en minutos. */
+    public static final int DURACION_SLOT_MINUTOS = 30;
+
+    /** Número de franjas de un día (48, caben en un {@code long}). */
+    public static final int SLOTS_POR_DIA = 24 * 60 / DURACION_SLOT_MINUTOS;
+
+    /** Horizonte máximo (en días) de los días que se conservan en memoria. */
+    private static final int HORIZONTE_MAXIMO_DIAS = 366;
+
+    /** Días que recorre como máximo la búsqueda de próximos huecos. */
+    private static final int DIAS_BUSQUEDA_HUECOS = 60;
+
+    /** Número máximo de días (profesional y fecha) guardados en memoria. */
+    static final int MAX_DIAS_EN_MEMORIA = 20_000;
+
+    /** Número máximo de huecos devueltos por búsqueda. */
+    public static final int MAX_HUECOS = 50;
+
+    private final CitaRepository citaRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${app.agenda.precarga-dias:60}")
+    private int diasPrecarga;
+
+    private final ConcurrentMap<ClaveAgenda, AgendaDia> agendas = new ConcurrentHashMap<>();
+
+    /**
+     * Precarga el índice con las citas activas de los próximos días.
+     *
+     * <p>Se registra un día (vacío si no tiene citas) por cada veterinario activo,
+     * de modo que las consultas dentro de la ventana no requieren acceso a la base de datos.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        LocalDate hoy = LocalDate.now();
+        LocalDate hasta = hoy.plusDays(diasPrecarga);
+        try {
+            List<CitaSlotView> slots = citaRepository.findSlotsOcupados(hoy.atStartOfDay(), hasta.atStartOfDay());
+
+            Set<Long> profesionales = new HashSet<>();
+            usuarioRepository.findVeterinariosActivos().forEach(u -> profesionales.add(u.getId()));
+
+            Map<ClaveAgenda, Map<Long, Integer>> citasPorDia = new HashMap<>();
+            for (CitaSlotView slot : slots) {
+                profesionales.add(slot.getProfesionalId());
+                citasPorDia.computeIfAbsent(ClaveAgenda.de(slot.getProfesionalId(), slot.getFecha()), k -> new HashMap<>())
+                    .put(slot.getId(), minutoDelDia(slot.getFecha()));
+            }
+
+            for (Long profesionalId : profesionales) {
+                for (LocalDate dia = hoy; dia.isBefore(hasta); dia = dia.plusDays(1)) {
+                    ClaveAgenda clave = new ClaveAgenda(profesionalId, dia);
+                    agendas.putIfAbsent(clave, AgendaDia.de(citasPorDia.getOrDefault(clave, Map.of())));
+                }
+            }
+            log.info("✓ Índice de disponibilidad precargado: {} citas, {} profesionales, {} días",
+                slots.size(), profesionales.size(), diasPrecarga);
+        } catch (Exception e) {
+            // Sin precarga el índice sigue funcionando con carga bajo demanda
+            log.warn("No se pudo precargar el índice de disponibilidad: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Busca una cita del profesional que se solape con una nueva cita en la fecha indicada.
+     *
+     * @param profesionalId ID del profesional
+     * @param fecha Fecha y hora de inicio de la nueva cita
+     * @param citaIdExcluida ID de la cita a ignorar (la propia cita en actualizaciones), puede ser null
+     * @return Hora de la primera cita en conflicto, o vacío si el profesional está disponible
+     */
+    public Optional<LocalTime> buscarConflicto(@NonNull Long profesionalId, @NonNull LocalDateTime fecha,
+                                               Long citaIdExcluida) {
+        return obtenerAgenda(profesionalId, fecha.toLocalDate()).primerConflicto(minutoDelDia(fecha), citaIdExcluida);
+    }
+
+    /**
+     * Igual que {@link #buscarConflicto}, pero leyendo el día desde la base de datos en lugar
+     * del índice.
+     *
+     * <p>Es la validación que usan las escrituras: se ejecuta dentro de la transacción que
+     * guarda la cita, por lo que ve las citas confirmadas por cualquier instancia y las de la
+     * propia transacción. El día leído no se guarda en el índice.</p>
+     *
+     * @param profesionalId ID del profesional
+     * @param fecha Fecha y hora de inicio de la nueva cita
+     * @param citaIdExcluida ID de la cita a ignorar (la propia cita en actualizaciones), puede ser null
+     * @return Hora de la primera cita en conflicto, o vacío si el profesional está disponible
+     */
+    public Optional<LocalTime> buscarConflictoEnBaseDeDatos(@NonNull Long profesionalId, @NonNull LocalDateTime fecha,
+                                                            Long citaIdExcluida) {
+        return cargarDia(ClaveAgenda.de(profesionalId, fecha)).primerConflicto(minutoDelDia(fecha), citaIdExcluida);
+    }
+
+    /**
+     * Obtiene el mapa de bits de franjas ocupadas de un profesional en un día.
+     *
+     * @param profesionalId ID del profesional
+     * @param fecha Día a consultar
+     * @return Mapa de bits donde el bit {@code i} indica la franja que empieza en {@code i * 30} minutos
+     */
+    public long getOcupacion(@NonNull Long profesionalId, @NonNull LocalDate fecha) {
+        return obtenerAgenda(profesionalId, fecha).ocupacion();
+    }
+
+    /**
+     * Obtiene las horas de inicio (formato HH:mm) de las franjas ocupadas de un profesional en un día.
+     *
+     * @param profesionalId ID del profesional
+     * @param fecha Día a consultar
+     * @return Horas ocupadas ordenadas ascendentemente
+     */
+    public List<String> getHorasOcupadas(@NonNull Long profesionalId, @NonNull LocalDate fecha) {
+        long ocupacion = getOcupacion(profesionalId, fecha);
+        List<String> horas = new ArrayList<>(Long.bitCount(ocupacion));
+        while (ocupacion != 0) {
+            int slot = Long.numberOfTrailingZeros(ocupacion);
+            horas.add(inicioSlot(slot).toString());
+            ocupacion &= ocupacion - 1;
+        }
+        return horas;
+    }
+
+    /**
+     * Busca los próximos huecos libres en la agenda de uno o varios veterinarios.
+     *
+     * <p>Recorre el calendario de atención ({@link HorarioAtencion}) día a día y, para cada día,
+     * combina las máscaras de franjas libres de todos los veterinarios en una sola pasada
+     * ordenada por hora. Los huecos se devuelven en orden cronológico; si varios veterinarios
+     * están libres a la misma hora, se devuelven en el orden de la lista recibida.</p>
+     *
+     * @param veterinarios Veterinarios cuyas agendas se consultan
+     * @param desde Fecha y hora a partir de la cual buscar (si es pasada, se usa el momento actual)
+     * @param cantidad Número de huecos a devolver (entre 1 y {@value #MAX_HUECOS})
+     * @return Huecos libres en orden cronológico, como máximo {@code cantidad}
+     */
+    public List<HuecoDisponibleDTO> buscarProximosHuecos(@NonNull List<UsuarioDTO> veterinarios,
+                                                         LocalDateTime desde, int cantidad) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime inicio = desde == null || desde.isBefore(ahora) ? ahora : desde;
+        int limite = Math.max(1, Math.min(cantidad, MAX_HUECOS));
+
+        List<HuecoDisponibleDTO> huecos = new ArrayList<>(limite);
+        long[] libres = new long[veterinarios.size()];
+
+        for (int d = 0; d < DIAS_BUSQUEDA_HUECOS && huecos.size() < limite && !veterinarios.isEmpty(); d++) {
+            LocalDate dia = inicio.toLocalDate().plusDays(d);
+            long atencion = HorarioAtencion.mascaraAtencion(dia.getDayOfWeek());
+            if (d == 0) {
+                atencion &= mascaraDesde(inicio.toLocalTime());
+            }
+            if (atencion == 0) {
+                continue;
+            }
+
+            long alguno = 0L;
+            for (int v = 0; v < veterinarios.size(); v++) {
+                libres[v] = atencion & ~getOcupacion(veterinarios.get(v).getId(), dia);
+                alguno |= libres[v];
+            }
+
+            while (alguno != 0 && huecos.size() < limite) {
+                int slot = Long.numberOfTrailingZeros(alguno);
+                LocalDateTime fecha = dia.atTime(inicioSlot(slot));
+                for (int v = 0; v < veterinarios.size() && huecos.size() < limite; v++) {
+                    if ((libres[v] & (1L << slot)) != 0) {
+                        UsuarioDTO veterinario = veterinarios.get(v);
+                        huecos.add(HuecoDisponibleDTO.builder()
+                            .veterinarioId(veterinario.getId())
+                            .veterinarioNombre(veterinario.getNombre())
+                            .fecha(fecha)
+                            .build());
+                    }
+                }
+                alguno &= alguno - 1;
+            }
+        }
+        return huecos;
+    }
+
+    /**
+     * Marca como ocupadas las franjas de una cita.
+     *
+     * @param citaId ID de la cita
+     * @param profesionalId ID del profesional asignado
+     * @param fecha Fecha y hora de la cita
+     */
+    public void reservar(@NonNull Long citaId, @NonNull Long profesionalId, @NonNull LocalDateTime fecha) {
+        int minuto = minutoDelDia(fecha);
+        aplicar(ClaveAgenda.de(profesionalId, fecha), agenda -> agenda.con(citaId, minuto));
+    }
+
+    /**
+     * Libera las franjas ocupadas por una cita (cancelación, reprogramación o eliminación).
+     *
+     * @param citaId ID de la cita
+     * @param profesionalId ID del profesional que tenía asignada la cita
+     * @param fecha Fecha y hora que tenía la cita
+     */
+    public void liberar(@NonNull Long citaId, @NonNull Long profesionalId, @NonNull LocalDateTime fecha) {
+        aplicar(ClaveAgenda.de(profesionalId, fecha), agenda -> agenda.sin(citaId));
+    }
+
+    /**
+     * Descarta del índice los días que ya pasaron (ejecuta diariamente a las 00:30).
+     */
+    @Scheduled(cron = "0 30 0 * * *") // Diariamente a las 00:30
+    public void descartarDiasPasados() {
+        LocalDate hoy = LocalDate.now();
+        int antes = agendas.size();
+        agendas.keySet().removeIf(clave -> clave.fecha().isBefore(hoy));
+        log.debug("Índice de disponibilidad: {} días pasados descartados", antes - agendas.size());
+    }
+
+    /**
+     * Aplica un cambio sobre el día indexado (si está cargado) al confirmar la transacción en
+     * curso, o de inmediato si no hay transacción.
+     *
+     * <p>El cambio es idempotente: si el día se cargó desde la base de datos después del commit
+     * y ya incluye la cita, aplicarlo de nuevo no altera nada. Si la transacción se revierte no
+     * hay nada que deshacer.</p>
+     */
+    private void aplicar(ClaveAgenda clave, UnaryOperator<AgendaDia> cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            agendas.computeIfPresent(clave, (k, agenda) -> cambio.apply(agenda));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                agendas.computeIfPresent(clave, (k, agenda) -> cambio.apply(agenda));
+            }
+        });
+    }
+
+    private AgendaDia obtenerAgenda(Long profesionalId, LocalDate fecha) {
+        ClaveAgenda clave = new ClaveAgenda(profesionalId, fecha);
+        AgendaDia agenda = agendas.get(clave);
+        if (agenda != null) {
+            return agenda;
+        }
+        LocalDate hoy = LocalDate.now();
+        if (fecha.isBefore(hoy) || fecha.isAfter(hoy.plusDays(HORIZONTE_MAXIMO_DIAS))
+                || agendas.size() >= MAX_DIAS_EN_MEMORIA) {
+            // Fuera del horizonte o índice lleno: se responde sin guardar en memoria
+            return cargarDia(clave);
+        }
+        return agendas.computeIfAbsent(clave, this::cargarDia);
+    }
+
+    private AgendaDia cargarDia(ClaveAgenda clave) {
+        log.debug("Cargando agenda del profesional {} para el día {}", clave.profesionalId(), clave.fecha());
+        Map<Long, Integer> minutos = new HashMap<>();
+        citaRepository.findSlotsOcupadosPorProfesional(
+                clave.profesionalId(),
+                clave.fecha().atStartOfDay(),
+                clave.fecha().plusDays(1).atStartOfDay())
+            .forEach(slot -> minutos.put(slot.getId(), minutoDelDia(slot.getFecha())));
+        return AgendaDia.de(minutos);
+    }
+
+    /**
+     * Hora de inicio de una franja.
+     *
+     * @param slot Índice de la franja (0 a {@value #SLOTS_POR_DIA} - 1)
+     * @return Hora de inicio de la franja
+     */
+    public static LocalTime inicioSlot(int slot) {
+        return LocalTime.MIN.plusMinutes((long) slot * DURACION_SLOT_MINUTOS);
+    }
+
+    /**
+     * Máscara de las franjas que empiezan a la hora indicada o después.
+     */
+    private static long mascaraDesde(LocalTime hora) {
+        int segundosPorSlot = DURACION_SLOT_MINUTOS * 60;
+        int primera = (hora.toSecondOfDay() + segundosPorSlot - 1) / segundosPorSlot;
+        return primera >= SLOTS_POR_DIA ? 0L : -1L << primera;
+    }
+
+    private static int minutoDelDia(LocalDateTime fecha) {
+        return fecha.getHour() * 60 + fecha.getMinute();
+    }
+
+    /**
+     * Máscara de franjas que toca una cita de 30 minutos que empieza en el minuto indicado.
+     */
+    static long mascara(int minutoDelDia) {
+        int primera = minutoDelDia / DURACION_SLOT_MINUTOS;
+        int ultima = Math.min((minutoDelDia + DURACION_SLOT_MINUTOS - 1) / DURACION_SLOT_MINUTOS, SLOTS_POR_DIA - 1);
+        long mascara = 0L;
+        for (int slot = primera; slot <= ultima; slot++) {
+            mascara |= 1L << slot;
+        }
+        return mascara;
+    }
+
+    /**
+     * Clave del índice: profesional y día.
+     */
+    private record ClaveAgenda(Long profesionalId, LocalDate fecha) {
+        static ClaveAgenda de(Long profesionalId, LocalDateTime fecha) {
+            return new ClaveAgenda(profesionalId, fecha.toLocalDate());
+        }
+    }
+
+    /**
+     * Agenda inmutable de un profesional en un día.
+     *
+     * @param ocupacion Mapa de bits de franjas ocupadas
+     * @param minutosPorCita Minuto del día de inicio de cada cita activa, por ID de cita
+     */
+    private record AgendaDia(long ocupacion, Map<Long, Integer> minutosPorCita) {
+
+        static AgendaDia de(Map<Long, Integer> minutosPorCita) {
+            long ocupacion = 0L;
+            for (int minuto : minutosPorCita.values()) {
+                ocupacion |= mascara(minuto);
+            }
+            return new AgendaDia(ocupacion, Map.copyOf(minutosPorCita));
+        }
+
+        AgendaDia con(Long citaId, int minuto) {
+            Map<Long, Integer> copia = new HashMap<>(minutosPorCita);
+            copia.put(citaId, minuto);
+            return de(copia);
+        }
+
+        /**
+         * Hora de la primera cita (excepto {@code citaIdExcluida}) que se solapa con una cita
+         * que empieza en el minuto indicado.
+         */
+        Optional<LocalTime> primerConflicto(int minuto, Long citaIdExcluida) {
+            long solicitada = mascara(minuto);
+            if ((ocupacion & solicitada) == 0) {
+                return Optional.empty();
+            }
+
+            Integer primero = null;
+            for (Map.Entry<Long, Integer> entry : minutosPorCita.entrySet()) {
+                if (entry.getKey().equals(citaIdExcluida) || (mascara(entry.getValue()) & solicitada) == 0) {
+                    continue;
+                }
+                if (primero == null || entry.getValue() < primero) {
+                    primero = entry.getValue();
+                }
+            }
+            return Optional.ofNullable(primero).map(m -> LocalTime.MIN.plusMinutes(m));
+        }
+
+        AgendaDia sin(Long citaId) {
+            if (!minutosPorCita.containsKey(citaId)) {
+                return this;
+            }
+            Map<Long, Integer> copia = new HashMap<>(minutosPorCita);
+            copia.remove(citaId);
+            return de(copia);
+        }
+    }
+}
@@ -1,20 +1,29 @@
 package com.clinica.veterinaria.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio para el envío de correos electrónicos del sistema.
@@ -27,6 +36,11 @@ import java.util.Locale;
  *   <li>Notificaciones de cambio de contraseña</li>
  * </ul>
  * 
+ * <p>Los emails de citas pueden además prepararse con {@code prepararEmail*} y enviarse en
+ * bloque con {@link #enviarLote(Map)}, que reutiliza una conexión SMTP por lote. Los envíos se
+ * publican en Micrometer ({@code clinica.email.enviados}, {@code clinica.email.conexiones},
+ * {@code clinica.email.envio}).</p>
+ * 
  * @author Sebastian Ordoñez
  * @version 2.0.0
  * @since 2025-01-XX
@@ -37,7 +51,8 @@ import java.util.Locale;
 public class EmailService {
 
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final PlantillaEmailService plantillaEmailService;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.mail.from}")
     private String fromEmail;
@@ -48,8 +63,37 @@ public class EmailService {
     @Value("${app.mail.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    @Value("${app.mail.logo.url:}")
-    private String logoUrl;
+    @Value("${app.mail.lote.tamano:50}")
+    private int tamanoLote;
+
+    @Value("${app.mail.lote.max-por-segundo:10}")
+    private int maxPorSegundo;
+
+    private Counter enviadosOk;
+    private Counter enviadosError;
+    private Counter conexiones;
+    private DistributionSummary tamanoLotes;
+    private Timer tiempoEnvioIndividual;
+    private Timer tiempoEnvioLote;
+
+    /** Instante (System.nanoTime) a partir del cual hay cupo para enviar, según el límite de ritmo. */
+    private long siguienteCupoNanos = System.nanoTime();
+
+    @PostConstruct
+    void registrarMetricas() {
+        enviadosOk = Counter.builder("clinica.email.enviados").tag("resultado", "ok")
+            .description("Emails aceptados por el servidor SMTP").register(meterRegistry);
+        enviadosError = Counter.builder("clinica.email.enviados").tag("resultado", "error")
+            .description("Emails que no se pudieron enviar").register(meterRegistry);
+        conexiones = Counter.builder("clinica.email.conexiones")
+            .description("Conexiones SMTP abiertas (saludo TCP + STARTTLS + AUTH)").register(meterRegistry);
+        tamanoLotes = DistributionSummary.builder("clinica.email.lote.tamano")
+            .description("Mensajes enviados por conexión en los envíos por lote").register(meterRegistry);
+        tiempoEnvioIndividual = Timer.builder("clinica.email.envio").tag("modo", "individual")
+            .description("Tiempo por conexión SMTP").register(meterRegistry);
+        tiempoEnvioLote = Timer.builder("clinica.email.envio").tag("modo", "lote")
+            .description("Tiempo por conexión SMTP").register(meterRegistry);
+    }
 
     /**
      * Envía un email de confirmación cuando se crea una nueva cita.
@@ -67,31 +111,29 @@ public class EmailService {
                                                String motivo, String profesionalNombre) {
         try {
             log.info("📧 Enviando email de confirmación de cita a: {}", propietarioEmail);
-            
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("propietarioNombre", propietarioNombre);
-            context.setVariable("pacienteNombre", pacienteNombre);
-            context.setVariable("fecha", fecha.toLocalDate());
-            context.setVariable("hora", fecha.toLocalTime());
-            context.setVariable("motivo", motivo);
-            context.setVariable("profesionalNombre", profesionalNombre);
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
-            
-            // Construir URL del logo
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-
-            String subject = String.format("Confirmación de cita - %s", pacienteNombre);
-            
-            return enviarEmailHtml(propietarioEmail, subject, "email/cita-confirmacion", context);
+            return enviarMensaje(propietarioEmail, prepararEmailConfirmacionCita(
+                propietarioEmail, propietarioNombre, pacienteNombre, fecha, motivo, profesionalNombre));
         } catch (Exception e) {
             log.error("✗ Error al enviar email de confirmación de cita: {}", e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * Construye, sin enviarlo, el email de confirmación de una cita (para {@link #enviarLote(Map)}).
+     * 
+     * @return Mensaje listo para enviar, o null si falta el destinatario o el remitente
+     * @throws MessagingException si no se puede construir el mensaje
+     * @see #enviarEmailConfirmacionCita(String, String, String, LocalDateTime, String, String)
+     */
+    public MimeMessage prepararEmailConfirmacionCita(String propietarioEmail, String propietarioNombre,
+                                                     String pacienteNombre, LocalDateTime fecha,
+                                                     String motivo, String profesionalNombre) throws MessagingException {
+        Map<String, Object> variables = variablesCita(propietarioNombre, pacienteNombre, fecha, motivo, profesionalNombre);
+        String subject = String.format("Confirmación de cita - %s", pacienteNombre);
+        return construirMensajeHtml(propietarioEmail, subject, "cita-confirmacion", variables);
+    }
+
     /**
      * Envía un email cuando se cancela una cita.
      * 
@@ -110,32 +152,31 @@ public class EmailService {
                                               String razonCancelacion) {
         try {
             log.info("📧 Enviando email de cancelación de cita a: {}", propietarioEmail);
-            
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("propietarioNombre", propietarioNombre);
-            context.setVariable("pacienteNombre", pacienteNombre);
-            context.setVariable("fecha", fecha.toLocalDate());
-            context.setVariable("hora", fecha.toLocalTime());
-            context.setVariable("motivo", motivo);
-            context.setVariable("profesionalNombre", profesionalNombre);
-            context.setVariable("razonCancelacion", razonCancelacion != null ? razonCancelacion : "No especificada");
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
-            
-            // Construir URL del logo
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-
-            String subject = String.format("Cancelación de cita - %s", pacienteNombre);
-            
-            return enviarEmailHtml(propietarioEmail, subject, "email/cita-cancelacion", context);
+            return enviarMensaje(propietarioEmail, prepararEmailCancelacionCita(
+                propietarioEmail, propietarioNombre, pacienteNombre, fecha, motivo, profesionalNombre, razonCancelacion));
         } catch (Exception e) {
             log.error("✗ Error al enviar email de cancelación de cita: {}", e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * Construye, sin enviarlo, el email de cancelación de una cita (para {@link #enviarLote(Map)}).
+     * 
+     * @return Mensaje listo para enviar, o null si falta el destinatario o el remitente
+     * @throws MessagingException si no se puede construir el mensaje
+     * @see #enviarEmailCancelacionCita(String, String, String, LocalDateTime, String, String, String)
+     */
+    public MimeMessage prepararEmailCancelacionCita(String propietarioEmail, String propietarioNombre,
+                                                    String pacienteNombre, LocalDateTime fecha,
+                                                    String motivo, String profesionalNombre,
+                                                    String razonCancelacion) throws MessagingException {
+        Map<String, Object> variables = variablesCita(propietarioNombre, pacienteNombre, fecha, motivo, profesionalNombre);
+        variables.put("razonCancelacion", razonCancelacion != null ? razonCancelacion : "No especificada");
+        String subject = String.format("Cancelación de cita - %s", pacienteNombre);
+        return construirMensajeHtml(propietarioEmail, subject, "cita-cancelacion", variables);
+    }
+
     /**
      * Envía un email cuando cambia el estado de una cita.
      * 
@@ -154,37 +195,52 @@ public class EmailService {
                                                 String nuevoEstado) {
         try {
             log.info("📧 Enviando email de cambio de estado de cita a: {}", propietarioEmail);
-            
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("propietarioNombre", propietarioNombre);
-            context.setVariable("pacienteNombre", pacienteNombre);
-            context.setVariable("fecha", fecha.toLocalDate());
-            context.setVariable("hora", fecha.toLocalTime());
-            context.setVariable("motivo", motivo);
-            context.setVariable("profesionalNombre", profesionalNombre);
-            context.setVariable("nuevoEstado", nuevoEstado);
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
-            
-            // Construir URL del logo
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-
-            String subject;
-            if ("CONFIRMADA".equals(nuevoEstado)) {
-                subject = String.format("Cita confirmada - %s", pacienteNombre);
-            } else {
-                subject = String.format("Actualización de cita - %s", pacienteNombre);
-            }
-            
-            return enviarEmailHtml(propietarioEmail, subject, "email/cita-estado-actualizado", context);
+            return enviarMensaje(propietarioEmail, prepararEmailCambioEstadoCita(
+                propietarioEmail, propietarioNombre, pacienteNombre, fecha, motivo, profesionalNombre, nuevoEstado));
         } catch (Exception e) {
             log.error("✗ Error al enviar email de cambio de estado de cita: {}", e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * Construye, sin enviarlo, el email de cambio de estado de una cita (para {@link #enviarLote(Map)}).
+     * 
+     * @return Mensaje listo para enviar, o null si falta el destinatario o el remitente
+     * @throws MessagingException si no se puede construir el mensaje
+     * @see #enviarEmailCambioEstadoCita(String, String, String, LocalDateTime, String, String, String)
+     */
+    public MimeMessage prepararEmailCambioEstadoCita(String propietarioEmail, String propietarioNombre,
+                                                     String pacienteNombre, LocalDateTime fecha,
+                                                     String motivo, String profesionalNombre,
+                                                     String nuevoEstado) throws MessagingException {
+        Map<String, Object> variables = variablesCita(propietarioNombre, pacienteNombre, fecha, motivo, profesionalNombre);
+        variables.put("nuevoEstado", nuevoEstado);
+
+        String subject;
+        if ("CONFIRMADA".equals(nuevoEstado)) {
+            subject = String.format("Cita confirmada - %s", pacienteNombre);
+        } else {
+            subject = String.format("Actualización de cita - %s", pacienteNombre);
+        }
+        return construirMensajeHtml(propietarioEmail, subject, "cita-estado-actualizado", variables);
+    }
+
+    /**
+     * Variables comunes de las plantillas de citas.
+     */
+    private Map<String, Object> variablesCita(String propietarioNombre, String pacienteNombre, LocalDateTime fecha,
+                                              String motivo, String profesionalNombre) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("propietarioNombre", propietarioNombre);
+        variables.put("pacienteNombre", pacienteNombre);
+        variables.put("fecha", fecha.toLocalDate());
+        variables.put("hora", fecha.toLocalTime());
+        variables.put("motivo", motivo);
+        variables.put("profesionalNombre", profesionalNombre);
+        return variables;
+    }
+
     /**
      * Envía un email de bienvenida cuando se crea un nuevo usuario del sistema.
      * 
@@ -197,21 +253,14 @@ public class EmailService {
         try {
             log.info("📧 Enviando email de bienvenida a usuario: {}", usuarioEmail);
             
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("usuarioNombre", usuarioNombre);
-            context.setVariable("usuarioEmail", usuarioEmail);
-            context.setVariable("rolNombre", rolNombre);
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
-            
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-            context.setVariable("baseUrl", baseUrl);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("usuarioNombre", usuarioNombre);
+            variables.put("usuarioEmail", usuarioEmail);
+            variables.put("rolNombre", rolNombre);
 
             String subject = String.format("Bienvenido/a a %s", "Clínica Veterinaria Universitaria Humboldt");
             
-            return enviarEmailHtml(usuarioEmail, subject, "email/usuario-bienvenida", context);
+            return enviarEmailHtml(usuarioEmail, subject, "usuario-bienvenida", variables);
         } catch (Exception e) {
             log.error("✗ Error al enviar email de bienvenida a usuario: {}", e.getMessage(), e);
             return false;
@@ -229,25 +278,19 @@ public class EmailService {
         try {
             log.info("📧 Enviando email de bienvenida a cliente: {}", propietarioEmail);
             
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("propietarioNombre", propietarioNombre);
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("propietarioNombre", propietarioNombre);
             
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-            context.setVariable("baseUrl", baseUrl);
             
             // Construir URL del portal del cliente
             String portalUrl = baseUrl != null && !baseUrl.isEmpty() 
                 ? baseUrl + "/cliente/login" 
                 : "http://localhost:5173/cliente/login";
-            context.setVariable("portalUrl", portalUrl);
+            variables.put("portalUrl", portalUrl);
 
             String subject = "Bienvenido al Portal del Cliente";
             
-            return enviarEmailHtml(propietarioEmail, subject, "email/cliente-bienvenida", context);
+            return enviarEmailHtml(propietarioEmail, subject, "cliente-bienvenida", variables);
         } catch (Exception e) {
             log.error("✗ Error al enviar email de bienvenida a cliente: {}", e.getMessage(), e);
             return false;
@@ -266,24 +309,17 @@ public class EmailService {
         try {
             log.info("📧 Enviando email de cambio de contraseña a usuario: {}", usuarioEmail);
             
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("usuarioNombre", usuarioNombre);
-            context.setVariable("esResetAdmin", esResetAdmin);
-            context.setVariable("fechaCambio", LocalDateTime.now());
-            context.setVariable("titulo", esResetAdmin ? "Contraseña Reseteada" : "Contraseña Cambiada");
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
-            
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-            context.setVariable("baseUrl", baseUrl);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("usuarioNombre", usuarioNombre);
+            variables.put("esResetAdmin", esResetAdmin);
+            variables.put("fechaCambio", LocalDateTime.now());
+            variables.put("titulo", esResetAdmin ? "Contraseña Reseteada" : "Contraseña Cambiada");
 
             String subject = esResetAdmin 
                 ? "Su contraseña ha sido reseteada" 
                 : "Confirmación de cambio de contraseña";
             
-            return enviarEmailHtml(usuarioEmail, subject, "email/usuario-cambio-password", context);
+            return enviarEmailHtml(usuarioEmail, subject, "usuario-cambio-password", variables);
         } catch (Exception e) {
             log.error("✗ Error al enviar email de cambio de contraseña a usuario: {}", e.getMessage(), e);
             return false;
@@ -301,26 +337,20 @@ public class EmailService {
         try {
             log.info("📧 Enviando email de confirmación de contraseña a cliente: {}", propietarioEmail);
             
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("propietarioNombre", propietarioNombre);
-            context.setVariable("titulo", "Contraseña Establecida");
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("propietarioNombre", propietarioNombre);
+            variables.put("titulo", "Contraseña Establecida");
             
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-            context.setVariable("baseUrl", baseUrl);
             
             // Construir URL del portal del cliente
             String portalUrl = baseUrl != null && !baseUrl.isEmpty() 
                 ? baseUrl + "/cliente/login" 
                 : "http://localhost:5173/cliente/login";
-            context.setVariable("portalUrl", portalUrl);
+            variables.put("portalUrl", portalUrl);
 
             String subject = "Contraseña establecida - Portal del Cliente";
             
-            return enviarEmailHtml(propietarioEmail, subject, "email/cliente-cambio-password", context);
+            return enviarEmailHtml(propietarioEmail, subject, "cliente-cambio-password", variables);
         } catch (Exception e) {
             log.error("✗ Error al enviar email de cambio de contraseña a cliente: {}", e.getMessage(), e);
             return false;
@@ -340,27 +370,21 @@ public class EmailService {
         try {
             log.info("📧 Enviando email de recuperación de contraseña a: {}", email);
             
-            Context context = new Context(new Locale("es", "ES"));
-            context.setVariable("nombre", nombre);
-            context.setVariable("resetUrl", resetUrl);
-            context.setVariable("userType", userType);
-            context.setVariable("clinicaNombre", "Clínica Veterinaria Universitaria Humboldt");
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("nombre", nombre);
+            variables.put("resetUrl", resetUrl);
+            variables.put("userType", userType);
             
-            String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty() 
-                ? logoUrl 
-                : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
-            context.setVariable("logoUrl", finalLogoUrl);
-            context.setVariable("baseUrl", baseUrl);
             
             // Construir URL del login según el tipo
             String loginUrl = "USUARIO".equals(userType)
                 ? (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/login" : "http://localhost:5173/login")
                 : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/cliente/login" : "http://localhost:5173/cliente/login");
-            context.setVariable("loginUrl", loginUrl);
+            variables.put("loginUrl", loginUrl);
 
             String subject = "Recuperación de contraseña - Clínica Veterinaria";
             
-            return enviarEmailHtml(email, subject, "email/recuperacion-password", context);
+            return enviarEmailHtml(email, subject, "recuperacion-password", variables);
         } catch (Exception e) {
             log.error("✗ Error al enviar email de recuperación de contraseña: {}", e.getMessage(), e);
             return false;
@@ -372,58 +396,196 @@ public class EmailService {
      * 
      * @param to Dirección de correo del destinatario
      * @param subject Asunto del correo
-     * @param templateName Nombre de la plantilla Thymeleaf (sin extensión .html)
-     * @param context Contexto con las variables para la plantilla
+     * @param templateName Nombre de la plantilla en templates/email/ (sin extensión .html)
+     * @param variables Variables para la plantilla
      * @return true si el email se envió exitosamente
      */
-    private boolean enviarEmailHtml(String to, String subject, String templateName, Context context) {
+    private boolean enviarEmailHtml(String to, String subject, String templateName, Map<String, Object> variables) {
         try {
-            if (to == null || to.trim().isEmpty()) {
-                log.warn("⚠ No se puede enviar email: dirección de correo vacía");
-                return false;
-            }
+            return enviarMensaje(to, construirMensajeHtml(to, subject, templateName, variables));
+        } catch (MessagingException e) {
+            log.error("✗ Error al crear mensaje HTML para {}: {}", to, e.getMessage(), e);
+            return false;
+        }
+    }
 
-            // Validar configuración
-            if (fromEmail == null || fromEmail.trim().isEmpty()) {
-                log.error("✗ No se puede enviar email: app.mail.from no está configurado");
-                return false;
-            }
+    /**
+     * Construye un email HTML a partir de una plantilla Thymeleaf, sin enviarlo.
+     * 
+     * @param to Dirección de correo del destinatario
+     * @param subject Asunto del correo
+     * @param templateName Nombre de la plantilla en templates/email/ (sin extensión .html)
+     * @param variables Variables para la plantilla
+     * @return Mensaje listo para enviar, o null si falta el destinatario o el remitente
+     * @throws MessagingException si no se puede construir el mensaje
+     */
+    private MimeMessage construirMensajeHtml(String to, String subject, String templateName, Map<String, Object> variables)
+            throws MessagingException {
+        if (to == null || to.trim().isEmpty()) {
+            log.warn("⚠ No se puede enviar email: dirección de correo vacía");
+            return null;
+        }
 
-            String safeFromName = (fromName != null && !fromName.trim().isEmpty()) ? fromName : "Clínica Veterinaria";
+        // Validar configuración
+        if (fromEmail == null || fromEmail.trim().isEmpty()) {
+            log.error("✗ No se puede enviar email: app.mail.from no está configurado");
+            return null;
+        }
 
-            log.debug("📧 Preparando email HTML - Destinatario: {}, Asunto: {}, Plantilla: {}", 
-                to, subject, templateName);
+        String safeFromName = (fromName != null && !fromName.trim().isEmpty()) ? fromName : "Clínica Veterinaria";
 
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        log.debug("📧 Preparando email HTML - Destinatario: {}, Asunto: {}, Plantilla: {}", 
+            to, subject, templateName);
 
-            try {
-                helper.setFrom(fromEmail, safeFromName);
-            } catch (UnsupportedEncodingException e) {
-                log.warn("⚠ Error al establecer nombre del remitente, usando solo email: {}", e.getMessage());
-                helper.setFrom(fromEmail);
-            }
-            
-            helper.setTo(to);
-            helper.setSubject(subject != null ? subject : "Notificación de Cita");
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
 
-            // Procesar plantilla Thymeleaf
-            String htmlContent = templateEngine.process(templateName, context);
-            helper.setText(htmlContent != null ? htmlContent : "", true);
+        try {
+            helper.setFrom(fromEmail, safeFromName);
+        } catch (UnsupportedEncodingException e) {
+            log.warn("⚠ Error al establecer nombre del remitente, usando solo email: {}", e.getMessage());
+            helper.setFrom(fromEmail);
+        }
+        
+        helper.setTo(to);
+        helper.setSubject(subject != null ? subject : "Notificación de Cita");
+
+        // Renderizar plantilla (parseada y cacheada por PlantillaEmailService)
+        String htmlContent = plantillaEmailService.renderizar(templateName, variables);
+        helper.setText(htmlContent != null ? htmlContent : "", true);
+        return mimeMessage;
+    }
 
-            mailSender.send(mimeMessage);
+    /**
+     * Envía un único mensaje ya construido (una conexión SMTP por mensaje).
+     * 
+     * <p>Lo usan los envíos síncronos que hacen los servicios desde el hilo de la petición
+     * (bienvenida, recuperación de contraseña, ...), a veces dentro de una transacción. Por eso
+     * no espera al limitador de ritmo: si un lote del outbox acaba de reservar varios segundos de
+     * cupo, la petición no debe dormir detrás de él. El mensaje sí consume cupo, de modo que son
+     * los lotes siguientes los que se retrasan para respetar el ritmo total.</p>
+     * 
+     * @param to Destinatario, para los logs
+     * @param mimeMessage Mensaje a enviar (null si no pudo construirse)
+     * @return true si el email se envió exitosamente
+     */
+    private boolean enviarMensaje(String to, MimeMessage mimeMessage) {
+        if (mimeMessage == null) {
+            return false;
+        }
+        try {
+            reservarCupo(1);
+            conexiones.increment();
+            Timer.Sample muestra = Timer.start(meterRegistry);
+            try {
+                mailSender.send(mimeMessage);
+            } finally {
+                muestra.stop(tiempoEnvioIndividual);
+            }
+            enviadosOk.increment();
             log.info("✓ Email HTML enviado exitosamente a: {}", to);
             return true;
-        } catch (MessagingException e) {
-            log.error("✗ Error al crear mensaje HTML para {}: {}", to, e.getMessage(), e);
-            return false;
         } catch (MailException e) {
+            enviadosError.increment();
             log.error("✗ Error al enviar email HTML a {}: {}", to, e.getMessage(), e);
             return false;
         } catch (Exception e) {
+            enviadosError.increment();
             log.error("✗ Error inesperado al enviar email HTML a {}: {}", to, e.getMessage(), e);
             return false;
         }
     }
-}
 
+    /**
+     * Envía varios emails reutilizando una conexión SMTP por lote.
+     * 
+     * <p>Los mensajes se agrupan en lotes de {@code app.mail.lote.tamano}; cada lote se entrega a
+     * {@link JavaMailSender#send(MimeMessage...)}, que abre un único {@code Transport} (un solo
+     * saludo TCP + STARTTLS + AUTH) y envía todos sus mensajes por él. Un destinatario rechazado
+     * no afecta al resto del lote: {@link MailSendException#getFailedMessages()} indica qué
+     * mensajes fallaron. Si la conexión no llega a establecerse, falla el lote completo.</p>
+     * 
+     * <p>El ritmo total se limita a {@code app.mail.lote.max-por-segundo} mensajes por segundo
+     * (compartido con los envíos individuales), esperando antes de cada lote lo necesario. Solo
+     * esperan los lotes: los envíos individuales consumen cupo sin esperar.</p>
+     * 
+     * @param mensajes Mensajes a enviar por clave del llamador (un valor null cuenta como fallo)
+     * @param <K> Tipo de la clave con la que el llamador identifica cada mensaje
+     * @return Descripción del error por clave de cada mensaje no enviado (vacío si todos se enviaron)
+     */
+    public <K> Map<K, String> enviarLote(Map<K, MimeMessage> mensajes) {
+        Map<K, String> errores = new HashMap<>();
+        List<Map.Entry<K, MimeMessage>> pendientes = new ArrayList<>();
+        mensajes.forEach((clave, mensaje) -> {
+            if (mensaje == null) {
+                errores.put(clave, "Mensaje no válido (destinatario o remitente vacío)");
+            } else {
+                pendientes.add(Map.entry(clave, mensaje));
+            }
+        });
+
+        for (int desde = 0; desde < pendientes.size(); desde += tamanoLote) {
+            List<Map.Entry<K, MimeMessage>> lote = pendientes.subList(desde, Math.min(desde + tamanoLote, pendientes.size()));
+            enviarUnLote(lote, errores);
+        }
+        enviadosError.increment(errores.size());
+
+        log.info("✓ Lote de emails procesado: {} enviados, {} fallidos",
+            mensajes.size() - errores.size(), errores.size());
+        return errores;
+    }
+
+    private <K> void enviarUnLote(List<Map.Entry<K, MimeMessage>> lote, Map<K, String> errores) {
+        MimeMessage[] mimeMessages = lote.stream().map(Map.Entry::getValue).toArray(MimeMessage[]::new);
+        try {
+            long espera = reservarCupo(mimeMessages.length);
+            if (espera > 0) {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lote.forEach(entrada -> errores.put(entrada.getKey(), "Envío interrumpido"));
+            return;
+        }
+
+        conexiones.increment();
+        tamanoLotes.record(mimeMessages.length);
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        try {
+            mailSender.send(mimeMessages);
+            enviadosOk.increment(mimeMessages.length);
+        } catch (MailSendException e) {
+            // Fallos por mensaje: el resto del lote se envió
+            Map<MimeMessage, K> claves = new IdentityHashMap<>();
+            lote.forEach(entrada -> claves.put(entrada.getValue(), entrada.getKey()));
+            e.getFailedMessages().forEach((mensaje, causa) -> {
+                K clave = claves.get(mensaje);
+                if (clave != null) {
+                    errores.put(clave, causa.getMessage());
+                }
+            });
+            enviadosOk.increment(mimeMessages.length - e.getFailedMessages().size());
+            log.warn("⚠ {} de {} emails del lote no se pudieron enviar", e.getFailedMessages().size(), mimeMessages.length);
+        } catch (MailException e) {
+            lote.forEach(entrada -> errores.put(entrada.getKey(), e.getMessage()));
+            log.error("✗ Error al enviar lote de {} emails: {}", mimeMessages.length, e.getMessage());
+        } finally {
+            muestra.stop(tiempoEnvioLote);
+        }
+    }
+
+    /**
+     * Reserva cupo en el limitador de ritmo para {@code mensajes} envíos.
+     * 
+     * @return Nanosegundos que habría que esperar para respetar el ritmo (0 si hay cupo ya)
+     */
+    private synchronized long reservarCupo(int mensajes) {
+        if (maxPorSegundo <= 0) {
+            return 0;
+        }
+        long ahora = System.nanoTime();
+        long inicio = Math.max(ahora, siguienteCupoNanos);
+        siguienteCupoNanos = inicio + mensajes * 1_000_000_000L / maxPorSegundo;
+        return inicio - ahora;
+    }
+}
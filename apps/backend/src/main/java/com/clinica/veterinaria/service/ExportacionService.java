@@ -0,0 +1,347 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.Cita;
+import com.clinica.veterinaria.entity.Consulta;
+import com.clinica.veterinaria.entity.Factura;
+import com.clinica.veterinaria.entity.MovimientoInventario;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
+import com.clinica.veterinaria.logging.IAuditLogger;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.ConsultaRepository;
+import com.clinica.veterinaria.repository.FacturaRepository;
+import com.clinica.veterinaria.repository.MovimientoInventarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación masiva de datos en CSV o NDJSON.
+ *
+ * <p>A diferencia de los listados {@code findAll()}, que materializan tablas completas como
+ * listas de DTO, aquí cada fila se lee de un cursor JPA ({@link Stream} con fetch size de 500)
+ * y se escribe directamente en la respuesta. Cada lote se vacía del contexto de persistencia,
+ * por lo que la memoria usada es constante sea cual sea el tamaño del extracto.</p>
+ *
+ * <p><strong>Entidades exportables:</strong> citas, consultas, facturas y movimientos de
+ * inventario, filtradas opcionalmente por rango de fechas. Las relaciones que aparecen en las
+ * columnas se cargan en la misma consulta (sin N+1).</p>
+ *
+ * <p>Cada exportación queda registrada con {@link IAuditLogger#logDataExport}.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportacionService {
+
+    /** Filas tras las cuales se vacía el contexto de persistencia y el buffer de salida. */
+    private static final int TAMANO_LOTE = 500;
+
+    /** Límites usados cuando no se indica rango de fechas. */
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1900, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    private final CitaRepository citaRepository;
+    private final ConsultaRepository consultaRepository;
+    private final FacturaRepository facturaRepository;
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final ObjectMapper objectMapper;
+    private final IAuditLogger auditLogger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Entidades exportables.
+     */
+    public enum Entidad {
+        CITAS, CONSULTAS, FACTURAS, MOVIMIENTOS;
+
+        /**
+         * Obtiene la entidad a partir del segmento de la URL (sin distinguir mayúsculas).
+         *
+         * @throws InvalidDataException si la entidad no es exportable
+         */
+        public static Entidad desde(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException("entidad", valor,
+                    "Entidades exportables: citas, consultas, facturas, movimientos");
+            }
+        }
+    }
+
+    /**
+     * Formatos de salida soportados.
+     */
+    public enum Formato {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Obtiene el formato a partir del parámetro de la petición (sin distinguir mayúsculas).
+         *
+         * @throws InvalidDataException si el formato no está soportado
+         */
+        public static Formato desde(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException("formato", valor, "Formatos soportados: csv, ndjson");
+            }
+        }
+    }
+
+    /**
+     * Valida el rango de fechas de una exportación.
+     *
+     * @throws InvalidDataException si la fecha de inicio es posterior a la de fin
+     */
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new InvalidDataException("desde", desde, "La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+    }
+
+    /**
+     * Exporta las filas de una entidad escribiéndolas directamente en la salida.
+     *
+     * <p>La transacción (de solo lectura) mantiene abierto el cursor mientras se escribe.</p>
+     *
+     * @param entidad Entidad a exportar
+     * @param formato Formato de salida
+     * @param desde Primer día a incluir (null para no limitar)
+     * @param hasta Último día a incluir (null para no limitar)
+     * @param salida Flujo donde se escriben las filas; no se cierra
+     * @return Número de filas exportadas
+     * @throws IOException si falla la escritura (p. ej. el cliente cierra la conexión)
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Entidad entidad, Formato formato, LocalDate desde, LocalDate hasta,
+                         OutputStream salida) throws IOException {
+        validarRango(desde, hasta);
+        LocalDate inicio = desde != null ? desde : FECHA_MINIMA;
+        LocalDate fin = hasta != null ? hasta : FECHA_MAXIMA;
+        long comienzo = System.currentTimeMillis();
+        log.info("→ Exportando {} en {} ({} a {})", entidad, formato, inicio, fin);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        long filas = switch (entidad) {
+            case CITAS -> {
+                try (Stream<Cita> stream = citaRepository.streamParaExportacion(
+                        inicio.atStartOfDay(), fin.atTime(LocalTime.MAX))) {
+                    yield escribir(stream, COLUMNAS_CITAS, formato, writer);
+                }
+            }
+            case CONSULTAS -> {
+                try (Stream<Consulta> stream = consultaRepository.streamParaExportacion(
+                        inicio.atStartOfDay(), fin.atTime(LocalTime.MAX))) {
+                    yield escribir(stream, COLUMNAS_CONSULTAS, formato, writer);
+                }
+            }
+            case FACTURAS -> {
+                try (Stream<Factura> stream = facturaRepository.streamParaExportacion(inicio, fin)) {
+                    yield escribir(stream, COLUMNAS_FACTURAS, formato, writer);
+                }
+            }
+            case MOVIMIENTOS -> {
+                try (Stream<MovimientoInventario> stream = movimientoInventarioRepository.streamParaExportacion(
+                        inicio.atStartOfDay(), fin.atTime(LocalTime.MAX))) {
+                    yield escribir(stream, COLUMNAS_MOVIMIENTOS, formato, writer);
+                }
+            }
+        };
+        writer.flush();
+
+        log.info("✓ Exportación de {} completada: {} filas en {} ms",
+            entidad, filas, System.currentTimeMillis() - comienzo);
+        auditLogger.logDataExport(entidad.name(), (int) Math.min(filas, Integer.MAX_VALUE), formato.name());
+        return filas;
+    }
+
+    private <T> long escribir(Stream<T> stream, List<Columna<T>> columnas, Formato formato,
+                              Writer writer) throws IOException {
+        if (formato == Formato.CSV) {
+            writer.write(String.join(",", columnas.stream().map(Columna::nombre).toList()));
+            writer.write("\r\n");
+        }
+
+        long filas = 0;
+        Iterator<T> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            T entidad = iterator.next();
+            if (formato == Formato.CSV) {
+                escribirCsv(entidad, columnas, writer);
+            } else {
+                escribirNdjson(entidad, columnas, writer);
+            }
+            if (++filas % TAMANO_LOTE == 0) {
+                // Solo lectura: nada que sincronizar, se descartan las entidades ya escritas
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return filas;
+    }
+
+    private <T> void escribirCsv(T entidad, List<Columna<T>> columnas, Writer writer) throws IOException {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(valorCsv(columnas.get(i).valor().apply(entidad)));
+        }
+        writer.write("\r\n");
+    }
+
+    private <T> void escribirNdjson(T entidad, List<Columna<T>> columnas, Writer writer) throws IOException {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (Columna<T> columna : columnas) {
+            fila.put(columna.nombre(), columna.valor().apply(entidad));
+        }
+        writer.write(objectMapper.writeValueAsString(fila));
+        writer.write('\n');
+    }
+
+    /**
+     * Formatea un valor para CSV (RFC 4180).
+     *
+     * <p>Los textos que empiezan por {@code = + - @}, tabulador o retorno de carro se prefijan
+     * con un apóstrofo para que una hoja de cálculo no los interprete como fórmulas.</p>
+     */
+    static String valorCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        String texto = valor.toString();
+        if (valor instanceof String && !texto.isEmpty() && "=+-@\t\r".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0
+                || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+
+    // ========================================================================
+    // Columnas por entidad
+    // ========================================================================
+
+    /**
+     * Columna exportada: nombre y cómo obtener su valor de la entidad.
+     */
+    private record Columna<T>(String nombre, Function<T, Object> valor) {
+    }
+
+    private static <T> Columna<T> col(String nombre, Function<T, Object> valor) {
+        return new Columna<>(nombre, valor);
+    }
+
+    private static final List<Columna<Cita>> COLUMNAS_CITAS = List.of(
+        col("id", Cita::getId),
+        col("fecha", Cita::getFecha),
+        col("estado", Cita::getEstado),
+        col("motivo", Cita::getMotivo),
+        col("paciente_id", c -> c.getPaciente() != null ? c.getPaciente().getId() : null),
+        col("paciente", c -> c.getPaciente() != null ? c.getPaciente().getNombre() : null),
+        col("propietario_id", c -> c.getPropietario() != null ? c.getPropietario().getId() : null),
+        col("propietario", c -> c.getPropietario() != null ? c.getPropietario().getNombre() : null),
+        col("profesional_id", c -> c.getProfesional() != null ? c.getProfesional().getId() : null),
+        col("profesional", c -> c.getProfesional() != null ? c.getProfesional().getNombre() : null),
+        col("observaciones", Cita::getObservaciones),
+        col("created_at", Cita::getCreatedAt)
+    );
+
+    private static final List<Columna<Consulta>> COLUMNAS_CONSULTAS = List.of(
+        col("id", Consulta::getId),
+        col("fecha", Consulta::getFecha),
+        col("paciente_id", c -> c.getPaciente() != null ? c.getPaciente().getId() : null),
+        col("paciente", c -> c.getPaciente() != null ? c.getPaciente().getNombre() : null),
+        col("profesional_id", c -> c.getProfesional() != null ? c.getProfesional().getId() : null),
+        col("profesional", c -> c.getProfesional() != null ? c.getProfesional().getNombre() : null),
+        col("diagnostico", Consulta::getDiagnostico),
+        col("tratamiento", Consulta::getTratamiento),
+        col("temperatura", Consulta::getTemperatura),
+        col("peso_kg", Consulta::getPesoKg),
+        col("frecuencia_cardiaca", Consulta::getFrecuenciaCardiaca),
+        col("frecuencia_respiratoria", Consulta::getFrecuenciaRespiratoria)
+    );
+
+    private static final List<Columna<Factura>> COLUMNAS_FACTURAS = List.of(
+        col("id", Factura::getId),
+        col("numero_factura", Factura::getNumeroFactura),
+        col("fecha_emision", Factura::getFechaEmision),
+        col("fecha_vencimiento", Factura::getFechaVencimiento),
+        col("estado", Factura::getEstado),
+        col("propietario_id", f -> f.getPropietario() != null ? f.getPropietario().getId() : null),
+        col("propietario", f -> f.getPropietario() != null ? f.getPropietario().getNombre() : null),
+        col("consulta_id", f -> f.getConsulta() != null ? f.getConsulta().getId() : null),
+        col("subtotal", Factura::getSubtotal),
+        col("descuento", Factura::getDescuento),
+        col("impuesto", Factura::getImpuesto),
+        col("total", Factura::getTotal),
+        col("monto_pagado", Factura::getMontoPagado)
+    );
+
+    private static final List<Columna<MovimientoInventario>> COLUMNAS_MOVIMIENTOS = List.of(
+        col("id", MovimientoInventario::getId),
+        col("fecha", MovimientoInventario::getFecha),
+        col("tipo", MovimientoInventario::getTipo),
+        col("producto_id", m -> m.getProducto() != null ? m.getProducto().getId() : null),
+        col("producto", m -> m.getProducto() != null ? m.getProducto().getNombre() : null),
+        col("cantidad", MovimientoInventario::getCantidad),
+        col("precio_unitario", MovimientoInventario::getPrecioUnitario),
+        col("stock_anterior", MovimientoInventario::getStockAnterior),
+        col("stock_resultante", MovimientoInventario::getStockResultante),
+        col("motivo", MovimientoInventario::getMotivo),
+        col("proveedor_id", m -> m.getProveedor() != null ? m.getProveedor().getId() : null),
+        col("proveedor", m -> m.getProveedor() != null ? m.getProveedor().getNombre() : null),
+        col("usuario_id", m -> m.getUsuario() != null ? m.getUsuario().getId() : null),
+        col("usuario", m -> m.getUsuario() != null ? m.getUsuario().getNombre() : null)
+    );
+}
@@ -0,0 +1,152 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.config.CacheConfig;
+import com.clinica.veterinaria.dto.HistorialMedicoDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché versionada del historial médico de cada paciente.
+ *
+ * <p>El historial solo cambia cuando se escribe una consulta o una prescripción del paciente
+ * (o sus datos básicos). Cada paciente tiene un contador de versión que {@link ConsultaService},
+ * {@link PrescripcionService} y {@link PacienteService} incrementan tras confirmar la
+ * transacción; el {@link HistorialMedicoDTO} se guarda en la caché
+ * {@value CacheConfig#HISTORIAL_MEDICO_CACHE} junto con la versión con la que se construyó
+ * y solo se reutiliza mientras esa versión siga vigente.</p>
+ *
+ * <p><strong>Consistencia:</strong> La versión se incrementa <em>después</em> del commit. Si
+ * una lectura concurrente construye el historial con datos aún no confirmados, lo guarda con
+ * la versión anterior y la siguiente lectura ya ve la versión nueva y lo reconstruye.</p>
+ *
+ * <p><strong>Varias instancias:</strong> Los contadores viven en memoria de cada instancia, así
+ * que una escritura atendida por otra instancia no los incrementa aquí. Lo que acota el tiempo
+ * que esta instancia sirve un historial antiguo es el TTL de la caché (5 minutos, como el resto
+ * de cachés de datos clínicos en {@link CacheConfig}).</p>
+ *
+ * <p>El ETag del endpoint es el de la entrada cacheada, por lo que las revisiones repetidas del
+ * historial durante una visita se responden con 304 sin tocar la base de datos. Incluye el
+ * instante en que se construyó la entrada: al expirar y reconstruirse cambia, así que un ETag
+ * nunca se valida más allá del TTL ni tras un reinicio.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see HistorialMedicoService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistorialMedicoCacheService {
+
+    private final HistorialMedicoService historialMedicoService;
+    private final CacheManager cacheManager;
+
+    private final Map<Long, Long> versiones = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene el historial médico del paciente desde la caché, construyéndolo si no existe
+     * o si se construyó con una versión anterior.
+     *
+     * @param pacienteId ID del paciente
+     * @return Historial junto con su versión y ETag
+     */
+    public HistorialVersionado getHistorial(Long pacienteId) {
+        long version = getVersion(pacienteId);
+        Cache cache = cacheManager.getCache(CacheConfig.HISTORIAL_MEDICO_CACHE);
+
+        HistorialVersionado cacheado = vigente(cache, pacienteId, version);
+        if (cacheado != null) {
+            return cacheado;
+        }
+
+        log.debug("→ Construyendo historial médico del paciente {} (versión {})", pacienteId, version);
+        HistorialVersionado historial = new HistorialVersionado(
+            version, etag(pacienteId, version, System.currentTimeMillis()),
+            historialMedicoService.getHistorialCompleto(pacienteId));
+        if (cache != null) {
+            cache.put(pacienteId, historial);
+        }
+        return historial;
+    }
+
+    /**
+     * Devuelve el ETag del historial cacheado del paciente sin construirlo.
+     *
+     * @param pacienteId ID del paciente
+     * @return ETag entre comillas, o null si no hay una entrada vigente en la caché
+     */
+    public String getEtag(Long pacienteId) {
+        HistorialVersionado cacheado = vigente(
+            cacheManager.getCache(CacheConfig.HISTORIAL_MEDICO_CACHE), pacienteId, getVersion(pacienteId));
+        return cacheado != null ? cacheado.etag() : null;
+    }
+
+    /**
+     * Devuelve la versión actual del historial del paciente.
+     *
+     * @param pacienteId ID del paciente
+     * @return Versión (0 si no ha cambiado desde el arranque)
+     */
+    public long getVersion(Long pacienteId) {
+        return versiones.getOrDefault(pacienteId, 0L);
+    }
+
+    /**
+     * Marca como modificado el historial del paciente.
+     *
+     * <p>Dentro de una transacción, la versión se incrementa tras el commit (y no se incrementa
+     * si se revierte); fuera de ella, de inmediato.</p>
+     *
+     * @param pacienteId ID del paciente (se ignora si es null)
+     */
+    public void invalidar(Long pacienteId) {
+        if (pacienteId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementarVersion(pacienteId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                incrementarVersion(pacienteId);
+            }
+        });
+    }
+
+    private void incrementarVersion(Long pacienteId) {
+        versiones.merge(pacienteId, 1L, Long::sum);
+    }
+
+    private static HistorialVersionado vigente(Cache cache, Long pacienteId, long version) {
+        if (cache == null) {
+            return null;
+        }
+        HistorialVersionado cacheado = cache.get(pacienteId, HistorialVersionado.class);
+        return cacheado != null && cacheado.version() == version ? cacheado : null;
+    }
+
+    private static String etag(Long pacienteId, long version, long construidoMs) {
+        return "\"hm-" + pacienteId + "-" + Long.toString(construidoMs, 36) + "-" + version + "\"";
+    }
+
+    /**
+     * Historial médico construido con una versión concreta.
+     *
+     * @param version Versión del historial con la que se construyó
+     * @param etag ETag correspondiente a esa versión
+     * @param historial Historial médico
+     */
+    public record HistorialVersionado(long version, String etag, HistorialMedicoDTO historial) {
+    }
+}
@@ -16,6 +16,10 @@ import java.util.stream.Collectors;
 
 /**
  * Servicio para gestionar el historial médico completo de pacientes
+ * 
+ * <p>El historial se carga con tres consultas fijas, sin importar el número de visitas:
+ * el paciente, sus consultas (con el profesional) y sus prescripciones (con los items).
+ * Después se construye en memoria con una sola pasada por las consultas.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -34,74 +38,39 @@ public class HistorialMedicoService {
         Paciente paciente = pacienteRepository.findById(pacienteId)
             .orElseThrow(() -> new RuntimeException("Paciente no encontrado"));
 
-        List<Consulta> consultas = consultaRepository.findByPacienteIdOrderByFechaDesc(pacienteId);
+        List<Consulta> consultas = consultaRepository.findHistorialByPacienteId(pacienteId);
+        Map<Long, List<Prescripcion>> prescripcionesPorConsulta = 
+            prescripcionRepository.findHistorialByPacienteIdConItems(pacienteId).stream()
+                .collect(Collectors.groupingBy(p -> p.getConsulta().getId(), LinkedHashMap::new, Collectors.toList()));
 
-        return HistorialMedicoDTO.builder()
-            .pacienteId(pacienteId)
-            .pacienteNombre(paciente.getNombre())
-            .timelineConsultas(obtenerTimelineConsultas(consultas))
-            .evolucionSignosVitales(obtenerEvolucionSignosVitales(consultas))
-            .historialMedicamentos(obtenerHistorialMedicamentos(pacienteId))
-            .resumen(calcularResumen(consultas, pacienteId))
-            .build();
-    }
+        // Una sola pasada: timeline, medicamentos y conteos del resumen
+        List<ConsultaTimelineDTO> timeline = new ArrayList<>(consultas.size());
+        List<HistorialMedicamentoDTO> historialMedicamentos = new ArrayList<>();
+        Map<String, Long> medicamentosCount = new HashMap<>();
+        int totalPrescripciones = 0;
 
-    /**
-     * Obtiene el timeline de consultas
-     */
-    private List<ConsultaTimelineDTO> obtenerTimelineConsultas(List<Consulta> consultas) {
-        return consultas.stream()
-            .map(consulta -> {
-                List<Prescripcion> prescripciones = prescripcionRepository.findByConsultaId(consulta.getId());
-                
-                return ConsultaTimelineDTO.builder()
-                    .id(consulta.getId())
-                    .fecha(consulta.getFecha())
-                    .profesionalNombre(consulta.getProfesional().getNombre())
-                    .diagnostico(consulta.getDiagnostico())
-                    .tratamiento(consulta.getTratamiento())
-                    .temperatura(consulta.getTemperatura())
-                    .pesoKg(consulta.getPesoKg())
-                    .frecuenciaCardiaca(consulta.getFrecuenciaCardiaca())
-                    .frecuenciaRespiratoria(consulta.getFrecuenciaRespiratoria())
-                    .tienePrescripciones(!prescripciones.isEmpty())
-                    .cantidadPrescripciones(prescripciones.size())
-                    .build();
-            })
-            .collect(Collectors.toList());
-    }
+        for (Consulta consulta : consultas) {
+            List<Prescripcion> prescripciones = prescripcionesPorConsulta.getOrDefault(consulta.getId(), List.of());
+            String profesionalNombre = consulta.getProfesional().getNombre();
+            totalPrescripciones += prescripciones.size();
 
-    /**
-     * Obtiene la evolución de signos vitales
-     */
-    private List<EvolucionSignosVitalesDTO> obtenerEvolucionSignosVitales(List<Consulta> consultas) {
-        return consultas.stream()
-            .filter(c -> c.getPesoKg() != null || c.getTemperatura() != null || 
-                        c.getFrecuenciaCardiaca() != null || c.getFrecuenciaRespiratoria() != null)
-            .map(consulta -> EvolucionSignosVitalesDTO.builder()
+            timeline.add(ConsultaTimelineDTO.builder()
+                .id(consulta.getId())
                 .fecha(consulta.getFecha())
-                .pesoKg(consulta.getPesoKg())
+                .profesionalNombre(profesionalNombre)
+                .diagnostico(consulta.getDiagnostico())
+                .tratamiento(consulta.getTratamiento())
                 .temperatura(consulta.getTemperatura())
+                .pesoKg(consulta.getPesoKg())
                 .frecuenciaCardiaca(consulta.getFrecuenciaCardiaca())
                 .frecuenciaRespiratoria(consulta.getFrecuenciaRespiratoria())
-                .build())
-            .sorted(Comparator.comparing(EvolucionSignosVitalesDTO::getFecha))
-            .collect(Collectors.toList());
-    }
-
-    /**
-     * Obtiene el historial de medicamentos
-     */
-    private List<HistorialMedicamentoDTO> obtenerHistorialMedicamentos(Long pacienteId) {
-        List<Consulta> consultas = consultaRepository.findByPacienteIdOrderByFechaDesc(pacienteId);
-        List<HistorialMedicamentoDTO> historial = new ArrayList<>();
+                .tienePrescripciones(!prescripciones.isEmpty())
+                .cantidadPrescripciones(prescripciones.size())
+                .build());
 
-        for (Consulta consulta : consultas) {
-            List<Prescripcion> prescripciones = prescripcionRepository.findByConsultaId(consulta.getId());
-            
             for (Prescripcion prescripcion : prescripciones) {
                 for (ItemPrescripcion item : prescripcion.getItems()) {
-                    historial.add(HistorialMedicamentoDTO.builder()
+                    historialMedicamentos.add(HistorialMedicamentoDTO.builder()
                         .medicamento(item.getMedicamento())
                         .presentacion(item.getPresentacion())
                         .dosis(item.getDosis())
@@ -109,22 +78,51 @@ public class HistorialMedicoService {
                         .duracion(item.getDuracionDias() != null ? item.getDuracionDias() + " días" : null)
                         .fechaPrescripcion(prescripcion.getFechaEmision())
                         .diagnostico(consulta.getDiagnostico())
-                        .profesionalNombre(consulta.getProfesional().getNombre())
+                        .profesionalNombre(profesionalNombre)
                         .consultaId(consulta.getId())
                         .build());
+                    if (item.getMedicamento() != null) {
+                        medicamentosCount.merge(item.getMedicamento(), 1L, Long::sum);
+                    }
                 }
             }
         }
 
-        return historial.stream()
-            .sorted(Comparator.comparing(HistorialMedicamentoDTO::getFechaPrescripcion).reversed())
+        historialMedicamentos.sort(Comparator.comparing(HistorialMedicamentoDTO::getFechaPrescripcion).reversed());
+
+        return HistorialMedicoDTO.builder()
+            .pacienteId(pacienteId)
+            .pacienteNombre(paciente.getNombre())
+            .timelineConsultas(timeline)
+            .evolucionSignosVitales(obtenerEvolucionSignosVitales(consultas))
+            .historialMedicamentos(historialMedicamentos)
+            .resumen(calcularResumen(consultas, totalPrescripciones, medicamentosCount))
+            .build();
+    }
+
+    /**
+     * Obtiene la evolución de signos vitales
+     */
+    private List<EvolucionSignosVitalesDTO> obtenerEvolucionSignosVitales(List<Consulta> consultas) {
+        return consultas.stream()
+            .filter(c -> c.getPesoKg() != null || c.getTemperatura() != null || 
+                        c.getFrecuenciaCardiaca() != null || c.getFrecuenciaRespiratoria() != null)
+            .map(consulta -> EvolucionSignosVitalesDTO.builder()
+                .fecha(consulta.getFecha())
+                .pesoKg(consulta.getPesoKg())
+                .temperatura(consulta.getTemperatura())
+                .frecuenciaCardiaca(consulta.getFrecuenciaCardiaca())
+                .frecuenciaRespiratoria(consulta.getFrecuenciaRespiratoria())
+                .build())
+            .sorted(Comparator.comparing(EvolucionSignosVitalesDTO::getFecha))
             .collect(Collectors.toList());
     }
 
     /**
      * Calcula el resumen médico
      */
-    private ResumenMedicoDTO calcularResumen(List<Consulta> consultas, Long pacienteId) {
+    private ResumenMedicoDTO calcularResumen(List<Consulta> consultas, int totalPrescripciones,
+                                             Map<String, Long> medicamentosCount) {
         if (consultas.isEmpty()) {
             return ResumenMedicoDTO.builder()
                 .totalConsultas(0)
@@ -197,11 +195,6 @@ public class HistorialMedicoService {
             frecuenciaRespiratoriaPromedio = null;
         }
 
-        // Total prescripciones
-        int totalPrescripciones = (int) consultas.stream()
-            .mapToLong(c -> prescripcionRepository.findByConsultaId(c.getId()).size())
-            .sum();
-
         // Diagnósticos más frecuentes
         Map<String, Long> diagnosticosCount = consultas.stream()
             .map(Consulta::getDiagnostico)
@@ -216,16 +209,6 @@ public class HistorialMedicoService {
             .collect(Collectors.toList());
 
         // Medicamentos más usados
-        List<Prescripcion> todasPrescripciones = consultas.stream()
-            .flatMap(c -> prescripcionRepository.findByConsultaId(c.getId()).stream())
-            .collect(Collectors.toList());
-        
-        Map<String, Long> medicamentosCount = todasPrescripciones.stream()
-            .flatMap(p -> p.getItems().stream())
-            .map(ItemPrescripcion::getMedicamento)
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(m -> m, Collectors.counting()));
-        
         List<String> medicamentosMasUsados = medicamentosCount.entrySet().stream()
             .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
             .limit(5)
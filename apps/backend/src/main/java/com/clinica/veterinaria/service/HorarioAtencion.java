@@ -0,0 +1,95 @@
+package com.clinica.veterinaria.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Reglas del horario de atención de la clínica.
+ *
+ * <p>Centraliza el calendario usado tanto por la validación de citas en {@link CitaService}
+ * como por la búsqueda de huecos libres en {@link DisponibilidadService}, para que ambas
+ * coincidan siempre:</p>
+ * <ul>
+ *   <li>Lunes a viernes: 8:00 - 12:00 y 14:00 - 18:00</li>
+ *   <li>Sábados: 8:00 - 12:00</li>
+ *   <li>Domingos: cerrado</li>
+ * </ul>
+ *
+ * <p>Los límites son inclusivos: una cita puede empezar a las 12:00 o a las 18:00.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+public final class HorarioAtencion {
+
+    public static final LocalTime HORARIO_INICIO_MANANA = LocalTime.of(8, 0);   // 8:00 AM
+    public static final LocalTime HORARIO_FIN_MANANA = LocalTime.of(12, 0);     // 12:00 PM (mediodía)
+    public static final LocalTime HORARIO_INICIO_TARDE = LocalTime.of(14, 0);   // 2:00 PM
+    public static final LocalTime HORARIO_FIN_TARDE = LocalTime.of(18, 0);      // 6:00 PM
+
+    /** Franjas en las que puede empezar una cita de lunes a viernes. */
+    private static final long MASCARA_ENTRE_SEMANA =
+        mascaraEntre(HORARIO_INICIO_MANANA, HORARIO_FIN_MANANA) | mascaraEntre(HORARIO_INICIO_TARDE, HORARIO_FIN_TARDE);
+
+    /** Franjas en las que puede empezar una cita los sábados. */
+    private static final long MASCARA_SABADO = mascaraEntre(HORARIO_INICIO_MANANA, HORARIO_FIN_MANANA);
+
+    private HorarioAtencion() {
+    }
+
+    /**
+     * Indica si la clínica atiende en el día indicado.
+     *
+     * @param dia Día de la semana
+     * @return false solo para los domingos
+     */
+    public static boolean atiende(DayOfWeek dia) {
+        return dia != DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * Indica si una cita puede empezar en la fecha y hora indicadas.
+     *
+     * @param fecha Fecha y hora de inicio de la cita
+     * @return true si la hora está dentro del horario de atención de ese día
+     */
+    public static boolean esHorarioValido(LocalDateTime fecha) {
+        DayOfWeek dia = fecha.getDayOfWeek();
+        if (!atiende(dia)) {
+            return false;
+        }
+        LocalTime hora = fecha.toLocalTime();
+        boolean enHorarioManana = !hora.isBefore(HORARIO_INICIO_MANANA) && !hora.isAfter(HORARIO_FIN_MANANA);
+        if (dia == DayOfWeek.SATURDAY) {
+            return enHorarioManana;
+        }
+        boolean enHorarioTarde = !hora.isBefore(HORARIO_INICIO_TARDE) && !hora.isAfter(HORARIO_FIN_TARDE);
+        return enHorarioManana || enHorarioTarde;
+    }
+
+    /**
+     * Mapa de bits de las franjas de {@value DisponibilidadService#DURACION_SLOT_MINUTOS} minutos
+     * en las que puede empezar una cita el día de la semana indicado.
+     *
+     * @param dia Día de la semana
+     * @return Máscara con el mismo formato que {@link DisponibilidadService#getOcupacion}
+     */
+    public static long mascaraAtencion(DayOfWeek dia) {
+        if (!atiende(dia)) {
+            return 0L;
+        }
+        return dia == DayOfWeek.SATURDAY ? MASCARA_SABADO : MASCARA_ENTRE_SEMANA;
+    }
+
+    private static long mascaraEntre(LocalTime inicio, LocalTime fin) {
+        int primera = inicio.toSecondOfDay() / 60 / DisponibilidadService.DURACION_SLOT_MINUTOS;
+        int ultima = fin.toSecondOfDay() / 60 / DisponibilidadService.DURACION_SLOT_MINUTOS;
+        long mascara = 0L;
+        for (int slot = primera; slot <= ultima; slot++) {
+            mascara |= 1L << slot;
+        }
+        return mascara;
+    }
+}
@@ -0,0 +1,114 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.MensajeSaliente.Estado;
+import com.clinica.veterinaria.repository.MensajeSalienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Retención de la tabla {@code mensaje_saliente} (outbox de emails y SMS).
+ *
+ * <p>Cada cita genera varios mensajes con su payload TEXT; una vez enviados ya no los lee
+ * nadie, así que sin retención la tabla crece sin límite. Cada noche se eliminan:</p>
+ * <ul>
+ *   <li>Los ENVIADO cuyo envío fue hace más de {@code dias-enviados} días.</li>
+ *   <li>Los FALLIDO cuyo último intento fue hace más de {@code dias-fallidos} días; se
+ *       conservan más tiempo porque su último error sirve para diagnosticar.</li>
+ * </ul>
+ *
+ * <p>Igual que {@link NotificacionRetencionService}, trabaja por lotes de {@code lote} filas,
+ * cada uno en su propia transacción corta (IDs por el índice (estado, proximo_intento) y
+ * borrado por clave primaria), y como máximo {@code max-lotes} lotes por estado y ejecución.
+ * Los mensajes PENDIENTE y EN_PROCESO nunca se eliminan.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.entity.MensajeSaliente
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MensajeSalienteRetencionService {
+
+    private final MensajeSalienteRepository mensajeSalienteRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.outbox.retencion.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${app.outbox.retencion.dias-enviados:7}")
+    private int diasEnviados;
+
+    @Value("${app.outbox.retencion.dias-fallidos:30}")
+    private int diasFallidos;
+
+    @Value("${app.outbox.retencion.lote:500}")
+    private int tamanoLote;
+
+    @Value("${app.outbox.retencion.max-lotes:200}")
+    private int maxLotes;
+
+    /**
+     * Elimina los mensajes enviados y fallidos antiguos.
+     * Se ejecuta diariamente a las 4:15 AM (configurable).
+     */
+    @Scheduled(cron = "${app.outbox.retencion.cron:0 15 4 * * *}")
+    public void ejecutar() {
+        if (!habilitada) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        int enviados = purgar(Estado.ENVIADO, ahora.minusDays(diasEnviados));
+        int fallidos = purgar(Estado.FALLIDO, ahora.minusDays(diasFallidos));
+
+        log.info("✓ Retención del outbox: {} enviados y {} fallidos eliminados en {} ms",
+            enviados, fallidos, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Elimina por lotes los mensajes en el estado indicado cuyo último intento fue antes de
+     * la fecha límite, hasta que un lote sale incompleto o se alcanza {@code max-lotes}.
+     *
+     * @param estado Estado final (ENVIADO o FALLIDO)
+     * @param fechaLimite Fecha límite (exclusiva)
+     * @return Número de mensajes eliminados
+     */
+    int purgar(Estado estado, LocalDateTime fechaLimite) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Pageable limite = PageRequest.of(0, tamanoLote);
+        int total = 0;
+        for (int i = 0; i < maxLotes; i++) {
+            Integer eliminados;
+            try {
+                eliminados = transaccion.execute(status -> {
+                    List<Long> ids = mensajeSalienteRepository.findIdsTerminadosAnteriores(estado, fechaLimite, limite);
+                    return ids.isEmpty() ? 0 : mensajeSalienteRepository.eliminarPorIds(ids);
+                });
+            } catch (RuntimeException e) {
+                log.error("✗ Error en la retención del outbox ({}) tras {} filas: {}", estado, total, e.getMessage(), e);
+                return total;
+            }
+            int filas = eliminados != null ? eliminados : 0;
+            total += filas;
+            if (filas < tamanoLote) {
+                return total;
+            }
+        }
+        log.warn("⚠ La retención del outbox ({}) alcanzó el máximo de {} lotes; continuará en la próxima ejecución",
+            estado, maxLotes);
+        return total;
+    }
+}
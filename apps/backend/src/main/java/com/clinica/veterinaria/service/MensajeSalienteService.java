@@ -0,0 +1,129 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.Cita;
+import com.clinica.veterinaria.entity.MensajeSaliente;
+import com.clinica.veterinaria.entity.MensajeSaliente.Tipo;
+import com.clinica.veterinaria.repository.MensajeSalienteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Servicio para encolar emails y SMS en el outbox transaccional ({@code mensaje_saliente}).
+ *
+ * <p>Los métodos {@code encolar*} solo insertan una fila en la transacción actual, sin
+ * renderizar plantillas ni abrir conexiones SMTP, por lo que la operación que los llama
+ * (crear una cita, cancelarla...) no espera al envío. Tras el commit se avisa a
+ * {@link DespachadorMensajesService} para que lo envíe en segundo plano; si el aviso se pierde,
+ * el sondeo periódico del despachador lo recoge igualmente.</p>
+ *
+ * <p>Los parámetros del mensaje se guardan como JSON en el momento de encolar, de modo que
+ * el email refleja los datos de la cita tal como estaban al confirmarse el cambio.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see MensajeSaliente
+ * @see DespachadorMensajesService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MensajeSalienteService {
+
+    private static final String ENTIDAD_CITA = "CITA";
+
+    private final MensajeSalienteRepository mensajeSalienteRepository;
+    private final DespachadorMensajesService despachadorMensajesService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Encola el email de confirmación de una cita recién creada.
+     *
+     * @param cita Cita creada (con propietario, paciente y profesional)
+     */
+    public void encolarEmailConfirmacionCita(Cita cita) {
+        encolar(Tipo.EMAIL_CITA_CONFIRMACION, cita.getPropietario().getEmail(), cita, datosCita(cita));
+    }
+
+    /**
+     * Encola el email de cancelación de una cita.
+     *
+     * @param cita Cita cancelada o a punto de eliminarse
+     * @param razonCancelacion Razón mostrada al propietario
+     */
+    public void encolarEmailCancelacionCita(Cita cita, String razonCancelacion) {
+        Map<String, String> datos = datosCita(cita);
+        datos.put("razonCancelacion", razonCancelacion);
+        encolar(Tipo.EMAIL_CITA_CANCELACION, cita.getPropietario().getEmail(), cita, datos);
+    }
+
+    /**
+     * Encola el email de cambio de estado (o de fecha/motivo) de una cita.
+     *
+     * @param cita Cita actualizada
+     * @param nuevoEstado Estado a mostrar (nombre del estado o "ACTUALIZADA")
+     */
+    public void encolarEmailCambioEstadoCita(Cita cita, String nuevoEstado) {
+        Map<String, String> datos = datosCita(cita);
+        datos.put("nuevoEstado", nuevoEstado);
+        encolar(Tipo.EMAIL_CITA_CAMBIO_ESTADO, cita.getPropietario().getEmail(), cita, datos);
+    }
+
+    /**
+     * Encola el SMS de confirmación de una cita recién creada.
+     *
+     * @param cita Cita creada
+     * @param telefono Teléfono ya normalizado del propietario
+     */
+    public void encolarSmsConfirmacionCita(Cita cita, String telefono) {
+        encolar(Tipo.SMS_CITA_CONFIRMACION, telefono, cita, datosCita(cita));
+    }
+
+    private void encolar(Tipo tipo, String destinatario, Cita cita, Map<String, String> datos) {
+        MensajeSaliente mensaje;
+        try {
+            mensaje = mensajeSalienteRepository.save(MensajeSaliente.builder()
+                .tipo(tipo)
+                .destinatario(destinatario)
+                .payload(objectMapper.writeValueAsString(datos))
+                .proximoIntento(LocalDateTime.now())
+                .entidadTipo(ENTIDAD_CITA)
+                .entidadId(cita.getId())
+                .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el mensaje " + tipo, e);
+        }
+        log.debug("→ Mensaje {} encolado para {} (ID: {})", tipo, destinatario, mensaje.getId());
+
+        Long id = mensaje.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    despachadorMensajesService.despachar(id);
+                }
+            });
+        } else {
+            despachadorMensajesService.despachar(id);
+        }
+    }
+
+    private static Map<String, String> datosCita(Cita cita) {
+        Map<String, String> datos = new LinkedHashMap<>();
+        datos.put("propietarioNombre", cita.getPropietario().getNombre());
+        datos.put("pacienteNombre", cita.getPaciente() != null ? cita.getPaciente().getNombre() : "N/A");
+        datos.put("fecha", cita.getFecha().toString());
+        datos.put("motivo", cita.getMotivo() != null ? cita.getMotivo() : "N/A");
+        datos.put("profesionalNombre", cita.getProfesional() != null ? cita.getProfesional().getNombre() : "N/A");
+        return datos;
+    }
+}
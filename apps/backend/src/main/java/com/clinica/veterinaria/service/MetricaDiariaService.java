@@ -0,0 +1,401 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.Cita.EstadoCita;
+import com.clinica.veterinaria.entity.MetricaDiaria;
+import com.clinica.veterinaria.entity.MetricaDiaria.Tipo;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.ConsultaRepository;
+import com.clinica.veterinaria.repository.MetricaDiariaRepository;
+import com.clinica.veterinaria.repository.PacienteRepository;
+import com.clinica.veterinaria.repository.PrescripcionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene la tabla agregada {@code daily_metrics} ({@link MetricaDiaria}).
+ *
+ * <p>Los servicios de dominio ({@link CitaService}, {@link ConsultaService},
+ * {@link PacienteService} y {@link PrescripcionService}) notifican cada alta, baja o cambio
+ * relevante. Los incrementos se acumulan durante la transacción y se aplican en una
+ * transacción propia <em>después del commit</em>: si la operación se revierte no se cuenta
+ * nada, y un fallo al actualizar un contador nunca hace fallar la operación de negocio.</p>
+ *
+ * <p><strong>Conciliación:</strong> Cada noche, y al arrancar si la tabla está vacía, los
+ * contadores se recalculan con consultas agrupadas sobre las tablas de hechos y se corrigen
+ * las filas que difieran. Esto cubre los datos cargados por otras vías (por ejemplo
+ * {@code DataInitializer}) y cualquier incremento perdido.</p>
+ *
+ * <p>{@link DashboardService} y {@link ReporteService} leen de aquí sus indicadores, con un
+ * coste proporcional al número de días consultados y no al tamaño de las tablas.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see MetricaDiaria
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MetricaDiariaService {
+
+    private final MetricaDiariaRepository metricaDiariaRepository;
+    private final CitaRepository citaRepository;
+    private final ConsultaRepository consultaRepository;
+    private final PacienteRepository pacienteRepository;
+    private final PrescripcionRepository prescripcionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // ========================================================================
+    // Registro de cambios
+    // ========================================================================
+
+    /**
+     * Registra el alta (+1) o la baja (-1) de una cita en su día y estado.
+     *
+     * <p>Un cambio de fecha o de estado se registra como una baja con los valores
+     * anteriores y un alta con los nuevos.</p>
+     *
+     * @param fecha Fecha de la cita
+     * @param estado Estado de la cita
+     * @param delta Cantidad a sumar al contador
+     */
+    public void registrarCita(LocalDateTime fecha, EstadoCita estado, long delta) {
+        if (fecha == null || estado == null) {
+            return;
+        }
+        registrar(new ClaveMetrica(Tipo.CITAS, fecha.toLocalDate(), estado.name()), delta);
+    }
+
+    /**
+     * Registra el alta (+1) o la baja (-1) de una consulta en su día.
+     *
+     * @param fecha Fecha de la consulta
+     * @param delta Cantidad a sumar al contador
+     */
+    public void registrarConsulta(LocalDateTime fecha, long delta) {
+        if (fecha == null) {
+            return;
+        }
+        registrar(new ClaveMetrica(Tipo.CONSULTAS, fecha.toLocalDate(), MetricaDiaria.CLAVE_TOTAL), delta);
+    }
+
+    /**
+     * Registra el alta (+1) o la baja (-1) de una prescripción en su día de emisión.
+     *
+     * @param fechaEmision Fecha de emisión de la prescripción
+     * @param delta Cantidad a sumar al contador
+     */
+    public void registrarPrescripcion(LocalDateTime fechaEmision, long delta) {
+        if (fechaEmision == null) {
+            return;
+        }
+        registrar(new ClaveMetrica(Tipo.PRESCRIPCIONES, fechaEmision.toLocalDate(), MetricaDiaria.CLAVE_TOTAL), delta);
+    }
+
+    /**
+     * Registra que un paciente de la especie indicada pasa a estar activo (+1) o deja de estarlo (-1).
+     *
+     * @param especie Especie del paciente tal como está registrada
+     * @param delta Cantidad a sumar al contador
+     */
+    public void registrarPacienteActivo(String especie, long delta) {
+        registrar(new ClaveMetrica(Tipo.PACIENTES_ACTIVOS, MetricaDiaria.FECHA_ACUMULADO, claveEspecie(especie)), delta);
+    }
+
+    /**
+     * Acumula el incremento en la transacción actual, o lo aplica de inmediato si no hay ninguna.
+     */
+    private void registrar(ClaveMetrica clave, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(Map.of(clave, delta));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<ClaveMetrica, Long> pendientes = (Map<ClaveMetrica, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+            TransactionSynchronizationManager.registerSynchronization(new IncrementosPendientes(pendientes));
+        }
+        pendientes.merge(clave, delta, Long::sum);
+    }
+
+    /**
+     * Aplica los incrementos en una transacción nueva.
+     *
+     * <p>Si dos transacciones crean a la vez el mismo contador, la restricción única hace
+     * fallar a una de ellas; se reintenta una vez, cuando la fila ya existe. Cualquier otro
+     * fallo solo se registra: la conciliación nocturna corregirá el contador.</p>
+     */
+    private void aplicar(Map<ClaveMetrica, Long> incrementos) {
+        if (incrementos.values().stream().allMatch(delta -> delta == 0)) {
+            return;
+        }
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int intento = 1; intento <= 2; intento++) {
+            try {
+                transaccion.executeWithoutResult(status -> incrementos.forEach(this::incrementar));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Contador creado de forma concurrente, reintentando (intento {})", intento);
+            } catch (RuntimeException e) {
+                log.error("✗ Error al actualizar métricas diarias {}: {}", incrementos.keySet(), e.getMessage());
+                return;
+            }
+        }
+        log.error("✗ No se pudieron actualizar las métricas diarias {}; se corregirán en la conciliación",
+            incrementos.keySet());
+    }
+
+    private void incrementar(ClaveMetrica clave, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        int actualizadas = metricaDiariaRepository.incrementar(clave.tipo(), clave.fecha(), clave.clave(), delta);
+        if (actualizadas == 0) {
+            metricaDiariaRepository.saveAndFlush(clave.nuevaMetrica(delta));
+        }
+    }
+
+    // ========================================================================
+    // Conciliación
+    // ========================================================================
+
+    /**
+     * Construye la tabla en el primer arranque (o tras vaciarla manualmente).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (metricaDiariaRepository.count() == 0) {
+            log.info("→ Tabla daily_metrics vacía, calculando contadores iniciales");
+            conciliar();
+        }
+    }
+
+    /**
+     * Recalcula todos los contadores desde las tablas de hechos y corrige los que difieran.
+     *
+     * <p>Se ejecuta diariamente a las 3:15 AM. Usa una consulta agrupada por tabla de hechos,
+     * por lo que solo lee filas agregadas (una por día y clave).</p>
+     *
+     * @return Número de contadores creados, corregidos o eliminados
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public int conciliar() {
+        long inicio = System.currentTimeMillis();
+        Integer corregidos = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<ClaveMetrica, Long> esperados = calcularDesdeHechos();
+            Map<ClaveMetrica, MetricaDiaria> actuales = metricaDiariaRepository.findAll().stream()
+                .collect(Collectors.toMap(ClaveMetrica::de, Function.identity()));
+
+            int cambios = 0;
+            for (Map.Entry<ClaveMetrica, Long> esperado : esperados.entrySet()) {
+                MetricaDiaria actual = actuales.remove(esperado.getKey());
+                if (actual == null) {
+                    metricaDiariaRepository.save(esperado.getKey().nuevaMetrica(esperado.getValue()));
+                    cambios++;
+                } else if (!actual.getValor().equals(esperado.getValue())) {
+                    actual.setValor(esperado.getValue());
+                    cambios++;
+                }
+            }
+            // Contadores sin hechos detrás (p. ej. días cuyas citas se eliminaron)
+            cambios += actuales.size();
+            metricaDiariaRepository.deleteAll(actuales.values());
+            return cambios;
+        });
+
+        log.info("✓ Conciliación de daily_metrics completada: {} contadores corregidos en {} ms",
+            corregidos, System.currentTimeMillis() - inicio);
+        return corregidos != null ? corregidos : 0;
+    }
+
+    private Map<ClaveMetrica, Long> calcularDesdeHechos() {
+        Map<ClaveMetrica, Long> esperados = new HashMap<>();
+        citaRepository.countAgrupadasPorDiaYEstado().forEach(conteo -> esperados.merge(
+            new ClaveMetrica(Tipo.CITAS, conteo.getDia(), conteo.getEstado().name()), conteo.getTotal(), Long::sum));
+        consultaRepository.countAgrupadasPorDia().forEach(conteo -> esperados.merge(
+            new ClaveMetrica(Tipo.CONSULTAS, conteo.getDia(), MetricaDiaria.CLAVE_TOTAL), conteo.getTotal(), Long::sum));
+        prescripcionRepository.countAgrupadasPorDia().forEach(conteo -> esperados.merge(
+            new ClaveMetrica(Tipo.PRESCRIPCIONES, conteo.getDia(), MetricaDiaria.CLAVE_TOTAL), conteo.getTotal(), Long::sum));
+        pacienteRepository.countActivosAgrupadosPorEspecie().forEach(conteo -> esperados.merge(
+            new ClaveMetrica(Tipo.PACIENTES_ACTIVOS, MetricaDiaria.FECHA_ACUMULADO, claveEspecie(conteo.getEspecie())),
+            conteo.getTotal(), Long::sum));
+        return esperados;
+    }
+
+    // ========================================================================
+    // Lecturas
+    // ========================================================================
+
+    /**
+     * Cuenta las citas con fecha de atención en el rango de días indicado.
+     */
+    public long contarCitas(LocalDate desde, LocalDate hasta) {
+        return metricaDiariaRepository.sumarEnRango(Tipo.CITAS, desde, hasta);
+    }
+
+    /**
+     * Cuenta todas las citas registradas.
+     */
+    public long contarCitas() {
+        return metricaDiariaRepository.sumarTotal(Tipo.CITAS);
+    }
+
+    /**
+     * Cuenta todas las citas que están en alguno de los estados indicados.
+     */
+    public long contarCitasEnEstados(Collection<EstadoCita> estados) {
+        return metricaDiariaRepository.sumarPorClaves(Tipo.CITAS,
+            estados.stream().map(EstadoCita::name).toList());
+    }
+
+    /**
+     * Cuenta todas las citas agrupadas por estado. Los estados sin citas no aparecen.
+     */
+    public Map<EstadoCita, Long> contarCitasPorEstado() {
+        Map<EstadoCita, Long> resultado = new EnumMap<>(EstadoCita.class);
+        metricaDiariaRepository.sumarPorClave(Tipo.CITAS)
+            .forEach(total -> resultado.put(EstadoCita.valueOf(total.getClave()), total.getTotal()));
+        return resultado;
+    }
+
+    /**
+     * Cuenta las citas de cada día del rango. Los días sin citas no aparecen.
+     */
+    public Map<LocalDate, Long> contarCitasPorDia(LocalDate desde, LocalDate hasta) {
+        return sumarPorDia(Tipo.CITAS, desde, hasta);
+    }
+
+    /**
+     * Cuenta todas las consultas registradas.
+     */
+    public long contarConsultas() {
+        return metricaDiariaRepository.sumarTotal(Tipo.CONSULTAS);
+    }
+
+    /**
+     * Cuenta las consultas de cada día del rango. Los días sin consultas no aparecen.
+     */
+    public Map<LocalDate, Long> contarConsultasPorDia(LocalDate desde, LocalDate hasta) {
+        return sumarPorDia(Tipo.CONSULTAS, desde, hasta);
+    }
+
+    /**
+     * Cuenta las prescripciones emitidas en el rango de días indicado.
+     */
+    public long contarPrescripciones(LocalDate desde, LocalDate hasta) {
+        return metricaDiariaRepository.sumarEnRango(Tipo.PRESCRIPCIONES, desde, hasta);
+    }
+
+    /**
+     * Cuenta los pacientes activos.
+     */
+    public long contarPacientesActivos() {
+        return metricaDiariaRepository.sumarTotal(Tipo.PACIENTES_ACTIVOS);
+    }
+
+    /**
+     * Cuenta los pacientes activos por especie, tal como está registrada.
+     */
+    public Map<String, Long> contarPacientesActivosPorEspecie() {
+        return metricaDiariaRepository.sumarPorClave(Tipo.PACIENTES_ACTIVOS).stream()
+            .collect(Collectors.toMap(MetricaDiariaRepository.TotalPorClave::getClave,
+                MetricaDiariaRepository.TotalPorClave::getTotal));
+    }
+
+    private Map<LocalDate, Long> sumarPorDia(Tipo tipo, LocalDate desde, LocalDate hasta) {
+        Map<LocalDate, Long> resultado = new TreeMap<>();
+        metricaDiariaRepository.findByTipoAndFechaBetween(tipo, desde, hasta)
+            .forEach(metrica -> resultado.merge(metrica.getFecha(), metrica.getValor(), Long::sum));
+        return resultado;
+    }
+
+    private static String claveEspecie(String especie) {
+        return especie != null ? especie : "";
+    }
+
+    // ========================================================================
+    // Tipos internos
+    // ========================================================================
+
+    /**
+     * Identifica un contador de la tabla.
+     */
+    private record ClaveMetrica(Tipo tipo, LocalDate fecha, String clave) {
+
+        static ClaveMetrica de(MetricaDiaria metrica) {
+            return new ClaveMetrica(metrica.getTipo(), metrica.getFecha(), metrica.getClave());
+        }
+
+        MetricaDiaria nuevaMetrica(long valor) {
+            return MetricaDiaria.builder()
+                .tipo(tipo)
+                .fecha(fecha)
+                .clave(clave)
+                .valor(valor)
+                .build();
+        }
+    }
+
+    /**
+     * Incrementos acumulados en una transacción, aplicados tras el commit.
+     *
+     * <p>El mapa se asocia como recurso de la transacción para que las siguientes llamadas
+     * lo reutilicen; se desasocia al suspender la transacción (p. ej. por un REQUIRES_NEW
+     * anidado) y al terminarla.</p>
+     */
+    private class IncrementosPendientes implements TransactionSynchronization {
+
+        private final Map<ClaveMetrica, Long> pendientes;
+
+        IncrementosPendientes(Map<ClaveMetrica, Long> pendientes) {
+            this.pendientes = pendientes;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MetricaDiariaService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(MetricaDiariaService.this, pendientes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MetricaDiariaService.this);
+            if (status == STATUS_COMMITTED) {
+                aplicar(pendientes);
+            }
+        }
+    }
+}
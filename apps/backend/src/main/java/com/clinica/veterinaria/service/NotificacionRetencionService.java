@@ -0,0 +1,185 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.repository.NotificacionArchivadaRepository;
+import com.clinica.veterinaria.repository.NotificacionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Retención de la tabla {@code notificaciones}.
+ *
+ * <p>Los recordatorios y alertas periódicas generan notificaciones a diario; sin retención la
+ * tabla (con su {@code mensaje} TEXT) crece sin límite y con ella el coste de las bandejas y
+ * los contadores. Cada noche se ejecutan tres fases:</p>
+ * <ol>
+ *   <li><b>Archivado:</b> las notificaciones leídas con más de {@code dias-archivo} días se
+ *       copian a {@code notificaciones_archivadas} ({@code INSERT ... SELECT}) y se eliminan de
+ *       la tabla principal.</li>
+ *   <li><b>Purga:</b> las notificaciones de más de {@code dias-maximo} días que siguen sin
+ *       leerse se eliminan; después se reconcilian los contadores de no leídas en memoria.</li>
+ *   <li><b>Purga del archivo:</b> se eliminan las archivadas de más de
+ *       {@code dias-archivo-maximo} días.</li>
+ * </ol>
+ *
+ * <p>Todas las fases trabajan por lotes de {@code lote} filas, cada uno en su propia
+ * transacción corta: se seleccionan los IDs del lote por el índice de {@code fecha_creacion} y
+ * se borran por clave primaria. Así ninguna sentencia bloquea la tabla durante mucho tiempo ni
+ * genera una transacción enorme, y una ejecución interrumpida se retoma en la siguiente. Cada
+ * fase procesa como máximo {@code max-lotes} lotes por ejecución.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see com.clinica.veterinaria.entity.NotificacionArchivada
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificacionRetencionService {
+
+    private static final String SQL_ARCHIVAR =
+        "INSERT INTO notificaciones_archivadas " +
+        "(id, usuario_id, titulo, mensaje, tipo, fecha_creacion, entidad_tipo, entidad_id, fecha_archivado) " +
+        "SELECT id, usuario_id, titulo, mensaje, tipo, fecha_creacion, entidad_tipo, entidad_id, ? " +
+        "FROM notificaciones WHERE leida = true AND id IN (%s)";
+
+    private final NotificacionRepository notificacionRepository;
+    private final NotificacionArchivadaRepository notificacionArchivadaRepository;
+    private final ContadorNotificacionesService contadorNotificacionesService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.notificaciones.retencion.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${app.notificaciones.retencion.dias-archivo:30}")
+    private int diasArchivo;
+
+    @Value("${app.notificaciones.retencion.dias-maximo:180}")
+    private int diasMaximo;
+
+    @Value("${app.notificaciones.retencion.dias-archivo-maximo:730}")
+    private int diasArchivoMaximo;
+
+    @Value("${app.notificaciones.retencion.lote:500}")
+    private int tamanoLote;
+
+    @Value("${app.notificaciones.retencion.max-lotes:200}")
+    private int maxLotes;
+
+    /**
+     * Ejecuta las tres fases de retención.
+     * Se ejecuta diariamente a las 3:45 AM (configurable).
+     */
+    @Scheduled(cron = "${app.notificaciones.retencion.cron:0 45 3 * * *}")
+    public void ejecutar() {
+        if (!habilitada) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        int archivadas = archivarLeidas(ahora.minusDays(diasArchivo));
+        int purgadas = purgarAntiguas(ahora.minusDays(diasMaximo));
+        int purgadasArchivo = purgarArchivo(ahora.minusDays(diasArchivoMaximo));
+
+        log.info("✓ Retención de notificaciones: {} archivadas, {} eliminadas, {} eliminadas del archivo en {} ms",
+            archivadas, purgadas, purgadasArchivo, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Mueve al archivo las notificaciones leídas creadas antes de la fecha límite.
+     *
+     * @param fechaLimite Fecha de creación límite (exclusiva)
+     * @return Número de notificaciones archivadas
+     */
+    int archivarLeidas(LocalDateTime fechaLimite) {
+        return porLotes("archivado", limite -> {
+            List<Long> ids = notificacionRepository.findIdsLeidasAnteriores(fechaLimite, limite);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            Object[] parametros = new Object[ids.size() + 1];
+            parametros[0] = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < ids.size(); i++) {
+                parametros[i + 1] = ids.get(i);
+            }
+            jdbcTemplate.update(
+                String.format(SQL_ARCHIVAR, String.join(",", Collections.nCopies(ids.size(), "?"))), parametros);
+            notificacionRepository.eliminarPorIds(ids);
+            return ids.size();
+        });
+    }
+
+    /**
+     * Elimina las notificaciones (leídas o no) creadas antes de la fecha límite y reconcilia
+     * los contadores de no leídas si se eliminó alguna.
+     *
+     * @param fechaLimite Fecha de creación límite (exclusiva)
+     * @return Número de notificaciones eliminadas
+     */
+    int purgarAntiguas(LocalDateTime fechaLimite) {
+        int eliminadas = porLotes("purga", limite -> {
+            List<Long> ids = notificacionRepository.findIdsAnteriores(fechaLimite, limite);
+            return ids.isEmpty() ? 0 : notificacionRepository.eliminarPorIds(ids);
+        });
+        if (eliminadas > 0) {
+            contadorNotificacionesService.reconciliar();
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Elimina del archivo las notificaciones creadas antes de la fecha límite.
+     *
+     * @param fechaLimite Fecha de creación límite (exclusiva)
+     * @return Número de notificaciones archivadas eliminadas
+     */
+    int purgarArchivo(LocalDateTime fechaLimite) {
+        return porLotes("purga del archivo", limite -> {
+            List<Long> ids = notificacionArchivadaRepository.findIdsAnteriores(fechaLimite, limite);
+            return ids.isEmpty() ? 0 : notificacionArchivadaRepository.eliminarPorIds(ids);
+        });
+    }
+
+    /**
+     * Ejecuta una operación por lotes, cada uno en su propia transacción, hasta que un lote
+     * sale incompleto o se alcanza {@code max-lotes}.
+     */
+    private int porLotes(String fase, Function<Pageable, Integer> lote) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Pageable limite = PageRequest.of(0, tamanoLote);
+        int total = 0;
+        for (int i = 0; i < maxLotes; i++) {
+            Integer procesadas;
+            try {
+                procesadas = transaccion.execute(status -> lote.apply(limite));
+            } catch (RuntimeException e) {
+                log.error("✗ Error en la {} de notificaciones tras {} filas: {}", fase, total, e.getMessage(), e);
+                return total;
+            }
+            int filas = procesadas != null ? procesadas : 0;
+            total += filas;
+            if (filas < tamanoLote) {
+                return total;
+            }
+        }
+        log.warn("⚠ La {} de notificaciones alcanzó el máximo de {} lotes; continuará en la próxima ejecución",
+            fase, maxLotes);
+        return total;
+    }
+}
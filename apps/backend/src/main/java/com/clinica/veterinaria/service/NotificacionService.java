@@ -1,18 +1,40 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.NotificacionCreateDTO;
 import com.clinica.veterinaria.dto.NotificacionDTO;
+import com.clinica.veterinaria.dto.NotificacionWebSocketDTO;
 import com.clinica.veterinaria.entity.Notificacion;
+import com.clinica.veterinaria.entity.NotificacionArchivada;
 import com.clinica.veterinaria.entity.Usuario;
+import com.clinica.veterinaria.repository.NotificacionArchivadaRepository;
 import com.clinica.veterinaria.repository.NotificacionRepository;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -28,40 +50,109 @@ import java.util.stream.Collectors;
 @Transactional
 public class NotificacionService {
 
+    /** Filas por sentencia batch JDBC en los envíos masivos. */
+    private static final int LOTE_INSERCION = 500;
+
+    /** Máximo de notificaciones devueltas por los listados sin paginar de la bandeja. */
+    static final int LIMITE_BANDEJA = 50;
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO notificaciones (usuario_id, titulo, mensaje, tipo, leida, fecha_creacion, entidad_tipo, entidad_id) " +
+        "VALUES (?, ?, ?, ?, false, ?, ?, ?)";
+
     private final NotificacionRepository notificacionRepository;
+    private final NotificacionArchivadaRepository notificacionArchivadaRepository;
     private final UsuarioRepository usuarioRepository;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ContadorNotificacionesService contadorNotificacionesService;
 
     /**
-     * Obtiene todas las notificaciones de un usuario
+     * Obtiene las {@value #LIMITE_BANDEJA} notificaciones más recientes de un usuario.
+     * El historial completo se recorre con {@link #findPaginaPorCursor}.
      */
     @Transactional(readOnly = true)
     public List<NotificacionDTO> findByUsuarioId(@NonNull Long usuarioId) {
         log.info("Obteniendo notificaciones para usuario ID: {}", usuarioId);
-        return notificacionRepository.findByUsuarioIdOrderByFechaCreacionDesc(usuarioId)
+        return notificacionRepository.findByUsuarioIdOrderByFechaCreacionDescIdDesc(
+                    usuarioId, PageRequest.of(0, LIMITE_BANDEJA))
                 .stream()
                 .map(NotificacionDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Obtiene las notificaciones no leídas de un usuario
+     * Obtiene las {@value #LIMITE_BANDEJA} notificaciones no leídas más recientes de un usuario
      */
     @Transactional(readOnly = true)
     public List<NotificacionDTO> findNoLeidasByUsuarioId(@NonNull Long usuarioId) {
         log.info("Obteniendo notificaciones no leídas para usuario ID: {}", usuarioId);
-        return notificacionRepository.findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDesc(usuarioId)
+        return notificacionRepository.findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDescIdDesc(
+                    usuarioId, PageRequest.of(0, LIMITE_BANDEJA))
                 .stream()
                 .map(NotificacionDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Cuenta las notificaciones no leídas de un usuario
+     * Página de la bandeja de un usuario por cursor, más recientes primero.
+     *
+     * @param usuarioId ID del usuario
+     * @param soloNoLeidas Si es true, solo incluye las no leídas
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value CursorPaginacion#TAMANO_MAXIMO})
+     * @return Página de notificaciones con el cursor de la siguiente
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificacionDTO> findPaginaPorCursor(
+            @NonNull Long usuarioId, boolean soloNoLeidas, String after, int size) {
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        log.debug("Obteniendo notificaciones por cursor - usuario: {}, soloNoLeidas: {}, cursor: {}",
+            usuarioId, soloNoLeidas, cursor);
+
+        List<Notificacion> notificaciones = notificacionRepository.findPaginaPorCursor(
+            usuarioId, soloNoLeidas,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+
+        return CursorPaginacion.pagina(notificaciones, size,
+            n -> new CursorPaginacion(n.getFechaCreacion(), n.getId()),
+            NotificacionDTO::fromEntity,
+            null);
+    }
+
+    /**
+     * Página de las notificaciones archivadas de un usuario por cursor, más recientes primero.
+     *
+     * @param usuarioId ID del usuario
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value CursorPaginacion#TAMANO_MAXIMO})
+     * @return Página de notificaciones archivadas con el cursor de la siguiente
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificacionDTO> findArchivadasPorCursor(@NonNull Long usuarioId, String after, int size) {
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        log.debug("Obteniendo notificaciones archivadas por cursor - usuario: {}, cursor: {}", usuarioId, cursor);
+
+        List<NotificacionArchivada> archivadas = notificacionArchivadaRepository.findPaginaPorCursor(
+            usuarioId,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+
+        return CursorPaginacion.pagina(archivadas, size,
+            n -> new CursorPaginacion(n.getFechaCreacion(), n.getId()),
+            NotificacionDTO::fromArchivada,
+            null);
+    }
+
+    /**
+     * Cuenta las notificaciones no leídas de un usuario (desde el contador en memoria)
      */
     @Transactional(readOnly = true)
     public long countNoLeidasByUsuarioId(@NonNull Long usuarioId) {
-        return notificacionRepository.countByUsuarioIdAndLeidaFalse(usuarioId);
+        return contadorNotificacionesService.obtener(usuarioId);
     }
 
     /**
@@ -93,17 +184,108 @@ public class NotificacionService {
                 usuario.getId(),
                 com.clinica.veterinaria.dto.NotificacionWebSocketDTO.fromEntity(notificacion)
             );
-            // Actualizar contador de notificaciones no leídas
-            long count = notificacionRepository.countByUsuarioIdAndLeidaFalse(usuario.getId());
-            webSocketNotificationService.enviarContadorNotificaciones(usuario.getId(), count);
         } catch (Exception e) {
             log.warn("Error al enviar notificación por WebSocket: {}", e.getMessage());
             // No fallar si WebSocket no está disponible
         }
+        // Actualizar contador de notificaciones no leídas
+        ajustarContador(usuario.getId(), 1);
         
         return NotificacionDTO.fromEntity(notificacion);
     }
 
+    /**
+     * Crea varias notificaciones en bloque.
+     *
+     * <p>Pensado para tareas programadas y envíos masivos:</p>
+     * <ul>
+     *   <li>Los usuarios se validan con una sola consulta IN, sin cargar las entidades.</li>
+     *   <li>Las filas se insertan con JDBC batch en lotes de {@value #LOTE_INSERCION}.</li>
+     *   <li>Cada notificación se envía por WebSocket, pero el contador de no leídas se ajusta
+     *       en memoria y se envía una única vez por usuario.</li>
+     * </ul>
+     *
+     * @param dtos Notificaciones a crear
+     * @return Notificaciones creadas, en el mismo orden
+     * @throws RuntimeException si algún usuario no existe (no se crea ninguna)
+     */
+    @SuppressWarnings("null") // Los valores de los DTOs son validados antes de usar
+    public List<NotificacionDTO> createAll(@NonNull List<NotificacionCreateDTO> dtos) {
+        if (dtos.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> usuarioIds = dtos.stream()
+            .map(NotificacionCreateDTO::getUsuarioId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> existentes = new HashSet<>(usuarioRepository.findIdsExistentes(usuarioIds));
+        for (Long usuarioId : usuarioIds) {
+            if (!existentes.contains(usuarioId)) {
+                throw new RuntimeException("Usuario no encontrado con ID: " + usuarioId);
+            }
+        }
+
+        LocalDateTime fechaCreacion = LocalDateTime.now();
+        List<NotificacionDTO> creadas = new ArrayList<>(dtos.size());
+        for (int desde = 0; desde < dtos.size(); desde += LOTE_INSERCION) {
+            List<NotificacionCreateDTO> lote = dtos.subList(desde, Math.min(desde + LOTE_INSERCION, dtos.size()));
+            List<Long> ids = insertarLote(lote, fechaCreacion);
+            for (int i = 0; i < lote.size(); i++) {
+                NotificacionCreateDTO dto = lote.get(i);
+                creadas.add(NotificacionDTO.builder()
+                    .id(ids.get(i))
+                    .usuarioId(dto.getUsuarioId())
+                    .titulo(dto.getTitulo())
+                    .mensaje(dto.getMensaje())
+                    .tipo(dto.getTipo())
+                    .leida(false)
+                    .fechaCreacion(fechaCreacion)
+                    .entidadTipo(dto.getEntidadTipo())
+                    .entidadId(dto.getEntidadId())
+                    .build());
+            }
+        }
+        log.info("{} notificaciones creadas en bloque para {} usuarios", creadas.size(), usuarioIds.size());
+
+        try {
+            for (NotificacionDTO creada : creadas) {
+                webSocketNotificationService.enviarNotificacionAUsuario(creada.getUsuarioId(), aWebSocket(creada));
+            }
+        } catch (Exception e) {
+            log.warn("Error al enviar notificaciones por WebSocket: {}", e.getMessage());
+        }
+        Map<Long, Long> nuevasPorUsuario = creadas.stream()
+            .collect(Collectors.groupingBy(NotificacionDTO::getUsuarioId, LinkedHashMap::new, Collectors.counting()));
+        nuevasPorUsuario.forEach(this::ajustarContador);
+        return creadas;
+    }
+
+    /**
+     * Envía la misma notificación a varios usuarios con {@link #createAll(List)}.
+     *
+     * @param usuarioIds IDs de los usuarios destinatarios (deben existir)
+     * @param titulo Título de la notificación
+     * @param mensaje Mensaje de la notificación
+     * @param tipo Tipo de notificación
+     * @param entidadTipo Tipo de la entidad relacionada (opcional)
+     * @param entidadId ID de la entidad relacionada (opcional)
+     * @return Número de notificaciones creadas
+     */
+    public int difundir(@NonNull Collection<Long> usuarioIds, @NonNull String titulo, @NonNull String mensaje,
+                        @NonNull Notificacion.Tipo tipo, String entidadTipo, Long entidadId) {
+        List<NotificacionCreateDTO> dtos = new LinkedHashSet<>(usuarioIds).stream()
+            .map(usuarioId -> NotificacionCreateDTO.builder()
+                .usuarioId(usuarioId)
+                .titulo(titulo)
+                .mensaje(mensaje)
+                .tipo(tipo)
+                .entidadTipo(entidadTipo)
+                .entidadId(entidadId)
+                .build())
+            .toList();
+        return createAll(dtos).size();
+    }
+
     /**
      * Marca una notificación como leída
      */
@@ -111,16 +293,15 @@ public class NotificacionService {
         log.info("Marcando notificación ID: {} como leída para usuario ID: {}", id, usuarioId);
         int updated = notificacionRepository.marcarComoLeida(id, usuarioId);
         if (updated == 0) {
-            throw new RuntimeException("Notificación no encontrada o no pertenece al usuario");
+            // Ya estaba leída (el contador no cambia) o no existe
+            if (!notificacionRepository.existsByIdAndUsuarioId(id, usuarioId)) {
+                throw new RuntimeException("Notificación no encontrada o no pertenece al usuario");
+            }
+            return;
         }
         
-        // Actualizar contador de notificaciones no leídas por WebSocket
-        try {
-            long count = notificacionRepository.countByUsuarioIdAndLeidaFalse(usuarioId);
-            webSocketNotificationService.enviarContadorNotificaciones(usuarioId, count);
-        } catch (Exception e) {
-            log.warn("Error al actualizar contador por WebSocket: {}", e.getMessage());
-        }
+        // Actualizar contador de notificaciones no leídas
+        ajustarContador(usuarioId, -1);
     }
 
     /**
@@ -130,12 +311,9 @@ public class NotificacionService {
         log.info("Marcando todas las notificaciones como leídas para usuario ID: {}", usuarioId);
         notificacionRepository.marcarTodasComoLeidas(usuarioId);
         
-        // Actualizar contador de notificaciones no leídas por WebSocket
-        try {
-            webSocketNotificationService.enviarContadorNotificaciones(usuarioId, 0L);
-        } catch (Exception e) {
-            log.warn("Error al actualizar contador por WebSocket: {}", e.getMessage());
-        }
+        // Actualizar contador de notificaciones no leídas
+        contadorNotificacionesService.reiniciar(usuarioId);
+        enviarContador(usuarioId, 0L);
     }
 
     /**
@@ -151,6 +329,9 @@ public class NotificacionService {
         }
         
         notificacionRepository.delete(notificacion);
+        if (!Boolean.TRUE.equals(notificacion.getLeida())) {
+            ajustarContador(usuarioId, -1);
+        }
     }
 
     /**
@@ -173,5 +354,76 @@ public class NotificacionService {
             // No lanzar excepción para no interrumpir el flujo principal
         }
     }
-}
 
+    /**
+     * Inserta un lote con una sola sentencia batch y devuelve los IDs generados en orden.
+     */
+    private List<Long> insertarLote(List<NotificacionCreateDTO> lote, LocalDateTime fechaCreacion) {
+        Timestamp fecha = Timestamp.valueOf(fechaCreacion);
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    NotificacionCreateDTO dto = lote.get(i);
+                    ps.setLong(1, dto.getUsuarioId());
+                    ps.setString(2, dto.getTitulo());
+                    ps.setString(3, dto.getMensaje());
+                    ps.setString(4, dto.getTipo().name());
+                    ps.setTimestamp(5, fecha);
+                    ps.setString(6, dto.getEntidadTipo());
+                    if (dto.getEntidadId() != null) {
+                        ps.setLong(7, dto.getEntidadId());
+                    } else {
+                        ps.setNull(7, Types.BIGINT);
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return lote.size();
+                }
+            },
+            claves);
+
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (Map<String, Object> fila : claves.getKeyList()) {
+            Object id = fila.containsKey("id") ? fila.get("id") : fila.get("ID");
+            ids.add(id instanceof Number n ? n.longValue() : null);
+        }
+        while (ids.size() < lote.size()) {
+            ids.add(null);
+        }
+        return ids;
+    }
+
+    /**
+     * Ajusta el contador en memoria y envía el nuevo valor por WebSocket.
+     */
+    private void ajustarContador(Long usuarioId, long delta) {
+        enviarContador(usuarioId, contadorNotificacionesService.sumar(usuarioId, delta));
+    }
+
+    private void enviarContador(Long usuarioId, long count) {
+        try {
+            webSocketNotificationService.enviarContadorNotificaciones(usuarioId, count);
+        } catch (Exception e) {
+            log.warn("Error al actualizar contador por WebSocket: {}", e.getMessage());
+        }
+    }
+
+    private static NotificacionWebSocketDTO aWebSocket(NotificacionDTO dto) {
+        return NotificacionWebSocketDTO.builder()
+            .id(dto.getId())
+            .titulo(dto.getTitulo())
+            .mensaje(dto.getMensaje())
+            .tipo(dto.getTipo())
+            .leida(dto.getLeida())
+            .fechaCreacion(dto.getFechaCreacion())
+            .entidadTipo(dto.getEntidadTipo())
+            .entidadId(dto.getEntidadId())
+            .usuarioId(dto.getUsuarioId())
+            .build();
+    }
+}
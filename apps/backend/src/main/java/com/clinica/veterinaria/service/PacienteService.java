@@ -1,5 +1,6 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.PacienteDTO;
 import com.clinica.veterinaria.entity.Paciente;
 import com.clinica.veterinaria.entity.Propietario;
@@ -72,6 +73,8 @@ public class PacienteService {
     private final PacienteRepository pacienteRepository;
     private final PropietarioRepository propietarioRepository;
     private final IAuditLogger auditLogger;
+    private final MetricaDiariaService metricaDiariaService;
+    private final HistorialMedicoCacheService historialMedicoCacheService;
 
     /**
      * Obtiene todos los pacientes registrados en el sistema.
@@ -280,6 +283,7 @@ public class PacienteService {
             .build();
 
         paciente = pacienteRepository.save(paciente);
+        metricaDiariaService.registrarPacienteActivo(paciente.getEspecie(), 1);
         log.info("✓ Paciente creado exitosamente con ID: {} | Nombre: {} | Propietario: {}", 
                 paciente.getId(), paciente.getNombre(), propietario.getNombre());
         
@@ -338,6 +342,7 @@ public class PacienteService {
             });
 
         // Capturar datos antiguos para auditoría
+        String especieAnterior = paciente.getEspecie();
         String oldData = String.format("Nombre: %s, Especie: %s, Peso: %.2fkg", 
             paciente.getNombre(), paciente.getEspecie(), paciente.getPesoKg());
 
@@ -376,6 +381,12 @@ public class PacienteService {
         paciente.setNotas(dto.getNotas());
 
         paciente = pacienteRepository.save(paciente);
+        if (Boolean.TRUE.equals(paciente.getActivo())) {
+            metricaDiariaService.registrarPacienteActivo(especieAnterior, -1);
+            metricaDiariaService.registrarPacienteActivo(paciente.getEspecie(), 1);
+        }
+        // El historial médico muestra el nombre del paciente
+        historialMedicoCacheService.invalidar(id);
         
         String newData = String.format("Nombre: %s, Especie: %s, Peso: %.2fkg", 
             paciente.getNombre(), paciente.getEspecie(), paciente.getPesoKg());
@@ -428,8 +439,12 @@ public class PacienteService {
         String pacienteInfo = String.format("%s (Especie: %s, Propietario: %s)", 
             paciente.getNombre(), paciente.getEspecie(), paciente.getPropietario().getNombre());
         
+        boolean estabaActivo = Boolean.TRUE.equals(paciente.getActivo());
         paciente.setActivo(false);
         pacienteRepository.save(paciente);
+        if (estabaActivo) {
+            metricaDiariaService.registrarPacienteActivo(paciente.getEspecie(), -1);
+        }
         
         log.warn("⚠ Paciente desactivado: {}", pacienteInfo);
         
@@ -534,5 +549,42 @@ public class PacienteService {
         
         return pacientes.map(p -> PacienteDTO.fromEntity(p, true));
     }
+
+    /**
+     * Busca pacientes con filtros y paginación por cursor (keyset).
+     * 
+     * <p>Cada página se pide a partir del último paciente de la anterior ({@code after}), sin
+     * {@code OFFSET}, en orden de registro {@code (createdAt DESC, id DESC)}. El {@code COUNT(*)}
+     * solo se ejecuta si se pide el total.</p>
+     * 
+     * @param nombre Nombre o parte del nombre a buscar (opcional)
+     * @param especie Especie a filtrar (opcional)
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (1..{@value CursorPaginacion#TAMANO_MAXIMO})
+     * @param incluirTotal Si es true, calcula también el total de pacientes que cumplen los filtros
+     * @return Página de pacientes con el cursor de la siguiente
+     * @throws InvalidDataException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PacienteDTO> searchWithCursor(
+            String nombre, String especie, String after, int size, boolean incluirTotal) {
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        String filtroNombre = nombre != null && !nombre.trim().isEmpty() ? nombre.trim() : null;
+        String filtroEspecie = especie != null && !especie.trim().isEmpty() ? especie.trim() : null;
+        log.debug("Buscando pacientes por cursor - nombre: {}, especie: {}, cursor: {}", 
+            filtroNombre, filtroEspecie, cursor);
+        
+        List<Paciente> pacientes = pacienteRepository.findPaginaPorCursor(
+            filtroNombre, filtroEspecie,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+        Long total = incluirTotal ? pacienteRepository.countConFiltros(filtroNombre, filtroEspecie) : null;
+        
+        return CursorPaginacion.pagina(pacientes, size,
+            p -> new CursorPaginacion(p.getCreatedAt(), p.getId()),
+            p -> PacienteDTO.fromEntity(p, true),
+            total);
+    }
 }
 
@@ -8,6 +8,8 @@ import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.repository.PasswordResetTokenRepository;
 import com.clinica.veterinaria.repository.PropietarioRepository;
 import com.clinica.veterinaria.repository.UsuarioRepository;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
+import com.clinica.veterinaria.security.LimitadorIntentos;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -58,6 +60,8 @@ public class PasswordResetService {
     private final PropietarioRepository propietarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final CacheAutenticacionJwt cacheAutenticacionJwt;
+    private final LimitadorIntentos limitadorIntentos;
 
     @Value("${app.password-reset.expiration-hours:24}")
     private int expirationHours;
@@ -76,6 +80,7 @@ public class PasswordResetService {
      */
     public boolean solicitarRecuperacionUsuario(@NonNull String email) {
         log.info("→ Solicitud de recuperación de contraseña para usuario: {}", email);
+        limitadorIntentos.verificarEmail(LimitadorIntentos.Familia.RECUPERACION, email);
         
         // Buscar usuario por email
         Usuario usuario = usuarioRepository.findByEmail(email).orElse(null);
@@ -144,6 +149,7 @@ public class PasswordResetService {
      */
     public boolean solicitarRecuperacionPropietario(@NonNull String email) {
         log.info("→ Solicitud de recuperación de contraseña para propietario: {}", email);
+        limitadorIntentos.verificarEmail(LimitadorIntentos.Familia.RECUPERACION, email);
         
         // Buscar propietario por email
         Propietario propietario = propietarioRepository.findByEmail(email).orElse(null);
@@ -247,6 +253,7 @@ public class PasswordResetService {
 
             usuario.setPassword(passwordEncoder.encode(newPassword));
             usuarioRepository.save(usuario);
+            cacheAutenticacionJwt.invalidarUsuario(usuario.getEmail());
             log.info("✓ Contraseña reseteada exitosamente para usuario: {}", resetToken.getEmail());
         } else if ("PROPIETARIO".equals(resetToken.getUserType())) {
             Propietario propietario = propietarioRepository.findByEmail(resetToken.getEmail())
@@ -257,6 +264,7 @@ public class PasswordResetService {
 
             propietario.setPassword(passwordEncoder.encode(newPassword));
             propietarioRepository.save(propietario);
+            cacheAutenticacionJwt.invalidarUsuario(propietario.getEmail());
             log.info("✓ Contraseña reseteada exitosamente para propietario: {}", resetToken.getEmail());
         } else {
             log.error("✗ Tipo de usuario inválido en token: {}", resetToken.getUserType());
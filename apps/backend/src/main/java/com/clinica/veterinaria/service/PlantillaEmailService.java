@@ -0,0 +1,105 @@
+package com.clinica.veterinaria.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Servicio de renderizado de las plantillas de email ({@code templates/email/}).
+ *
+ * <p>Usa un motor Thymeleaf propio, independiente del configurado con
+ * {@code spring.thymeleaf.*} (que tiene la caché desactivada para desarrollo):</p>
+ * <ul>
+ *   <li>Cada plantilla se lee y parsea una sola vez y su árbol queda en la caché del motor;
+ *       los envíos siguientes solo evalúan las expresiones.</li>
+ *   <li>Las expresiones se compilan a bytecode con el compilador de SpEL en lugar de
+ *       interpretarse en cada evaluación.</li>
+ *   <li>Las variables compartidas por todas las plantillas (nombre de la clínica, URL del logo
+ *       y URL base) se calculan al iniciar y no en cada mensaje.</li>
+ * </ul>
+ *
+ * <p>La caché puede desactivarse con {@code app.mail.plantillas.cache=false} para editar
+ * plantillas sin reiniciar.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see EmailService
+ */
+@Service
+@Slf4j
+public class PlantillaEmailService {
+
+    static final String CLINICA_NOMBRE = "Clínica Veterinaria Universitaria Humboldt";
+    private static final Locale LOCALE = new Locale("es", "ES");
+
+    @Value("${app.mail.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${app.mail.logo.url:}")
+    private String logoUrl;
+
+    @Value("${app.mail.plantillas.cache:true}")
+    private boolean cache;
+
+    private SpringTemplateEngine motor;
+    private Map<String, Object> variablesComunes;
+
+    @PostConstruct
+    void iniciar() {
+        motor = crearMotor(cache);
+
+        String finalLogoUrl = logoUrl != null && !logoUrl.isEmpty()
+            ? logoUrl
+            : (baseUrl != null && !baseUrl.isEmpty() ? baseUrl + "/images/logo-clinica.webp" : "");
+        Map<String, Object> comunes = new HashMap<>();
+        comunes.put("clinicaNombre", CLINICA_NOMBRE);
+        comunes.put("logoUrl", finalLogoUrl);
+        comunes.put("baseUrl", baseUrl);
+        variablesComunes = comunes;
+
+        log.info("✓ Plantillas de email listas (caché: {})", cache);
+    }
+
+    /**
+     * Renderiza una plantilla de email con sus variables y las comunes de la clínica.
+     *
+     * @param plantilla Nombre de la plantilla en {@code templates/email/}, sin extensión
+     * @param variables Variables propias del mensaje
+     * @return HTML del email
+     */
+    public String renderizar(String plantilla, Map<String, Object> variables) {
+        Context context = new Context(LOCALE, variablesComunes);
+        context.setVariables(variables);
+        return motor.process(plantilla, context);
+    }
+
+    /**
+     * Crea el motor Thymeleaf de las plantillas de email.
+     *
+     * @param cache true para parsear cada plantilla una sola vez
+     * @return Motor configurado
+     */
+    static SpringTemplateEngine crearMotor(boolean cache) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cache);
+
+        SpringTemplateEngine motor = new SpringTemplateEngine();
+        motor.setTemplateResolver(resolver);
+        motor.setEnableSpringELCompiler(true);
+        return motor;
+    }
+}
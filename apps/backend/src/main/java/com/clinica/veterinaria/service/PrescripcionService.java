@@ -1,9 +1,11 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.PrescripcionDTO;
 import com.clinica.veterinaria.entity.Consulta;
 import com.clinica.veterinaria.entity.ItemPrescripcion;
 import com.clinica.veterinaria.entity.Prescripcion;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
 import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.repository.ConsultaRepository;
 import com.clinica.veterinaria.repository.PrescripcionRepository;
@@ -56,6 +58,8 @@ public class PrescripcionService {
 
     private final PrescripcionRepository prescripcionRepository;
     private final ConsultaRepository consultaRepository;
+    private final MetricaDiariaService metricaDiariaService;
+    private final HistorialMedicoCacheService historialMedicoCacheService;
 
     /**
      * Obtiene todas las prescripciones registradas en el sistema.
@@ -167,6 +171,8 @@ public class PrescripcionService {
         }
         log.info("✓ Prescripción creada exitosamente con ID: {} | {} items", 
                 prescripcion.getId(), prescripcion.getItems().size());
+        metricaDiariaService.registrarPrescripcion(prescripcion.getFechaEmision(), 1);
+        historialMedicoCacheService.invalidar(pacienteIdDe(prescripcion));
         
         return PrescripcionDTO.fromEntity(prescripcion, true);
     }
@@ -192,6 +198,8 @@ public class PrescripcionService {
                 return new ResourceNotFoundException("Prescripción", "id", id);
             });
 
+        LocalDateTime fechaEmisionAnterior = prescripcion.getFechaEmision();
+
         // Actualizar campos básicos
         prescripcion.setFechaEmision(dto.getFechaEmision());
         prescripcion.setIndicacionesGenerales(dto.getIndicacionesGenerales());
@@ -217,6 +225,9 @@ public class PrescripcionService {
 
         prescripcion = prescripcionRepository.save(prescripcion);
         log.info("✓ Prescripción actualizada exitosamente con ID: {}", prescripcion.getId());
+        metricaDiariaService.registrarPrescripcion(fechaEmisionAnterior, -1);
+        metricaDiariaService.registrarPrescripcion(prescripcion.getFechaEmision(), 1);
+        historialMedicoCacheService.invalidar(pacienteIdDe(prescripcion));
         
         return PrescripcionDTO.fromEntity(prescripcion, true);
     }
@@ -239,6 +250,8 @@ public class PrescripcionService {
             });
         
         prescripcionRepository.delete(prescripcion);
+        metricaDiariaService.registrarPrescripcion(prescripcion.getFechaEmision(), -1);
+        historialMedicoCacheService.invalidar(pacienteIdDe(prescripcion));
         log.warn("⚠ Prescripción eliminada exitosamente con ID: {}", id);
     }
     
@@ -289,5 +302,61 @@ public class PrescripcionService {
         
         return prescripciones.map(p -> PrescripcionDTO.fromEntity(p, true));
     }
-}
 
+    /**
+     * Busca prescripciones con filtros combinados y paginación por cursor (keyset).
+     * 
+     * <p>Cada página se pide a partir de la última prescripción de la anterior ({@code after}),
+     * sin {@code OFFSET}, en orden {@code (fechaEmision DESC, id DESC)}. Los items de la página
+     * se cargan en un segundo query por IDs. El {@code COUNT(*)} solo se ejecuta si se pide
+     * el total.</p>
+     * 
+     * @param pacienteId Filtro opcional por ID de paciente
+     * @param consultaId Filtro opcional por ID de consulta
+     * @param fechaInicio Filtro opcional por fecha inicial (inclusivo)
+     * @param fechaFin Filtro opcional por fecha final (inclusivo)
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (1..{@value CursorPaginacion#TAMANO_MAXIMO})
+     * @param incluirTotal Si es true, calcula también el total de prescripciones que cumplen los filtros
+     * @return Página de prescripciones con el cursor de la siguiente
+     * @throws InvalidDataException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PrescripcionDTO> searchWithCursor(
+            Long pacienteId,
+            Long consultaId,
+            LocalDateTime fechaInicio,
+            LocalDateTime fechaFin,
+            String after,
+            int size,
+            boolean incluirTotal) {
+        
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        log.debug("Buscando prescripciones por cursor - paciente: {}, consulta: {}, fechas: {} - {}, cursor: {}", 
+            pacienteId, consultaId, fechaInicio, fechaFin, cursor);
+        
+        List<Prescripcion> prescripciones = prescripcionRepository.findPaginaPorCursor(
+            pacienteId, consultaId, fechaInicio, fechaFin,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+        if (!prescripciones.isEmpty()) {
+            // Inicializa los items de toda la página en un solo query (quedan en el contexto de persistencia)
+            prescripcionRepository.findConItemsByIdIn(
+                prescripciones.stream().map(Prescripcion::getId).toList());
+        }
+        Long total = incluirTotal
+            ? prescripcionRepository.countConFiltros(pacienteId, consultaId, fechaInicio, fechaFin)
+            : null;
+        
+        return CursorPaginacion.pagina(prescripciones, size,
+            p -> new CursorPaginacion(p.getFechaEmision(), p.getId()),
+            p -> PrescripcionDTO.fromEntity(p, true),
+            total);
+    }
+
+    private static Long pacienteIdDe(Prescripcion prescripcion) {
+        Consulta consulta = prescripcion.getConsulta();
+        return consulta != null && consulta.getPaciente() != null ? consulta.getPaciente().getId() : null;
+    }
+}
@@ -1,10 +1,13 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.PropietarioDTO;
 import com.clinica.veterinaria.entity.Propietario;
 import com.clinica.veterinaria.exception.domain.DuplicateResourceException;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
 import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.repository.PropietarioRepository;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -64,6 +68,7 @@ public class PropietarioService {
     private final PropietarioRepository propietarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final CacheAutenticacionJwt cacheAutenticacionJwt;
 
     /**
      * Obtiene todos los propietarios registrados.
@@ -266,6 +271,11 @@ public class PropietarioService {
             }
         }
 
+        if (!Objects.equals(propietario.getEmail(), dto.getEmail())) {
+            // Los tokens emitidos con el email anterior dejan de ser válidos
+            cacheAutenticacionJwt.invalidarUsuario(propietario.getEmail());
+        }
+
         propietario.setNombre(dto.getNombre());
         propietario.setDocumento(dto.getDocumento());
         propietario.setEmail(dto.getEmail());
@@ -284,7 +294,8 @@ public class PropietarioService {
      * <p>Los propietarios no se eliminan físicamente para preservar la relación
      * con sus mascotas y el historial asociado.</p>
      * 
-     * <p><strong>CACHE:</strong> Invalida el caché de propietarios.</p>
+     * <p><strong>CACHE:</strong> Invalida el caché de propietarios y los tokens JWT del
+     * propietario en caché.</p>
      * 
      * @param id ID del propietario a desactivar. No puede ser null.
      * @throws ResourceNotFoundException si el propietario no existe.
@@ -301,6 +312,7 @@ public class PropietarioService {
         
         propietario.setActivo(false);
         propietarioRepository.save(propietario);
+        cacheAutenticacionJwt.invalidarUsuario(propietario.getEmail());
         
         log.warn("⚠ Propietario desactivado con ID: {}", id);
     }
@@ -344,6 +356,7 @@ public class PropietarioService {
         // Establecer la contraseña
         propietario.setPassword(passwordEncoder.encode(password));
         propietarioRepository.save(propietario);
+        cacheAutenticacionJwt.invalidarUsuario(propietario.getEmail());
         
         log.info("✓ Contraseña establecida exitosamente para propietario - Email: {}", email);
         
@@ -493,6 +506,57 @@ public class PropietarioService {
         
         return propietarios.map(PropietarioDTO::fromEntity);
     }
+
+    /**
+     * Busca propietarios con filtros y paginación por cursor (keyset).
+     * 
+     * <p>A diferencia de {@link #searchWithFilters}, los filtros indicados se combinan con AND.
+     * Cada página se pide a partir del último propietario de la anterior ({@code after}), sin
+     * {@code OFFSET}, en orden de registro {@code (createdAt DESC, id DESC)}. El {@code COUNT(*)}
+     * solo se ejecuta si se pide el total.</p>
+     * 
+     * @param nombre Nombre o parte del nombre (opcional)
+     * @param documento Documento o parte del documento (opcional)
+     * @param telefono Teléfono o parte del teléfono (opcional)
+     * @param email Email o parte del email (opcional)
+     * @param after Cursor opaco de la página anterior (null para la primera)
+     * @param size Tamaño de página (1..{@value CursorPaginacion#TAMANO_MAXIMO})
+     * @param incluirTotal Si es true, calcula también el total de propietarios que cumplen los filtros
+     * @return Página de propietarios con el cursor de la siguiente
+     * @throws InvalidDataException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PropietarioDTO> searchWithCursor(
+            String nombre,
+            String documento,
+            String telefono,
+            String email,
+            String after,
+            int size,
+            boolean incluirTotal) {
+        
+        CursorPaginacion cursor = CursorPaginacion.decodificar(after);
+        CursorPaginacion.validarTamano(size);
+        String filtroNombre = isNotEmpty(nombre) ? nombre.trim() : null;
+        String filtroDocumento = isNotEmpty(documento) ? documento.trim() : null;
+        String filtroTelefono = isNotEmpty(telefono) ? telefono.trim() : null;
+        String filtroEmail = isNotEmpty(email) ? email.trim() : null;
+        log.debug("Buscando propietarios por cursor - nombre: {}, documento: {}, telefono: {}, email: {}, cursor: {}", 
+            filtroNombre, filtroDocumento, filtroTelefono, filtroEmail, cursor);
+        
+        List<Propietario> propietarios = propietarioRepository.findPaginaPorCursor(
+            filtroNombre, filtroDocumento, filtroTelefono, filtroEmail,
+            cursor != null ? cursor.fecha() : null, cursor != null ? cursor.id() : null,
+            CursorPaginacion.limite(size));
+        Long total = incluirTotal
+            ? propietarioRepository.countConFiltros(filtroNombre, filtroDocumento, filtroTelefono, filtroEmail)
+            : null;
+        
+        return CursorPaginacion.pagina(propietarios, size,
+            p -> new CursorPaginacion(p.getCreatedAt(), p.getId()),
+            PropietarioDTO::fromEntity,
+            total);
+    }
     
     /**
      * Método helper para validar strings no vacíos.
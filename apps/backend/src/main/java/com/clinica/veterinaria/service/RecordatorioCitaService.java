@@ -0,0 +1,351 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.NotificacionCreateDTO;
+import com.clinica.veterinaria.entity.Cita.EstadoCita;
+import com.clinica.veterinaria.entity.Notificacion;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.CitaRecordatorioPendienteView;
+import com.clinica.veterinaria.repository.CitaRepository.CitaRecordatorioView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de recordatorios de citas (24 horas y 1 hora antes) basado en una
+ * {@link RuedaTemporal}.
+ *
+ * <p>En lugar de consultar cada hora las citas de una ventana de tiempo, cada recordatorio se
+ * programa en la rueda para el instante exacto en que debe enviarse:</p>
+ * <ul>
+ *   <li>Al iniciar la aplicación, y después cada 5 minutos, se programan las citas activas de
+ *       las próximas 24 horas (más un margen) a las que aún les falta algún recordatorio. Así
+ *       cada instancia conoce también las citas creadas o movidas en otras instancias.</li>
+ *   <li>{@link CitaService} avisa tras el commit de cada alta, modificación, cambio de estado o
+ *       eliminación, y los recordatorios se reprograman o cancelan sin esperar a la siguiente
+ *       sincronización.</li>
+ *   <li>Cada segundo se avanza la rueda; solo se consulta la base de datos para las citas cuyos
+ *       recordatorios acaban de vencer, y se descartan si la cita cambió entretanto.</li>
+ * </ul>
+ *
+ * <p>Cada recordatorio se reclama en la base de datos antes de enviarse, guardando en la cita la
+ * fecha para la que se envió ({@code recordatorio_24h_para}, {@code recordatorio_1h_para}) con
+ * una actualización condicional. Con varias instancias programando la misma cita, solo una
+ * consigue la reclamación, y un reinicio no repite los ya enviados. Si una cita se crea o se
+ * mueve (o la aplicación arranca) cuando ya pasó el momento del recordatorio de 1 hora pero no
+ * la cita, este se envía de inmediato.</p>
+ *
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ * @see RuedaTemporal
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecordatorioCitaService {
+
+    /** Antelaciones de los recordatorios en horas, de mayor a menor. */
+    static final int[] ANTELACIONES_HORAS = {24, 1};
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long SINCRONIZACION_MILLIS = 5 * 60 * 1000;
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final CitaRepository citaRepository;
+    private final NotificacionService notificacionService;
+    private final PlatformTransactionManager transactionManager;
+
+    private final RuedaTemporal<ClaveRecordatorio, Recordatorio> rueda =
+        new RuedaTemporal<>(TICK_MILLIS, System.currentTimeMillis());
+
+    /**
+     * Programa los recordatorios pendientes de las próximas citas al iniciar la aplicación.
+     *
+     * <p>El recordatorio de 1 hora que venció durante el reinicio se envía si la cita aún no
+     * empezó; los ya reclamados no se repiten.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        try {
+            int citas = sincronizarPendientes();
+            log.info("✓ Recordatorios de citas programados: {} ({} citas)", rueda.size(), citas);
+        } catch (Exception e) {
+            log.warn("⚠ No se pudieron precargar los recordatorios de citas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Programa los recordatorios pendientes de las próximas citas, incluidas las creadas o
+     * movidas en otras instancias.
+     */
+    @Scheduled(fixedDelay = SINCRONIZACION_MILLIS, initialDelay = SINCRONIZACION_MILLIS)
+    public void sincronizar() {
+        try {
+            int citas = sincronizarPendientes();
+            log.debug("→ Recordatorios de citas sincronizados: {} citas, {} en la rueda", citas, rueda.size());
+        } catch (Exception e) {
+            log.warn("⚠ No se pudieron sincronizar los recordatorios de citas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reprograma los recordatorios de una cita tras confirmarse la transacción actual.
+     *
+     * <p>Si la cita no está PENDIENTE ni CONFIRMADA, se cancelan.</p>
+     *
+     * @param citaId ID de la cita
+     * @param fecha Fecha y hora de la cita
+     * @param estado Estado de la cita
+     */
+    public void programar(Long citaId, LocalDateTime fecha, EstadoCita estado) {
+        if (!esActiva(estado) || fecha == null) {
+            cancelar(citaId);
+            return;
+        }
+        alConfirmar(() -> programarRecordatorios(citaId, fecha, true));
+    }
+
+    /**
+     * Cancela los recordatorios de una cita tras confirmarse la transacción actual.
+     *
+     * @param citaId ID de la cita
+     */
+    public void cancelar(Long citaId) {
+        alConfirmar(() -> {
+            for (int horas : ANTELACIONES_HORAS) {
+                rueda.cancelar(new ClaveRecordatorio(citaId, horas));
+            }
+        });
+    }
+
+    /**
+     * Avanza la rueda y envía los recordatorios vencidos.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        avanzar(System.currentTimeMillis());
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y envía los recordatorios vencidos.
+     *
+     * @param ahoraMillis Instante actual (epoch millis)
+     * @return Número de recordatorios enviados
+     */
+    int avanzar(long ahoraMillis) {
+        List<Recordatorio> vencidos = rueda.avanzar(ahoraMillis);
+        if (vencidos.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, CitaRecordatorioView> citas;
+        try {
+            citas = citaRepository.findDatosRecordatorio(
+                    vencidos.stream().map(Recordatorio::citaId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CitaRecordatorioView::getId, Function.identity()));
+        } catch (Exception e) {
+            log.error("✗ Error al cargar las citas de {} recordatorios: {}", vencidos.size(), e.getMessage(), e);
+            return 0;
+        }
+
+        List<Recordatorio> vigentes = new ArrayList<>();
+        for (Recordatorio recordatorio : vencidos) {
+            CitaRecordatorioView cita = citas.get(recordatorio.citaId());
+            if (cita != null && esActiva(cita.getEstado()) && cita.getProfesionalId() != null
+                && mismaFecha(cita.getFecha(), recordatorio.fechaCita())) {
+                vigentes.add(recordatorio);
+            }
+        }
+        if (vigentes.isEmpty()) {
+            return 0;
+        }
+
+        // Se reclaman con la fecha leída de la base de datos: solo una instancia envía cada uno
+        List<NotificacionCreateDTO> notificaciones;
+        try {
+            TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+            notificaciones = transaccion.execute(status -> vigentes.stream()
+                .filter(r -> reclamar(r.citaId(), r.horas(), citas.get(r.citaId()).getFecha()))
+                .map(r -> crearNotificacion(citas.get(r.citaId()), r.horas()))
+                .toList());
+        } catch (Exception e) {
+            log.error("✗ Error al reclamar {} recordatorios de citas: {}", vigentes.size(), e.getMessage(), e);
+            return 0;
+        }
+
+        int enviadosAhora = enviar(notificaciones);
+        log.debug("→ Recordatorios de citas: {} vencidos, {} enviados", vencidos.size(), enviadosAhora);
+        return enviadosAhora;
+    }
+
+    /**
+     * Número de recordatorios pendientes en la rueda.
+     */
+    int pendientes() {
+        return rueda.size();
+    }
+
+    /**
+     * Programa los recordatorios aún no reclamados de las citas activas cuyo recordatorio de 24
+     * horas cae antes de la siguiente sincronización (con margen de una sincronización más).
+     *
+     * @return Número de citas con recordatorios pendientes
+     */
+    int sincronizarPendientes() {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime hasta = ahora.plusHours(ANTELACIONES_HORAS[0])
+            .plus(2 * SINCRONIZACION_MILLIS, ChronoUnit.MILLIS);
+        List<CitaRecordatorioPendienteView> citas = citaRepository.findConRecordatoriosPendientes(ahora, hasta);
+        for (CitaRecordatorioPendienteView cita : citas) {
+            programarRecordatorios(cita.getId(), cita.getFecha(), true,
+                horas -> mismaFecha(horas == 1 ? cita.getRecordatorio1hPara() : cita.getRecordatorio24hPara(),
+                    cita.getFecha()));
+        }
+        return citas.size();
+    }
+
+    private void programarRecordatorios(Long citaId, LocalDateTime fecha, boolean enviarAtrasado) {
+        programarRecordatorios(citaId, fecha, enviarAtrasado, horas -> false);
+    }
+
+    /**
+     * @param reclamado Indica, por antelación, si el recordatorio ya se reclamó para esta fecha
+     */
+    private void programarRecordatorios(Long citaId, LocalDateTime fecha, boolean enviarAtrasado,
+                                        IntPredicate reclamado) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (int i = 0; i < ANTELACIONES_HORAS.length; i++) {
+            int horas = ANTELACIONES_HORAS[i];
+            ClaveRecordatorio clave = new ClaveRecordatorio(citaId, horas);
+            if (reclamado.test(horas)) {
+                rueda.cancelar(clave);
+                continue;
+            }
+
+            LocalDateTime momento = fecha.minusHours(horas);
+            Recordatorio recordatorio = new Recordatorio(citaId, horas, fecha);
+            if (momento.isAfter(ahora)) {
+                rueda.programar(clave, recordatorio, momento.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            } else if (enviarAtrasado && fecha.isAfter(ahora) && i == ANTELACIONES_HORAS.length - 1) {
+                // Solo el recordatorio más cercano se envía con retraso; el de 24 horas ya no aporta
+                rueda.programar(clave, recordatorio, System.currentTimeMillis());
+            } else {
+                rueda.cancelar(clave);
+            }
+        }
+    }
+
+    /**
+     * Marca en la cita que el recordatorio se envía para la fecha indicada.
+     *
+     * @return {@code true} si esta instancia consiguió la reclamación
+     */
+    private boolean reclamar(Long citaId, int horas, LocalDateTime fecha) {
+        int filas = horas == 1
+            ? citaRepository.reclamarRecordatorio1h(citaId, fecha)
+            : citaRepository.reclamarRecordatorio24h(citaId, fecha);
+        return filas == 1;
+    }
+
+    /**
+     * Crea las notificaciones en bloque; si el lote falla (p. ej. un usuario eliminado), se
+     * crean una a una para no perder el resto.
+     */
+    private int enviar(List<NotificacionCreateDTO> notificaciones) {
+        if (notificaciones.isEmpty()) {
+            return 0;
+        }
+        try {
+            notificacionService.createAll(notificaciones);
+            return notificaciones.size();
+        } catch (Exception e) {
+            log.warn("⚠ Error al crear {} recordatorios en bloque, se reintentan uno a uno: {}",
+                notificaciones.size(), e.getMessage());
+        }
+        int creadas = 0;
+        for (NotificacionCreateDTO dto : notificaciones) {
+            try {
+                notificacionService.create(dto);
+                creadas++;
+            } catch (Exception e) {
+                log.error("✗ Error al enviar recordatorio de cita {}: {}", dto.getEntidadId(), e.getMessage(), e);
+            }
+        }
+        return creadas;
+    }
+
+    private static NotificacionCreateDTO crearNotificacion(CitaRecordatorioView cita, int horas) {
+        String titulo = horas == 1
+            ? "Recordatorio: Cita en 1 hora"
+            : "Recordatorio: Cita en 24 horas";
+
+        String mensaje = String.format(
+            "Tienes una cita programada %s:\n" +
+            "Paciente: %s\n" +
+            "Hora: %s\n" +
+            "Motivo: %s",
+            horas == 1 ? "en 1 hora" : "mañana",
+            cita.getPacienteNombre() != null ? cita.getPacienteNombre() : "N/A",
+            cita.getFecha().format(FORMATO_HORA),
+            cita.getMotivo()
+        );
+
+        return NotificacionCreateDTO.builder()
+            .usuarioId(cita.getProfesionalId())
+            .titulo(titulo)
+            .mensaje(mensaje)
+            .tipo(Notificacion.Tipo.CITA)
+            .entidadTipo("CITA")
+            .entidadId(cita.getId())
+            .build();
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private static boolean esActiva(EstadoCita estado) {
+        return estado == EstadoCita.PENDIENTE || estado == EstadoCita.CONFIRMADA;
+    }
+
+    /**
+     * Compara fechas a nivel de segundo: la base de datos puede truncar las fracciones.
+     */
+    private static boolean mismaFecha(LocalDateTime a, LocalDateTime b) {
+        return a != null && b != null
+            && Objects.equals(a.truncatedTo(ChronoUnit.SECONDS), b.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    record ClaveRecordatorio(Long citaId, int horas) {}
+
+    record Recordatorio(Long citaId, int horas, LocalDateTime fechaCita) {}
+}
@@ -4,18 +4,21 @@ import com.clinica.veterinaria.dto.ReporteDTO;
 import com.clinica.veterinaria.entity.Cita;
 import com.clinica.veterinaria.entity.Usuario;
 import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.ConteoPorMotivo;
 import com.clinica.veterinaria.repository.ConsultaRepository;
-import com.clinica.veterinaria.repository.PacienteRepository;
+import com.clinica.veterinaria.repository.ConsultaRepository.ConteoPorProfesional;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StopWatch;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,6 +30,11 @@ import java.util.stream.Collectors;
  * reportes sobre el funcionamiento de la clínica, incluyendo citas, consultas,
  * pacientes, veterinarios y tendencias.</p>
  * 
+ * <p>Los totales y distribuciones de citas, consultas y pacientes se leen de la tabla
+ * agregada {@code daily_metrics} a través de {@link MetricaDiariaService}. Las atenciones
+ * por veterinario y los motivos de consulta se obtienen con una consulta agrupada cada
+ * una, de modo que el coste de un reporte no crece con el histórico.</p>
+ * 
  * @author Sebastian Ordoñez
  * @version 1.0.0
  * @since 2025-11-06
@@ -39,8 +47,8 @@ public class ReporteService {
 
     private final CitaRepository citaRepository;
     private final ConsultaRepository consultaRepository;
-    private final PacienteRepository pacienteRepository;
     private final UsuarioRepository usuarioRepository;
+    private final MetricaDiariaService metricaDiariaService;
 
     /**
      * Genera un reporte completo con todas las estadísticas.
@@ -54,27 +62,46 @@ public class ReporteService {
         LocalDateTime[] rango = calcularRango(periodo);
         LocalDateTime inicio = rango[0];
         LocalDateTime fin = rango[1];
+        StopWatch cronometro = new StopWatch("reporte-" + periodo);
 
         // Estadísticas generales
-        long totalCitas = citaRepository.count();
-        long totalConsultas = consultaRepository.count();
-        long totalPacientes = pacienteRepository.findByActivo(true).size();
-        long totalVeterinarios = usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true).size();
+        cronometro.start("totales");
+        long totalCitas = metricaDiariaService.contarCitas();
+        long totalConsultas = metricaDiariaService.contarConsultas();
+        long totalPacientes = metricaDiariaService.contarPacientesActivos();
+        List<Usuario> veterinarios = usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true);
+        long totalVeterinarios = veterinarios.size();
+        cronometro.stop();
 
         // Citas por estado
+        cronometro.start("citasPorEstado");
         List<ReporteDTO.CitasPorEstadoDTO> citasPorEstado = getCitasPorEstado();
+        cronometro.stop();
 
         // Tendencia de citas por mes
+        cronometro.start("tendenciaCitas");
         List<ReporteDTO.TendenciaCitasDTO> tendenciaCitas = getTendenciaCitas();
+        cronometro.stop();
 
         // Pacientes por especie
+        cronometro.start("pacientesPorEspecie");
         List<ReporteDTO.PacientesPorEspecieDTO> pacientesPorEspecie = getPacientesPorEspecie();
+        cronometro.stop();
 
         // Atenciones por veterinario
-        List<ReporteDTO.AtencionesPorVeterinarioDTO> atencionesPorVeterinario = getAtencionesPorVeterinario();
+        cronometro.start("atencionesPorVeterinario");
+        List<ReporteDTO.AtencionesPorVeterinarioDTO> atencionesPorVeterinario = getAtencionesPorVeterinario(veterinarios);
+        cronometro.stop();
 
         // Top motivos de consulta
+        cronometro.start("topMotivos");
         List<ReporteDTO.TopMotivoConsultaDTO> topMotivosConsulta = getTopMotivosConsulta(inicio, fin);
+        cronometro.stop();
+
+        log.info("✓ Reporte '{}' generado en {} ms ({})", periodo, cronometro.getTotalTimeMillis(),
+            Arrays.stream(cronometro.getTaskInfo())
+                .map(tarea -> tarea.getTaskName() + "=" + tarea.getTimeMillis() + "ms")
+                .collect(Collectors.joining(", ")));
 
         return ReporteDTO.builder()
             .totalCitas(totalCitas)
@@ -128,11 +155,12 @@ public class ReporteService {
             Cita.EstadoCita.ATENDIDA,
             Cita.EstadoCita.CANCELADA
         );
+        Map<Cita.EstadoCita, Long> citasPorEstado = metricaDiariaService.contarCitasPorEstado();
 
         return estados.stream()
             .map(estado -> ReporteDTO.CitasPorEstadoDTO.builder()
                 .estado(estado.name())
-                .cantidad(citaRepository.countByEstado(estado))
+                .cantidad(citasPorEstado.getOrDefault(estado, 0L))
                 .build())
             .toList();
     }
@@ -146,12 +174,18 @@ public class ReporteService {
 
         DateTimeFormatter mesFormatter = DateTimeFormatter.ofPattern("MMM", Locale.forLanguageTag("es"));
 
+        // Contadores diarios de los 6 meses, agrupados por mes en memoria
+        LocalDate primerDia = hoy.minusMonths(5).withDayOfMonth(1);
+        LocalDate ultimoDia = hoy.withDayOfMonth(hoy.lengthOfMonth());
+        Map<YearMonth, Long> citasPorMes = metricaDiariaService.contarCitasPorDia(primerDia, ultimoDia).entrySet().stream()
+            .collect(Collectors.groupingBy(
+                entry -> YearMonth.from(entry.getKey()),
+                Collectors.summingLong(Map.Entry::getValue)
+            ));
+
         for (int i = 5; i >= 0; i--) {
             LocalDate mes = hoy.minusMonths(i);
-            LocalDateTime inicioMes = mes.withDayOfMonth(1).atStartOfDay();
-            LocalDateTime finMes = mes.withDayOfMonth(mes.lengthOfMonth()).atTime(LocalTime.MAX);
-
-            long cantidad = citaRepository.findByFechaBetween(inicioMes, finMes).size();
+            long cantidad = citasPorMes.getOrDefault(YearMonth.from(mes), 0L);
             
             tendencia.add(ReporteDTO.TendenciaCitasDTO.builder()
                 .mes(mes.format(mesFormatter))
@@ -166,17 +200,16 @@ public class ReporteService {
      * Obtiene la distribución de pacientes por especie.
      */
     private List<ReporteDTO.PacientesPorEspecieDTO> getPacientesPorEspecie() {
-        List<com.clinica.veterinaria.entity.Paciente> pacientes = pacienteRepository.findByActivo(true);
-
         // Constantes para categorías de especies
         final String CATEGORIA_CANINO = "Canino";
         final String CATEGORIA_FELINO = "Felino";
         final String CATEGORIA_OTRO = "Otro";
 
-        Map<String, Long> especiesMap = pacientes.stream()
+        // Contadores por especie de daily_metrics; aquí solo se agrupan en categorías
+        Map<String, Long> especiesMap = metricaDiariaService.contarPacientesActivosPorEspecie().entrySet().stream()
             .collect(Collectors.groupingBy(
-                paciente -> {
-                    String especie = paciente.getEspecie();
+                conteo -> {
+                    String especie = conteo.getKey();
                     if (especie == null || especie.trim().isEmpty()) {
                         return CATEGORIA_OTRO;
                     }
@@ -189,7 +222,7 @@ public class ReporteService {
                         return CATEGORIA_OTRO;
                     }
                 },
-                Collectors.counting()
+                Collectors.summingLong(Map.Entry::getValue)
             ));
 
         return Arrays.asList(CATEGORIA_CANINO, CATEGORIA_FELINO, CATEGORIA_OTRO).stream()
@@ -202,13 +235,21 @@ public class ReporteService {
 
     /**
      * Obtiene las atenciones (consultas) por veterinario.
+     * 
+     * <p>Una sola consulta agrupada por profesional, en lugar de cargar las consultas de
+     * cada veterinario.</p>
      */
-    private List<ReporteDTO.AtencionesPorVeterinarioDTO> getAtencionesPorVeterinario() {
-        List<Usuario> veterinarios = usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true);
+    private List<ReporteDTO.AtencionesPorVeterinarioDTO> getAtencionesPorVeterinario(List<Usuario> veterinarios) {
+        if (veterinarios.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> consultasPorProfesional = consultaRepository.countAgrupadasPorProfesional().stream()
+            .filter(conteo -> conteo.getProfesionalId() != null)
+            .collect(Collectors.toMap(ConteoPorProfesional::getProfesionalId, ConteoPorProfesional::getTotal));
 
         return veterinarios.stream()
             .map(vet -> {
-                long consultas = consultaRepository.findByProfesionalId(vet.getId()).size();
+                long consultas = consultasPorProfesional.getOrDefault(vet.getId(), 0L);
                 String nombreCompleto = vet.getNombre();
                 // Extraer solo el primer nombre de forma segura
                 String nombre = (nombreCompleto != null && !nombreCompleto.trim().isEmpty()) 
@@ -226,42 +267,25 @@ public class ReporteService {
 
     /**
      * Obtiene los top motivos de consulta.
+     * 
+     * <p>Los motivos llegan ya agrupados (en minúsculas) desde la base de datos; aquí solo
+     * se normalizan en categorías. El porcentaje se calcula sobre todas las citas del
+     * periodo, tengan o no motivo.</p>
      */
     private List<ReporteDTO.TopMotivoConsultaDTO> getTopMotivosConsulta(LocalDateTime inicio, LocalDateTime fin) {
-        List<Cita> citas = citaRepository.findByFechaBetween(inicio, fin);
+        List<ConteoPorMotivo> conteos = citaRepository.countAgrupadasPorMotivo(inicio, fin);
+        if (conteos.isEmpty()) {
+            return List.of();
+        }
 
-        // Agrupar por motivo y contar
-        Map<String, Long> motivosMap = citas.stream()
-            .filter(c -> c.getMotivo() != null && !c.getMotivo().trim().isEmpty())
+        // Agrupar los motivos en categorías y sumar
+        Map<String, Long> motivosMap = conteos.stream()
             .collect(Collectors.groupingBy(
-                cita -> {
-                    String motivo = cita.getMotivo().toLowerCase();
-                    // Normalizar motivos comunes
-                    if (motivo.contains("vacun") || motivo.contains("vacuna")) {
-                        return "Vacunación";
-                    } else if (motivo.contains("consulta general") || motivo.contains("revisión")) {
-                        return "Consulta General";
-                    } else if (motivo.contains("control")) {
-                        return "Control";
-                    } else if (motivo.contains("desparasit") || motivo.contains("parásito")) {
-                        return "Desparasitación";
-                    } else if (motivo.contains("cirugía") || motivo.contains("cirugia")) {
-                        return "Cirugía";
-                    } else if (motivo.contains("emergencia") || motivo.contains("urgencia")) {
-                        return "Emergencia";
-                    } else {
-                        // Tomar las primeras palabras del motivo como categoría
-                        String[] palabras = motivo.split("\\s+");
-                        if (palabras.length > 0) {
-                            return palabras[0].substring(0, Math.min(palabras[0].length(), 20));
-                        }
-                        return "Otro";
-                    }
-                },
-                Collectors.counting()
+                conteo -> categorizarMotivo(conteo.getMotivo()),
+                Collectors.summingLong(ConteoPorMotivo::getTotal)
             ));
 
-        long total = citas.size();
+        long total = metricaDiariaService.contarCitas(inicio.toLocalDate(), fin.toLocalDate());
         
         return motivosMap.entrySet().stream()
             .sorted((a, b) -> Long.compare(b.getValue(), a.getValue())) // Ordenar por cantidad descendente
@@ -273,5 +297,30 @@ public class ReporteService {
                 .build())
             .toList();
     }
-}
 
+    /**
+     * Normaliza un motivo (en minúsculas) en una categoría común.
+     */
+    private String categorizarMotivo(String motivo) {
+        if (motivo.contains("vacun") || motivo.contains("vacuna")) {
+            return "Vacunación";
+        } else if (motivo.contains("consulta general") || motivo.contains("revisión")) {
+            return "Consulta General";
+        } else if (motivo.contains("control")) {
+            return "Control";
+        } else if (motivo.contains("desparasit") || motivo.contains("parásito")) {
+            return "Desparasitación";
+        } else if (motivo.contains("cirugía") || motivo.contains("cirugia")) {
+            return "Cirugía";
+        } else if (motivo.contains("emergencia") || motivo.contains("urgencia")) {
+            return "Emergencia";
+        } else {
+            // Tomar las primeras palabras del motivo como categoría
+            String[] palabras = motivo.split("\\s+");
+            if (palabras.length > 0) {
+                return palabras[0].substring(0, Math.min(palabras[0].length(), 20));
+            }
+            return "Otro";
+        }
+    }
+}
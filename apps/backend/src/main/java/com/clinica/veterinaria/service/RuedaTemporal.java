@@ -0,0 +1,213 @@
+package com.clinica.veterinaria.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rueda temporal jerárquica (hierarchical timing wheel) de tareas programadas en memoria.
+ *
+ * <p>El tiempo avanza en ticks de {@code tickMillis}. Hay {@value #NIVELES} niveles de
+ * {@value #RANURAS} ranuras: el nivel 0 cubre los próximos 64 ticks con una ranura por tick, el
+ * nivel 1 los próximos 64² ticks con una ranura cada 64 ticks, y así sucesivamente. Con ticks de
+ * 1 segundo el horizonte es de unos 34 años.</p>
+ *
+ * <p>Programar y cancelar son O(1). En cada tick solo se visita la ranura actual del nivel 0;
+ * cuando un nivel completa una vuelta, la ranura correspondiente del nivel superior se
+ * "desciende" redistribuyendo sus tareas en los niveles inferiores. Ninguna operación recorre
+ * todas las tareas programadas.</p>
+ *
+ * <p>Cada tarea se identifica por una clave: programar de nuevo una clave existente reemplaza
+ * la tarea anterior, por lo que una misma clave nunca vence dos veces.</p>
+ *
+ * <p>Es segura para uso concurrente (todos los métodos están sincronizados).</p>
+ *
+ * @param <K> Tipo de la clave de deduplicación
+ * @param <V> Tipo del valor entregado al vencer
+ * @author Sebastian Ordoñez
+ * @version 1.0.0
+ * @since 2026-10-17
+ */
+public final class RuedaTemporal<K, V> {
+
+    static final int BITS_POR_NIVEL = 6;
+    static final int RANURAS = 1 << BITS_POR_NIVEL;
+    static final int NIVELES = 5;
+    private static final int MASCARA = RANURAS - 1;
+
+    private final long tickMillis;
+    private final List<List<Set<Tarea<K, V>>>> niveles = new ArrayList<>(NIVELES);
+    private final Map<K, Tarea<K, V>> tareas = new HashMap<>();
+    private final List<Tarea<K, V>> vencidas = new ArrayList<>();
+    private long tickActual;
+
+    /**
+     * Crea una rueda vacía.
+     *
+     * @param tickMillis Duración de un tick en milisegundos (resolución de la rueda)
+     * @param inicioMillis Instante inicial (epoch millis)
+     */
+    public RuedaTemporal(long tickMillis, long inicioMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis debe ser positivo");
+        }
+        this.tickMillis = tickMillis;
+        this.tickActual = inicioMillis / tickMillis;
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            List<Set<Tarea<K, V>>> ranuras = new ArrayList<>(RANURAS);
+            for (int i = 0; i < RANURAS; i++) {
+                ranuras.add(new LinkedHashSet<>());
+            }
+            niveles.add(ranuras);
+        }
+    }
+
+    /**
+     * Programa (o reprograma) una tarea.
+     *
+     * <p>Si el vencimiento ya pasó, la tarea se entrega en el siguiente {@link #avanzar(long)}.</p>
+     *
+     * @param clave Clave de deduplicación; reemplaza la tarea previa con la misma clave
+     * @param valor Valor a entregar al vencer
+     * @param vencimientoMillis Instante de vencimiento (epoch millis)
+     * @throws IllegalArgumentException si el vencimiento supera el horizonte de la rueda
+     */
+    public synchronized void programar(K clave, V valor, long vencimientoMillis) {
+        long vencimiento = Math.floorDiv(vencimientoMillis, tickMillis);
+        if (vencimiento - tickActual >= 1L << (BITS_POR_NIVEL * NIVELES)) {
+            throw new IllegalArgumentException("Vencimiento fuera del horizonte de la rueda: " + vencimientoMillis);
+        }
+        cancelar(clave);
+        Tarea<K, V> tarea = new Tarea<>(clave, valor, vencimiento);
+        tareas.put(clave, tarea);
+        ubicar(tarea);
+    }
+
+    /**
+     * Cancela una tarea programada.
+     *
+     * @param clave Clave de la tarea
+     * @return true si había una tarea pendiente con esa clave
+     */
+    public synchronized boolean cancelar(K clave) {
+        Tarea<K, V> tarea = tareas.remove(clave);
+        if (tarea == null) {
+            return false;
+        }
+        if (tarea.ranura != null) {
+            tarea.ranura.remove(tarea);
+        } else {
+            vencidas.remove(tarea);
+        }
+        return true;
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y devuelve las tareas vencidas.
+     *
+     * @param ahoraMillis Instante actual (epoch millis)
+     * @return Valores de las tareas vencidas, en orden de vencimiento
+     */
+    public synchronized List<V> avanzar(long ahoraMillis) {
+        long objetivo = ahoraMillis / tickMillis;
+        while (tickActual < objetivo) {
+            tickActual++;
+            descender();
+            Set<Tarea<K, V>> ranura = niveles.get(0).get((int) (tickActual & MASCARA));
+            for (Tarea<K, V> tarea : ranura) {
+                tarea.ranura = null;
+                vencidas.add(tarea);
+            }
+            ranura.clear();
+        }
+
+        if (vencidas.isEmpty()) {
+            return List.of();
+        }
+        List<V> valores = new ArrayList<>(vencidas.size());
+        for (Tarea<K, V> tarea : vencidas) {
+            tareas.remove(tarea.clave);
+            valores.add(tarea.valor);
+        }
+        vencidas.clear();
+        return valores;
+    }
+
+    /**
+     * Indica si hay una tarea pendiente con la clave indicada.
+     */
+    public synchronized boolean contiene(K clave) {
+        return tareas.containsKey(clave);
+    }
+
+    /**
+     * Número de tareas pendientes.
+     */
+    public synchronized int size() {
+        return tareas.size();
+    }
+
+    /**
+     * Redistribuye en niveles inferiores las tareas de las ranuras superiores que empiezan en el
+     * tick actual (solo los niveles que acaban de completar una vuelta).
+     */
+    private void descender() {
+        int nivelMaximo = 0;
+        while (nivelMaximo + 1 < NIVELES
+               && (tickActual & ((1L << (BITS_POR_NIVEL * (nivelMaximo + 1))) - 1)) == 0) {
+            nivelMaximo++;
+        }
+        for (int nivel = nivelMaximo; nivel >= 1; nivel--) {
+            Set<Tarea<K, V>> ranura = niveles.get(nivel).get(indice(tickActual, nivel));
+            if (ranura.isEmpty()) {
+                continue;
+            }
+            List<Tarea<K, V>> pendientes = new ArrayList<>(ranura);
+            ranura.clear();
+            pendientes.forEach(this::ubicar);
+        }
+    }
+
+    /**
+     * Coloca la tarea en el nivel más bajo que comparte con el tick actual todos los bits por
+     * encima de él.
+     */
+    private void ubicar(Tarea<K, V> tarea) {
+        if (tarea.vencimiento <= tickActual) {
+            tarea.ranura = null;
+            vencidas.add(tarea);
+            return;
+        }
+        int nivel = 0;
+        while (nivel < NIVELES - 1
+               && (tarea.vencimiento >>> (BITS_POR_NIVEL * (nivel + 1))) != (tickActual >>> (BITS_POR_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        Set<Tarea<K, V>> ranura = niveles.get(nivel).get(indice(tarea.vencimiento, nivel));
+        ranura.add(tarea);
+        tarea.ranura = ranura;
+    }
+
+    private static int indice(long tick, int nivel) {
+        return (int) ((tick >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+    }
+
+    /**
+     * Tarea programada. Usa la identidad del objeto en las ranuras.
+     */
+    private static final class Tarea<K, V> {
+        private final K clave;
+        private final V valor;
+        private final long vencimiento;
+        private Set<Tarea<K, V>> ranura;
+
+        private Tarea(K clave, V valor, long vencimiento) {
+            this.clave = clave;
+            this.valor = valor;
+            this.vencimiento = vencimiento;
+        }
+    }
+}
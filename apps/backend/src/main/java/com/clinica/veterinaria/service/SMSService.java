@@ -50,6 +50,15 @@ public class SMSService {
     @Value("${app.sms.twilio.from-number:}")
     private String twilioFromNumber;
 
+    /**
+     * Indica si el envío de SMS está habilitado ({@code app.sms.enabled}).
+     *
+     * @return true si los SMS se envían realmente
+     */
+    public boolean isEnabled() {
+        return smsEnabled;
+    }
+
     /**
      * Envía un SMS al número de teléfono especificado.
      * 
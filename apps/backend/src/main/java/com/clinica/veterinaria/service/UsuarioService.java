@@ -7,6 +7,7 @@ import com.clinica.veterinaria.entity.Usuario;
 import com.clinica.veterinaria.exception.domain.DuplicateResourceException;
 import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.repository.UsuarioRepository;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -69,6 +70,7 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final CacheAutenticacionJwt cacheAutenticacionJwt;
 
     // Mapa de roles a nombres en español
     private static final Map<Usuario.Rol, String> ROL_NAMES = Map.of(
@@ -209,7 +211,7 @@ public class UsuarioService {
      * <p><strong>Actualización de contraseña:</strong> Solo si dto.getPassword() no es null ni vacío.</p>
      * 
      * <p><strong>CACHE:</strong> Invalida los cachés de veterinariosActivos y usuarios
-     * para reflejar cambios inmediatamente.</p>
+     * para reflejar cambios inmediatamente, y los tokens JWT del usuario en caché.</p>
      * 
      * @param id ID del usuario a actualizar. No puede ser null.
      * @param dto Nuevos datos del usuario. No puede ser null.
@@ -234,6 +236,9 @@ public class UsuarioService {
             throw new DuplicateResourceException("Usuario", "email", dto.getEmail());
         }
 
+        // Email, rol, estado o contraseña pueden cambiar: sus tokens deben volver a validarse
+        cacheAutenticacionJwt.invalidarUsuario(usuario.getEmail());
+
         // Actualizar campos
         usuario.setNombre(dto.getNombre());
         usuario.setEmail(dto.getEmail());
@@ -281,7 +286,8 @@ public class UsuarioService {
      * <p>Los usuarios no se eliminan físicamente para mantener trazabilidad en
      * consultas, citas y auditoría. Un usuario inactivo no puede iniciar sesión.</p>
      * 
-     * <p><strong>CACHE:</strong> Invalida los cachés de veterinariosActivos y usuarios.</p>
+     * <p><strong>CACHE:</strong> Invalida los cachés de veterinariosActivos y usuarios, y los
+     * tokens JWT del usuario en caché.</p>
      * 
      * @param id ID del usuario a desactivar. No puede ser null.
      * @throws RuntimeException si el usuario no existe.
@@ -298,6 +304,7 @@ public class UsuarioService {
         
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        cacheAutenticacionJwt.invalidarUsuario(usuario.getEmail());
         
         log.warn("⚠ Usuario desactivado exitosamente con ID: {}", id);
     }
@@ -364,7 +371,8 @@ public class UsuarioService {
      * <p><strong>Uso típico:</strong> Cuando un usuario olvida su contraseña o necesita
      * un reset por razones de seguridad.</p>
      * 
-     * <p><strong>CACHE:</strong> Invalida el caché de usuarios para reflejar la actualización.</p>
+     * <p><strong>CACHE:</strong> Invalida el caché de usuarios para reflejar la actualización,
+     * y los tokens JWT del usuario en caché.</p>
      * 
      * @param id ID del usuario cuya contraseña se va a resetear. No puede ser null.
      * @param newPassword Nueva contraseña en texto plano. Será hasheada antes de almacenarse.
@@ -382,6 +390,7 @@ public class UsuarioService {
         
         usuario.setPassword(passwordEncoder.encode(newPassword));
         usuarioRepository.save(usuario);
+        cacheAutenticacionJwt.invalidarUsuario(usuario.getEmail());
         
         log.info("✓ Contraseña reseteada exitosamente para usuario con ID: {}", id);
         
@@ -1,5 +1,6 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.config.DestinosWebSocket;
 import com.clinica.veterinaria.dto.NotificacionWebSocketDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ import org.springframework.stereotype.Service;
 public class WebSocketNotificationService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final DestinosWebSocket destinosWebSocket;
 
     /**
      * Envía una notificación a un usuario específico.
@@ -31,7 +33,7 @@ public class WebSocketNotificationService {
      */
     public void enviarNotificacionAUsuario(Long userId, NotificacionWebSocketDTO notificacion) {
         log.debug("Enviando notificación WebSocket a usuario ID: {}", userId);
-        String destination = "/user/" + userId + "/queue/notificaciones";
+        String destination = destinosWebSocket.usuario(userId, "notificaciones");
         messagingTemplate.convertAndSend(destination, notificacion);
         log.info("Notificación enviada exitosamente a usuario ID: {}", userId);
     }
@@ -55,7 +57,7 @@ public class WebSocketNotificationService {
      */
     public void enviarContadorNotificaciones(Long userId, Long count) {
         log.debug("Enviando contador de notificaciones a usuario ID: {} - Count: {}", userId, count);
-        String destination = "/user/" + userId + "/queue/notificaciones-count";
+        String destination = destinosWebSocket.usuario(userId, "notificaciones-count");
         messagingTemplate.convertAndSend(destination, count);
     }
 }
@@ -0,0 +1,159 @@
+package com.clinica.veterinaria.integration;
+
+import com.clinica.veterinaria.entity.CategoriaProducto;
+import com.clinica.veterinaria.entity.Paciente;
+import com.clinica.veterinaria.entity.Producto;
+import com.clinica.veterinaria.entity.Propietario;
+import com.clinica.veterinaria.repository.CategoriaProductoRepository;
+import com.clinica.veterinaria.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de integración para BusquedaController
+ */
+@DisplayName("Tests de Integración - BusquedaController")
+class BusquedaControllerIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CategoriaProductoRepository categoriaProductoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @BeforeEach
+    void setUp() {
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+            .nombre("José Muñoz")
+            .documento("12345678")
+            .email("jose@email.com")
+            .telefono("555-1234")
+            .activo(true)
+            .build());
+
+        pacienteRepository.save(Paciente.builder()
+            .nombre("Máximo")
+            .especie("Perro")
+            .raza("Pastor Alemán")
+            .sexo("M")
+            .edadMeses(36)
+            .pesoKg(new BigDecimal("30.5"))
+            .propietario(propietario)
+            .activo(true)
+            .build());
+
+        pacienteRepository.save(Paciente.builder()
+            .nombre("Luna")
+            .especie("Gato")
+            .raza("Siamés")
+            .sexo("F")
+            .edadMeses(12)
+            .pesoKg(new BigDecimal("4.2"))
+            .propietario(propietario)
+            .activo(true)
+            .build());
+
+        CategoriaProducto categoria = categoriaProductoRepository.save(CategoriaProducto.builder()
+            .nombre("Antibióticos")
+            .activo(true)
+            .build());
+
+        productoRepository.save(Producto.builder()
+            .nombre("Amoxicilina 500mg")
+            .codigo("AMX-500")
+            .categoria(categoria)
+            .stockActual(new BigDecimal("40"))
+            .costo(new BigDecimal("1.50"))
+            .activo(true)
+            .build());
+    }
+
+    @Test
+    @DisplayName("GET /api/buscar - Debe encontrar sin distinguir tildes ni mayúsculas")
+    void testBuscarSinTildes() throws Exception {
+        mockMvc.perform(get("/api/buscar")
+                .param("q", "MUNOZ")
+                .header("Authorization", "Bearer " + recepcionToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.propietarios", hasSize(1)))
+            .andExpect(jsonPath("$.propietarios[0].titulo").value("José Muñoz"))
+            .andExpect(jsonPath("$.propietarios[0].tipo").value("PROPIETARIO"))
+            .andExpect(jsonPath("$.pacientes", hasSize(0)))
+            .andExpect(jsonPath("$.productos", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("GET /api/buscar - Debe buscar pacientes por nombre y raza")
+    void testBuscarPacientes() throws Exception {
+        mockMvc.perform(get("/api/buscar")
+                .param("q", "aleman")
+                .header("Authorization", "Bearer " + vetToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pacientes", hasSize(1)))
+            .andExpect(jsonPath("$.pacientes[0].titulo").value("Máximo"))
+            .andExpect(jsonPath("$.pacientes[0].detalle", containsString("José Muñoz")));
+    }
+
+    @Test
+    @DisplayName("GET /api/buscar - Debe buscar productos por código")
+    void testBuscarProductos() throws Exception {
+        mockMvc.perform(get("/api/buscar")
+                .param("q", "amx-5")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.productos", hasSize(1)))
+            .andExpect(jsonPath("$.productos[0].titulo").value("Amoxicilina 500mg"));
+    }
+
+    @Test
+    @DisplayName("GET /api/buscar - Debe ordenar primero las coincidencias al inicio del nombre")
+    void testRankingPorPrefijo() throws Exception {
+        pacienteRepository.save(Paciente.builder()
+            .nombre("Don Max")
+            .especie("Perro")
+            .sexo("M")
+            .edadMeses(24)
+            .pesoKg(new BigDecimal("12"))
+            .propietario(propietarioRepository.findAll().get(0))
+            .activo(true)
+            .build());
+
+        mockMvc.perform(get("/api/buscar")
+                .param("q", "max")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pacientes", hasSize(2)))
+            .andExpect(jsonPath("$.pacientes[0].titulo").value("Máximo"))
+            .andExpect(jsonPath("$.pacientes[1].titulo").value("Don Max"));
+    }
+
+    @Test
+    @DisplayName("GET /api/buscar - Los comodines de LIKE deben buscarse literalmente")
+    void testComodinesLiterales() throws Exception {
+        mockMvc.perform(get("/api/buscar")
+                .param("q", "%%")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pacientes", hasSize(0)))
+            .andExpect(jsonPath("$.propietarios", hasSize(0)))
+            .andExpect(jsonPath("$.productos", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("GET /api/buscar - Debe rechazar un límite fuera de rango")
+    void testLimiteInvalido() throws Exception {
+        mockMvc.perform(get("/api/buscar")
+                .param("q", "max")
+                .param("limite", "500")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -198,5 +198,60 @@ class CitaControllerIntegrationTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$", hasSize(1)))
             .andExpect(jsonPath("$[0].motivo").value("Vacunación"));
     }
-}
 
+    @Test
+    @DisplayName("GET /api/citas/search/cursor - Debe paginar por cursor sin repetir citas")
+    void testBuscarCitasPorCursor() throws Exception {
+        citaRepository.save(Cita.builder()
+            .fecha(generarFechaValida(2))
+            .motivo("Control")
+            .estado(Cita.EstadoCita.PENDIENTE)
+            .paciente(paciente)
+            .propietario(propietario)
+            .profesional(vetUser)
+            .build());
+        citaRepository.save(Cita.builder()
+            .fecha(generarFechaValida(3))
+            .motivo("Desparasitación")
+            .estado(Cita.EstadoCita.PENDIENTE)
+            .paciente(paciente)
+            .propietario(propietario)
+            .profesional(vetUser)
+            .build());
+
+        String primeraPagina = mockMvc.perform(get("/api/citas/search/cursor")
+                .param("pacienteId", paciente.getId().toString())
+                .param("size", "2")
+                .param("incluirTotal", "true")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+            .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(primeraPagina).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/citas/search/cursor")
+                .param("pacienteId", paciente.getId().toString())
+                .param("size", "2")
+                .param("after", cursor)
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.content[0].id").value(cita1.getId()))
+            .andExpect(jsonPath("$.hasNext").value(false))
+            .andExpect(jsonPath("$.nextCursor").value(nullValue()))
+            .andExpect(jsonPath("$.totalElements").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("GET /api/citas/search/cursor - Debe rechazar un cursor mal formado")
+    void testBuscarCitasPorCursorInvalido() throws Exception {
+        mockMvc.perform(get("/api/citas/search/cursor")
+                .param("after", "no-es-un-cursor")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -8,6 +8,7 @@ import com.clinica.veterinaria.repository.CitaRepository;
 import com.clinica.veterinaria.repository.ConsultaRepository;
 import com.clinica.veterinaria.repository.PacienteRepository;
 import com.clinica.veterinaria.repository.PropietarioRepository;
+import com.clinica.veterinaria.service.MetricaDiariaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,9 @@ class DashboardControllerIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private PropietarioRepository propietarioRepository;
 
+    @Autowired
+    private MetricaDiariaService metricaDiariaService;
+
     private Propietario propietario;
     private Paciente paciente;
     private Cita cita;
@@ -92,6 +96,9 @@ class DashboardControllerIntegrationTest extends BaseIntegrationTest {
             .profesional(vetUser)
             .build();
         consulta = consultaRepository.save(consulta);
+
+        // Los datos se insertan directamente con los repositorios: recalcular daily_metrics
+        metricaDiariaService.conciliar();
     }
 
     @Test
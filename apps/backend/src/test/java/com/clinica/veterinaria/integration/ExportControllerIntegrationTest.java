@@ -0,0 +1,106 @@
+package com.clinica.veterinaria.integration;
+
+import com.clinica.veterinaria.entity.Cita;
+import com.clinica.veterinaria.entity.Paciente;
+import com.clinica.veterinaria.entity.Propietario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de integración para ExportController
+ */
+@DisplayName("Tests de Integración - ExportController")
+class ExportControllerIntegrationTest extends BaseIntegrationTest {
+
+    @BeforeEach
+    void setUp() {
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+            .nombre("Juan Pérez")
+            .email("juan@email.com")
+            .telefono("555-1234")
+            .activo(true)
+            .build());
+
+        Paciente paciente = pacienteRepository.save(Paciente.builder()
+            .nombre("Max")
+            .especie("Perro")
+            .raza("Labrador")
+            .sexo("M")
+            .edadMeses(36)
+            .pesoKg(new BigDecimal("30.5"))
+            .propietario(propietario)
+            .activo(true)
+            .build());
+
+        citaRepository.save(Cita.builder()
+            .fecha(LocalDateTime.now().withHour(10).withMinute(0))
+            .motivo("Vacunación, refuerzo")
+            .estado(Cita.EstadoCita.CONFIRMADA)
+            .paciente(paciente)
+            .propietario(propietario)
+            .profesional(vetUser)
+            .build());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/citas - Debe exportar las citas en CSV")
+    void testExportarCitasCsv() throws Exception {
+        mockMvc.perform(get("/api/export/citas")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", containsString("text/csv")))
+            .andExpect(header().string("Content-Disposition", containsString("attachment")))
+            .andExpect(content().string(startsWith("id,fecha,estado,motivo,paciente_id,paciente")))
+            .andExpect(content().string(containsString("\"Vacunación, refuerzo\"")))
+            .andExpect(content().string(containsString("Max")));
+    }
+
+    @Test
+    @DisplayName("GET /api/export/citas?formato=ndjson - Debe exportar una línea JSON por cita")
+    void testExportarCitasNdjson() throws Exception {
+        mockMvc.perform(get("/api/export/citas")
+                .param("formato", "ndjson")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+            .andExpect(content().string(containsString("\"paciente\":\"Max\"")))
+            .andExpect(content().string(containsString("\"estado\":\"CONFIRMADA\"")));
+    }
+
+    @Test
+    @DisplayName("GET /api/export/citas - Debe respetar el rango de fechas")
+    void testExportarCitasFueraDeRango() throws Exception {
+        LocalDate haceUnAno = LocalDate.now().minusYears(1);
+        mockMvc.perform(get("/api/export/citas")
+                .param("desde", haceUnAno.toString())
+                .param("hasta", haceUnAno.plusDays(1).toString())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(content().string(not(containsString("Max"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/export/{entidad} - Debe rechazar entidades desconocidas")
+    void testExportarEntidadDesconocida() throws Exception {
+        mockMvc.perform(get("/api/export/usuarios")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/citas - Solo ADMIN puede exportar")
+    void testExportarSinPermisos() throws Exception {
+        mockMvc.perform(get("/api/export/citas")
+                .header("Authorization", "Bearer " + vetToken))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,248 @@
+package com.clinica.veterinaria.integration;
+
+import com.clinica.veterinaria.entity.Cita;
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import com.clinica.veterinaria.entity.Notificacion;
+import com.clinica.veterinaria.entity.Paciente;
+import com.clinica.veterinaria.entity.Propietario;
+import com.clinica.veterinaria.repository.EventoAuditoriaRepository;
+import com.clinica.veterinaria.repository.NotificacionRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración de la paginación por cursor (keyset).
+ *
+ * <p>Comprueban que una página profunda no repite ni pierde filas y, con el plan de H2
+ * ({@code EXPLAIN}) del SQL que genera Hibernate, que el cursor llega a la base de datos como
+ * condición de rango del índice {@code (fecha, id)} (o {@code (usuario_id, fecha_creacion, id)} en
+ * la bandeja de notificaciones) y no como filtro fila a fila.</p>
+ */
+@TestPropertySource(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.clinica.veterinaria.integration.PaginacionCursorIntegrationTest$CapturaSql")
+@DisplayName("Tests de Integración - Paginación por cursor")
+class PaginacionCursorIntegrationTest extends BaseIntegrationTest {
+
+    private static final int TOTAL_CITAS = 60;
+    private static final int TAMANO_PAGINA = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private EventoAuditoriaRepository eventoAuditoriaRepository;
+
+    private final LocalDateTime base = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    /**
+     * Guarda el SQL que Hibernate envía a la base de datos.
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+            .nombre("Ana Gómez")
+            .email("ana@email.com")
+            .activo(true)
+            .build());
+        Paciente paciente = pacienteRepository.save(Paciente.builder()
+            .nombre("Luna")
+            .especie("Gato")
+            .sexo("H")
+            .edadMeses(24)
+            .pesoKg(new BigDecimal("4.2"))
+            .propietario(propietario)
+            .activo(true)
+            .build());
+
+        // Las 10 últimas comparten fecha para que el id tenga que desempatar
+        for (int i = 0; i < TOTAL_CITAS; i++) {
+            citaRepository.save(Cita.builder()
+                .fecha(base.plusHours(Math.min(i, TOTAL_CITAS - 10)))
+                .motivo("Control " + i)
+                .estado(Cita.EstadoCita.PENDIENTE)
+                .paciente(paciente)
+                .propietario(propietario)
+                .profesional(vetUser)
+                .build());
+        }
+        CapturaSql.SENTENCIAS.clear();
+    }
+
+    @Test
+    @DisplayName("Debe recorrer todas las páginas sin repetir ni perder citas")
+    void testRecorreTodasLasPaginas() {
+        // Arrange
+        List<Cita> recorridas = new ArrayList<>();
+        LocalDateTime cursorFecha = null;
+        Long cursorId = null;
+
+        // Act
+        List<Cita> pagina;
+        do {
+            pagina = citaRepository.findPaginaPorCursor(null, null, null, null, null,
+                cursorFecha, cursorId, PageRequest.of(0, TAMANO_PAGINA));
+            recorridas.addAll(pagina);
+            if (!pagina.isEmpty()) {
+                Cita ultima = pagina.get(pagina.size() - 1);
+                cursorFecha = ultima.getFecha();
+                cursorId = ultima.getId();
+            }
+        } while (pagina.size() == TAMANO_PAGINA);
+
+        // Assert
+        assertEquals(TOTAL_CITAS, recorridas.size());
+        Set<Long> ids = new HashSet<>();
+        recorridas.forEach(c -> assertTrue(ids.add(c.getId()), "Cita repetida: " + c.getId()));
+        for (int i = 1; i < recorridas.size(); i++) {
+            Cita anterior = recorridas.get(i - 1);
+            Cita actual = recorridas.get(i);
+            int orden = anterior.getFecha().compareTo(actual.getFecha());
+            assertTrue(orden > 0 || (orden == 0 && anterior.getId() > actual.getId()),
+                "Orden (fecha DESC, id DESC) roto en la posición " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe resolver una página profunda con un rango sobre el índice (fecha, id)")
+    void testPaginaProfundaUsaRangoDelIndice() {
+        // Arrange
+        List<Cita> todas = citaRepository.findPaginaPorCursor(null, null, null, null, null,
+            null, null, PageRequest.of(0, TOTAL_CITAS));
+        Cita cursor = todas.get(TOTAL_CITAS - TAMANO_PAGINA - 1);
+        CapturaSql.SENTENCIAS.clear();
+
+        // Act
+        List<Cita> pagina = citaRepository.findPaginaPorCursor(null, null, null, null, null,
+            cursor.getFecha(), cursor.getId(), PageRequest.of(0, TAMANO_PAGINA));
+
+        // Assert
+        assertEquals(todas.subList(TOTAL_CITAS - TAMANO_PAGINA, TOTAL_CITAS).stream().map(Cita::getId).toList(),
+            pagina.stream().map(Cita::getId).toList());
+
+        String sql = CapturaSql.SENTENCIAS.stream()
+            .filter(s -> s.toLowerCase(Locale.ROOT).matches("(?s).*\\bfrom\\s+citas\\b.*"))
+            .reduce((primera, segunda) -> segunda)
+            .orElseThrow(() -> new AssertionError("No se capturó el SQL de la página"));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)
+            .replace("\"", "")
+            .toUpperCase(Locale.ROOT);
+        assertTrue(plan.matches("(?s).*IDX_CITA_FECHA(_ID)?:(?=[^*]*FECHA\\s*<=).*"),
+            "El cursor debería ser una condición de rango del índice:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("Debe usar el índice del profesional cuando se filtra por profesional")
+    void testFiltroPorProfesionalUsaSuIndice() {
+        // Act
+        citaRepository.findPaginaPorCursor(null, vetUser.getId(), null, null, null,
+            base.plusHours(30), Long.MAX_VALUE, PageRequest.of(0, TAMANO_PAGINA));
+
+        // Assert
+        String sql = CapturaSql.SENTENCIAS.get(CapturaSql.SENTENCIAS.size() - 1);
+        assertFalse(sql.toLowerCase(Locale.ROOT).contains(" is null"),
+            "Los filtros sin valor no deben llegar al SQL: " + sql);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)
+            .replace("\"", "")
+            .toUpperCase(Locale.ROOT);
+        assertTrue(plan.matches("(?s).*IDX_CITA_PROFESIONAL\\w*:\\s*\\S*PROFESIONAL_ID\\s*=.*"),
+            "El profesional debería ser una condición del índice:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("Debe resolver una página profunda de la bandeja con el índice (usuario_id, fecha_creacion, id)")
+    void testBandejaNotificacionesUsaRangoDelIndice() {
+        // Arrange
+        for (int i = 0; i < 30; i++) {
+            notificacionRepository.save(Notificacion.builder()
+                .usuario(i % 3 == 0 ? adminUser : vetUser)
+                .titulo("Aviso " + i)
+                .mensaje("Mensaje " + i)
+                .tipo(Notificacion.Tipo.SISTEMA)
+                .leida(i % 2 == 0)
+                .build());
+        }
+        List<Notificacion> bandeja = notificacionRepository.findPaginaPorCursor(vetUser.getId(), true,
+            null, null, PageRequest.of(0, 30));
+        Notificacion cursor = bandeja.get(4);
+        CapturaSql.SENTENCIAS.clear();
+
+        // Act
+        List<Notificacion> pagina = notificacionRepository.findPaginaPorCursor(vetUser.getId(), true,
+            cursor.getFechaCreacion(), cursor.getId(), PageRequest.of(0, 5));
+
+        // Assert
+        assertEquals(bandeja.subList(5, Math.min(10, bandeja.size())).stream().map(Notificacion::getId).toList(),
+            pagina.stream().map(Notificacion::getId).toList());
+        assertTrue(pagina.stream().noneMatch(Notificacion::getLeida));
+
+        String sql = CapturaSql.SENTENCIAS.get(CapturaSql.SENTENCIAS.size() - 1);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)
+            .replace("\"", "")
+            .toUpperCase(Locale.ROOT);
+        assertTrue(plan.matches(
+                "(?s).*IDX_NOTIFICACION_USUARIO_FECHA:(?=[^*]*USUARIO_ID\\s*=)(?=[^*]*FECHA_CREACION\\s*<=).*"),
+            "El usuario y el cursor deberían ser condiciones del índice:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("El historial de un tipo de entidad debe recorrer el índice (entidad, fecha, id) sin ordenar")
+    void testAuditoriaPorEntidadUsaRangoDelIndice() {
+        // Arrange
+        for (int i = 0; i < 40; i++) {
+            jdbcTemplate.update("INSERT INTO audit_event (fecha, accion, entidad, entidad_id, usuario, detalle) " +
+                    "VALUES (?, 'UPDATE', ?, ?, 'vet@test.com', 'detalle')",
+                base.plusMinutes(i), i % 2 == 0 ? "Paciente" : "Producto", String.valueOf(i % 5));
+        }
+        List<EventoAuditoria> historial = eventoAuditoriaRepository.findPorEntidad("Paciente", null, null,
+            null, null, null, null, PageRequest.of(0, 20));
+        EventoAuditoria cursor = historial.get(9);
+        CapturaSql.SENTENCIAS.clear();
+
+        // Act
+        List<EventoAuditoria> pagina = eventoAuditoriaRepository.findPorEntidad("Paciente", null, null,
+            null, null, cursor.getFecha(), cursor.getId(), PageRequest.of(0, 5));
+
+        // Assert
+        assertEquals(historial.subList(10, 15).stream().map(EventoAuditoria::getId).toList(),
+            pagina.stream().map(EventoAuditoria::getId).toList());
+
+        String sql = CapturaSql.SENTENCIAS.get(CapturaSql.SENTENCIAS.size() - 1);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)
+            .replace("\"", "")
+            .toUpperCase(Locale.ROOT);
+        assertTrue(plan.matches("(?s).*IDX_AUDIT_EVENT_ENTIDAD_FECHA:(?=[^*]*ENTIDAD\\s*=)(?=[^*]*FECHA\\s*<=).*"),
+            "La entidad y el cursor deberían ser condiciones del índice (entidad, fecha, id):\n" + plan);
+    }
+}
@@ -0,0 +1,97 @@
+package com.clinica.veterinaria.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para AnilloEventos
+ */
+@DisplayName("Tests Unitarios de AnilloEventos")
+class AnilloEventosTest {
+
+    @Test
+    @DisplayName("Debe redondear la capacidad y rechazar cuando está lleno")
+    void testCapacidad() {
+        // Arrange
+        AnilloEventos<Integer> anillo = new AnilloEventos<>(3);
+
+        // Act & Assert
+        assertEquals(4, anillo.capacidad());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(anillo.ofrecer(i));
+        }
+        assertFalse(anillo.ofrecer(4));
+        assertEquals(0, anillo.extraer());
+        assertTrue(anillo.ofrecer(4));
+        assertEquals(4, anillo.tamano());
+    }
+
+    @Test
+    @DisplayName("Debe entregar en orden FIFO y devolver null cuando está vacío")
+    void testOrden() {
+        // Arrange
+        AnilloEventos<String> anillo = new AnilloEventos<>(8);
+
+        // Act
+        anillo.ofrecer("a");
+        anillo.ofrecer("b");
+
+        // Assert
+        assertEquals("a", anillo.extraer());
+        assertEquals("b", anillo.extraer());
+        assertNull(anillo.extraer());
+    }
+
+    @Test
+    @DisplayName("Debe entregar una sola vez cada elemento publicado por varios productores")
+    void testVariosProductores() throws InterruptedException {
+        // Arrange
+        int productores = 4;
+        int porProductor = 20_000;
+        AnilloEventos<Integer> anillo = new AnilloEventos<>(256);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<>();
+        for (int p = 0; p < productores; p++) {
+            int base = p * porProductor;
+            Thread hilo = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < porProductor; i++) {
+                    while (!anillo.ofrecer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            hilo.start();
+            hilos.add(hilo);
+        }
+
+        // Act
+        salida.countDown();
+        Set<Integer> recibidos = new HashSet<>();
+        while (recibidos.size() < productores * porProductor) {
+            Integer valor = anillo.extraer();
+            if (valor != null) {
+                assertTrue(recibidos.add(valor), "elemento duplicado: " + valor);
+            }
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        // Assert
+        assertNull(anillo.extraer());
+        assertEquals(0, anillo.tamano());
+    }
+}
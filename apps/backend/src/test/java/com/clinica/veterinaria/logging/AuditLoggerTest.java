@@ -0,0 +1,176 @@
+package com.clinica.veterinaria.logging;
+
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para AuditLogger
+ */
+@DisplayName("Tests Unitarios de AuditLogger")
+class AuditLoggerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogger auditLogger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditLogger != null) {
+            auditLogger.detener();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe descartar eventos no críticos con el buffer lleno")
+    void testDescartaConBufferLleno() {
+        // Arrange: consumidor sin arrancar y buffer de 2 eventos
+        auditLogger = new AuditLogger(meterRegistry, Optional.empty(), 2, AuditLogger.PoliticaDesborde.DESCARTAR, 500);
+        auditLogger.logCreate("Producto", 1L, "Nombre: Collar");
+        auditLogger.logCreate("Producto", 2L, "Nombre: Arnés");
+
+        // Act
+        auditLogger.logUpdate("Producto", 1L, "Stock: 1", "Stock: 2");
+
+        // Assert
+        assertEquals(2, auditLogger.pendientes());
+        assertEquals(2, contador("encolado"));
+        assertEquals(1, contador("descartado"));
+        assertEquals(0, contador("sincrono"));
+    }
+
+    @Test
+    @DisplayName("Debe escribir en el hilo llamante los eventos críticos con el buffer lleno")
+    void testEventoCriticoNoSeDescarta() {
+        // Arrange
+        auditLogger = new AuditLogger(meterRegistry, Optional.empty(), 2, AuditLogger.PoliticaDesborde.DESCARTAR, 500);
+        auditLogger.logCreate("Producto", 1L, "Nombre: Collar");
+        auditLogger.logCreate("Producto", 2L, "Nombre: Arnés");
+
+        // Act
+        auditLogger.logSecurityEvent("RATE_LIMIT_LOGIN", "Límite alcanzado");
+        auditLogger.logDelete("Producto", 2L);
+
+        // Assert
+        assertEquals(2, contador("sincrono"));
+        assertEquals(0, contador("descartado"));
+    }
+
+    @Test
+    @DisplayName("Debe escribir en el hilo llamante con la política SINCRONO")
+    void testPoliticaSincrona() {
+        // Arrange
+        auditLogger = new AuditLogger(meterRegistry, Optional.empty(), 2, AuditLogger.PoliticaDesborde.SINCRONO, 500);
+        auditLogger.logCreate("Producto", 1L, "Nombre: Collar");
+        auditLogger.logCreate("Producto", 2L, "Nombre: Arnés");
+
+        // Act
+        auditLogger.logCustomEvent("EXPORT", "Exportados %d registros", 10);
+
+        // Assert
+        assertEquals(1, contador("sincrono"));
+        assertEquals(0, contador("descartado"));
+    }
+
+    @Test
+    @DisplayName("Debe vaciar el buffer en el hilo consumidor")
+    void testConsumidorVaciaBuffer() throws InterruptedException {
+        // Arrange
+        auditLogger = new AuditLogger(meterRegistry, Optional.empty(), 64, AuditLogger.PoliticaDesborde.DESCARTAR, 500);
+        auditLogger.iniciar();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            auditLogger.logCreate("Paciente", (long) i, "Nombre: Luna");
+        }
+        long limite = System.currentTimeMillis() + 5000;
+        while (escritos() < 50 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(0, auditLogger.pendientes());
+        assertEquals(50, contador("encolado"));
+        assertEquals(50, escritos());
+    }
+
+    @Test
+    @DisplayName("Debe persistir los eventos escritos en lotes acotados")
+    void testPersisteEnLotes() throws InterruptedException {
+        // Arrange
+        List<List<EventoAuditoria>> lotes = Collections.synchronizedList(new ArrayList<>());
+        AlmacenAuditoria almacen = new AlmacenAuditoria(null) {
+            @Override
+            public void insertarLote(List<EventoAuditoria> eventos) {
+                lotes.add(List.copyOf(eventos));
+            }
+        };
+        auditLogger = new AuditLogger(meterRegistry, Optional.of(almacen), 64, AuditLogger.PoliticaDesborde.DESCARTAR, 3);
+        for (int i = 1; i <= 7; i++) {
+            auditLogger.logUpdate("Paciente", (long) i, "Peso: 10", "Peso: 12");
+        }
+        auditLogger.logLoginFailure("ana@clinica.com", "203.0.113.7", "Credenciales inválidas");
+
+        // Act
+        auditLogger.iniciar();
+        long limite = System.currentTimeMillis() + 5000;
+        while (persistidos() < 8 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(8, persistidos());
+        assertTrue(lotes.stream().allMatch(lote -> lote.size() <= 3));
+        List<EventoAuditoria> filas = lotes.stream().flatMap(List::stream).toList();
+        EventoAuditoria primera = filas.get(0);
+        assertEquals("UPDATE", primera.getAccion());
+        assertEquals("Paciente", primera.getEntidad());
+        assertEquals("1", primera.getEntidadId());
+        assertEquals("system", primera.getUsuario());
+        assertTrue(primera.getDetalle().startsWith("✎ UPDATED Paciente with ID 1"));
+        EventoAuditoria login = filas.get(7);
+        assertEquals("LOGIN_FAILURE", login.getAccion());
+        assertEquals("203.0.113.7", login.getIp());
+        assertEquals("ana@clinica.com", login.getUsuario());
+    }
+
+    @Test
+    @DisplayName("Debe ofuscar datos sensibles y truncar los datos largos")
+    void testSanitizeData() {
+        // Act
+        String sanitizado = AuditLogger.sanitizeData("{Password: \"abc123\", email=ana@clinica.com, TOKEN=xyz}");
+        String largo = AuditLogger.sanitizeData("x".repeat(600));
+
+        // Assert
+        assertEquals("{password=***\", email=ana@clinica.com, token=***}", sanitizado);
+        assertTrue(largo.endsWith("... (truncated)"));
+        assertEquals(500 + "... (truncated)".length(), largo.length());
+        assertEquals("null", AuditLogger.sanitizeData(null));
+    }
+
+    private long escritos() {
+        return meterRegistry.get("clinica.audit.latencia").timer().count();
+    }
+
+    private double persistidos() {
+        return meterRegistry.get("clinica.audit.persistidos").tag("resultado", "ok").counter().count();
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("clinica.audit.eventos").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,183 @@
+package com.clinica.veterinaria.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para RequestResponseLoggingInterceptor
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de RequestResponseLoggingInterceptor")
+class RequestResponseLoggingInterceptorTest {
+
+    private static final String UMBRALES = "/api/reportes/**=5000, /api/export/**=10000";
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final Map<String, Object> atributos = new HashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestResponseLoggingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RequestResponseLoggingInterceptor(meterRegistry, 0, 1000, UMBRALES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Debe registrar la latencia por plantilla de ruta, método y familia de código")
+    void testRegistraTimerPorRuta() {
+        // Arrange: en DEBUG preHandle registra la URI; se fija INFO, el nivel de producción
+        Logger logger = (Logger) LoggerFactory.getLogger(RequestResponseLoggingInterceptor.class);
+        Level nivelAnterior = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        simularAtributos();
+        when(request.getMethod()).thenReturn("GET");
+        when(response.getStatus()).thenReturn(200);
+        atributos.put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/pacientes/{id}");
+
+        // Act
+        try {
+            interceptor.preHandle(request, response, new Object());
+            interceptor.afterCompletion(request, response, new Object(), null);
+            interceptor.preHandle(request, response, new Object());
+            interceptor.afterCompletion(request, response, new Object(), null);
+        } finally {
+            logger.setLevel(nivelAnterior);
+        }
+
+        // Assert
+        Timer timer = meterRegistry.get("clinica.http.peticiones")
+            .tag("metodo", "GET").tag("ruta", "/api/pacientes/{id}").tag("estado", "2xx").timer();
+        assertEquals(2, timer.count());
+        verify(request, never()).getRequestURI();
+    }
+
+    @Test
+    @DisplayName("Debe dejar el usuario en el MDC durante la petición y retirarlo al terminar")
+    void testUsuarioEnMdc() {
+        // Arrange
+        simularAtributos();
+        when(request.getMethod()).thenReturn("GET");
+        when(response.getStatus()).thenReturn(200);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("vet@clinica.com", null, List.of()));
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        String usernameDurante = MDC.get("username");
+        String userIdDurante = MDC.get("userId");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        assertEquals("vet@clinica.com", usernameDurante);
+        assertEquals("vet@clinica.com", userIdDurante);
+        assertNull(MDC.get("username"));
+        assertNull(MDC.get("userId"));
+    }
+
+    @Test
+    @DisplayName("Debe agrupar las peticiones sin handler y los métodos desconocidos")
+    void testAcotaEtiquetas() {
+        // Arrange
+        simularAtributos();
+        when(request.getMethod()).thenReturn("PROPFIND");
+        when(response.getStatus()).thenReturn(404);
+        when(request.getRequestURI()).thenReturn("/no/existe/123");
+        when(request.getRemoteAddr()).thenReturn("203.0.113.7");
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        Timer timer = meterRegistry.get("clinica.http.peticiones")
+            .tag("metodo", "OTRO").tag("ruta", RequestResponseLoggingInterceptor.RUTA_SIN_PLANTILLA)
+            .tag("estado", "4xx").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("Debe contar como 5xx las peticiones que terminan con excepción")
+    void testExcepcionComo5xx() {
+        // Arrange
+        simularAtributos();
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/api/facturas");
+        when(request.getRemoteAddr()).thenReturn("203.0.113.7");
+        atributos.put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/facturas");
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), new IllegalStateException("fallo"));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("clinica.http.peticiones")
+            .tag("ruta", "/api/facturas").tag("estado", "5xx").timer().count());
+        verify(response, never()).getStatus();
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el umbral del primer patrón de ruta que encaja")
+    void testUmbralPorRuta() {
+        // Act & Assert
+        assertEquals(5000, interceptor.umbralMs("/api/reportes/ventas"));
+        assertEquals(10000, interceptor.umbralMs("/api/export/pacientes/{formato}"));
+        assertEquals(1000, interceptor.umbralMs("/api/pacientes/{id}"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar umbrales por ruta mal formados")
+    void testUmbralesInvalidos() {
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> new RequestResponseLoggingInterceptor(meterRegistry, 100, 1000, "/api/reportes/**"));
+        assertTrue(ex.getMessage().contains("/api/reportes/**"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RequestResponseLoggingInterceptor(meterRegistry, 100, 1000, "/api/reportes/**=lento"));
+    }
+
+    /**
+     * Guarda los atributos del request en un mapa, como haría el contenedor.
+     */
+    private void simularAtributos() {
+        doAnswer(inv -> atributos.put(inv.getArgument(0), inv.getArgument(1)))
+            .when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(anyString())).thenAnswer(inv -> atributos.get(inv.getArgument(0)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.clinica.veterinaria.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CondicionesCursor
+ */
+@DisplayName("Tests Unitarios de CondicionesCursor")
+class CondicionesCursorTest {
+
+    private static final LocalDateTime DESDE = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime HASTA = LocalDateTime.of(2026, 11, 1, 0, 0);
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2026, 10, 17, 10, 30);
+
+    @Test
+    @DisplayName("Sin filtros ni cursor el tramo debe cubrir todas las fechas")
+    void testTramoSinLimites() {
+        // Act
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(null, null, null, null);
+
+        // Assert
+        assertEquals(CondicionesCursor.FECHA_MINIMA, tramo.desde());
+        assertEquals(CondicionesCursor.FECHA_MAXIMA, tramo.hasta());
+        assertEquals(Long.MAX_VALUE, tramo.hastaId());
+    }
+
+    @Test
+    @DisplayName("La fecha máxima exclusiva debe excluir todas las filas de esa fecha")
+    void testTramoHastaExclusiva() {
+        // Act
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(DESDE, HASTA, null, null);
+
+        // Assert
+        assertEquals(DESDE, tramo.desde());
+        assertEquals(HASTA, tramo.hasta());
+        assertEquals(Long.MIN_VALUE, tramo.hastaId());
+    }
+
+    @Test
+    @DisplayName("El cursor debe acotar el tramo si es anterior a la fecha máxima")
+    void testTramoConCursor() {
+        // Act
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(DESDE, HASTA, CURSOR, 42L);
+
+        // Assert
+        assertEquals(DESDE, tramo.desde());
+        assertEquals(CURSOR, tramo.hasta());
+        assertEquals(42L, tramo.hastaId());
+    }
+
+    @Test
+    @DisplayName("Si la fecha máxima es anterior al cursor debe prevalecer la fecha máxima")
+    void testTramoHastaAnteriorAlCursor() {
+        // Act
+        CondicionesCursor.Tramo tramo = CondicionesCursor.Tramo.de(null, CURSOR, CURSOR, 42L);
+
+        // Assert
+        assertEquals(CURSOR, tramo.hasta());
+        assertEquals(Long.MIN_VALUE, tramo.hastaId());
+    }
+}
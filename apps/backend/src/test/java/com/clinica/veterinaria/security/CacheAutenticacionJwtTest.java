@@ -0,0 +1,170 @@
+package com.clinica.veterinaria.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para CacheAutenticacionJwt
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de CacheAutenticacionJwt")
+class CacheAutenticacionJwtTest {
+
+    /** 32 bytes: JwtUtil la usa tal cual como clave HS256. */
+    private static final String SECRET = "ClaveDePruebaDeTreintaYDosBytes!";
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private ClienteUserDetailsService clienteUserDetailsService;
+
+    private JwtUtil jwtUtil;
+    private CacheAutenticacionJwt cache;
+
+    private UserDetails admin;
+    private UserDetails cliente;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        jwtUtil.inicializar();
+        cache = new CacheAutenticacionJwt(jwtUtil, userDetailsService, clienteUserDetailsService, 60, 100);
+
+        admin = User.withUsername("admin@test.com").password("x").roles("ADMIN").build();
+        cliente = User.withUsername("cliente@test.com").password("x").roles("CLIENTE").build();
+    }
+
+    @Test
+    @DisplayName("Debe cargar el usuario una sola vez y servir las siguientes peticiones desde la caché")
+    void testAutenticarUsaCache() {
+        // Arrange
+        String token = jwtUtil.generateToken(admin, Map.of("rol", "ADMIN"));
+        when(userDetailsService.loadUserByUsername("admin@test.com")).thenReturn(admin);
+
+        // Act
+        UserDetails primera = cache.autenticar(token);
+        UserDetails segunda = cache.autenticar(token);
+
+        // Assert
+        assertSame(admin, primera);
+        assertSame(admin, segunda);
+        verify(userDetailsService, times(1)).loadUserByUsername("admin@test.com");
+        verifyNoInteractions(clienteUserDetailsService);
+        assertEquals(1, cache.tamano());
+    }
+
+    @Test
+    @DisplayName("Debe cargar los tokens de rol CLIENTE con el servicio de clientes")
+    void testAutenticarCliente() {
+        // Arrange
+        String token = jwtUtil.generateToken(cliente, Map.of("rol", "CLIENTE"));
+        when(clienteUserDetailsService.loadUserByUsername("cliente@test.com")).thenReturn(cliente);
+
+        // Act
+        UserDetails resultado = cache.autenticar(token);
+
+        // Assert
+        assertSame(cliente, resultado);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token con firma inválida sin consultar usuarios")
+    void testTokenFirmaInvalida() {
+        // Arrange
+        String token = Jwts.builder()
+            .subject("admin@test.com")
+            .expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor("OtraClaveDistintaDeTreintaYDos!!".getBytes(StandardCharsets.UTF_8)))
+            .compact();
+
+        // Act
+        UserDetails resultado = cache.autenticar(token);
+
+        // Assert
+        assertNull(resultado);
+        verifyNoInteractions(userDetailsService, clienteUserDetailsService);
+        assertEquals(0, cache.tamano());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token expirado")
+    void testTokenExpirado() {
+        // Arrange
+        String token = Jwts.builder()
+            .subject("admin@test.com")
+            .expiration(new Date(System.currentTimeMillis() - 1_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+
+        // Act
+        UserDetails resultado = cache.autenticar(token);
+
+        // Assert
+        assertNull(resultado);
+        verifyNoInteractions(userDetailsService, clienteUserDetailsService);
+    }
+
+    @Test
+    @DisplayName("No debe cachear tokens de usuarios inexistentes o inactivos")
+    void testUsuarioNoEncontrado() {
+        // Arrange
+        String token = jwtUtil.generateToken(admin, Map.of("rol", "ADMIN"));
+        when(userDetailsService.loadUserByUsername(anyString()))
+            .thenThrow(new UsernameNotFoundException("Usuario inactivo"));
+        when(clienteUserDetailsService.loadUserByUsername(anyString()))
+            .thenThrow(new UsernameNotFoundException("Cliente no encontrado"));
+
+        // Act
+        UserDetails resultado = cache.autenticar(token);
+
+        // Assert
+        assertNull(resultado);
+        assertEquals(0, cache.tamano());
+    }
+
+    @Test
+    @DisplayName("Invalidar un usuario debe obligar a recargarlo en la siguiente petición")
+    void testInvalidarUsuario() {
+        // Arrange
+        String tokenAdmin = jwtUtil.generateToken(admin, Map.of("rol", "ADMIN"));
+        String tokenCliente = jwtUtil.generateToken(cliente, Map.of("rol", "CLIENTE"));
+        when(userDetailsService.loadUserByUsername("admin@test.com"))
+            .thenReturn(admin)
+            .thenThrow(new UsernameNotFoundException("Usuario inactivo"));
+        when(clienteUserDetailsService.loadUserByUsername("cliente@test.com")).thenReturn(cliente);
+        when(clienteUserDetailsService.loadUserByUsername("admin@test.com"))
+            .thenThrow(new UsernameNotFoundException("Cliente no encontrado"));
+        cache.autenticar(tokenAdmin);
+        cache.autenticar(tokenCliente);
+
+        // Act
+        cache.invalidarUsuario("ADMIN@test.com");
+
+        // Assert
+        assertEquals(1, cache.tamano());
+        assertNull(cache.autenticar(tokenAdmin));
+        assertSame(cliente, cache.autenticar(tokenCliente));
+        verify(clienteUserDetailsService, times(1)).loadUserByUsername("cliente@test.com");
+    }
+}
@@ -0,0 +1,77 @@
+package com.clinica.veterinaria.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para FiltroLimiteIntentos
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de FiltroLimiteIntentos")
+class FiltroLimiteIntentosTest {
+
+    private static final String IP = "203.0.113.7";
+
+    @Mock
+    private LimitadorIntentos limitadorIntentos;
+
+    private FiltroLimiteIntentos filtro;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new FiltroLimiteIntentos(limitadorIntentos, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    private MockHttpServletRequest login(String xForwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(IP);
+        request.addHeader("X-Forwarded-For", xForwardedFor);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Debe usar la IP de la conexión e ignorar X-Forwarded-For")
+    void testIgnoraXForwardedFor() throws Exception {
+        // Arrange
+        when(limitadorIntentos.consumirIp(any(), anyString())).thenReturn(0L);
+
+        // Act
+        filtro.doFilter(login("198.51.100.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filtro.doFilter(login("198.51.100.2"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        verify(limitadorIntentos, times(2)).consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+        verify(limitadorIntentos, never()).consumirIp(any(), eq("198.51.100.1"));
+    }
+
+    @Test
+    @DisplayName("Debe responder 429 con Retry-After al agotar la cubeta")
+    void testRechazaConRetryAfter() throws Exception {
+        // Arrange
+        when(limitadorIntentos.consumirIp(LimitadorIntentos.Familia.LOGIN, IP)).thenReturn(7L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain cadena = new MockFilterChain();
+
+        // Act
+        filtro.doFilter(login("198.51.100.3"), response, cadena);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("7", response.getHeader("Retry-After"));
+        assertNull(cadena.getRequest(), "La petición no debe llegar al controlador");
+    }
+}
@@ -0,0 +1,131 @@
+package com.clinica.veterinaria.security;
+
+import com.clinica.veterinaria.exception.domain.DemasiadasSolicitudesException;
+import com.clinica.veterinaria.logging.IAuditLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para LimitadorIntentos
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de LimitadorIntentos")
+class LimitadorIntentosTest {
+
+    private static final String IP = "203.0.113.7";
+
+    @Mock
+    private IAuditLogger auditLogger;
+
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000_000L);
+
+    private LimitadorIntentos limitador;
+
+    @BeforeEach
+    void setUp() {
+        limitador = crear(true);
+    }
+
+    @Test
+    @DisplayName("Debe permitir hasta la capacidad y después indicar la espera")
+    void testConsumirIp_AgotaCapacidad() {
+        // Arrange: 3 intentos por IP, uno nuevo cada 10 s
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP));
+        }
+
+        // Act
+        long reintentar = limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+
+        // Assert
+        assertEquals(10, reintentar);
+        assertEquals(0, limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, "198.51.100.1"));
+    }
+
+    @Test
+    @DisplayName("Debe recuperar un intento tras el intervalo de recarga")
+    void testConsumirIp_Recarga() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+        }
+        reloj.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(6, limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP));
+
+        // Act
+        reloj.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        // Assert
+        assertEquals(0, limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP));
+        assertTrue(limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP) > 0);
+    }
+
+    @Test
+    @DisplayName("Debe limitar por email sin distinguir mayúsculas y con límites por familia")
+    void testVerificarEmail_LanzaExcepcion() {
+        // Arrange: 2 intentos de login por email
+        limitador.verificarEmail(LimitadorIntentos.Familia.LOGIN, "Ana@Clinica.com");
+        limitador.verificarEmail(LimitadorIntentos.Familia.LOGIN, " ana@clinica.com");
+
+        // Act
+        DemasiadasSolicitudesException ex = assertThrows(DemasiadasSolicitudesException.class,
+            () -> limitador.verificarEmail(LimitadorIntentos.Familia.LOGIN, "ANA@clinica.com"));
+
+        // Assert
+        assertEquals(60, ex.getReintentarEnSegundos());
+        assertDoesNotThrow(() -> limitador.verificarEmail(LimitadorIntentos.Familia.RECUPERACION, "ana@clinica.com"));
+    }
+
+    @Test
+    @DisplayName("Debe auditar solo el primer rechazo de cada racha")
+    void testAuditaPrimerRechazo() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+        }
+
+        // Act: dos rechazos, una recarga y otra racha
+        limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+        limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+        reloj.addAndGet(Duration.ofSeconds(10).toNanos());
+        limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+        limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP);
+
+        // Assert
+        verify(auditLogger, times(2)).logSecurityEvent(eq("RATE_LIMIT_LOGIN"), anyString());
+    }
+
+    @Test
+    @DisplayName("No debe limitar cuando está deshabilitado")
+    void testDeshabilitado() {
+        // Arrange
+        limitador = crear(false);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limitador.consumirIp(LimitadorIntentos.Familia.LOGIN, IP));
+            limitador.verificarEmail(LimitadorIntentos.Familia.LOGIN, "ana@clinica.com");
+        }
+        verifyNoInteractions(auditLogger);
+    }
+
+    private LimitadorIntentos crear(boolean habilitado) {
+        return new LimitadorIntentos(auditLogger, reloj::get, habilitado, 1000,
+            new LimitadorIntentos.Limite(3, Duration.ofSeconds(10)),
+            new LimitadorIntentos.Limite(2, Duration.ofSeconds(60)),
+            new LimitadorIntentos.Limite(2, Duration.ofSeconds(60)),
+            new LimitadorIntentos.Limite(3, Duration.ofSeconds(600)));
+    }
+}
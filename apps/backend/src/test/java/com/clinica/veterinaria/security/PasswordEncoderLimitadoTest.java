@@ -0,0 +1,214 @@
+package com.clinica.veterinaria.security;
+
+import com.clinica.veterinaria.exception.domain.ServicioSaturadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para PasswordEncoderLimitado
+ *
+ * <p>{@link #benchmarkCosteBcrypt()} solo se ejecuta con {@code -Dbenchmark=true}; el objetivo
+ * de latencia por hash se ajusta con {@code -Dbenchmark.objetivo-ms} (por defecto 100):</p>
+ * <pre>mvn test -Dtest=PasswordEncoderLimitadoTest -Dbenchmark=true</pre>
+ */
+@DisplayName("Tests Unitarios de PasswordEncoderLimitado")
+class PasswordEncoderLimitadoTest {
+
+    private PasswordEncoderLimitado encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe delegar encode y matches en el encoder envuelto")
+    void testDelegaEnBcrypt() {
+        // Arrange
+        encoder = new PasswordEncoderLimitado(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), 2);
+
+        // Act
+        String hash = encoder.encode("secreto123");
+
+        // Assert
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secreto123", hash));
+        assertFalse(encoder.matches("otra", hash));
+    }
+
+    @Test
+    @DisplayName("Debe pedir actualizar los hashes con un coste menor que el configurado")
+    void testUpgradeEncoding() {
+        // Arrange
+        encoder = new PasswordEncoderLimitado(new BCryptPasswordEncoder(5), 1, 1, Duration.ofSeconds(5), 2);
+        String hashCosteMenor = new BCryptPasswordEncoder(4).encode("secreto123");
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(hashCosteMenor));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secreto123")));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 503 cuando el pool y la cola están llenos")
+    void testRechazaConPoolLleno() throws Exception {
+        // Arrange: un solo hilo de hashing, sin cola
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        encoder = new PasswordEncoderLimitado(bloqueante(ocupado, liberar), 1, 0, Duration.ofSeconds(10), 3);
+        ExecutorService llamante = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> enCurso = llamante.submit(() -> encoder.encode("a"));
+            assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+            // Act
+            ServicioSaturadoException ex = assertThrows(ServicioSaturadoException.class, () -> encoder.encode("b"));
+
+            // Assert
+            assertEquals(3, ex.getReintentarEnSegundos());
+            liberar.countDown();
+            assertEquals("hash", enCurso.get(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            llamante.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 503 cuando el hash no se obtiene a tiempo")
+    void testRechazaPorEspera() {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        encoder = new PasswordEncoderLimitado(bloqueante(new CountDownLatch(1), liberar), 1, 1,
+            Duration.ofMillis(50), 2);
+
+        // Act & Assert
+        try {
+            assertThrows(ServicioSaturadoException.class, () -> encoder.matches("a", "hash"));
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe propagar las excepciones del encoder envuelto")
+    void testPropagaExcepciones() {
+        // Arrange
+        PasswordEncoder fallido = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("contraseña vacía");
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        encoder = new PasswordEncoderLimitado(fallido, 1, 1, Duration.ofSeconds(5), 2);
+
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> encoder.encode(""));
+        assertEquals("contraseña vacía", ex.getMessage());
+    }
+
+    /**
+     * Coste de un hash BCrypt por work factor en esta máquina y capacidad máxima de logins por
+     * segundo con un hilo de hashing por núcleo. Recomienda el mayor coste cuyo hash no supera
+     * el objetivo de latencia.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: coste de BCrypt por work factor")
+    void benchmarkCosteBcrypt() throws Exception {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        double objetivoMs = Double.parseDouble(System.getProperty("benchmark.objetivo-ms", "100"));
+        int recomendado = 4;
+
+        System.out.printf("BCrypt en %d núcleos (objetivo %.0f ms/hash)%n", nucleos, objetivoMs);
+        for (int coste = 8; coste <= 14; coste++) {
+            BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(coste);
+            String hash = bcrypt.encode("Contraseña-De-Prueba-1");
+            int iteraciones = Math.max(3, 1 << (14 - coste));
+
+            // Calentamiento del JIT
+            bcrypt.matches("Contraseña-De-Prueba-1", hash);
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < iteraciones; i++) {
+                bcrypt.matches("Contraseña-De-Prueba-1", hash);
+            }
+            double ms = (System.nanoTime() - inicio) / 1_000_000.0 / iteraciones;
+            System.out.printf("  coste %2d: %7.1f ms/hash, máx. %6.0f logins/s%n", coste, ms, nucleos * 1000 / ms);
+            if (ms <= objetivoMs) {
+                recomendado = coste;
+            }
+        }
+        System.out.printf("Coste recomendado: app.security.bcrypt.coste=%d%n", recomendado);
+
+        // Ráfaga de logins a través del pool acotado con el coste recomendado
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(recomendado);
+        String hash = bcrypt.encode("Contraseña-De-Prueba-1");
+        encoder = new PasswordEncoderLimitado(bcrypt, nucleos, 64, Duration.ofSeconds(5), 2);
+        int peticiones = 200;
+        AtomicInteger rechazadas = new AtomicInteger();
+        ExecutorService tomcat = Executors.newFixedThreadPool(peticiones);
+        List<Future<?>> futuros = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < peticiones; i++) {
+            futuros.add(tomcat.submit(() -> {
+                try {
+                    encoder.matches("Contraseña-De-Prueba-1", hash);
+                } catch (ServicioSaturadoException e) {
+                    rechazadas.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        tomcat.shutdown();
+        System.out.printf("Ráfaga de %d logins: %.2f s, %d rechazados con 503%n", peticiones, segundos, rechazadas.get());
+    }
+
+    /**
+     * Encoder que se bloquea hasta que se libera el latch.
+     */
+    private static PasswordEncoder bloqueante(CountDownLatch ocupado, CountDownLatch liberar) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                ocupado.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return "hash".equals(encode(rawPassword));
+            }
+        };
+    }
+}
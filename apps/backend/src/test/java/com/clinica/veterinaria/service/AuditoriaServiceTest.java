@@ -0,0 +1,124 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.CursorPageDTO;
+import com.clinica.veterinaria.dto.EventoAuditoriaDTO;
+import com.clinica.veterinaria.entity.EventoAuditoria;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
+import com.clinica.veterinaria.repository.EventoAuditoriaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para AuditoriaService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de AuditoriaService")
+class AuditoriaServiceTest {
+
+    @Mock
+    private EventoAuditoriaRepository eventoAuditoriaRepository;
+
+    @InjectMocks
+    private AuditoriaService auditoriaService;
+
+    @Test
+    @DisplayName("Debe consultar por entidad y devolver el cursor de la siguiente página")
+    void testBuscarPorEntidad() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2026, 10, 1, 9, 0);
+        List<EventoAuditoria> filas = List.of(evento(30L, fecha), evento(29L, fecha), evento(28L, fecha.minusHours(1)));
+        when(eventoAuditoriaRepository.findPorEntidad(eq("Paciente"), eq("42"), isNull(), isNull(), isNull(),
+            isNull(), isNull(), eq(PageRequest.of(0, 3)))).thenReturn(filas);
+
+        // Act
+        CursorPageDTO<EventoAuditoriaDTO> pagina = auditoriaService.buscar(
+            "Paciente", "42", null, null, null, null, null, 2);
+
+        // Assert
+        assertEquals(2, pagina.getContent().size());
+        assertTrue(pagina.isHasNext());
+        assertEquals(new CursorPaginacion(fecha, 29L).codificar(), pagina.getNextCursor());
+        assertEquals("Paciente", pagina.getContent().get(0).getEntidad());
+        verify(eventoAuditoriaRepository, never()).findRecientes(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe consultar por usuario continuando desde el cursor")
+    void testBuscarPorUsuario() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2026, 10, 1, 9, 0);
+        String after = new CursorPaginacion(fecha, 10L).codificar();
+        when(eventoAuditoriaRepository.findPorUsuario(eq("vet@clinica.com"), eq("UPDATE"), isNull(), isNull(),
+            eq(fecha), eq(10L), any())).thenReturn(List.of(evento(9L, fecha)));
+
+        // Act
+        CursorPageDTO<EventoAuditoriaDTO> pagina = auditoriaService.buscar(
+            null, null, "vet@clinica.com", "UPDATE", null, null, after, 20);
+
+        // Assert
+        assertEquals(1, pagina.getContent().size());
+        assertFalse(pagina.isHasNext());
+        assertNull(pagina.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Debe consultar por fecha sin filtros de entidad ni usuario")
+    void testBuscarRecientes() {
+        // Arrange
+        LocalDateTime desde = LocalDateTime.of(2026, 9, 1, 0, 0);
+        when(eventoAuditoriaRepository.findRecientes(eq("LOGIN_FAILURE"), eq(desde), isNull(), isNull(), isNull(), any()))
+            .thenReturn(List.of());
+
+        // Act
+        CursorPageDTO<EventoAuditoriaDTO> pagina = auditoriaService.buscar(
+            null, null, null, "LOGIN_FAILURE", desde, null, null, 20);
+
+        // Assert
+        assertTrue(pagina.getContent().isEmpty());
+        verify(eventoAuditoriaRepository).findRecientes(eq("LOGIN_FAILURE"), eq(desde), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar combinaciones de filtros inválidas")
+    void testBuscar_FiltrosInvalidos() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+        // Act & Assert
+        assertThrows(InvalidDataException.class,
+            () -> auditoriaService.buscar(null, "42", null, null, null, null, null, 20));
+        assertThrows(InvalidDataException.class,
+            () -> auditoriaService.buscar("Paciente", null, null, "DELETE", null, null, null, 20));
+        assertThrows(InvalidDataException.class,
+            () -> auditoriaService.buscar(null, null, null, null, fecha, fecha, null, 20));
+        assertThrows(InvalidDataException.class,
+            () -> auditoriaService.buscar(null, null, null, null, null, null, null, 101));
+        verifyNoInteractions(eventoAuditoriaRepository);
+    }
+
+    private EventoAuditoria evento(Long id, LocalDateTime fecha) {
+        return EventoAuditoria.builder()
+            .id(id)
+            .fecha(fecha)
+            .accion("UPDATE")
+            .entidad("Paciente")
+            .entidadId("42")
+            .usuario("vet@clinica.com")
+            .detalle("✎ UPDATED Paciente with ID 42 | User: vet@clinica.com | Old: Peso: 10 | New: Peso: 12")
+            .build();
+    }
+}
@@ -9,6 +9,7 @@ import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.logging.IAuditLogger;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import com.clinica.veterinaria.security.JwtUtil;
+import com.clinica.veterinaria.security.LimitadorIntentos;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -55,6 +56,9 @@ class AuthServiceTest {
     @Mock
     private IAuditLogger auditLogger;
 
+    @Mock
+    private LimitadorIntentos limitadorIntentos;
+
     @Mock
     private HttpServletRequest httpServletRequest;
 
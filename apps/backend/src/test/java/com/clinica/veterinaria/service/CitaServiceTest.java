@@ -25,7 +25,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -56,6 +58,21 @@ class CitaServiceTest {
     @Mock(lenient = true)
     private NotificacionService notificacionService;
 
+    @Mock
+    private DisponibilidadService disponibilidadService;
+
+    @Mock
+    private MetricaDiariaService metricaDiariaService;
+
+    @Mock(lenient = true)
+    private MensajeSalienteService mensajeSalienteService;
+
+    @Mock(lenient = true)
+    private SMSService smsService;
+
+    @Mock
+    private RecordatorioCitaService recordatorioCitaService;
+
     @InjectMocks
     private CitaService citaService;
 
@@ -68,7 +85,8 @@ class CitaServiceTest {
 
     @BeforeEach
     void setUp() {
-        fechaFutura = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0);
+        // Un lunes a las 10:00: siempre futuro y dentro del horario, sea cual sea el día de la ejecución
+        fechaFutura = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(10, 0);
 
         propietario = Propietario.builder()
             .id(1L)
@@ -173,8 +191,8 @@ class CitaServiceTest {
         when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
         when(propietarioRepository.findById(1L)).thenReturn(Optional.of(propietario));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(profesional));
-        when(citaRepository.findByProfesionalIdAndFechaBetween(any(), any(), any()))
-            .thenReturn(List.of()); // No hay citas solapadas
+        when(disponibilidadService.buscarConflictoEnBaseDeDatos(any(), any(), any()))
+            .thenReturn(Optional.empty()); // No hay citas solapadas
         when(citaRepository.save(any(Cita.class))).thenAnswer(invocation -> {
             Cita c = invocation.getArgument(0);
             c.setId(3L);
@@ -192,6 +210,31 @@ class CitaServiceTest {
         verify(propietarioRepository, times(1)).findById(1L);
         verify(usuarioRepository, times(1)).findById(1L);
         verify(citaRepository, times(1)).save(any(Cita.class));
+        verify(disponibilidadService).reservar(3L, 1L, fechaFutura);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar la cita si el profesional ya tiene la franja ocupada")
+    void testCreateProfesionalOcupado() {
+        // Arrange
+        CitaDTO citaDTO = CitaDTO.builder()
+            .fecha(fechaFutura)
+            .motivo("Nueva consulta")
+            .pacienteId(1L)
+            .propietarioId(1L)
+            .profesionalId(1L)
+            .build();
+
+        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(propietarioRepository.findById(1L)).thenReturn(Optional.of(propietario));
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(profesional));
+        when(disponibilidadService.buscarConflictoEnBaseDeDatos(1L, fechaFutura, null))
+            .thenReturn(Optional.of(fechaFutura.toLocalTime()));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> citaService.create(citaDTO));
+        verify(citaRepository, never()).save(any(Cita.class));
+        verify(citaRepository, never()).findByProfesionalIdAndFechaBetween(any(), any(), any());
     }
 
     @Test
@@ -335,8 +378,8 @@ class CitaServiceTest {
         when(citaRepository.findById(1L)).thenReturn(Optional.of(cita1));
         // La cita ya tiene paciente y propietario, solo se necesita si cambian
         // Como la cita ya tiene los mismos IDs, no se necesitan estos stubbings
-        when(citaRepository.findByProfesionalIdAndFechaBetween(any(), any(), any()))
-            .thenReturn(List.of()); // No hay citas solapadas
+        when(disponibilidadService.buscarConflictoEnBaseDeDatos(any(), any(), any()))
+            .thenReturn(Optional.empty()); // No hay citas solapadas
         when(citaRepository.save(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -367,6 +410,21 @@ class CitaServiceTest {
         verify(citaRepository, times(1)).save(any(Cita.class));
     }
 
+    @Test
+    @DisplayName("Debe liberar la franja al cancelar una cita")
+    void testCambiarEstadoCanceladaLiberaFranja() {
+        // Arrange
+        when(citaRepository.findById(1L)).thenReturn(Optional.of(cita1));
+        when(citaRepository.save(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        citaService.cambiarEstado(1L, EstadoCita.CANCELADA);
+
+        // Assert
+        verify(disponibilidadService).liberar(1L, 1L, fechaFutura);
+        verify(disponibilidadService, never()).reservar(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Debe eliminar una cita")
     void testDelete() {
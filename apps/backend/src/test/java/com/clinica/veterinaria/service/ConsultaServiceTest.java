@@ -47,6 +47,12 @@ class ConsultaServiceTest {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private MetricaDiariaService metricaDiariaService;
+
+    @Mock
+    private HistorialMedicoCacheService historialMedicoCacheService;
+
     @InjectMocks
     private ConsultaService consultaService;
 
@@ -330,26 +336,29 @@ class ConsultaServiceTest {
     @DisplayName("Debe eliminar una consulta")
     void testDelete() {
         // Arrange
-        when(consultaRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(consultaRepository).deleteById(1L);
+        when(consultaRepository.findById(1L)).thenReturn(Optional.of(consulta1));
+        doNothing().when(consultaRepository).delete(consulta1);
 
         // Act
         consultaService.delete(1L);
 
         // Assert
-        verify(consultaRepository, times(1)).existsById(1L);
-        verify(consultaRepository, times(1)).deleteById(1L);
+        verify(consultaRepository, times(1)).findById(1L);
+        verify(consultaRepository, times(1)).delete(consulta1);
+        verify(metricaDiariaService, times(1)).registrarConsulta(consulta1.getFecha(), -1);
+        verify(historialMedicoCacheService, times(1)).invalidar(paciente.getId());
     }
 
     @Test
     @DisplayName("Debe lanzar excepción al eliminar consulta inexistente")
     void testDeleteNoExiste() {
         // Arrange
-        when(consultaRepository.existsById(999L)).thenReturn(false);
+        when(consultaRepository.findById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> consultaService.delete(999L));
-        verify(consultaRepository, never()).deleteById(any());
+        verify(consultaRepository, never()).delete(any(Consulta.class));
+        verify(metricaDiariaService, never()).registrarConsulta(any(), anyLong());
     }
 
     @Test
@@ -0,0 +1,116 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.repository.NotificacionRepository;
+import com.clinica.veterinaria.repository.NotificacionRepository.ConteoNoLeidasView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ContadorNotificacionesService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de ContadorNotificacionesService")
+class ContadorNotificacionesServiceTest {
+
+    @Mock
+    private NotificacionRepository notificacionRepository;
+
+    @Mock
+    private WebSocketNotificationService webSocketNotificationService;
+
+    @InjectMocks
+    private ContadorNotificacionesService contadorNotificacionesService;
+
+    @Test
+    @DisplayName("Debe consultar la base de datos solo la primera vez")
+    void testObtenerInicializaUnaVez() {
+        // Arrange
+        when(notificacionRepository.countByUsuarioIdAndLeidaFalse(1L)).thenReturn(4L);
+
+        // Act
+        long primera = contadorNotificacionesService.obtener(1L);
+        long segunda = contadorNotificacionesService.obtener(1L);
+
+        // Assert
+        assertEquals(4L, primera);
+        assertEquals(4L, segunda);
+        verify(notificacionRepository, times(1)).countByUsuarioIdAndLeidaFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Debe ajustar el contador en memoria sin bajar de cero")
+    void testSumar() {
+        // Arrange
+        when(notificacionRepository.countByUsuarioIdAndLeidaFalse(1L)).thenReturn(1L);
+        contadorNotificacionesService.obtener(1L);
+
+        // Act & Assert
+        assertEquals(3L, contadorNotificacionesService.sumar(1L, 2));
+        assertEquals(0L, contadorNotificacionesService.sumar(1L, -5));
+        verify(notificacionRepository, times(1)).countByUsuarioIdAndLeidaFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Sumar a un contador no inicializado debe tomar el valor de la base de datos")
+    void testSumarSinInicializar() {
+        // Arrange: la base de datos ya incluye la notificación recién confirmada
+        when(notificacionRepository.countByUsuarioIdAndLeidaFalse(1L)).thenReturn(7L);
+
+        // Act
+        long resultado = contadorNotificacionesService.sumar(1L, 1);
+
+        // Assert
+        assertEquals(7L, resultado);
+    }
+
+    @Test
+    @DisplayName("Reiniciar debe dejar el contador a cero sin consultar la base de datos")
+    void testReiniciar() {
+        // Act
+        contadorNotificacionesService.reiniciar(1L);
+
+        // Assert
+        assertEquals(0L, contadorNotificacionesService.obtener(1L));
+        verify(notificacionRepository, never()).countByUsuarioIdAndLeidaFalse(anyLong());
+    }
+
+    @Test
+    @DisplayName("El reconciliador debe corregir y notificar solo los contadores desviados")
+    void testReconciliar() {
+        // Arrange
+        when(notificacionRepository.countByUsuarioIdAndLeidaFalse(1L)).thenReturn(2L);
+        when(notificacionRepository.countByUsuarioIdAndLeidaFalse(2L)).thenReturn(5L);
+        contadorNotificacionesService.obtener(1L);
+        contadorNotificacionesService.obtener(2L);
+        when(notificacionRepository.contarNoLeidasPorUsuario(anyCollection()))
+            .thenReturn(List.of(conteo(1L, 2L)));
+
+        // Act
+        int corregidos = contadorNotificacionesService.reconciliar();
+
+        // Assert: el usuario 2 ya no tiene no leídas
+        assertEquals(1, corregidos);
+        assertEquals(2L, contadorNotificacionesService.obtener(1L));
+        assertEquals(0L, contadorNotificacionesService.obtener(2L));
+        verify(webSocketNotificationService, times(1)).enviarContadorNotificaciones(2L, 0L);
+        verify(webSocketNotificationService, never()).enviarContadorNotificaciones(eq(1L), anyLong());
+    }
+
+    private static ConteoNoLeidasView conteo(Long usuarioId, Long total) {
+        return new ConteoNoLeidasView() {
+            @Override public Long getUsuarioId() { return usuarioId; }
+            @Override public Long getTotal() { return total; }
+        };
+    }
+}
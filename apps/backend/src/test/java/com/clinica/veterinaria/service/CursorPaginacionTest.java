@@ -0,0 +1,90 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.CursorPageDTO;
+import com.clinica.veterinaria.exception.domain.InvalidDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CursorPaginacion
+ */
+@DisplayName("Tests Unitarios de CursorPaginacion")
+class CursorPaginacionTest {
+
+    @Test
+    @DisplayName("Debe codificar y decodificar el cursor sin perder precisión")
+    void testCodificarDecodificar() {
+        // Arrange
+        CursorPaginacion cursor = new CursorPaginacion(LocalDateTime.of(2026, 10, 17, 10, 0, 0, 123456000), 42L);
+
+        // Act
+        CursorPaginacion decodificado = CursorPaginacion.decodificar(cursor.codificar());
+
+        // Assert
+        assertEquals(cursor, decodificado);
+    }
+
+    @Test
+    @DisplayName("Sin cursor debe empezar desde la primera página")
+    void testDecodificarVacio() {
+        assertNull(CursorPaginacion.decodificar(null));
+        assertNull(CursorPaginacion.decodificar(" "));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cursores mal formados")
+    void testDecodificarInvalido() {
+        assertThrows(InvalidDataException.class, () -> CursorPaginacion.decodificar("%%%"));
+        assertThrows(InvalidDataException.class, () -> CursorPaginacion.decodificar("bm8tZmVjaGE"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tamaños de página fuera de rango")
+    void testValidarTamano() {
+        assertEquals(20, CursorPaginacion.validarTamano(20));
+        assertThrows(InvalidDataException.class, () -> CursorPaginacion.validarTamano(0));
+        assertThrows(InvalidDataException.class,
+            () -> CursorPaginacion.validarTamano(CursorPaginacion.TAMANO_MAXIMO + 1));
+    }
+
+    @Test
+    @DisplayName("Debe recortar la fila extra y apuntar el cursor a la última fila entregada")
+    void testPaginaConSiguiente() {
+        // Arrange
+        LocalDateTime base = LocalDateTime.of(2026, 10, 17, 10, 0);
+        List<CursorPaginacion> filas = List.of(
+            new CursorPaginacion(base, 3L),
+            new CursorPaginacion(base, 2L),
+            new CursorPaginacion(base.minusDays(1), 1L));
+
+        // Act
+        CursorPageDTO<Long> pagina = CursorPaginacion.pagina(filas, 2, f -> f, CursorPaginacion::id, null);
+
+        // Assert
+        assertEquals(List.of(3L, 2L), pagina.getContent());
+        assertTrue(pagina.isHasNext());
+        assertEquals(new CursorPaginacion(base, 2L), CursorPaginacion.decodificar(pagina.getNextCursor()));
+        assertNull(pagina.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("La última página no debe tener cursor siguiente")
+    void testUltimaPagina() {
+        // Arrange
+        List<CursorPaginacion> filas = List.of(new CursorPaginacion(LocalDateTime.of(2026, 10, 17, 10, 0), 1L));
+
+        // Act
+        CursorPageDTO<Long> pagina = CursorPaginacion.pagina(filas, 2, f -> f, CursorPaginacion::id, 1L);
+
+        // Assert
+        assertEquals(1, pagina.getContent().size());
+        assertFalse(pagina.isHasNext());
+        assertNull(pagina.getNextCursor());
+        assertEquals(1L, pagina.getTotalElements());
+    }
+}
@@ -21,9 +21,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -36,9 +39,6 @@ class DashboardServiceTest {
     @Mock
     private CitaRepository citaRepository;
 
-    @Mock
-    private PacienteRepository pacienteRepository;
-
     @Mock
     private PropietarioRepository propietarioRepository;
 
@@ -54,6 +54,9 @@ class DashboardServiceTest {
     @Mock
     private PrescripcionRepository prescripcionRepository;
 
+    @Mock
+    private MetricaDiariaService metricaDiariaService;
+
     @InjectMocks
     private DashboardService dashboardService;
 
@@ -140,26 +143,15 @@ class DashboardServiceTest {
         LocalDateTime inicioHoy = hoy.atStartOfDay();
         LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
 
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(consulta1));
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
+        when(metricaDiariaService.contarCitas(hoy, hoy)).thenReturn(2L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(2L);
+        when(metricaDiariaService.contarCitasEnEstados(
+            List.of(Cita.EstadoCita.PENDIENTE, Cita.EstadoCita.CONFIRMADA))).thenReturn(2L);
+        when(propietarioRepository.countActivos()).thenReturn(1L);
+        when(citaRepository.findPrimerasCitasEnRango(eq(inicioHoy), eq(finHoy), any()))
             .thenReturn(Arrays.asList(cita1, cita2));
+        when(metricaDiariaService.contarConsultasPorDia(any(), any()))
+            .thenReturn(Map.of(consulta1.getFecha().toLocalDate(), 1L));
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -170,7 +162,7 @@ class DashboardServiceTest {
         assertEquals(2L, resultado.getPacientesActivos());
         assertEquals(2L, resultado.getConsultasPendientes());
         assertEquals(1L, resultado.getTotalPropietarios());
-        assertNotNull(resultado.getProximasCitas());
+        assertEquals(2, resultado.getProximasCitas().size());
         assertNotNull(resultado.getConsultasPorDia());
         assertNotNull(resultado.getDistribucionEspecies());
         assertNotNull(resultado.getCitasPorEstado());
@@ -182,16 +174,32 @@ class DashboardServiceTest {
         assertNotNull(resultado.getVacunacionesVencidas());
         assertNotNull(resultado.getProductosStockBajo());
         assertNotNull(resultado.getPrescripcionesMes());
-        
-        // Se llama múltiples veces: en getDashboardStats, getProximasCitas y getActividadReciente
-        verify(citaRepository, atLeast(2)).findByFechaBetween(any(), any());
-        // Se llama 2 veces: una en getDashboardStats y otra en getDistribucionEspecies
-        verify(pacienteRepository, times(2)).findByActivo(true);
-        verify(propietarioRepository, times(1)).findByActivo(true);
-        verify(vacunacionRepository, times(1)).findProximasAVencer(any(), any());
-        verify(vacunacionRepository, times(1)).findVencidas(any());
-        verify(productoRepository, times(1)).findProductosConStockBajo();
-        verify(prescripcionRepository, times(1)).findByFechaEmisionBetween(any(), any());
+
+        // Una lectura de daily_metrics para los últimos 7 días y otra para los últimos 30
+        verify(metricaDiariaService, times(2)).contarConsultasPorDia(any(), any());
+        verify(vacunacionRepository, times(1)).countProximasAVencer(any(), any());
+        verify(vacunacionRepository, times(1)).countVencidas(any());
+        verify(productoRepository, times(1)).countProductosConStockBajo();
+        verify(metricaDiariaService, times(1)).contarPrescripciones(any(), any());
+        verify(metricaDiariaService, times(1)).contarCitasPorEstado();
+    }
+
+    @Test
+    @DisplayName("No debe cargar tablas completas para calcular los indicadores")
+    void testGetDashboardStats_NoCargaTablasCompletas() {
+        // Act
+        dashboardService.getDashboardStats();
+
+        // Assert
+        verify(citaRepository, never()).findAll();
+        verify(citaRepository, never()).findByFechaBetween(any(), any());
+        verify(citaRepository, never()).findByEstadoIn(any());
+        verify(propietarioRepository, never()).findByActivo(any());
+        verify(consultaRepository, never()).findByFechaBetween(any(), any());
+        verify(vacunacionRepository, never()).findProximasAVencer(any(), any());
+        verify(vacunacionRepository, never()).findVencidas(any());
+        verify(productoRepository, never()).findProductosConStockBajo();
+        verify(prescripcionRepository, never()).findByFechaEmisionBetween(any(), any());
     }
 
     @Test
@@ -202,61 +210,39 @@ class DashboardServiceTest {
         LocalDateTime inicioHoy = hoy.atStartOfDay();
         LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
 
-        // Crear más de 4 citas
-        List<Cita> muchasCitas = Arrays.asList(
+        List<Cita> primerasCitas = Arrays.asList(
             cita1, cita2,
-            Cita.builder().id(3L).fecha(fechaHoy.plusHours(6)).paciente(paciente1).propietario(propietario).build(),
-            Cita.builder().id(4L).fecha(fechaHoy.plusHours(8)).paciente(paciente2).propietario(propietario).build(),
-            Cita.builder().id(5L).fecha(fechaHoy.plusHours(10)).paciente(paciente1).propietario(propietario).build()
+            Cita.builder().id(3L).fecha(fechaHoy.plusHours(6)).estado(Cita.EstadoCita.PENDIENTE)
+                .paciente(paciente1).propietario(propietario).build(),
+            Cita.builder().id(4L).fecha(fechaHoy.plusHours(8)).estado(Cita.EstadoCita.PENDIENTE)
+                .paciente(paciente2).propietario(propietario).build()
         );
 
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(muchasCitas);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(muchasCitas);
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.findPrimerasCitasEnRango(eq(inicioHoy), eq(finHoy), any()))
+            .thenReturn(primerasCitas);
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
 
         // Assert
         assertNotNull(resultado.getProximasCitas());
-        assertTrue(resultado.getProximasCitas().size() <= 4);
+        assertEquals(4, resultado.getProximasCitas().size());
+        // El límite se aplica en la consulta, no en memoria
+        verify(citaRepository).findPrimerasCitasEnRango(eq(inicioHoy), eq(finHoy),
+            argThat(pageable -> pageable.getPageNumber() == 0 && pageable.getPageSize() == 4));
     }
 
     @Test
     @DisplayName("Debe calcular distribución de especies correctamente")
     void testGetDashboardStats_DistribucionEspecies() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList());
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2)); // Perro y Gato
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList());
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList());
+        when(metricaDiariaService.contarPacientesActivosPorEspecie()).thenReturn(Map.of(
+            "Perro", 3L,
+            "Canino", 1L,
+            "Gato", 2L,
+            "Loro", 1L,
+            "", 1L
+        ));
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -264,46 +250,17 @@ class DashboardServiceTest {
         // Assert
         assertNotNull(resultado.getDistribucionEspecies());
         assertEquals(3, resultado.getDistribucionEspecies().size()); // Caninos, Felinos, Otros
-        
-        // Verificar que hay al menos un canino y un felino
-        boolean tieneCanino = resultado.getDistribucionEspecies().stream()
-            .anyMatch(d -> d.getNombre().equals("Caninos") && d.getValor() > 0);
-        boolean tieneFelino = resultado.getDistribucionEspecies().stream()
-            .anyMatch(d -> d.getNombre().equals("Felinos") && d.getValor() > 0);
-        
-        assertTrue(tieneCanino);
-        assertTrue(tieneFelino);
+        assertEquals("Caninos", resultado.getDistribucionEspecies().get(0).getNombre());
+        assertEquals(4L, resultado.getDistribucionEspecies().get(0).getValor());
+        assertEquals("Felinos", resultado.getDistribucionEspecies().get(1).getNombre());
+        assertEquals(2L, resultado.getDistribucionEspecies().get(1).getValor());
+        assertEquals("Otros", resultado.getDistribucionEspecies().get(2).getNombre());
+        assertEquals(2L, resultado.getDistribucionEspecies().get(2).getValor());
     }
 
     @Test
     @DisplayName("Debe manejar datos vacíos correctamente")
     void testGetDashboardStats_DatosVacios() {
-        // Arrange
-        LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList());
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList());
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList());
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList());
-
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
 
@@ -315,69 +272,33 @@ class DashboardServiceTest {
         assertEquals(0L, resultado.getTotalPropietarios());
         assertNotNull(resultado.getProximasCitas());
         assertTrue(resultado.getProximasCitas().isEmpty());
-        assertNotNull(resultado.getConsultasPorDia());
+        assertEquals(7, resultado.getConsultasPorDia().size());
+        assertTrue(resultado.getConsultasPorDia().stream().allMatch(d -> d.getConsultas() == 0L));
+        assertEquals(30, resultado.getTendenciasConsultas().size());
         assertNotNull(resultado.getDistribucionEspecies());
+        assertTrue(resultado.getActividadReciente().isEmpty());
     }
 
     @Test
-    @DisplayName("Debe ordenar próximas citas por fecha")
+    @DisplayName("Debe conservar el orden por hora de las próximas citas")
     void testGetDashboardStats_OrdenaProximasCitas() {
         // Arrange
         LocalDate hoy = LocalDate.now();
         LocalDateTime inicioHoy = hoy.atStartOfDay();
         LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
 
-        Cita citaTarde = Cita.builder()
-            .id(3L)
-            .fecha(fechaHoy.plusHours(6))
-            .paciente(paciente1)
-            .propietario(propietario)
-            .build();
-
-        Cita citaTemprano = Cita.builder()
-            .id(4L)
-            .fecha(fechaHoy.plusHours(1))
-            .paciente(paciente2)
-            .propietario(propietario)
-            .build();
-
-        // Citas en orden desordenado
-        List<Cita> citasDesordenadas = Arrays.asList(citaTarde, cita1, citaTemprano, cita2);
-
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(citasDesordenadas);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(citasDesordenadas);
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList());
+        when(citaRepository.findPrimerasCitasEnRango(eq(inicioHoy), eq(finHoy), any()))
+            .thenReturn(Arrays.asList(cita1, cita2));
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
 
         // Assert
-        assertNotNull(resultado.getProximasCitas());
-        if (resultado.getProximasCitas().size() > 1) {
-            // Verificar que están ordenadas por fecha
-            for (int i = 0; i < resultado.getProximasCitas().size() - 1; i++) {
-                LocalDateTime fecha1 = resultado.getProximasCitas().get(i).getFecha();
-                LocalDateTime fecha2 = resultado.getProximasCitas().get(i + 1).getFecha();
-                assertTrue(fecha1.isBefore(fecha2) || fecha1.isEqual(fecha2));
-            }
-        }
+        assertEquals(2, resultado.getProximasCitas().size());
+        assertEquals(cita1.getId(), resultado.getProximasCitas().get(0).getId());
+        assertEquals(cita2.getId(), resultado.getProximasCitas().get(1).getId());
+        assertEquals("Max", resultado.getProximasCitas().get(0).getPacienteNombre());
+        assertEquals("Juan Pérez", resultado.getProximasCitas().get(0).getPropietarioNombre());
     }
 
     @Test
@@ -387,34 +308,18 @@ class DashboardServiceTest {
         LocalDate fechaInicio = LocalDate.now().minusDays(7);
         LocalDate fechaFin = LocalDate.now();
 
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(consulta1));
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList(cita1, cita2));
+        when(metricaDiariaService.contarConsultasPorDia(any(), any()))
+            .thenReturn(Map.of(fechaInicio.plusDays(1), 3L));
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats(fechaInicio, fechaFin);
 
         // Assert
         assertNotNull(resultado);
-        // Se llama múltiples veces: en getConsultasPorDia, getTendenciasConsultas y getActividadReciente
-        verify(consultaRepository, atLeast(1)).findByFechaBetween(any(), any());
+        assertEquals(8, resultado.getConsultasPorDia().size());
+        assertEquals(0L, resultado.getConsultasPorDia().get(0).getConsultas());
+        assertEquals(3L, resultado.getConsultasPorDia().get(1).getConsultas());
+        verify(metricaDiariaService).contarConsultasPorDia(fechaInicio, fechaFin);
     }
 
     @Test
@@ -422,50 +327,9 @@ class DashboardServiceTest {
     void testGetDashboardStats_Vacunaciones() {
         // Arrange
         LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
-        Vacuna vacuna = Vacuna.builder()
-            .id(1L)
-            .nombre("Antirrábica")
-            .especie("Canino")
-            .activo(true)
-            .build();
-
-        Vacunacion vacunacionProxima = Vacunacion.builder()
-            .id(1L)
-            .paciente(paciente1)
-            .vacuna(vacuna)
-            .proximaDosis(hoy.plusDays(15))
-            .build();
-
-        Vacunacion vacunacionVencida = Vacunacion.builder()
-            .id(2L)
-            .paciente(paciente2)
-            .vacuna(vacuna)
-            .proximaDosis(hoy.minusDays(5))
-            .build();
 
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList());
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList());
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList(vacunacionProxima));
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList(vacunacionVencida));
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList());
+        when(vacunacionRepository.countProximasAVencer(hoy, hoy.plusDays(30))).thenReturn(1L);
+        when(vacunacionRepository.countVencidas(hoy)).thenReturn(1L);
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -480,44 +344,7 @@ class DashboardServiceTest {
     @DisplayName("Debe calcular productos con stock bajo")
     void testGetDashboardStats_ProductosStockBajo() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
-        CategoriaProducto categoria = CategoriaProducto.builder()
-            .id(1L)
-            .nombre("Medicamentos")
-            .build();
-
-        Producto productoStockBajo = Producto.builder()
-            .id(1L)
-            .nombre("Medicamento A")
-            .stockActual(java.math.BigDecimal.valueOf(5))
-            .stockMinimo(java.math.BigDecimal.valueOf(10))
-            .activo(true)
-            .categoria(categoria)
-            .build();
-
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList());
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList());
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList(productoStockBajo));
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList());
+        when(productoRepository.countProductosConStockBajo()).thenReturn(1L);
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -532,37 +359,8 @@ class DashboardServiceTest {
     void testGetDashboardStats_PrescripcionesMes() {
         // Arrange
         LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
-        Prescripcion prescripcion = Prescripcion.builder()
-            .id(1L)
-            .fechaEmision(LocalDateTime.now().minusDays(5))
-            .consulta(consulta1)
-            .build();
 
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList());
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList());
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(consulta1));
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList(prescripcion));
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList());
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(consulta1));
+        when(metricaDiariaService.contarPrescripciones(hoy.withDayOfMonth(1), hoy)).thenReturn(1L);
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -576,46 +374,10 @@ class DashboardServiceTest {
     @DisplayName("Debe obtener citas por estado")
     void testGetDashboardStats_CitasPorEstado() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
-        Cita citaConfirmada = Cita.builder()
-            .id(3L)
-            .fecha(fechaHoy.plusHours(1))
-            .estado(Cita.EstadoCita.CONFIRMADA)
-            .paciente(paciente1)
-            .propietario(propietario)
-            .build();
-
-        Cita citaAtendida = Cita.builder()
-            .id(4L)
-            .fecha(fechaHoy.minusDays(1))
-            .estado(Cita.EstadoCita.ATENDIDA)
-            .paciente(paciente2)
-            .propietario(propietario)
-            .build();
-
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList(cita1, cita2, citaConfirmada, citaAtendida));
+        when(metricaDiariaService.contarCitasPorEstado()).thenReturn(Map.of(
+            Cita.EstadoCita.CONFIRMADA, 3L,
+            Cita.EstadoCita.ATENDIDA, 1L
+        ));
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -623,22 +385,21 @@ class DashboardServiceTest {
         // Assert
         assertNotNull(resultado);
         assertNotNull(resultado.getCitasPorEstado());
-        assertTrue(resultado.getCitasPorEstado().size() > 0);
+        assertEquals(Cita.EstadoCita.values().length, resultado.getCitasPorEstado().size());
         
-        // Verificar que hay citas por estado
+        // Verificar que hay citas por estado y que los estados sin citas aparecen con 0
         boolean tieneConfirmada = resultado.getCitasPorEstado().stream()
-            .anyMatch(c -> c.getEstado().equals("CONFIRMADA") && c.getCantidad() > 0);
+            .anyMatch(c -> c.getEstado().equals("CONFIRMADA") && c.getCantidad() == 3L);
+        boolean pendienteVacio = resultado.getCitasPorEstado().stream()
+            .anyMatch(c -> c.getEstado().equals("PENDIENTE") && c.getCantidad() == 0L);
         assertTrue(tieneConfirmada);
+        assertTrue(pendienteVacio);
     }
 
     @Test
     @DisplayName("Debe obtener actividad reciente")
     void testGetDashboardStats_ActividadReciente() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioHoy = hoy.atStartOfDay();
-        LocalDateTime finHoy = hoy.atTime(LocalTime.MAX);
-
         Consulta consultaReciente = Consulta.builder()
             .id(2L)
             .fecha(LocalDateTime.now().minusDays(1))
@@ -648,30 +409,24 @@ class DashboardServiceTest {
 
         Prescripcion prescripcionReciente = Prescripcion.builder()
             .id(1L)
-            .fechaEmision(LocalDateTime.now().minusDays(2))
+            .fechaEmision(LocalDateTime.now().minusHours(36))
             .consulta(consultaReciente)
             .build();
 
-        when(citaRepository.findByFechaBetween(inicioHoy, finHoy))
-            .thenReturn(Arrays.asList(cita1));
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1));
-        when(citaRepository.findByEstadoIn(any()))
-            .thenReturn(Arrays.asList(cita1));
-        when(propietarioRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(propietario));
-        when(consultaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(consulta1, consultaReciente));
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(productoRepository.findProductosConStockBajo())
-            .thenReturn(Arrays.asList());
-        when(prescripcionRepository.findByFechaEmisionBetween(any(), any()))
+        Cita citaReciente = Cita.builder()
+            .id(5L)
+            .fecha(LocalDateTime.now().minusHours(3))
+            .estado(Cita.EstadoCita.PENDIENTE)
+            .paciente(paciente2)
+            .propietario(propietario)
+            .build();
+
+        when(consultaRepository.findUltimasConsultas(any(), any(), any()))
+            .thenReturn(Arrays.asList(consultaReciente, consulta1));
+        when(prescripcionRepository.findUltimasPrescripciones(any(), any(), any()))
             .thenReturn(Arrays.asList(prescripcionReciente));
-        when(citaRepository.findAll())
-            .thenReturn(Arrays.asList(cita1));
+        when(citaRepository.findUltimasCitasCreadas(any(), any(), any()))
+            .thenReturn(Arrays.asList(citaReciente));
 
         // Act
         DashboardStatsDTO resultado = dashboardService.getDashboardStats();
@@ -679,8 +434,10 @@ class DashboardServiceTest {
         // Assert
         assertNotNull(resultado);
         assertNotNull(resultado.getActividadReciente());
-        assertTrue(resultado.getActividadReciente().size() > 0);
-        assertTrue(resultado.getActividadReciente().size() <= 5);
+        assertEquals(4, resultado.getActividadReciente().size());
+        assertEquals("CITA", resultado.getActividadReciente().get(0).getTipo());
+        assertEquals("CONSULTA", resultado.getActividadReciente().get(1).getTipo());
+        assertEquals("PRESCRIPCION", resultado.getActividadReciente().get(2).getTipo());
+        assertEquals("CONSULTA", resultado.getActividadReciente().get(3).getTipo());
     }
 }
-
@@ -0,0 +1,202 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.MensajeSaliente;
+import com.clinica.veterinaria.entity.MensajeSaliente.Estado;
+import com.clinica.veterinaria.entity.MensajeSaliente.Tipo;
+import com.clinica.veterinaria.repository.MensajeSalienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DespachadorMensajesService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de DespachadorMensajesService")
+class DespachadorMensajesServiceTest {
+
+    private static final String PAYLOAD = "{\"propietarioNombre\":\"Juan Pérez\",\"pacienteNombre\":\"Max\"," +
+        "\"fecha\":\"2026-11-20T10:30\",\"motivo\":\"Vacunación\",\"profesionalNombre\":\"Dr. García\"}";
+
+    @Mock
+    private MensajeSalienteRepository mensajeSalienteRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private SMSService smsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DespachadorMensajesService despachador;
+
+    private MensajeSaliente mensaje;
+
+    private final MimeMessage mimeMessage = new MimeMessage((Session) null);
+
+    @BeforeEach
+    void setUp() {
+        despachador = new DespachadorMensajesService(
+            mensajeSalienteRepository, emailService, smsService, new ObjectMapper(), transactionManager);
+        ReflectionTestUtils.setField(despachador, "maxIntentos", 3);
+        ReflectionTestUtils.setField(despachador, "esperaInicialSegundos", 30L);
+        ReflectionTestUtils.setField(despachador, "bloqueoSegundos", 120L);
+        ReflectionTestUtils.setField(despachador, "tamanoLote", 50);
+
+        mensaje = MensajeSaliente.builder()
+            .id(1L)
+            .tipo(Tipo.EMAIL_CITA_CONFIRMACION)
+            .destinatario("juan@email.com")
+            .payload(PAYLOAD)
+            .estado(Estado.EN_PROCESO)
+            .intentos(1)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Debe enviar el email y marcar el mensaje como ENVIADO")
+    void testProcesarEnviado() throws Exception {
+        // Arrange
+        when(mensajeSalienteRepository.reclamar(eq(1L), any(), any())).thenReturn(1);
+        when(mensajeSalienteRepository.findAllById(List.of(1L))).thenReturn(List.of(mensaje));
+        when(emailService.prepararEmailConfirmacionCita("juan@email.com", "Juan Pérez", "Max",
+            LocalDateTime.of(2026, 11, 20, 10, 30), "Vacunación", "Dr. García")).thenReturn(mimeMessage);
+        when(emailService.enviarLote(anyMap())).thenAnswer(inv -> Map.of());
+
+        // Act
+        despachador.procesar(1L);
+
+        // Assert
+        assertEquals(Estado.ENVIADO, mensaje.getEstado());
+        assertNotNull(mensaje.getEnviadoAt());
+        verify(mensajeSalienteRepository).saveAll(List.of(mensaje));
+    }
+
+    @Test
+    @DisplayName("No debe enviar nada si otro despachador ya reclamó el mensaje")
+    void testProcesarYaReclamado() {
+        // Arrange
+        when(mensajeSalienteRepository.reclamar(eq(1L), any(), any())).thenReturn(0);
+
+        // Act
+        despachador.procesar(1L);
+
+        // Assert
+        verify(mensajeSalienteRepository, never()).findAllById(any());
+        verifyNoInteractions(emailService, smsService);
+    }
+
+    @Test
+    @DisplayName("Debe reprogramar con espera exponencial si el envío falla")
+    void testProcesarFalloReintenta() throws Exception {
+        // Arrange
+        mensaje.setIntentos(2);
+        when(mensajeSalienteRepository.reclamar(eq(1L), any(), any())).thenReturn(1);
+        when(mensajeSalienteRepository.findAllById(List.of(1L))).thenReturn(List.of(mensaje));
+        when(emailService.prepararEmailConfirmacionCita(anyString(), anyString(), anyString(), any(), anyString(), anyString()))
+            .thenReturn(mimeMessage);
+        when(emailService.enviarLote(anyMap())).thenAnswer(inv -> Map.of(mensaje, "SMTP no disponible"));
+
+        // Act
+        LocalDateTime antes = LocalDateTime.now();
+        despachador.procesar(1L);
+
+        // Assert
+        assertEquals(Estado.PENDIENTE, mensaje.getEstado());
+        assertTrue(mensaje.getUltimoError().contains("SMTP no disponible"));
+        assertFalse(mensaje.getProximoIntento().isBefore(antes.plusSeconds(60)));
+        verify(mensajeSalienteRepository).saveAll(List.of(mensaje));
+    }
+
+    @Test
+    @DisplayName("Debe marcar como FALLIDO al agotar los reintentos")
+    void testProcesarFalloDefinitivo() throws Exception {
+        // Arrange
+        mensaje.setIntentos(3);
+        when(mensajeSalienteRepository.reclamar(eq(1L), any(), any())).thenReturn(1);
+        when(mensajeSalienteRepository.findAllById(List.of(1L))).thenReturn(List.of(mensaje));
+        when(emailService.prepararEmailConfirmacionCita(anyString(), anyString(), anyString(), any(), anyString(), anyString()))
+            .thenReturn(null);
+        when(emailService.enviarLote(anyMap())).thenAnswer(inv -> Map.of(mensaje, "Mensaje no válido"));
+
+        // Act
+        despachador.procesar(1L);
+
+        // Assert
+        assertEquals(Estado.FALLIDO, mensaje.getEstado());
+        assertNotNull(mensaje.getUltimoError());
+    }
+
+    @Test
+    @DisplayName("Debe enviar los emails del lote juntos y aislar el fallo de cada mensaje")
+    void testProcesarLoteAislaFallos() throws Exception {
+        // Arrange
+        MensajeSaliente otro = MensajeSaliente.builder()
+            .id(2L)
+            .tipo(Tipo.EMAIL_CITA_CONFIRMACION)
+            .destinatario("ana@email.com")
+            .payload(PAYLOAD)
+            .estado(Estado.EN_PROCESO)
+            .intentos(1)
+            .build();
+        MensajeSaliente sms = MensajeSaliente.builder()
+            .id(3L)
+            .tipo(Tipo.SMS_CITA_CONFIRMACION)
+            .destinatario("+573001234567")
+            .payload(PAYLOAD)
+            .estado(Estado.EN_PROCESO)
+            .intentos(1)
+            .build();
+        when(mensajeSalienteRepository.reclamar(any(), any(), any())).thenReturn(1);
+        when(mensajeSalienteRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(mensaje, otro, sms));
+        when(emailService.prepararEmailConfirmacionCita(anyString(), anyString(), anyString(), any(), anyString(), anyString()))
+            .thenReturn(mimeMessage);
+        when(emailService.enviarLote(anyMap())).thenAnswer(inv -> {
+            assertEquals(2, inv.<Map<?, ?>>getArgument(0).size());
+            return Map.of(otro, "550 Mailbox unavailable");
+        });
+        when(smsService.sendCitaConfirmacionSMS(eq("+573001234567"), anyString(), anyString(), any(), anyString()))
+            .thenReturn(true);
+
+        // Act
+        despachador.procesarLote(List.of(1L, 2L, 3L));
+
+        // Assert
+        verify(emailService, times(1)).enviarLote(anyMap());
+        assertEquals(Estado.ENVIADO, mensaje.getEstado());
+        assertEquals(Estado.PENDIENTE, otro.getEstado());
+        assertEquals("550 Mailbox unavailable", otro.getUltimoError());
+        assertEquals(Estado.ENVIADO, sms.getEstado());
+    }
+
+    @Test
+    @DisplayName("La espera entre reintentos debe duplicarse con tope de 1 hora")
+    void testCalcularEspera() {
+        assertEquals(Duration.ofSeconds(30), despachador.calcularEspera(1));
+        assertEquals(Duration.ofSeconds(60), despachador.calcularEspera(2));
+        assertEquals(Duration.ofSeconds(240), despachador.calcularEspera(4));
+        assertEquals(Duration.ofHours(1), despachador.calcularEspera(10));
+    }
+}
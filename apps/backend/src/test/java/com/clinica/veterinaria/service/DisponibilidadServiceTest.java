@@ -0,0 +1,273 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.HuecoDisponibleDTO;
+import com.clinica.veterinaria.dto.UsuarioDTO;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.CitaSlotView;
+import com.clinica.veterinaria.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DisponibilidadService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de DisponibilidadService")
+class DisponibilidadServiceTest {
+
+    private static final Long VET_ID = 1L;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @InjectMocks
+    private DisponibilidadService disponibilidadService;
+
+    private LocalDate dia;
+
+    @BeforeEach
+    void setUp() {
+        dia = LocalDate.now().plusDays(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe detectar solapamiento con una cita existente")
+    void testBuscarConflicto() {
+        // Arrange
+        when(citaRepository.findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any()))
+            .thenReturn(List.of(slot(10L, dia.atTime(10, 0))));
+
+        // Act & Assert
+        assertEquals(Optional.of(LocalTime.of(10, 0)),
+            disponibilidadService.buscarConflicto(VET_ID, dia.atTime(10, 0), null));
+        assertEquals(Optional.of(LocalTime.of(10, 0)),
+            disponibilidadService.buscarConflicto(VET_ID, dia.atTime(9, 45), null));
+        assertTrue(disponibilidadService.buscarConflicto(VET_ID, dia.atTime(10, 30), null).isEmpty());
+        assertTrue(disponibilidadService.buscarConflicto(VET_ID, dia.atTime(10, 0), 10L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe cargar cada día una sola vez y responder después desde memoria")
+    void testCargaBajoDemanda() {
+        // Arrange
+        when(citaRepository.findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any()))
+            .thenReturn(List.of());
+
+        // Act
+        disponibilidadService.buscarConflicto(VET_ID, dia.atTime(8, 0), null);
+        disponibilidadService.buscarConflicto(VET_ID, dia.atTime(9, 0), null);
+        disponibilidadService.getHorasOcupadas(VET_ID, dia);
+
+        // Assert
+        verify(citaRepository, times(1)).findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar reservas y liberaciones sin volver a consultar la base de datos")
+    void testReservarYLiberar() {
+        // Arrange
+        when(citaRepository.findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any()))
+            .thenReturn(List.of());
+        LocalDateTime fecha = dia.atTime(15, 0);
+        assertTrue(disponibilidadService.getHorasOcupadas(VET_ID, dia).isEmpty());
+
+        // Act & Assert
+        disponibilidadService.reservar(5L, VET_ID, fecha);
+        assertEquals(List.of("15:00"), disponibilidadService.getHorasOcupadas(VET_ID, dia));
+        assertTrue(disponibilidadService.buscarConflicto(VET_ID, fecha, null).isPresent());
+
+        disponibilidadService.liberar(5L, VET_ID, fecha);
+        assertTrue(disponibilidadService.getHorasOcupadas(VET_ID, dia).isEmpty());
+        verify(citaRepository, times(1)).findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("Una reserva dentro de una transacción solo debe verse en el índice tras el commit")
+    void testReservarTrasCommit() {
+        // Arrange
+        when(citaRepository.findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any()))
+            .thenReturn(List.of());
+        LocalDateTime fecha = dia.atTime(15, 0);
+        assertTrue(disponibilidadService.getHorasOcupadas(VET_ID, dia).isEmpty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        disponibilidadService.reservar(5L, VET_ID, fecha);
+
+        // Assert
+        assertTrue(disponibilidadService.getHorasOcupadas(VET_ID, dia).isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of("15:00"), disponibilidadService.getHorasOcupadas(VET_ID, dia));
+    }
+
+    @Test
+    @DisplayName("La validación de escrituras debe leer el día desde la base de datos, no del índice")
+    void testBuscarConflictoEnBaseDeDatos() {
+        // Arrange: el índice tiene el día vacío, pero otra instancia ya reservó las 10:00
+        when(citaRepository.findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any()))
+            .thenReturn(List.of(), List.of(slot(10L, dia.atTime(10, 0))));
+        assertTrue(disponibilidadService.buscarConflicto(VET_ID, dia.atTime(10, 0), null).isEmpty());
+
+        // Act
+        Optional<LocalTime> conflicto = disponibilidadService.buscarConflictoEnBaseDeDatos(VET_ID, dia.atTime(10, 0), null);
+
+        // Assert
+        assertEquals(Optional.of(LocalTime.of(10, 0)), conflicto);
+        assertTrue(disponibilidadService.buscarConflicto(VET_ID, dia.atTime(10, 0), null).isEmpty());
+        verify(citaRepository, times(2)).findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("Una cita fuera de la rejilla debe ocupar las dos franjas que toca")
+    void testCitaFueraDeRejilla() {
+        // Arrange
+        when(citaRepository.findSlotsOcupadosPorProfesional(eq(VET_ID), any(), any()))
+            .thenReturn(List.of(slot(7L, dia.atTime(10, 15))));
+
+        // Act
+        List<String> horas = disponibilidadService.getHorasOcupadas(VET_ID, dia);
+
+        // Assert
+        assertEquals(List.of("10:00", "10:30"), horas);
+    }
+
+    @Test
+    @DisplayName("La precarga debe evitar consultas para los días precargados")
+    void testPrecargar() {
+        // Arrange
+        ReflectionTestUtils.setField(disponibilidadService, "diasPrecarga", 7);
+        when(usuarioRepository.findVeterinariosActivos()).thenReturn(List.of());
+        when(citaRepository.findSlotsOcupados(any(), any()))
+            .thenReturn(List.of(slot(3L, dia.atTime(11, 0))));
+
+        // Act
+        disponibilidadService.precargar();
+
+        // Assert
+        assertEquals(List.of("11:00"), disponibilidadService.getHorasOcupadas(VET_ID, dia));
+        assertTrue(disponibilidadService.getHorasOcupadas(VET_ID, LocalDate.now()).isEmpty());
+        verify(citaRepository, never()).findSlotsOcupadosPorProfesional(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe devolver los próximos huecos libres de un veterinario dentro del horario")
+    void testBuscarProximosHuecos() {
+        // Arrange
+        LocalDate lunes = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        stubAgenda(lunes, slot(1L, lunes.atTime(8, 0)));
+
+        // Act
+        List<HuecoDisponibleDTO> huecos = disponibilidadService.buscarProximosHuecos(
+            List.of(veterinario(VET_ID, "Dr. Smith")), lunes.atTime(7, 0), 3);
+
+        // Assert
+        assertEquals(List.of(lunes.atTime(8, 30), lunes.atTime(9, 0), lunes.atTime(9, 30)),
+            huecos.stream().map(HuecoDisponibleDTO::getFecha).toList());
+    }
+
+    @Test
+    @DisplayName("Debe saltar el domingo y continuar el lunes por la mañana")
+    void testBuscarProximosHuecosSaltaDomingo() {
+        // Arrange
+        LocalDate sabado = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+        stubAgenda(sabado);
+
+        // Act
+        List<HuecoDisponibleDTO> huecos = disponibilidadService.buscarProximosHuecos(
+            List.of(veterinario(VET_ID, "Dr. Smith")), sabado.atTime(11, 45), 2);
+
+        // Assert
+        assertEquals(List.of(sabado.atTime(12, 0), sabado.plusDays(2).atTime(8, 0)),
+            huecos.stream().map(HuecoDisponibleDTO::getFecha).toList());
+    }
+
+    @Test
+    @DisplayName("Debe combinar las agendas de varios veterinarios en orden cronológico")
+    void testBuscarProximosHuecosCualquierVeterinario() {
+        // Arrange
+        LocalDate lunes = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        stubAgenda(lunes, slot(1L, lunes.atTime(8, 0)));
+
+        // Act
+        List<HuecoDisponibleDTO> huecos = disponibilidadService.buscarProximosHuecos(
+            List.of(veterinario(VET_ID, "Dr. Smith"), veterinario(2L, "Dra. Ruiz")), lunes.atTime(8, 0), 3);
+
+        // Assert
+        assertEquals(3, huecos.size());
+        assertEquals(2L, huecos.get(0).getVeterinarioId());
+        assertEquals(lunes.atTime(8, 0), huecos.get(0).getFecha());
+        assertEquals(VET_ID, huecos.get(1).getVeterinarioId());
+        assertEquals(lunes.atTime(8, 30), huecos.get(1).getFecha());
+        assertEquals(2L, huecos.get(2).getVeterinarioId());
+        assertEquals(lunes.atTime(8, 30), huecos.get(2).getFecha());
+    }
+
+    /**
+     * Agenda de {@link #VET_ID} con las citas indicadas en el día dado; el resto de días y
+     * profesionales están vacíos.
+     */
+    private void stubAgenda(LocalDate diaConCitas, CitaSlotView... citas) {
+        when(citaRepository.findSlotsOcupadosPorProfesional(any(), any(), any())).thenAnswer(invocation -> {
+            Long profesionalId = invocation.getArgument(0);
+            LocalDateTime inicio = invocation.getArgument(1);
+            return VET_ID.equals(profesionalId) && inicio.toLocalDate().equals(diaConCitas)
+                ? List.of(citas)
+                : List.of();
+        });
+    }
+
+    private static UsuarioDTO veterinario(Long id, String nombre) {
+        return UsuarioDTO.builder().id(id).nombre(nombre).build();
+    }
+
+    private static CitaSlotView slot(Long id, LocalDateTime fecha) {
+        return new CitaSlotView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getProfesionalId() {
+                return VET_ID;
+            }
+
+            @Override
+            public LocalDateTime getFecha() {
+                return fecha;
+            }
+        };
+    }
+}
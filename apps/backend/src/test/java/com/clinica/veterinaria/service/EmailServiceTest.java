@@ -0,0 +1,153 @@
+package com.clinica.veterinaria.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el envío por lotes de EmailService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de EmailService")
+class EmailServiceTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private PlantillaEmailService plantillaEmailService;
+
+    private MeterRegistry meterRegistry;
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailService(mailSender, plantillaEmailService, meterRegistry);
+        ReflectionTestUtils.setField(emailService, "tamanoLote", 2);
+        ReflectionTestUtils.setField(emailService, "maxPorSegundo", 0);
+        emailService.registrarMetricas();
+    }
+
+    @Test
+    @DisplayName("Debe enviar cada lote por una sola conexión SMTP")
+    void testEnviarLotePorConexion() {
+        // Arrange
+        Map<String, MimeMessage> mensajes = new LinkedHashMap<>();
+        mensajes.put("a", nuevoMensaje());
+        mensajes.put("b", nuevoMensaje());
+        mensajes.put("c", nuevoMensaje());
+
+        // Act
+        Map<String, String> errores = emailService.enviarLote(mensajes);
+
+        // Assert
+        assertTrue(errores.isEmpty());
+        verify(mailSender, times(2)).send(any(MimeMessage[].class));
+        assertEquals(2.0, meterRegistry.counter("clinica.email.conexiones").count());
+        assertEquals(3.0, meterRegistry.counter("clinica.email.enviados", "resultado", "ok").count());
+    }
+
+    @Test
+    @DisplayName("Un destinatario rechazado no debe afectar al resto del lote")
+    void testEnviarLoteAislaFallos() {
+        // Arrange
+        MimeMessage rechazado = nuevoMensaje();
+        Map<String, MimeMessage> mensajes = new LinkedHashMap<>();
+        mensajes.put("ok", nuevoMensaje());
+        mensajes.put("rechazado", rechazado);
+        doThrow(new MailSendException(Map.of(rechazado, new IllegalStateException("550 Mailbox unavailable"))))
+            .when(mailSender).send(any(MimeMessage[].class));
+
+        // Act
+        Map<String, String> errores = emailService.enviarLote(mensajes);
+
+        // Assert
+        assertEquals(Map.of("rechazado", "550 Mailbox unavailable"), errores);
+        assertEquals(1.0, meterRegistry.counter("clinica.email.enviados", "resultado", "ok").count());
+        assertEquals(1.0, meterRegistry.counter("clinica.email.enviados", "resultado", "error").count());
+    }
+
+    @Test
+    @DisplayName("Si la conexión falla debe marcar todo el lote como fallido")
+    void testEnviarLoteFalloConexion() {
+        // Arrange
+        Map<String, MimeMessage> mensajes = new LinkedHashMap<>();
+        mensajes.put("a", nuevoMensaje());
+        mensajes.put("b", nuevoMensaje());
+        doThrow(new MailAuthenticationException("535 Authentication failed"))
+            .when(mailSender).send(any(MimeMessage[].class));
+
+        // Act
+        Map<String, String> errores = emailService.enviarLote(mensajes);
+
+        // Assert
+        assertEquals(2, errores.size());
+        assertEquals(0.0, meterRegistry.counter("clinica.email.enviados", "resultado", "ok").count());
+    }
+
+    @Test
+    @DisplayName("Los mensajes no construidos deben fallar sin abrir conexión")
+    void testEnviarLoteMensajeNulo() {
+        // Arrange
+        Map<String, MimeMessage> mensajes = new LinkedHashMap<>();
+        mensajes.put("sin-destinatario", null);
+
+        // Act
+        Map<String, String> errores = emailService.enviarLote(mensajes);
+
+        // Assert
+        assertTrue(errores.containsKey("sin-destinatario"));
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    @DisplayName("Un envío individual no debe esperar el cupo reservado por un lote")
+    void testEnvioIndividualNoEsperaAlLote() {
+        // Arrange: el lote reserva 5 s de cupo a 1 mensaje por segundo
+        ReflectionTestUtils.setField(emailService, "tamanoLote", 10);
+        ReflectionTestUtils.setField(emailService, "maxPorSegundo", 1);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "clinica@test.com");
+        when(mailSender.createMimeMessage()).thenReturn(nuevoMensaje());
+        when(plantillaEmailService.renderizar(any(), any())).thenReturn("<p>Recuperación</p>");
+        Map<String, MimeMessage> mensajes = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            mensajes.put("m" + i, nuevoMensaje());
+        }
+        emailService.enviarLote(mensajes);
+
+        // Act
+        long inicio = System.nanoTime();
+        boolean enviado = emailService.enviarEmailRecuperacionPassword(
+            "cliente@test.com", "Cliente", "http://localhost/reset?token=abc", "CLIENTE");
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        assertTrue(enviado);
+        assertTrue(duracionMs < 1000, "El envío individual esperó " + duracionMs + " ms");
+        verify(mailSender).send(any(MimeMessage.class));
+    }
+
+    private static MimeMessage nuevoMensaje() {
+        return new MimeMessage((Session) null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.clinica.veterinaria.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ExportacionService
+ */
+@DisplayName("Tests Unitarios de ExportacionService")
+class ExportacionServiceTest {
+
+    @Test
+    @DisplayName("Debe neutralizar los textos que una hoja de cálculo interpretaría como fórmula")
+    void testValorCsvEvitaFormulas() {
+        // Act & Assert
+        assertEquals("'=1+1", ExportacionService.valorCsv("=1+1"));
+        assertEquals("'+34 600", ExportacionService.valorCsv("+34 600"));
+        assertEquals("'-2", ExportacionService.valorCsv("-2"));
+        assertEquals("'@SUM(A1)", ExportacionService.valorCsv("@SUM(A1)"));
+        assertEquals("'\t=1+1", ExportacionService.valorCsv("\t=1+1"));
+        assertEquals("\"'\r=1+1\"", ExportacionService.valorCsv("\r=1+1"));
+    }
+
+    @Test
+    @DisplayName("Debe escapar comillas y separadores y no alterar números")
+    void testValorCsvEscapa() {
+        // Act & Assert
+        assertEquals("\"Pérez, Juan\"", ExportacionService.valorCsv("Pérez, Juan"));
+        assertEquals("\"dijo \"\"hola\"\"\"", ExportacionService.valorCsv("dijo \"hola\""));
+        assertEquals("-12.50", ExportacionService.valorCsv(new BigDecimal("-12.50")));
+        assertEquals("", ExportacionService.valorCsv(null));
+    }
+}
@@ -0,0 +1,148 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.config.CacheConfig;
+import com.clinica.veterinaria.dto.HistorialMedicoDTO;
+import com.clinica.veterinaria.service.HistorialMedicoCacheService.HistorialVersionado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para HistorialMedicoCacheService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de HistorialMedicoCacheService")
+class HistorialMedicoCacheServiceTest {
+
+    private static final Long PACIENTE_ID = 1L;
+
+    @Mock
+    private HistorialMedicoService historialMedicoService;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private HistorialMedicoCacheService historialMedicoCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.HISTORIAL_MEDICO_CACHE);
+        historialMedicoCacheService = new HistorialMedicoCacheService(historialMedicoService, cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe construir el historial una sola vez mientras la versión no cambie")
+    void testGetHistorialCacheado() {
+        // Arrange
+        when(historialMedicoService.getHistorialCompleto(PACIENTE_ID)).thenReturn(historial("Max"));
+
+        // Act
+        HistorialVersionado primero = historialMedicoCacheService.getHistorial(PACIENTE_ID);
+        HistorialVersionado segundo = historialMedicoCacheService.getHistorial(PACIENTE_ID);
+
+        // Assert
+        assertSame(primero.historial(), segundo.historial());
+        assertEquals(primero.etag(), historialMedicoCacheService.getEtag(PACIENTE_ID));
+        verify(historialMedicoService, times(1)).getHistorialCompleto(PACIENTE_ID);
+    }
+
+    @Test
+    @DisplayName("Invalidar fuera de una transacción debe cambiar la versión y el ETag")
+    void testInvalidarReconstruye() {
+        // Arrange
+        when(historialMedicoService.getHistorialCompleto(PACIENTE_ID))
+            .thenReturn(historial("Max"), historial("Max II"));
+        HistorialVersionado anterior = historialMedicoCacheService.getHistorial(PACIENTE_ID);
+
+        // Act
+        historialMedicoCacheService.invalidar(PACIENTE_ID);
+        HistorialVersionado actual = historialMedicoCacheService.getHistorial(PACIENTE_ID);
+
+        // Assert
+        assertEquals(anterior.version() + 1, actual.version());
+        assertNotEquals(anterior.etag(), actual.etag());
+        assertEquals("Max II", actual.historial().getPacienteNombre());
+        verify(historialMedicoService, times(2)).getHistorialCompleto(PACIENTE_ID);
+    }
+
+    @Test
+    @DisplayName("Sin entrada vigente en la caché no debe haber ETag que validar")
+    void testSinEtagSinEntrada() {
+        // Act & Assert
+        assertNull(historialMedicoCacheService.getEtag(PACIENTE_ID));
+        verifyNoInteractions(historialMedicoService);
+    }
+
+    @Test
+    @DisplayName("Al expirar la entrada, el historial reconstruido debe llevar un ETag nuevo")
+    void testEtagCambiaAlExpirar() throws InterruptedException {
+        // Arrange
+        when(historialMedicoService.getHistorialCompleto(PACIENTE_ID))
+            .thenReturn(historial("Max"), historial("Max II"));
+        HistorialVersionado anterior = historialMedicoCacheService.getHistorial(PACIENTE_ID);
+        Thread.sleep(5);
+
+        // Act: otra instancia modificó el historial; aquí solo expira la entrada
+        cacheManager.getCache(CacheConfig.HISTORIAL_MEDICO_CACHE).evict(PACIENTE_ID);
+        String etagTrasExpirar = historialMedicoCacheService.getEtag(PACIENTE_ID);
+        HistorialVersionado actual = historialMedicoCacheService.getHistorial(PACIENTE_ID);
+
+        // Assert
+        assertNull(etagTrasExpirar);
+        assertEquals(anterior.version(), actual.version());
+        assertNotEquals(anterior.etag(), actual.etag());
+        assertEquals("Max II", actual.historial().getPacienteNombre());
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción la versión solo debe cambiar tras el commit")
+    void testInvalidarTrasCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        historialMedicoCacheService.invalidar(PACIENTE_ID);
+
+        // Assert
+        assertEquals(0L, historialMedicoCacheService.getVersion(PACIENTE_ID));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, historialMedicoCacheService.getVersion(PACIENTE_ID));
+    }
+
+    @Test
+    @DisplayName("Una transacción revertida no debe cambiar la versión")
+    void testInvalidarRollback() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        historialMedicoCacheService.invalidar(PACIENTE_ID);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertEquals(0L, historialMedicoCacheService.getVersion(PACIENTE_ID));
+    }
+
+    private static HistorialMedicoDTO historial(String nombre) {
+        return HistorialMedicoDTO.builder()
+            .pacienteId(PACIENTE_ID)
+            .pacienteNombre(nombre)
+            .build();
+    }
+}
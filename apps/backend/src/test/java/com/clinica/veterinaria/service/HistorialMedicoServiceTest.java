@@ -0,0 +1,162 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.HistorialMedicoDTO;
+import com.clinica.veterinaria.entity.Consulta;
+import com.clinica.veterinaria.entity.ItemPrescripcion;
+import com.clinica.veterinaria.entity.Paciente;
+import com.clinica.veterinaria.entity.Prescripcion;
+import com.clinica.veterinaria.entity.Usuario;
+import com.clinica.veterinaria.repository.ConsultaRepository;
+import com.clinica.veterinaria.repository.PacienteRepository;
+import com.clinica.veterinaria.repository.PrescripcionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para HistorialMedicoService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de HistorialMedicoService")
+class HistorialMedicoServiceTest {
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private PrescripcionRepository prescripcionRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @InjectMocks
+    private HistorialMedicoService historialMedicoService;
+
+    private Paciente paciente;
+    private Consulta consultaReciente;
+    private Consulta consultaAntigua;
+    private LocalDateTime ahora;
+
+    @BeforeEach
+    void setUp() {
+        ahora = LocalDateTime.now();
+        Usuario veterinario = Usuario.builder()
+            .id(1L)
+            .nombre("Dr. Smith")
+            .rol(Usuario.Rol.VET)
+            .build();
+
+        paciente = Paciente.builder()
+            .id(1L)
+            .nombre("Max")
+            .especie("Perro")
+            .activo(true)
+            .build();
+
+        consultaReciente = Consulta.builder()
+            .id(2L)
+            .fecha(ahora.minusDays(1))
+            .diagnostico("Otitis")
+            .pesoKg(new BigDecimal("31.0"))
+            .paciente(paciente)
+            .profesional(veterinario)
+            .build();
+
+        consultaAntigua = Consulta.builder()
+            .id(1L)
+            .fecha(ahora.minusMonths(6))
+            .diagnostico("Otitis")
+            .pesoKg(new BigDecimal("28.0"))
+            .paciente(paciente)
+            .profesional(veterinario)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Debe construir el historial completo con un número fijo de consultas")
+    void testGetHistorialCompleto() {
+        // Arrange
+        Prescripcion receta1 = prescripcion(10L, consultaReciente, ahora.minusDays(1), "Otomax", "Meloxicam");
+        Prescripcion receta2 = prescripcion(11L, consultaAntigua, ahora.minusMonths(6), "Otomax");
+        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(consultaRepository.findHistorialByPacienteId(1L))
+            .thenReturn(List.of(consultaReciente, consultaAntigua));
+        when(prescripcionRepository.findHistorialByPacienteIdConItems(1L))
+            .thenReturn(List.of(receta1, receta2));
+
+        // Act
+        HistorialMedicoDTO historial = historialMedicoService.getHistorialCompleto(1L);
+
+        // Assert
+        assertEquals("Max", historial.getPacienteNombre());
+        assertEquals(2, historial.getTimelineConsultas().size());
+        assertEquals(1, historial.getTimelineConsultas().get(0).getCantidadPrescripciones());
+        assertEquals("Dr. Smith", historial.getTimelineConsultas().get(0).getProfesionalNombre());
+
+        assertEquals(3, historial.getHistorialMedicamentos().size());
+        assertEquals(2L, historial.getHistorialMedicamentos().get(0).getConsultaId());
+        assertEquals(1L, historial.getHistorialMedicamentos().get(2).getConsultaId());
+
+        assertEquals(2, historial.getResumen().getTotalConsultas());
+        assertEquals(2, historial.getResumen().getTotalPrescripciones());
+        assertEquals("Otomax", historial.getResumen().getMedicamentosMasUsados().get(0));
+        assertEquals(List.of("Otitis"), historial.getResumen().getDiagnosticosFrecuentes());
+        assertEquals(new BigDecimal("3.0"), historial.getResumen().getVariacionPeso());
+
+        verify(consultaRepository, times(1)).findHistorialByPacienteId(1L);
+        verify(prescripcionRepository, times(1)).findHistorialByPacienteIdConItems(1L);
+        verify(prescripcionRepository, never()).findByConsultaId(any());
+        verify(consultaRepository, never()).findByPacienteIdOrderByFechaDesc(any());
+    }
+
+    @Test
+    @DisplayName("Debe devolver un historial vacío para un paciente sin consultas")
+    void testGetHistorialSinConsultas() {
+        // Arrange
+        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(consultaRepository.findHistorialByPacienteId(1L)).thenReturn(List.of());
+        when(prescripcionRepository.findHistorialByPacienteIdConItems(1L)).thenReturn(List.of());
+
+        // Act
+        HistorialMedicoDTO historial = historialMedicoService.getHistorialCompleto(1L);
+
+        // Assert
+        assertTrue(historial.getTimelineConsultas().isEmpty());
+        assertTrue(historial.getHistorialMedicamentos().isEmpty());
+        assertEquals(0, historial.getResumen().getTotalConsultas());
+        assertEquals(0, historial.getResumen().getTotalPrescripciones());
+    }
+
+    private static Prescripcion prescripcion(Long id, Consulta consulta, LocalDateTime fechaEmision,
+                                             String... medicamentos) {
+        Prescripcion prescripcion = Prescripcion.builder()
+            .id(id)
+            .consulta(consulta)
+            .fechaEmision(fechaEmision)
+            .items(new ArrayList<>())
+            .build();
+        for (String medicamento : medicamentos) {
+            prescripcion.getItems().add(ItemPrescripcion.builder()
+                .medicamento(medicamento)
+                .dosis("1 dosis")
+                .duracionDias(7)
+                .prescripcion(prescripcion)
+                .build());
+        }
+        return prescripcion;
+    }
+}
@@ -0,0 +1,95 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.MensajeSaliente.Estado;
+import com.clinica.veterinaria.repository.MensajeSalienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para MensajeSalienteRetencionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de MensajeSalienteRetencionService")
+class MensajeSalienteRetencionServiceTest {
+
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2026, 10, 10, 0, 0);
+
+    @Mock
+    private MensajeSalienteRepository mensajeSalienteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MensajeSalienteRetencionService retencion;
+
+    @BeforeEach
+    void setUp() {
+        retencion = new MensajeSalienteRetencionService(mensajeSalienteRepository, transactionManager);
+        ReflectionTestUtils.setField(retencion, "tamanoLote", 2);
+        ReflectionTestUtils.setField(retencion, "maxLotes", 10);
+    }
+
+    @Test
+    @DisplayName("Debe eliminar los enviados por lotes hasta encontrar un lote incompleto")
+    void testPurgarPorLotes() {
+        // Arrange
+        when(mensajeSalienteRepository.findIdsTerminadosAnteriores(eq(Estado.ENVIADO), eq(LIMITE), any()))
+            .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(mensajeSalienteRepository.eliminarPorIds(List.of(1L, 2L))).thenReturn(2);
+        when(mensajeSalienteRepository.eliminarPorIds(List.of(3L))).thenReturn(1);
+
+        // Act
+        int eliminados = retencion.purgar(Estado.ENVIADO, LIMITE);
+
+        // Assert
+        assertEquals(3, eliminados);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Sin mensajes antiguos no debe borrar nada")
+    void testPurgarSinPendientes() {
+        // Arrange
+        when(mensajeSalienteRepository.findIdsTerminadosAnteriores(eq(Estado.FALLIDO), eq(LIMITE), any()))
+            .thenReturn(List.of());
+
+        // Act
+        int eliminados = retencion.purgar(Estado.FALLIDO, LIMITE);
+
+        // Assert
+        assertEquals(0, eliminados);
+        verify(mensajeSalienteRepository, never()).eliminarPorIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Debe detenerse al alcanzar el máximo de lotes por ejecución")
+    void testMaximoDeLotes() {
+        // Arrange
+        ReflectionTestUtils.setField(retencion, "maxLotes", 3);
+        when(mensajeSalienteRepository.findIdsTerminadosAnteriores(eq(Estado.ENVIADO), eq(LIMITE), any()))
+            .thenReturn(List.of(1L, 2L));
+        when(mensajeSalienteRepository.eliminarPorIds(anyCollection())).thenReturn(2);
+
+        // Act
+        int eliminados = retencion.purgar(Estado.ENVIADO, LIMITE);
+
+        // Assert
+        assertEquals(6, eliminados);
+        verify(mensajeSalienteRepository, times(3)).eliminarPorIds(anyCollection());
+    }
+}
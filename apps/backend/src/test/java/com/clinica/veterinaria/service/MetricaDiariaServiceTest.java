@@ -0,0 +1,201 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.entity.Cita.EstadoCita;
+import com.clinica.veterinaria.entity.MetricaDiaria;
+import com.clinica.veterinaria.entity.MetricaDiaria.Tipo;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.ConteoPorDiaYEstado;
+import com.clinica.veterinaria.repository.ConsultaRepository;
+import com.clinica.veterinaria.repository.MetricaDiariaRepository;
+import com.clinica.veterinaria.repository.MetricaDiariaRepository.TotalPorClave;
+import com.clinica.veterinaria.repository.PacienteRepository;
+import com.clinica.veterinaria.repository.PacienteRepository.ConteoPorEspecie;
+import com.clinica.veterinaria.repository.PrescripcionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para MetricaDiariaService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de MetricaDiariaService")
+class MetricaDiariaServiceTest {
+
+    @Mock
+    private MetricaDiariaRepository metricaDiariaRepository;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private PrescripcionRepository prescripcionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MetricaDiariaService metricaDiariaService;
+
+    @Test
+    @DisplayName("Debe incrementar el contador existente del día y estado de la cita")
+    void testRegistrarCitaContadorExistente() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2026, 3, 10, 10, 0);
+        when(metricaDiariaRepository.incrementar(Tipo.CITAS, fecha.toLocalDate(), "CONFIRMADA", 1L))
+            .thenReturn(1);
+
+        // Act
+        metricaDiariaService.registrarCita(fecha, EstadoCita.CONFIRMADA, 1);
+
+        // Assert
+        verify(metricaDiariaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Debe crear el contador si todavía no existe")
+    void testRegistrarConsultaContadorNuevo() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2026, 3, 10, 10, 0);
+        when(metricaDiariaRepository.incrementar(Tipo.CONSULTAS, fecha.toLocalDate(), MetricaDiaria.CLAVE_TOTAL, 1L))
+            .thenReturn(0);
+
+        // Act
+        metricaDiariaService.registrarConsulta(fecha, 1);
+
+        // Assert
+        verify(metricaDiariaRepository).saveAndFlush(argThat(m ->
+            m.getTipo() == Tipo.CONSULTAS
+                && m.getFecha().equals(fecha.toLocalDate())
+                && m.getValor() == 1L));
+    }
+
+    @Test
+    @DisplayName("No debe registrar nada si la fecha es nula")
+    void testRegistrarSinFecha() {
+        // Act
+        metricaDiariaService.registrarPrescripcion(null, 1);
+
+        // Assert
+        verifyNoInteractions(metricaDiariaRepository);
+    }
+
+    @Test
+    @DisplayName("La conciliación debe crear, corregir y eliminar contadores")
+    void testConciliar() {
+        // Arrange
+        LocalDate dia = LocalDate.of(2026, 3, 10);
+        MetricaDiaria desfasada = MetricaDiaria.builder()
+            .tipo(Tipo.CITAS).fecha(dia).clave("PENDIENTE").valor(5L).build();
+        MetricaDiaria huerfana = MetricaDiaria.builder()
+            .tipo(Tipo.CITAS).fecha(dia.minusDays(1)).clave("CANCELADA").valor(1L).build();
+
+        when(citaRepository.countAgrupadasPorDiaYEstado())
+            .thenReturn(List.of(porDiaYEstado(dia, EstadoCita.PENDIENTE, 3L)));
+        when(consultaRepository.countAgrupadasPorDia()).thenReturn(List.of());
+        when(prescripcionRepository.countAgrupadasPorDia()).thenReturn(List.of());
+        when(pacienteRepository.countActivosAgrupadosPorEspecie())
+            .thenReturn(List.of(porEspecie("Perro", 2L)));
+        when(metricaDiariaRepository.findAll()).thenReturn(List.of(desfasada, huerfana));
+
+        // Act
+        int cambios = metricaDiariaService.conciliar();
+
+        // Assert
+        assertEquals(3, cambios);
+        assertEquals(3L, desfasada.getValor());
+        verify(metricaDiariaRepository).save(argThat(m ->
+            m.getTipo() == Tipo.PACIENTES_ACTIVOS
+                && m.getFecha().equals(MetricaDiaria.FECHA_ACUMULADO)
+                && m.getClave().equals("Perro")
+                && m.getValor() == 2L));
+        verify(metricaDiariaRepository).deleteAll(argThat(metricas -> {
+            Iterator<? extends MetricaDiaria> it = metricas.iterator();
+            return it.hasNext() && it.next() == huerfana && !it.hasNext();
+        }));
+    }
+
+    @Test
+    @DisplayName("Debe devolver los contadores de citas agrupados por estado")
+    void testContarCitasPorEstado() {
+        // Arrange
+        when(metricaDiariaRepository.sumarPorClave(Tipo.CITAS)).thenReturn(List.of(
+            totalPorClave("PENDIENTE", 4L),
+            totalPorClave("ATENDIDA", 7L)
+        ));
+
+        // Act
+        Map<EstadoCita, Long> resultado = metricaDiariaService.contarCitasPorEstado();
+
+        // Assert
+        assertEquals(Map.of(EstadoCita.PENDIENTE, 4L, EstadoCita.ATENDIDA, 7L), resultado);
+    }
+
+    private static ConteoPorDiaYEstado porDiaYEstado(LocalDate dia, EstadoCita estado, Long total) {
+        return new ConteoPorDiaYEstado() {
+            @Override
+            public LocalDate getDia() {
+                return dia;
+            }
+
+            @Override
+            public EstadoCita getEstado() {
+                return estado;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static ConteoPorEspecie porEspecie(String especie, Long total) {
+        return new ConteoPorEspecie() {
+            @Override
+            public String getEspecie() {
+                return especie;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static TotalPorClave totalPorClave(String clave, Long total) {
+        return new TotalPorClave() {
+            @Override
+            public String getClave() {
+                return clave;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.repository.NotificacionArchivadaRepository;
+import com.clinica.veterinaria.repository.NotificacionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para NotificacionRetencionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de NotificacionRetencionService")
+class NotificacionRetencionServiceTest {
+
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2026, 9, 17, 0, 0);
+
+    @Mock
+    private NotificacionRepository notificacionRepository;
+
+    @Mock
+    private NotificacionArchivadaRepository notificacionArchivadaRepository;
+
+    @Mock
+    private ContadorNotificacionesService contadorNotificacionesService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificacionRetencionService retencion;
+
+    @BeforeEach
+    void setUp() {
+        retencion = new NotificacionRetencionService(notificacionRepository, notificacionArchivadaRepository,
+            contadorNotificacionesService, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(retencion, "tamanoLote", 2);
+        ReflectionTestUtils.setField(retencion, "maxLotes", 10);
+    }
+
+    @Test
+    @DisplayName("Debe archivar las leídas por lotes hasta encontrar un lote incompleto")
+    void testArchivarPorLotes() {
+        // Arrange
+        when(notificacionRepository.findIdsLeidasAnteriores(eq(LIMITE), any()))
+            .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        // Act
+        int archivadas = retencion.archivarLeidas(LIMITE);
+
+        // Assert
+        assertEquals(3, archivadas);
+        verify(jdbcTemplate, times(2)).update(contains("INSERT INTO notificaciones_archivadas"), any(Object[].class));
+        verify(notificacionRepository).eliminarPorIds(List.of(1L, 2L));
+        verify(notificacionRepository).eliminarPorIds(List.of(3L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Sin notificaciones antiguas no debe escribir nada")
+    void testArchivarSinPendientes() {
+        // Arrange
+        when(notificacionRepository.findIdsLeidasAnteriores(eq(LIMITE), any())).thenReturn(List.of());
+
+        // Act
+        int archivadas = retencion.archivarLeidas(LIMITE);
+
+        // Assert
+        assertEquals(0, archivadas);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(notificacionRepository, never()).eliminarPorIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Debe detenerse al alcanzar el máximo de lotes por ejecución")
+    void testMaximoDeLotes() {
+        // Arrange
+        ReflectionTestUtils.setField(retencion, "maxLotes", 3);
+        when(notificacionArchivadaRepository.findIdsAnteriores(eq(LIMITE), any())).thenReturn(List.of(1L, 2L));
+        when(notificacionArchivadaRepository.eliminarPorIds(anyCollection())).thenReturn(2);
+
+        // Act
+        int eliminadas = retencion.purgarArchivo(LIMITE);
+
+        // Assert
+        assertEquals(6, eliminadas);
+        verify(notificacionArchivadaRepository, times(3)).eliminarPorIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("La purga debe reconciliar los contadores solo si eliminó notificaciones")
+    void testPurgarReconciliaContadores() {
+        // Arrange
+        when(notificacionRepository.findIdsAnteriores(eq(LIMITE), any())).thenReturn(List.of(5L));
+        when(notificacionRepository.eliminarPorIds(List.of(5L))).thenReturn(1);
+
+        // Act
+        int eliminadas = retencion.purgarAntiguas(LIMITE);
+
+        // Assert
+        assertEquals(1, eliminadas);
+        verify(contadorNotificacionesService).reconciliar();
+    }
+
+    @Test
+    @DisplayName("Un error en un lote debe detener la fase sin propagar la excepción")
+    void testErrorEnLote() {
+        // Arrange
+        when(notificacionRepository.findIdsAnteriores(eq(LIMITE), any()))
+            .thenThrow(new RuntimeException("timeout"));
+
+        // Act
+        int eliminadas = retencion.purgarAntiguas(LIMITE);
+
+        // Assert
+        assertEquals(0, eliminadas);
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(contadorNotificacionesService);
+    }
+}
@@ -1,9 +1,11 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.dto.CursorPageDTO;
 import com.clinica.veterinaria.dto.NotificacionCreateDTO;
 import com.clinica.veterinaria.dto.NotificacionDTO;
 import com.clinica.veterinaria.entity.Notificacion;
 import com.clinica.veterinaria.entity.Usuario;
+import com.clinica.veterinaria.repository.NotificacionArchivadaRepository;
 import com.clinica.veterinaria.repository.NotificacionRepository;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,13 +15,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -32,9 +45,21 @@ class NotificacionServiceTest {
     @Mock
     private NotificacionRepository notificacionRepository;
 
+    @Mock
+    private NotificacionArchivadaRepository notificacionArchivadaRepository;
+
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private WebSocketNotificationService webSocketNotificationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ContadorNotificacionesService contadorNotificacionesService;
+
     @InjectMocks
     private NotificacionService notificacionService;
 
@@ -88,10 +113,11 @@ class NotificacionServiceTest {
     }
 
     @Test
-    @DisplayName("Debe listar todas las notificaciones de un usuario")
+    @DisplayName("Debe listar las notificaciones más recientes de un usuario con límite")
     void testFindByUsuarioId() {
         // Arrange
-        when(notificacionRepository.findByUsuarioIdOrderByFechaCreacionDesc(1L))
+        when(notificacionRepository.findByUsuarioIdOrderByFechaCreacionDescIdDesc(
+                1L, PageRequest.of(0, NotificacionService.LIMITE_BANDEJA)))
             .thenReturn(Arrays.asList(notificacion1, notificacion2, notificacionLeida));
 
         // Act
@@ -101,14 +127,16 @@ class NotificacionServiceTest {
         assertNotNull(resultado);
         assertEquals(3, resultado.size());
         assertEquals("Nueva cita programada", resultado.get(0).getTitulo());
-        verify(notificacionRepository, times(1)).findByUsuarioIdOrderByFechaCreacionDesc(1L);
+        verify(notificacionRepository, times(1)).findByUsuarioIdOrderByFechaCreacionDescIdDesc(
+            1L, PageRequest.of(0, NotificacionService.LIMITE_BANDEJA));
     }
 
     @Test
     @DisplayName("Debe listar solo notificaciones no leídas")
     void testFindNoLeidasByUsuarioId() {
         // Arrange
-        when(notificacionRepository.findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDesc(1L))
+        when(notificacionRepository.findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDescIdDesc(
+                1L, PageRequest.of(0, NotificacionService.LIMITE_BANDEJA)))
             .thenReturn(Arrays.asList(notificacion1, notificacion2));
 
         // Act
@@ -120,21 +148,62 @@ class NotificacionServiceTest {
         assertFalse(resultado.get(0).getLeida());
         assertFalse(resultado.get(1).getLeida());
         verify(notificacionRepository, times(1))
-            .findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDesc(1L);
+            .findByUsuarioIdAndLeidaFalseOrderByFechaCreacionDescIdDesc(
+                1L, PageRequest.of(0, NotificacionService.LIMITE_BANDEJA));
+    }
+
+    @Test
+    @DisplayName("Debe paginar la bandeja por cursor y devolver el cursor de la siguiente página")
+    void testFindPaginaPorCursor() {
+        // Arrange: se piden 2 y el repositorio devuelve 3 (una de más)
+        LocalDateTime fecha = LocalDateTime.of(2026, 10, 17, 10, 0);
+        notificacion1.setFechaCreacion(fecha);
+        notificacion2.setFechaCreacion(fecha.minusMinutes(5));
+        notificacionLeida.setFechaCreacion(fecha.minusMinutes(10));
+        when(notificacionRepository.findPaginaPorCursor(eq(1L), eq(false), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+            .thenReturn(Arrays.asList(notificacion1, notificacion2, notificacionLeida));
+
+        // Act
+        CursorPageDTO<NotificacionDTO> pagina = notificacionService.findPaginaPorCursor(1L, false, null, 2);
+
+        // Assert
+        assertEquals(2, pagina.getContent().size());
+        assertTrue(pagina.isHasNext());
+        assertEquals(new CursorPaginacion(fecha.minusMinutes(5), 2L),
+            CursorPaginacion.decodificar(pagina.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Debe continuar la bandeja desde el cursor recibido")
+    void testFindPaginaPorCursorSiguiente() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2026, 10, 17, 10, 0);
+        notificacionLeida.setFechaCreacion(fecha.minusMinutes(10));
+        String after = new CursorPaginacion(fecha, 2L).codificar();
+        when(notificacionRepository.findPaginaPorCursor(1L, true, fecha, 2L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(notificacionLeida));
+
+        // Act
+        CursorPageDTO<NotificacionDTO> pagina = notificacionService.findPaginaPorCursor(1L, true, after, 2);
+
+        // Assert
+        assertEquals(1, pagina.getContent().size());
+        assertFalse(pagina.isHasNext());
+        assertNull(pagina.getNextCursor());
     }
 
     @Test
-    @DisplayName("Debe contar notificaciones no leídas")
+    @DisplayName("Debe contar notificaciones no leídas desde el contador en memoria")
     void testCountNoLeidasByUsuarioId() {
         // Arrange
-        when(notificacionRepository.countByUsuarioIdAndLeidaFalse(1L)).thenReturn(2L);
+        when(contadorNotificacionesService.obtener(1L)).thenReturn(2L);
 
         // Act
         long resultado = notificacionService.countNoLeidasByUsuarioId(1L);
 
         // Assert
         assertEquals(2L, resultado);
-        verify(notificacionRepository, times(1)).countByUsuarioIdAndLeidaFalse(1L);
+        verify(notificacionRepository, never()).countByUsuarioIdAndLeidaFalse(anyLong());
     }
 
     @Test
@@ -201,6 +270,21 @@ class NotificacionServiceTest {
 
         // Assert
         verify(notificacionRepository, times(1)).marcarComoLeida(1L, 1L);
+        verify(contadorNotificacionesService, times(1)).sumar(1L, -1);
+    }
+
+    @Test
+    @DisplayName("Marcar como leída una notificación ya leída no debe cambiar el contador")
+    void testMarcarComoLeidaYaLeida() {
+        // Arrange
+        when(notificacionRepository.marcarComoLeida(1L, 1L)).thenReturn(0);
+        when(notificacionRepository.existsByIdAndUsuarioId(1L, 1L)).thenReturn(true);
+
+        // Act
+        notificacionService.marcarComoLeida(1L, 1L);
+
+        // Assert
+        verifyNoInteractions(contadorNotificacionesService);
     }
 
     @Test
@@ -226,6 +310,8 @@ class NotificacionServiceTest {
 
         // Assert
         verify(notificacionRepository, times(1)).marcarTodasComoLeidas(1L);
+        verify(contadorNotificacionesService, times(1)).reiniciar(1L);
+        verify(webSocketNotificationService, times(1)).enviarContadorNotificaciones(1L, 0L);
     }
 
     @Test
@@ -332,5 +418,85 @@ class NotificacionServiceTest {
         verify(usuarioRepository, times(1)).findById(999L);
         verify(notificacionRepository, never()).save(any(Notificacion.class));
     }
-}
 
+    @Test
+    @DisplayName("Debe crear notificaciones en bloque con un solo contador por usuario")
+    void testCreateAll() {
+        // Arrange
+        List<NotificacionCreateDTO> dtos = List.of(
+            nuevaNotificacion(1L, "Primera"),
+            nuevaNotificacion(2L, "Segunda"),
+            nuevaNotificacion(1L, "Tercera"));
+        when(usuarioRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(contadorNotificacionesService.sumar(1L, 2L)).thenReturn(5L);
+        when(contadorNotificacionesService.sumar(2L, 1L)).thenReturn(1L);
+
+        // Act
+        List<NotificacionDTO> creadas = notificacionService.createAll(dtos);
+
+        // Assert
+        assertEquals(3, creadas.size());
+        assertEquals("Tercera", creadas.get(2).getTitulo());
+        assertFalse(creadas.get(0).getLeida());
+        verify(usuarioRepository, times(1)).findIdsExistentes(Set.of(1L, 2L));
+        verify(usuarioRepository, never()).findById(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+            any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        verify(notificacionRepository, never()).save(any(Notificacion.class));
+        verify(webSocketNotificationService, times(3)).enviarNotificacionAUsuario(anyLong(), any());
+        verify(webSocketNotificationService, times(1)).enviarContadorNotificaciones(1L, 5L);
+        verify(webSocketNotificationService, times(1)).enviarContadorNotificaciones(2L, 1L);
+        verify(notificacionRepository, never()).countByUsuarioIdAndLeidaFalse(anyLong());
+        verify(notificacionRepository, never()).contarNoLeidasPorUsuario(anyCollection());
+    }
+
+    @Test
+    @DisplayName("No debe crear ninguna notificación si algún usuario no existe")
+    void testCreateAllUsuarioInexistente() {
+        // Arrange
+        List<NotificacionCreateDTO> dtos = List.of(nuevaNotificacion(1L, "A"), nuevaNotificacion(999L, "B"));
+        when(usuarioRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> notificacionService.createAll(dtos));
+        assertTrue(exception.getMessage().contains("999"));
+        verifyNoInteractions(jdbcTemplate, webSocketNotificationService);
+    }
+
+    @Test
+    @DisplayName("Debe difundir la misma notificación una vez por usuario")
+    void testDifundir() {
+        // Arrange
+        when(usuarioRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L, 2L));
+
+        // Act
+        int creadas = notificacionService.difundir(
+            List.of(1L, 2L, 1L), "Resumen", "Mensaje", Notificacion.Tipo.SISTEMA, "VACUNACION", null);
+
+        // Assert
+        assertEquals(2, creadas);
+        verify(webSocketNotificationService, times(1)).enviarContadorNotificaciones(1L, 0L);
+        verify(webSocketNotificationService, times(1)).enviarContadorNotificaciones(2L, 0L);
+    }
+
+    @Test
+    @DisplayName("No debe hacer nada al difundir sin destinatarios")
+    void testDifundirSinDestinatarios() {
+        // Act
+        int creadas = notificacionService.difundir(
+            List.of(), "Resumen", "Mensaje", Notificacion.Tipo.SISTEMA, null, null);
+
+        // Assert
+        assertEquals(0, creadas);
+        verifyNoInteractions(jdbcTemplate, webSocketNotificationService, usuarioRepository);
+    }
+
+    private static NotificacionCreateDTO nuevaNotificacion(Long usuarioId, String titulo) {
+        return NotificacionCreateDTO.builder()
+            .usuarioId(usuarioId)
+            .titulo(titulo)
+            .mensaje("Mensaje " + titulo)
+            .tipo(Notificacion.Tipo.SISTEMA)
+            .build();
+    }
+}
@@ -45,6 +45,12 @@ class PacienteServiceTest {
     @Mock
     private IAuditLogger auditLogger;
 
+    @Mock
+    private MetricaDiariaService metricaDiariaService;
+
+    @Mock
+    private HistorialMedicoCacheService historialMedicoCacheService;
+
     @InjectMocks
     private PacienteService pacienteService;
 
@@ -233,6 +239,7 @@ class PacienteServiceTest {
         assertFalse(paciente1.getActivo());
         verify(pacienteRepository, times(1)).findById(1L);
         verify(pacienteRepository, times(1)).save(any(Paciente.class));
+        verify(metricaDiariaService, times(1)).registrarPacienteActivo(paciente1.getEspecie(), -1);
     }
 
     @Test
@@ -8,6 +8,8 @@ import com.clinica.veterinaria.exception.domain.ResourceNotFoundException;
 import com.clinica.veterinaria.repository.PasswordResetTokenRepository;
 import com.clinica.veterinaria.repository.PropietarioRepository;
 import com.clinica.veterinaria.repository.UsuarioRepository;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
+import com.clinica.veterinaria.security.LimitadorIntentos;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -49,6 +51,12 @@ class PasswordResetServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private CacheAutenticacionJwt cacheAutenticacionJwt;
+
+    @Mock
+    private LimitadorIntentos limitadorIntentos;
+
     @InjectMocks
     private PasswordResetService passwordResetService;
 
@@ -198,6 +206,7 @@ class PasswordResetServiceTest {
         verify(usuarioRepository, atLeast(1)).findByEmail(tokenValido.getEmail());
         verify(passwordEncoder, times(1)).encode(newPassword);
         verify(usuarioRepository, times(1)).save(usuario);
+        verify(cacheAutenticacionJwt).invalidarUsuario(usuario.getEmail());
         verify(tokenRepository, times(1)).markAsUsed(tokenValido.getId());
         verify(emailService, times(1)).enviarEmailCambioPasswordUsuario(
             eq(usuario.getEmail()), eq(usuario.getNombre()), eq(false));
@@ -238,6 +247,7 @@ class PasswordResetServiceTest {
         verify(propietarioRepository, atLeast(1)).findByEmail(tokenPropietario.getEmail());
         verify(passwordEncoder, times(1)).encode(newPassword);
         verify(propietarioRepository, times(1)).save(propietario);
+        verify(cacheAutenticacionJwt).invalidarUsuario(propietario.getEmail());
         verify(tokenRepository, times(1)).markAsUsed(tokenPropietario.getId());
     }
 
@@ -0,0 +1,134 @@
+package com.clinica.veterinaria.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para PlantillaEmailService
+ *
+ * <p>{@link #benchmarkRenderizado()} solo se ejecuta con {@code -Dbenchmark=true}:</p>
+ * <pre>mvn test -Dtest=PlantillaEmailServiceTest -Dbenchmark=true</pre>
+ */
+@DisplayName("Tests Unitarios de PlantillaEmailService")
+class PlantillaEmailServiceTest {
+
+    private PlantillaEmailService plantillaEmailService;
+
+    @BeforeEach
+    void setUp() {
+        plantillaEmailService = nuevoServicio(true);
+    }
+
+    @Test
+    @DisplayName("Debe renderizar la plantilla con sus variables y las comunes de la clínica")
+    void testRenderizarConfirmacionCita() {
+        // Act
+        String html = plantillaEmailService.renderizar("cita-confirmacion", variablesCita());
+
+        // Assert
+        assertTrue(html.contains("Juan Pérez"));
+        assertTrue(html.contains("20/11/2026"));
+        assertTrue(html.contains("10:30"));
+        assertTrue(html.contains(PlantillaEmailService.CLINICA_NOMBRE));
+        assertTrue(html.contains("https://clinica.test/images/logo-clinica.webp"));
+    }
+
+    @Test
+    @DisplayName("El resultado con caché debe ser idéntico al renderizado sin caché")
+    void testCacheNoCambiaResultado() {
+        PlantillaEmailService sinCache = nuevoServicio(false);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(
+                sinCache.renderizar("cita-confirmacion", variablesCita()),
+                plantillaEmailService.renderizar("cita-confirmacion", variablesCita()));
+        }
+    }
+
+    @Test
+    @DisplayName("Las variables del mensaje no deben filtrarse a otros renderizados")
+    void testVariablesAisladas() {
+        Map<String, Object> variables = variablesCita();
+        variables.put("razonCancelacion", "Enfermedad del veterinario");
+        plantillaEmailService.renderizar("cita-cancelacion", variables);
+
+        Map<String, Object> otras = variablesCita();
+        otras.put("razonCancelacion", "Otra razón");
+        String html = plantillaEmailService.renderizar("cita-cancelacion", otras);
+
+        assertFalse(html.contains("Enfermedad del veterinario"));
+        assertTrue(html.contains("Otra razón"));
+    }
+
+    /**
+     * Coste por mensaje: motor sin caché ni compilador SpEL y variables comunes calculadas en cada
+     * envío (como antes) frente a {@link PlantillaEmailService}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: coste de renderizado por mensaje")
+    void benchmarkRenderizado() {
+        int iteraciones = 5_000;
+        SpringTemplateEngine motorSinCache = PlantillaEmailService.crearMotor(false);
+        motorSinCache.setEnableSpringELCompiler(false);
+
+        Runnable antes = () -> {
+            Context context = new Context(new Locale("es", "ES"));
+            context.setVariables(variablesCita());
+            context.setVariable("clinicaNombre", PlantillaEmailService.CLINICA_NOMBRE);
+            context.setVariable("logoUrl", "https://clinica.test" + "/images/logo-clinica.webp");
+            motorSinCache.process("cita-confirmacion", context);
+        };
+        Runnable despues = () -> plantillaEmailService.renderizar("cita-confirmacion", variablesCita());
+
+        // Calentamiento del JIT
+        medir(antes, iteraciones);
+        medir(despues, iteraciones);
+
+        double usAntes = medir(antes, iteraciones);
+        double usDespues = medir(despues, iteraciones);
+        System.out.printf("Renderizado cita-confirmacion: antes %.1f µs/mensaje, después %.1f µs/mensaje (x%.1f)%n",
+            usAntes, usDespues, usAntes / usDespues);
+    }
+
+    private static double medir(Runnable renderizado, int iteraciones) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            renderizado.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000.0 / iteraciones;
+    }
+
+    private static PlantillaEmailService nuevoServicio(boolean cache) {
+        PlantillaEmailService servicio = new PlantillaEmailService();
+        ReflectionTestUtils.setField(servicio, "baseUrl", "https://clinica.test");
+        ReflectionTestUtils.setField(servicio, "logoUrl", "");
+        ReflectionTestUtils.setField(servicio, "cache", cache);
+        servicio.iniciar();
+        return servicio;
+    }
+
+    private static Map<String, Object> variablesCita() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("propietarioNombre", "Juan Pérez");
+        variables.put("pacienteNombre", "Max");
+        variables.put("fecha", LocalDate.of(2026, 11, 20));
+        variables.put("hora", LocalTime.of(10, 30));
+        variables.put("motivo", "Vacunación anual");
+        variables.put("profesionalNombre", "Dr. García");
+        return variables;
+    }
+}
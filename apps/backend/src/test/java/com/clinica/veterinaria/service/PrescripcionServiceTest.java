@@ -46,6 +46,12 @@ class PrescripcionServiceTest {
     @Mock
     private ConsultaRepository consultaRepository;
 
+    @Mock
+    private MetricaDiariaService metricaDiariaService;
+
+    @Mock
+    private HistorialMedicoCacheService historialMedicoCacheService;
+
     @InjectMocks
     private PrescripcionService prescripcionService;
 
@@ -333,6 +339,8 @@ class PrescripcionServiceTest {
         // Assert
         verify(prescripcionRepository, times(1)).findById(1L);
         verify(prescripcionRepository, times(1)).delete(any(Prescripcion.class));
+        verify(metricaDiariaService, times(1)).registrarPrescripcion(prescripcion1.getFechaEmision(), -1);
+        verify(historialMedicoCacheService, times(1)).invalidar(consulta.getPaciente().getId());
     }
 
     @Test
@@ -3,6 +3,7 @@ package com.clinica.veterinaria.service;
 import com.clinica.veterinaria.dto.PropietarioDTO;
 import com.clinica.veterinaria.entity.Propietario;
 import com.clinica.veterinaria.repository.PropietarioRepository;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,9 @@ class PropietarioServiceTest {
     @Mock
     private PropietarioRepository propietarioRepository;
 
+    @Mock
+    private CacheAutenticacionJwt cacheAutenticacionJwt;
+
     @InjectMocks
     private PropietarioService propietarioService;
 
@@ -170,6 +174,7 @@ class PropietarioServiceTest {
         assertFalse(propietario1.getActivo());
         verify(propietarioRepository, times(1)).findById(1L);
         verify(propietarioRepository, times(1)).save(any(Propietario.class));
+        verify(cacheAutenticacionJwt).invalidarUsuario(propietario1.getEmail());
     }
 
     @Test
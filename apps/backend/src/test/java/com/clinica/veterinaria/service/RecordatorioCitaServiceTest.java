@@ -0,0 +1,258 @@
+package com.clinica.veterinaria.service;
+
+import com.clinica.veterinaria.dto.NotificacionCreateDTO;
+import com.clinica.veterinaria.entity.Cita.EstadoCita;
+import com.clinica.veterinaria.entity.Notificacion;
+import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.CitaRecordatorioPendienteView;
+import com.clinica.veterinaria.repository.CitaRepository.CitaRecordatorioView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para RecordatorioCitaService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios de RecordatorioCitaService")
+class RecordatorioCitaServiceTest {
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RecordatorioCitaService recordatorioCitaService;
+
+    @Test
+    @DisplayName("Una cita creada a menos de 1 hora debe recibir el recordatorio de inmediato")
+    void testRecordatorioAtrasadoInmediato() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusMinutes(30);
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha, EstadoCita.PENDIENTE)));
+        when(citaRepository.reclamarRecordatorio1h(1L, fecha)).thenReturn(1);
+
+        // Act
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.PENDIENTE);
+        int enviados = recordatorioCitaService.avanzar(System.currentTimeMillis() + 1_000);
+
+        // Assert
+        assertEquals(1, enviados);
+        NotificacionCreateDTO dto = notificacionCreada();
+        assertEquals(7L, dto.getUsuarioId());
+        assertTrue(dto.getTitulo().contains("1 hora"));
+        assertEquals(Notificacion.Tipo.CITA, dto.getTipo());
+    }
+
+    @Test
+    @DisplayName("Debe enviar el recordatorio de 24 horas al llegar su momento y no antes")
+    void testRecordatorio24Horas() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusHours(30);
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha, EstadoCita.CONFIRMADA)));
+        when(citaRepository.reclamarRecordatorio24h(1L, fecha)).thenReturn(1);
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.CONFIRMADA);
+        assertEquals(2, recordatorioCitaService.pendientes());
+
+        // Act
+        int antes = recordatorioCitaService.avanzar(millis(fecha.minusHours(24)) - 2_000);
+        int alVencer = recordatorioCitaService.avanzar(millis(fecha.minusHours(24)) + 1_000);
+
+        // Assert
+        assertEquals(0, antes);
+        assertEquals(1, alVencer);
+        assertTrue(notificacionCreada().getTitulo().contains("24 horas"));
+        assertEquals(1, recordatorioCitaService.pendientes());
+    }
+
+    @Test
+    @DisplayName("Reprogramar con la misma fecha no debe duplicar un recordatorio enviado")
+    void testSinDuplicados() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusMinutes(30);
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha, EstadoCita.PENDIENTE)));
+        when(citaRepository.reclamarRecordatorio1h(1L, fecha)).thenReturn(1, 0);
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.PENDIENTE);
+        recordatorioCitaService.avanzar(System.currentTimeMillis() + 1_000);
+
+        // Act
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.CONFIRMADA);
+        int enviados = recordatorioCitaService.avanzar(System.currentTimeMillis() + 2_000);
+
+        // Assert
+        assertEquals(0, enviados);
+        assertEquals(0, recordatorioCitaService.pendientes());
+        verify(notificacionService, times(1)).createAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Una cita cancelada no debe recibir recordatorios")
+    void testCitaCancelada() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusHours(30);
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.PENDIENTE);
+
+        // Act
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.CANCELADA);
+        int enviados = recordatorioCitaService.avanzar(millis(fecha));
+
+        // Assert
+        assertEquals(0, enviados);
+        assertEquals(0, recordatorioCitaService.pendientes());
+        verifyNoInteractions(citaRepository, notificacionService);
+    }
+
+    @Test
+    @DisplayName("No debe enviar el recordatorio si la cita se movió entretanto")
+    void testCitaMovida() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusMinutes(30);
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha.plusDays(3), EstadoCita.PENDIENTE)));
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.PENDIENTE);
+
+        // Act
+        int enviados = recordatorioCitaService.avanzar(System.currentTimeMillis() + 1_000);
+
+        // Assert
+        assertEquals(0, enviados);
+        verify(citaRepository, never()).reclamarRecordatorio1h(any(), any());
+        verifyNoInteractions(notificacionService);
+    }
+
+    @Test
+    @DisplayName("No debe enviar el recordatorio si otra instancia ya lo reclamó")
+    void testReclamadoPorOtraInstancia() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusMinutes(30);
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha, EstadoCita.PENDIENTE)));
+        when(citaRepository.reclamarRecordatorio1h(1L, fecha)).thenReturn(0);
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.PENDIENTE);
+
+        // Act
+        int enviados = recordatorioCitaService.avanzar(System.currentTimeMillis() + 1_000);
+
+        // Assert
+        assertEquals(0, enviados);
+        verifyNoInteractions(notificacionService);
+    }
+
+    @Test
+    @DisplayName("Al arrancar debe enviar el recordatorio de 1 hora vencido durante el reinicio")
+    void testPrecargarEnviaRecordatorioAtrasado() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusMinutes(30);
+        when(citaRepository.findConRecordatoriosPendientes(any(), any()))
+            .thenReturn(List.of(pendiente(1L, fecha, null, null)));
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha, EstadoCita.CONFIRMADA)));
+        when(citaRepository.reclamarRecordatorio1h(1L, fecha)).thenReturn(1);
+
+        // Act
+        recordatorioCitaService.precargar();
+        int enviados = recordatorioCitaService.avanzar(System.currentTimeMillis() + 1_000);
+
+        // Assert
+        assertEquals(1, enviados);
+        assertTrue(notificacionCreada().getTitulo().contains("1 hora"));
+        verify(citaRepository, never()).reclamarRecordatorio24h(any(), any());
+    }
+
+    @Test
+    @DisplayName("La sincronización debe programar solo los recordatorios aún no reclamados")
+    void testSincronizarOmiteReclamados() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusHours(20);
+        LocalDateTime otraFecha = LocalDateTime.now().plusHours(23);
+        when(citaRepository.findConRecordatoriosPendientes(any(), any())).thenReturn(List.of(
+            pendiente(1L, fecha, fecha, null),
+            pendiente(2L, otraFecha, null, otraFecha.minusDays(1))));
+
+        // Act
+        int citas = recordatorioCitaService.sincronizarPendientes();
+
+        // Assert
+        assertEquals(2, citas);
+        assertEquals(2, recordatorioCitaService.pendientes());
+        ArgumentCaptor<LocalDateTime> hasta = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(citaRepository).findConRecordatoriosPendientes(any(), hasta.capture());
+        assertTrue(hasta.getValue().isAfter(LocalDateTime.now().plusHours(24)));
+    }
+
+    @Test
+    @DisplayName("Si el lote falla debe crear los recordatorios uno a uno")
+    void testLoteFallidoSeReintentaUnoAUno() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now().plusMinutes(30);
+        when(citaRepository.findDatosRecordatorio(anyCollection()))
+            .thenReturn(List.of(vista(1L, fecha, EstadoCita.PENDIENTE)));
+        when(citaRepository.reclamarRecordatorio1h(1L, fecha)).thenReturn(1);
+        when(notificacionService.createAll(anyList())).thenThrow(new RuntimeException("Usuario no encontrado con ID: 7"));
+        recordatorioCitaService.programar(1L, fecha, EstadoCita.PENDIENTE);
+
+        // Act
+        int enviados = recordatorioCitaService.avanzar(System.currentTimeMillis() + 1_000);
+
+        // Assert
+        assertEquals(1, enviados);
+        verify(notificacionService).create(any(NotificacionCreateDTO.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificacionCreateDTO notificacionCreada() {
+        ArgumentCaptor<List<NotificacionCreateDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacionService).createAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        return captor.getValue().get(0);
+    }
+
+    private static long millis(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static CitaRecordatorioPendienteView pendiente(Long id, LocalDateTime fecha,
+                                                           LocalDateTime recordatorio24hPara,
+                                                           LocalDateTime recordatorio1hPara) {
+        return new CitaRecordatorioPendienteView() {
+            @Override public Long getId() { return id; }
+            @Override public LocalDateTime getFecha() { return fecha; }
+            @Override public LocalDateTime getRecordatorio24hPara() { return recordatorio24hPara; }
+            @Override public LocalDateTime getRecordatorio1hPara() { return recordatorio1hPara; }
+        };
+    }
+
+    private static CitaRecordatorioView vista(Long id, LocalDateTime fecha, EstadoCita estado) {
+        return new CitaRecordatorioView() {
+            @Override public Long getId() { return id; }
+            @Override public LocalDateTime getFecha() { return fecha; }
+            @Override public EstadoCita getEstado() { return estado; }
+            @Override public String getMotivo() { return "Consulta general"; }
+            @Override public String getPacienteNombre() { return "Max"; }
+            @Override public Long getProfesionalId() { return 7L; }
+        };
+    }
+}
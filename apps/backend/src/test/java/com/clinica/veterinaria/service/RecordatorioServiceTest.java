@@ -1,8 +1,8 @@
 package com.clinica.veterinaria.service;
 
-import com.clinica.veterinaria.dto.NotificacionCreateDTO;
 import com.clinica.veterinaria.entity.*;
 import com.clinica.veterinaria.repository.*;
+import com.clinica.veterinaria.repository.VacunacionRepository.VacunacionAlertaView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,7 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,9 +29,6 @@ import static org.mockito.Mockito.*;
 @DisplayName("Tests Unitarios de RecordatorioService")
 class RecordatorioServiceTest {
 
-    @Mock
-    private CitaRepository citaRepository;
-
     @Mock
     private VacunacionRepository vacunacionRepository;
 
@@ -50,8 +47,6 @@ class RecordatorioServiceTest {
     private Usuario veterinario;
     private Paciente paciente;
     private Propietario propietario;
-    private Cita cita;
-    private Vacunacion vacunacion;
     private Producto producto;
     private CategoriaProducto categoria;
 
@@ -80,30 +75,6 @@ class RecordatorioServiceTest {
             .activo(true)
             .build();
 
-        cita = Cita.builder()
-            .id(1L)
-            .fecha(LocalDateTime.now().plusHours(24))
-            .motivo("Consulta general")
-            .estado(Cita.EstadoCita.CONFIRMADA)
-            .paciente(paciente)
-            .propietario(propietario)
-            .profesional(veterinario)
-            .build();
-
-        Vacuna vacuna = Vacuna.builder()
-            .id(1L)
-            .nombre("Antirrábica")
-            .especie("Canino")
-            .activo(true)
-            .build();
-
-        vacunacion = Vacunacion.builder()
-            .id(1L)
-            .paciente(paciente)
-            .vacuna(vacuna)
-            .proximaDosis(LocalDate.now().minusDays(5))
-            .build();
-
         categoria = CategoriaProducto.builder()
             .id(1L)
             .nombre("Medicamentos")
@@ -120,37 +91,52 @@ class RecordatorioServiceTest {
     }
 
     @Test
-    @DisplayName("Debe enviar recordatorios de citas en 24 horas")
-    void testEnviarRecordatoriosCitas_24Horas() {
+    @DisplayName("Debe enviar un único resumen de vacunaciones a todos los veterinarios")
+    void testEnviarAlertasVacunaciones_Resumen() {
         // Arrange
-        when(citaRepository.findByFechaBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-            .thenReturn(Arrays.asList(cita))
-            .thenReturn(Arrays.asList()); // Primera llamada (24h), segunda llamada (1h)
+        LocalDate hoy = LocalDate.now();
+        Usuario otroVeterinario = Usuario.builder()
+            .id(2L)
+            .nombre("Dra. Gómez")
+            .rol(Usuario.Rol.VET)
+            .activo(true)
+            .build();
+        
+        when(vacunacionRepository.findParaAlertas(hoy.plusDays(RecordatorioService.DIAS_VACUNACION_PROXIMA)))
+            .thenReturn(Arrays.asList(
+                alerta(1L, "Max", hoy.minusDays(5)),
+                alerta(2L, "Luna", hoy.minusDays(1)),
+                alerta(3L, "Rocky", hoy.plusDays(3))));
+        when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
+            .thenReturn(Arrays.asList(veterinario, otroVeterinario));
 
         // Act
-        recordatorioService.enviarRecordatoriosCitas();
+        recordatorioService.enviarAlertasVacunaciones();
 
         // Assert
-        ArgumentCaptor<NotificacionCreateDTO> captor = ArgumentCaptor.forClass(NotificacionCreateDTO.class);
-        verify(notificacionService, atLeastOnce()).create(captor.capture());
+        ArgumentCaptor<String> titulo = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> mensaje = ArgumentCaptor.forClass(String.class);
+        verify(notificacionService, times(1)).difundir(eq(List.of(1L, 2L)), titulo.capture(), mensaje.capture(),
+            eq(Notificacion.Tipo.SISTEMA), eq("VACUNACION"), isNull());
+        verify(usuarioRepository, times(1)).findByRolAndActivo(Usuario.Rol.VET, true);
+        verify(notificacionService, never()).create(any());
         
-        NotificacionCreateDTO dto = captor.getValue();
-        assertNotNull(dto);
-        assertEquals(veterinario.getId(), dto.getUsuarioId());
-        assertTrue(dto.getTitulo().contains("24 horas"));
-        assertEquals(Notificacion.Tipo.CITA, dto.getTipo());
+        assertTrue(titulo.getValue().contains("2 vacunaciones vencidas"));
+        assertTrue(titulo.getValue().contains("1 próximas"));
+        assertTrue(mensaje.getValue().contains("Max - Antirrábica"));
+        assertTrue(mensaje.getValue().contains("Rocky - Antirrábica"));
     }
 
     @Test
-    @DisplayName("Debe enviar alertas de vacunaciones vencidas")
-    void testEnviarAlertasVacunaciones_Vencidas() {
+    @DisplayName("El resumen debe limitar las vacunaciones listadas por sección")
+    void testEnviarAlertasVacunaciones_Limite() {
         // Arrange
         LocalDate hoy = LocalDate.now();
-        
-        when(vacunacionRepository.findVencidas(hoy))
-            .thenReturn(Arrays.asList(vacunacion));
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
-            .thenReturn(Arrays.asList());
+        List<VacunacionAlertaView> alertas = new ArrayList<>();
+        for (long i = 1; i <= 25; i++) {
+            alertas.add(alerta(i, "Paciente " + i, hoy.minusDays(30 - i)));
+        }
+        when(vacunacionRepository.findParaAlertas(any())).thenReturn(alertas);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario));
 
@@ -158,14 +144,12 @@ class RecordatorioServiceTest {
         recordatorioService.enviarAlertasVacunaciones();
 
         // Assert
-        ArgumentCaptor<NotificacionCreateDTO> captor = ArgumentCaptor.forClass(NotificacionCreateDTO.class);
-        verify(notificacionService, atLeastOnce()).create(captor.capture());
-        
-        NotificacionCreateDTO dto = captor.getValue();
-        assertNotNull(dto);
-        assertEquals(veterinario.getId(), dto.getUsuarioId());
-        assertTrue(dto.getTitulo().contains("vencida"));
-        assertEquals(Notificacion.Tipo.SISTEMA, dto.getTipo());
+        ArgumentCaptor<String> mensaje = ArgumentCaptor.forClass(String.class);
+        verify(notificacionService).difundir(eq(List.of(1L)), anyString(), mensaje.capture(),
+            any(), any(), any());
+        assertTrue(mensaje.getValue().contains("Vacunaciones vencidas (25)"));
+        assertTrue(mensaje.getValue().contains("... y 15 más"));
+        assertFalse(mensaje.getValue().contains("Paciente 11 "));
     }
 
     @Test
@@ -189,35 +173,41 @@ class RecordatorioServiceTest {
         recordatorioService.enviarAlertasStockBajo();
 
         // Assert
-        ArgumentCaptor<NotificacionCreateDTO> captor = ArgumentCaptor.forClass(NotificacionCreateDTO.class);
-        verify(notificacionService, atLeastOnce()).create(captor.capture());
+        ArgumentCaptor<String> titulo = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> mensaje = ArgumentCaptor.forClass(String.class);
+        verify(notificacionService, times(1)).difundir(eq(List.of(2L)), titulo.capture(), mensaje.capture(),
+            eq(Notificacion.Tipo.SISTEMA), eq("INVENTARIO"), isNull());
         
-        NotificacionCreateDTO dto = captor.getValue();
-        assertNotNull(dto);
-        assertTrue(dto.getTitulo().contains("stock bajo"));
-        assertEquals(Notificacion.Tipo.SISTEMA, dto.getTipo());
+        assertTrue(titulo.getValue().contains("stock bajo"));
+        assertTrue(mensaje.getValue().contains("Medicamento A"));
     }
 
     @Test
     @DisplayName("No debe enviar notificaciones si no hay datos")
     void testEnviarRecordatorios_SinDatos() {
         // Arrange
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findVencidas(any()))
-            .thenReturn(Arrays.asList());
-        when(vacunacionRepository.findProximasAVencer(any(), any()))
+        when(vacunacionRepository.findParaAlertas(any()))
             .thenReturn(Arrays.asList());
         when(productoRepository.findProductosConStockBajo())
             .thenReturn(Arrays.asList());
 
         // Act
-        recordatorioService.enviarRecordatoriosCitas();
         recordatorioService.enviarAlertasVacunaciones();
         recordatorioService.enviarAlertasStockBajo();
 
         // Assert
         verify(notificacionService, never()).create(any());
+        verify(notificacionService, never()).difundir(any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    private static VacunacionAlertaView alerta(Long id, String pacienteNombre, LocalDate proximaDosis) {
+        return new VacunacionAlertaView() {
+            @Override public Long getId() { return id; }
+            @Override public String getPacienteNombre() { return pacienteNombre; }
+            @Override public String getVacunaNombre() { return "Antirrábica"; }
+            @Override public LocalDate getProximaDosis() { return proximaDosis; }
+        };
     }
 }
 
@@ -6,8 +6,9 @@ import com.clinica.veterinaria.entity.Paciente;
 import com.clinica.veterinaria.entity.Propietario;
 import com.clinica.veterinaria.entity.Usuario;
 import com.clinica.veterinaria.repository.CitaRepository;
+import com.clinica.veterinaria.repository.CitaRepository.ConteoPorMotivo;
 import com.clinica.veterinaria.repository.ConsultaRepository;
-import com.clinica.veterinaria.repository.PacienteRepository;
+import com.clinica.veterinaria.repository.ConsultaRepository.ConteoPorProfesional;
 import com.clinica.veterinaria.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,9 +18,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,7 +43,7 @@ class ReporteServiceTest {
     private ConsultaRepository consultaRepository;
 
     @Mock
-    private PacienteRepository pacienteRepository;
+    private MetricaDiariaService metricaDiariaService;
 
     @Mock
     private UsuarioRepository usuarioRepository;
@@ -126,17 +130,15 @@ class ReporteServiceTest {
     @DisplayName("Debe generar reporte para periodo 'hoy'")
     void testGenerarReporte_Hoy() {
         // Arrange
-        when(citaRepository.count()).thenReturn(2L);
-        when(consultaRepository.count()).thenReturn(5L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
+        when(metricaDiariaService.contarCitas()).thenReturn(2L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(5L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(2L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1, veterinario2));
-        when(citaRepository.countByEstado(any())).thenReturn(1L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(porMotivo(cita1, cita2));
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("hoy");
@@ -158,17 +160,15 @@ class ReporteServiceTest {
     @DisplayName("Debe generar reporte para periodo 'semana'")
     void testGenerarReporte_Semana() {
         // Arrange
-        when(citaRepository.count()).thenReturn(10L);
-        when(consultaRepository.count()).thenReturn(15L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
+        when(metricaDiariaService.contarCitas()).thenReturn(10L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(15L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(2L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1));
-        when(citaRepository.countByEstado(any())).thenReturn(2L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(porMotivo(cita1, cita2));
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("semana");
@@ -183,17 +183,15 @@ class ReporteServiceTest {
     @DisplayName("Debe generar reporte para periodo 'mes'")
     void testGenerarReporte_Mes() {
         // Arrange
-        when(citaRepository.count()).thenReturn(50L);
-        when(consultaRepository.count()).thenReturn(40L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
+        when(metricaDiariaService.contarCitas()).thenReturn(50L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(40L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(2L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1, veterinario2));
-        when(citaRepository.countByEstado(any())).thenReturn(10L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(porMotivo(cita1, cita2));
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("mes");
@@ -207,17 +205,15 @@ class ReporteServiceTest {
     @DisplayName("Debe generar reporte para periodo 'año'")
     void testGenerarReporte_Ano() {
         // Arrange
-        when(citaRepository.count()).thenReturn(500L);
-        when(consultaRepository.count()).thenReturn(400L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2));
+        when(metricaDiariaService.contarCitas()).thenReturn(500L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(400L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(2L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1));
-        when(citaRepository.countByEstado(any())).thenReturn(100L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList(cita1, cita2));
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(porMotivo(cita1, cita2));
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("año");
@@ -231,17 +227,15 @@ class ReporteServiceTest {
     @DisplayName("Debe usar periodo por defecto si periodo es inválido")
     void testGenerarReporte_PeriodoInvalido() {
         // Arrange
-        when(citaRepository.count()).thenReturn(1L);
-        when(consultaRepository.count()).thenReturn(1L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1));
+        when(metricaDiariaService.contarCitas()).thenReturn(1L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(1L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(1L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1));
-        when(citaRepository.countByEstado(any())).thenReturn(0L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(List.of());
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("periodo_invalido");
@@ -249,27 +243,29 @@ class ReporteServiceTest {
         // Assert
         assertNotNull(resultado);
         // Debe usar periodo por defecto (mes)
-        verify(citaRepository, atLeastOnce()).findByFechaBetween(any(), any());
+        verify(citaRepository).countAgrupadasPorMotivo(
+            LocalDate.now().minusMonths(1).atStartOfDay(), LocalDate.now().atTime(LocalTime.MAX));
     }
 
     @Test
     @DisplayName("Debe calcular citas por estado correctamente")
     void testGenerarReporte_CitasPorEstado() {
         // Arrange
-        when(citaRepository.count()).thenReturn(10L);
-        when(consultaRepository.count()).thenReturn(5L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1));
+        when(metricaDiariaService.contarCitas()).thenReturn(10L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(5L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(1L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1));
-        when(citaRepository.countByEstado(Cita.EstadoCita.PENDIENTE)).thenReturn(3L);
-        when(citaRepository.countByEstado(Cita.EstadoCita.CONFIRMADA)).thenReturn(2L);
-        when(citaRepository.countByEstado(Cita.EstadoCita.ATENDIDA)).thenReturn(4L);
-        when(citaRepository.countByEstado(Cita.EstadoCita.CANCELADA)).thenReturn(1L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(metricaDiariaService.contarCitasPorEstado()).thenReturn(Map.of(
+            Cita.EstadoCita.PENDIENTE, 3L,
+            Cita.EstadoCita.CONFIRMADA, 2L,
+            Cita.EstadoCita.ATENDIDA, 4L,
+            Cita.EstadoCita.CANCELADA, 1L
+        ));
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(List.of());
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("mes");
@@ -288,17 +284,17 @@ class ReporteServiceTest {
     @DisplayName("Debe calcular distribución de pacientes por especie")
     void testGenerarReporte_PacientesPorEspecie() {
         // Arrange
-        when(citaRepository.count()).thenReturn(5L);
-        when(consultaRepository.count()).thenReturn(3L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1, paciente2)); // Perro y Gato
+        when(metricaDiariaService.contarCitas()).thenReturn(5L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(3L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(2L);
+        when(metricaDiariaService.contarPacientesActivosPorEspecie())
+            .thenReturn(Map.of(paciente1.getEspecie(), 1L, paciente2.getEspecie(), 1L)); // Perro y Gato
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1));
-        when(citaRepository.countByEstado(any())).thenReturn(1L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(List.of());
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("mes");
@@ -335,17 +331,15 @@ class ReporteServiceTest {
             Cita.builder().id(12L).motivo("Otro motivo 4").fecha(fechaHoy).build()
         );
 
-        when(citaRepository.count()).thenReturn(12L);
-        when(consultaRepository.count()).thenReturn(5L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList(paciente1));
+        when(metricaDiariaService.contarCitas()).thenReturn(12L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(5L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(1L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList(veterinario1));
-        when(citaRepository.countByEstado(any())).thenReturn(3L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(muchasCitas);
-        when(consultaRepository.findByProfesionalId(any()))
-            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(porMotivo(muchasCitas.toArray(new Cita[0])));
+        when(consultaRepository.countAgrupadasPorProfesional())
+            .thenReturn(List.of());
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("mes");
@@ -359,16 +353,14 @@ class ReporteServiceTest {
     @DisplayName("Debe manejar datos vacíos correctamente")
     void testGenerarReporte_DatosVacios() {
         // Arrange
-        when(citaRepository.count()).thenReturn(0L);
-        when(consultaRepository.count()).thenReturn(0L);
-        when(pacienteRepository.findByActivo(true))
-            .thenReturn(Arrays.asList());
+        when(metricaDiariaService.contarCitas()).thenReturn(0L);
+        when(metricaDiariaService.contarConsultas()).thenReturn(0L);
+        when(metricaDiariaService.contarPacientesActivos()).thenReturn(0L);
         when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
             .thenReturn(Arrays.asList());
-        when(citaRepository.countByEstado(any())).thenReturn(0L);
-        when(citaRepository.findByFechaBetween(any(), any()))
-            .thenReturn(Arrays.asList());
-        // No hay veterinarios, así que findByProfesionalId nunca se llama
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(List.of());
+        // No hay veterinarios, así que countAgrupadasPorProfesional nunca se llama
 
         // Act
         ReporteDTO resultado = reporteService.generarReporte("mes");
@@ -383,5 +375,91 @@ class ReporteServiceTest {
         assertNotNull(resultado.getTopMotivosConsulta());
         assertTrue(resultado.getTopMotivosConsulta().isEmpty());
     }
-}
 
+    @Test
+    @DisplayName("Debe contar las atenciones de todos los veterinarios con una sola consulta agrupada")
+    void testGenerarReporte_AtencionesPorVeterinario() {
+        // Arrange
+        when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
+            .thenReturn(Arrays.asList(veterinario1, veterinario2));
+        when(consultaRepository.countAgrupadasPorProfesional()).thenReturn(List.of(
+            porProfesional(veterinario1.getId(), 2L),
+            porProfesional(veterinario2.getId(), 5L),
+            porProfesional(99L, 7L)
+        ));
+        when(citaRepository.countAgrupadasPorMotivo(any(), any()))
+            .thenReturn(List.of());
+
+        // Act
+        ReporteDTO resultado = reporteService.generarReporte("mes");
+
+        // Assert
+        assertEquals(2L, resultado.getTotalVeterinarios());
+        assertEquals(2, resultado.getAtencionesPorVeterinario().size());
+        assertEquals(5L, resultado.getAtencionesPorVeterinario().get(0).getConsultas());
+        assertEquals(2L, resultado.getAtencionesPorVeterinario().get(1).getConsultas());
+        verify(usuarioRepository, times(1)).findByRolAndActivo(Usuario.Rol.VET, true);
+        verify(consultaRepository, never()).findByProfesionalId(any());
+        verify(citaRepository, never()).findByFechaBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe agrupar los motivos en categorías y calcular el porcentaje sobre las citas del periodo")
+    void testGenerarReporte_PorcentajeMotivos() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        when(usuarioRepository.findByRolAndActivo(Usuario.Rol.VET, true))
+            .thenReturn(Arrays.asList());
+        when(citaRepository.countAgrupadasPorMotivo(any(), any())).thenReturn(List.of(
+            porMotivo("vacunación anual", 2L),
+            porMotivo("refuerzo de vacuna", 1L),
+            porMotivo("control post operatorio", 1L)
+        ));
+        when(metricaDiariaService.contarCitas()).thenReturn(5L);
+        when(metricaDiariaService.contarCitas(hoy.minusMonths(1), hoy)).thenReturn(5L);
+
+        // Act
+        ReporteDTO resultado = reporteService.generarReporte("mes");
+
+        // Assert
+        assertEquals(2, resultado.getTopMotivosConsulta().size());
+        ReporteDTO.TopMotivoConsultaDTO vacunacion = resultado.getTopMotivosConsulta().get(0);
+        assertEquals("Vacunación", vacunacion.getMotivo());
+        assertEquals(3L, vacunacion.getCantidad());
+        assertEquals(60.0, vacunacion.getPorcentaje(), 0.001);
+    }
+
+    private static List<ConteoPorMotivo> porMotivo(Cita... citas) {
+        return Arrays.stream(citas)
+            .map(cita -> porMotivo(cita.getMotivo().toLowerCase(), 1L))
+            .toList();
+    }
+
+    private static ConteoPorMotivo porMotivo(String motivo, Long total) {
+        return new ConteoPorMotivo() {
+            @Override
+            public String getMotivo() {
+                return motivo;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static ConteoPorProfesional porProfesional(Long profesionalId, Long total) {
+        return new ConteoPorProfesional() {
+            @Override
+            public Long getProfesionalId() {
+                return profesionalId;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
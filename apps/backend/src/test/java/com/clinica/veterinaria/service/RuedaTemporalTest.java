@@ -0,0 +1,115 @@
+package com.clinica.veterinaria.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para RuedaTemporal
+ */
+@DisplayName("Tests Unitarios de RuedaTemporal")
+class RuedaTemporalTest {
+
+    private static final long INICIO = 1_000_000L;
+
+    private RuedaTemporal<String, String> rueda;
+
+    @BeforeEach
+    void setUp() {
+        rueda = new RuedaTemporal<>(1000, INICIO);
+    }
+
+    @Test
+    @DisplayName("Debe entregar la tarea exactamente en su tick de vencimiento")
+    void testVencimientoExacto() {
+        // Arrange
+        rueda.programar("a", "A", INICIO + 10_000);
+
+        // Act & Assert
+        assertTrue(rueda.avanzar(INICIO + 9_999).isEmpty());
+        assertEquals(List.of("A"), rueda.avanzar(INICIO + 10_000));
+        assertEquals(0, rueda.size());
+    }
+
+    @Test
+    @DisplayName("Reprogramar una clave debe reemplazar la tarea anterior")
+    void testReprogramarReemplaza() {
+        // Arrange
+        rueda.programar("a", "primera", INICIO + 5_000);
+        rueda.programar("a", "segunda", INICIO + 8_000);
+
+        // Act & Assert
+        assertTrue(rueda.avanzar(INICIO + 6_000).isEmpty());
+        assertEquals(List.of("segunda"), rueda.avanzar(INICIO + 8_000));
+        assertTrue(rueda.avanzar(INICIO + 100_000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Una tarea cancelada no debe vencer")
+    void testCancelar() {
+        // Arrange
+        rueda.programar("a", "A", INICIO + 5_000);
+
+        // Act
+        boolean cancelada = rueda.cancelar("a");
+
+        // Assert
+        assertTrue(cancelada);
+        assertFalse(rueda.contiene("a"));
+        assertTrue(rueda.avanzar(INICIO + 10_000).isEmpty());
+        assertFalse(rueda.cancelar("a"));
+    }
+
+    @Test
+    @DisplayName("Las tareas lejanas deben descender de nivel y vencer en su tick")
+    void testCascadaEntreNiveles() {
+        // Arrange: 24 horas y 2 días en ticks de 1 segundo caen en los niveles 2 y 3
+        long unDia = 86_400_000L;
+        rueda.programar("24h", "24h", INICIO + unDia);
+        rueda.programar("48h", "48h", INICIO + 2 * unDia + 1_000);
+        rueda.programar("1h", "1h", INICIO + 3_600_000L);
+
+        // Act: avanzar segundo a segundo como el planificador
+        List<String> vencidas = new ArrayList<>();
+        List<Long> instantes = new ArrayList<>();
+        for (long t = INICIO; t <= INICIO + 2 * unDia + 5_000; t += 1_000) {
+            for (String v : rueda.avanzar(t)) {
+                vencidas.add(v);
+                instantes.add(t);
+            }
+        }
+
+        // Assert
+        assertEquals(List.of("1h", "24h", "48h"), vencidas);
+        assertEquals(List.of(INICIO + 3_600_000L, INICIO + unDia, INICIO + 2 * unDia + 1_000), instantes);
+    }
+
+    @Test
+    @DisplayName("Un salto grande de tiempo debe entregar todas las tareas vencidas en orden")
+    void testSaltoDeTiempo() {
+        // Arrange
+        rueda.programar("b", "B", INICIO + 200_000);
+        rueda.programar("a", "A", INICIO + 70_000);
+
+        // Act
+        List<String> vencidas = rueda.avanzar(INICIO + 300_000);
+
+        // Assert
+        assertEquals(List.of("A", "B"), vencidas);
+    }
+
+    @Test
+    @DisplayName("Una tarea con vencimiento pasado debe entregarse en el siguiente avance")
+    void testVencimientoPasado() {
+        // Arrange
+        rueda.programar("a", "A", INICIO - 5_000);
+
+        // Act & Assert
+        assertEquals(List.of("A"), rueda.avanzar(INICIO));
+    }
+}
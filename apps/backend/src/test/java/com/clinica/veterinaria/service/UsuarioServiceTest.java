@@ -5,6 +5,7 @@ import com.clinica.veterinaria.dto.UsuarioDTO;
 import com.clinica.veterinaria.dto.UsuarioUpdateDTO;
 import com.clinica.veterinaria.entity.Usuario;
 import com.clinica.veterinaria.repository.UsuarioRepository;
+import com.clinica.veterinaria.security.CacheAutenticacionJwt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,9 @@ class UsuarioServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CacheAutenticacionJwt cacheAutenticacionJwt;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -174,6 +178,7 @@ class UsuarioServiceTest {
         assertFalse(usuarioAdmin.getActivo());
         verify(usuarioRepository, times(1)).findById(1L);
         verify(usuarioRepository, times(1)).save(usuarioAdmin);
+        verify(cacheAutenticacionJwt).invalidarUsuario(usuarioAdmin.getEmail());
     }
 
     @Test
@@ -1,11 +1,11 @@
 package com.clinica.veterinaria.service;
 
+import com.clinica.veterinaria.config.DestinosWebSocket;
 import com.clinica.veterinaria.dto.NotificacionWebSocketDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -24,13 +24,15 @@ class WebSocketNotificationServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
-    @InjectMocks
     private WebSocketNotificationService webSocketNotificationService;
 
     private NotificacionWebSocketDTO notificacion;
 
     @BeforeEach
     void setUp() {
+        webSocketNotificationService = new WebSocketNotificationService(
+            messagingTemplate, new DestinosWebSocket(DestinosWebSocket.MODO_SIMPLE));
+
         notificacion = NotificacionWebSocketDTO.builder()
             .id(1L)
             .titulo("Test Notification")
@@ -77,5 +79,41 @@ class WebSocketNotificationServiceTest {
             eq(5L)
         );
     }
+
+    @Test
+    @DisplayName("En modo relay debe enviar a un topic por usuario válido para el broker externo")
+    void testEnviarNotificacionAUsuarioRelay() {
+        // Arrange
+        webSocketNotificationService = new WebSocketNotificationService(
+            messagingTemplate, new DestinosWebSocket(DestinosWebSocket.MODO_RELAY));
+
+        // Act
+        webSocketNotificationService.enviarNotificacionAUsuario(1L, notificacion);
+        webSocketNotificationService.enviarContadorNotificaciones(1L, 5L);
+
+        // Assert
+        verify(messagingTemplate, times(1)).convertAndSend(
+            eq("/topic/usuario.1.notificaciones"),
+            eq(notificacion)
+        );
+        verify(messagingTemplate, times(1)).convertAndSend(
+            eq("/topic/usuario.1.notificaciones-count"),
+            eq(5L)
+        );
+    }
+
+    @Test
+    @DisplayName("En modo relay debe traducir solo las suscripciones a colas de usuario")
+    void testTraducirSuscripcionRelay() {
+        // Arrange
+        DestinosWebSocket relay = new DestinosWebSocket(DestinosWebSocket.MODO_RELAY);
+        DestinosWebSocket simple = new DestinosWebSocket(DestinosWebSocket.MODO_SIMPLE);
+
+        // Act & Assert
+        assertEquals("/topic/usuario.7.notificaciones", relay.traducirSuscripcion("/user/7/queue/notificaciones"));
+        assertEquals("/topic/notificaciones", relay.traducirSuscripcion("/topic/notificaciones"));
+        assertEquals("/user/7/queue/notificaciones", simple.traducirSuscripcion("/user/7/queue/notificaciones"));
+        assertThrows(IllegalArgumentException.class, () -> new DestinosWebSocket("kafka"));
+    }
 }
 
@@ -0,0 +1,250 @@
+package com.clinica.veterinaria.websocket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker STOMP 1.2 mínimo en memoria para los tests del modo relay.
+ *
+ * <p>Atiende por TCP lo que necesita el relay de Spring: CONNECT/STOMP, SUBSCRIBE,
+ * UNSUBSCRIBE, SEND (reenviado como MESSAGE a todos los suscriptores del destino), DISCONNECT
+ * y receipts. No implementa transacciones, ACK ni heart-beats (responde {@code 0,0}).</p>
+ */
+final class BrokerStompEmbebido implements AutoCloseable {
+
+    private static final byte NUL = 0;
+
+    private final ServerSocket servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool(r -> {
+        Thread hilo = new Thread(r, "broker-stomp-embebido");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /** Suscriptores por destino. */
+    private final ConcurrentMap<String, Set<Suscripcion>> destinos = new ConcurrentHashMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong publicados = new AtomicLong();
+
+    private BrokerStompEmbebido() throws IOException {
+        this.servidor = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        hilos.execute(this::aceptar);
+    }
+
+    /**
+     * Inicia el broker en un puerto libre de localhost.
+     */
+    static BrokerStompEmbebido iniciar() {
+        try {
+            return new BrokerStompEmbebido();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo iniciar el broker STOMP embebido", e);
+        }
+    }
+
+    int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    /** Número de frames SEND recibidos. */
+    long getPublicados() {
+        return publicados.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        hilos.shutdownNow();
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                hilos.execute(() -> atender(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        Conexion conexion = null;
+        try (socket) {
+            conexion = new Conexion(new BufferedOutputStream(socket.getOutputStream()));
+            InputStream entrada = new BufferedInputStream(socket.getInputStream());
+            Frame frame;
+            while ((frame = leer(entrada)) != null) {
+                if (!procesar(conexion, frame)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Conexión cerrada por el cliente
+        } finally {
+            if (conexion != null) {
+                Conexion cerrada = conexion;
+                destinos.values().forEach(suscriptores -> suscriptores.removeIf(s -> s.conexion() == cerrada));
+            }
+        }
+    }
+
+    /**
+     * @return false si la conexión debe cerrarse
+     */
+    private boolean procesar(Conexion conexion, Frame frame) throws IOException {
+        switch (frame.comando()) {
+            case "CONNECT", "STOMP" -> conexion.escribir("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), null);
+            case "SUBSCRIBE" -> destinos
+                .computeIfAbsent(frame.cabecera("destination"), d -> ConcurrentHashMap.newKeySet())
+                .add(new Suscripcion(conexion, frame.cabecera("id")));
+            case "UNSUBSCRIBE" -> destinos.values().forEach(suscriptores -> suscriptores.removeIf(
+                s -> s.conexion() == conexion && s.id().equals(frame.cabecera("id"))));
+            case "SEND" -> publicar(frame);
+            case "DISCONNECT" -> {
+                confirmar(conexion, frame);
+                return false;
+            }
+            default -> { /* ACK, NACK, BEGIN... no se usan */ }
+        }
+        confirmar(conexion, frame);
+        return true;
+    }
+
+    private void publicar(Frame frame) {
+        publicados.incrementAndGet();
+        String destino = frame.cabecera("destination");
+        Set<Suscripcion> suscriptores = destinos.get(destino);
+        if (suscriptores == null) {
+            return;
+        }
+        for (Suscripcion suscripcion : suscriptores) {
+            Map<String, String> cabeceras = new LinkedHashMap<>();
+            cabeceras.put("destination", destino);
+            cabeceras.put("subscription", suscripcion.id());
+            cabeceras.put("message-id", String.valueOf(secuencia.incrementAndGet()));
+            if (frame.cabecera("content-type") != null) {
+                cabeceras.put("content-type", frame.cabecera("content-type"));
+            }
+            try {
+                suscripcion.conexion().escribir("MESSAGE", cabeceras, frame.cuerpo());
+            } catch (IOException e) {
+                suscriptores.remove(suscripcion);
+            }
+        }
+    }
+
+    private static void confirmar(Conexion conexion, Frame frame) throws IOException {
+        String receipt = frame.cabecera("receipt");
+        if (receipt != null) {
+            conexion.escribir("RECEIPT", Map.of("receipt-id", receipt), null);
+        }
+    }
+
+    /**
+     * Lee un frame; ignora los fines de línea sueltos (heart-beats).
+     *
+     * @return El frame, o null si se cerró la conexión
+     */
+    private static Frame leer(InputStream entrada) throws IOException {
+        String comando;
+        do {
+            comando = leerLinea(entrada);
+            if (comando == null) {
+                return null;
+            }
+        } while (comando.isEmpty());
+
+        Map<String, String> cabeceras = new LinkedHashMap<>();
+        String linea;
+        while ((linea = leerLinea(entrada)) != null && !linea.isEmpty()) {
+            int separador = linea.indexOf(':');
+            if (separador > 0) {
+                // En STOMP la primera aparición de una cabecera es la que vale
+                cabeceras.putIfAbsent(linea.substring(0, separador), linea.substring(separador + 1));
+            }
+        }
+
+        byte[] cuerpo;
+        String longitud = cabeceras.get("content-length");
+        if (longitud != null) {
+            cuerpo = entrada.readNBytes(Integer.parseInt(longitud.trim()));
+            if (entrada.read() < 0) {
+                return null;
+            }
+        } else {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int b;
+            while ((b = entrada.read()) > 0) {
+                buffer.write(b);
+            }
+            if (b < 0) {
+                return null;
+            }
+            cuerpo = buffer.toByteArray();
+        }
+        return new Frame(comando, cabeceras, cuerpo);
+    }
+
+    private static String leerLinea(InputStream entrada) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int b;
+        while ((b = entrada.read()) >= 0 && b != '\n') {
+            buffer.write(b);
+        }
+        if (b < 0 && buffer.size() == 0) {
+            return null;
+        }
+        String linea = buffer.toString(StandardCharsets.UTF_8);
+        return linea.endsWith("\r") ? linea.substring(0, linea.length() - 1) : linea;
+    }
+
+    private record Frame(String comando, Map<String, String> cabeceras, byte[] cuerpo) {
+        String cabecera(String nombre) {
+            return cabeceras.get(nombre);
+        }
+    }
+
+    private record Suscripcion(Conexion conexion, String id) {}
+
+    private static final class Conexion {
+
+        private final OutputStream salida;
+
+        Conexion(OutputStream salida) {
+            this.salida = salida;
+        }
+
+        synchronized void escribir(String comando, Map<String, String> cabeceras, byte[] cuerpo) throws IOException {
+            StringBuilder frame = new StringBuilder(comando).append('\n');
+            cabeceras.forEach((nombre, valor) -> frame.append(nombre).append(':').append(valor).append('\n'));
+            if (cuerpo != null) {
+                frame.append("content-length:").append(cuerpo.length).append('\n');
+            }
+            frame.append('\n');
+            salida.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+            if (cuerpo != null) {
+                salida.write(cuerpo);
+            }
+            salida.write(NUL);
+            salida.flush();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.clinica.veterinaria.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Entrega y carga de notificaciones por WebSocket con el relay STOMP hacia un
+ * {@link BrokerStompEmbebido}
+ */
+@DisplayName("Carga WebSocket - relay STOMP")
+class CargaWebSocketRelayTest extends CargaWebSocketTest {
+
+    /** Vive mientras la JVM de tests, igual que el contexto de Spring cacheado que lo usa. */
+    private static final BrokerStompEmbebido BROKER = BrokerStompEmbebido.iniciar();
+
+    @DynamicPropertySource
+    static void broker(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.broker.modo", () -> "relay");
+        registry.add("app.websocket.broker.relay.host", () -> "127.0.0.1");
+        registry.add("app.websocket.broker.relay.port", BROKER::getPuerto);
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinica.veterinaria.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Entrega y carga de notificaciones por WebSocket con el broker simple en memoria
+ */
+@DisplayName("Carga WebSocket - broker simple")
+class CargaWebSocketSimpleTest extends CargaWebSocketTest {
+}
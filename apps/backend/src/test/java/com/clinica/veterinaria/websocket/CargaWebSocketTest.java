@@ -0,0 +1,364 @@
+package com.clinica.veterinaria.websocket;
+
+import com.clinica.veterinaria.dto.NotificacionWebSocketDTO;
+import com.clinica.veterinaria.entity.Notificacion;
+import com.clinica.veterinaria.entity.Usuario;
+import com.clinica.veterinaria.repository.UsuarioRepository;
+import com.clinica.veterinaria.security.JwtUtil;
+import com.clinica.veterinaria.service.WebSocketNotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de entrega y carga de notificaciones por WebSocket (SockJS + STOMP) contra el servidor
+ * real en un puerto aleatorio.
+ *
+ * <p>Cada subclase fija un modo del broker. Cada sesión se suscribe a la cola de uno de los
+ * usuarios simulados y al topic global, como hace el frontend. Se mide:</p>
+ * <ul>
+ *   <li><b>Latencia de fan-out:</b> desde el envío de una notificación global hasta su
+ *       recepción en cada sesión (p50, p95, p99, máximo).</li>
+ *   <li><b>Throughput:</b> entregas por segundo de una ráfaga de notificaciones por usuario.</li>
+ * </ul>
+ *
+ * <p>La prueba de 1.000 sesiones solo se ejecuta con {@code -Dcarga.websocket=true}.</p>
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.url=jdbc:h2:mem:websocket")
+@ActiveProfiles("test")
+abstract class CargaWebSocketTest {
+
+    private static final String EMAIL = "carga.websocket@test.com";
+    private static final long ID_CALENTAMIENTO = -1L;
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(120);
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private WebSocketNotificationService webSocketNotificationService;
+
+    @Autowired
+    private List<AbstractBrokerMessageHandler> brokers;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private WebSocketStompClient cliente;
+    private final List<StompSession> sesiones = new CopyOnWriteArrayList<>();
+    private String token;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        esperar(() -> brokers.stream().allMatch(AbstractBrokerMessageHandler::isBrokerAvailable),
+            () -> "El broker no está disponible");
+
+        Usuario usuario = usuarioRepository.findByEmail(EMAIL).orElseGet(() -> usuarioRepository.save(
+            Usuario.builder()
+                .nombre("Carga WebSocket")
+                .email(EMAIL)
+                .password(passwordEncoder.encode("carga123"))
+                .rol(Usuario.Rol.ADMIN)
+                .activo(true)
+                .build()));
+        token = jwtUtil.generateToken(
+            User.builder()
+                .username(usuario.getEmail())
+                .password(usuario.getPassword())
+                .authorities("ROLE_" + usuario.getRol().name())
+                .build(),
+            Map.of("rol", usuario.getRol().name(), "userId", usuario.getId()));
+
+        MappingJackson2MessageConverter convertidor = new MappingJackson2MessageConverter();
+        convertidor.setObjectMapper(objectMapper);
+        cliente = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        cliente.setMessageConverter(convertidor);
+        cliente.setDefaultHeartbeat(new long[] {0, 0});
+    }
+
+    @AfterEach
+    void tearDown() {
+        sesiones.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        sesiones.clear();
+        cliente.stop();
+        usuarioRepository.findByEmail(EMAIL).ifPresent(usuarioRepository::delete);
+    }
+
+    @Test
+    @DisplayName("Las notificaciones globales y por usuario deben llegar a todas las sesiones suscritas")
+    void testEntregaEnTodasLasSesiones() throws Exception {
+        // Act
+        Resultado resultado = ejecutar(20, 4, 5, 5);
+
+        // Assert
+        assertEquals(resultado.esperadasGlobal(), resultado.entregadasGlobal());
+        assertEquals(resultado.esperadasUsuario(), resultado.entregadasUsuario());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "carga.websocket", matches = "true")
+    @DisplayName("Carga: 1.000 sesiones SockJS concurrentes sin pérdidas y con fan-out acotado")
+    void testCarga1000Sesiones() throws Exception {
+        // Act: 100 usuarios con 10 pestañas cada uno
+        Resultado resultado = ejecutar(1000, 100, 20, 50);
+
+        // Assert
+        assertEquals(resultado.esperadasGlobal(), resultado.entregadasGlobal());
+        assertEquals(resultado.esperadasUsuario(), resultado.entregadasUsuario());
+        assertTrue(resultado.p99Ms() < 5_000, "p99 de fan-out demasiado alto: " + resultado.p99Ms() + " ms");
+        System.out.printf("WebSocket (%s): %d sesiones conectadas en %d ms | fan-out p50 %.1f ms, p95 %.1f ms, " +
+                "p99 %.1f ms, máx %.1f ms | ráfaga %d entregas a %.0f entregas/s%n",
+            getClass().getSimpleName(), resultado.sesiones(), resultado.conexionMs(), resultado.p50Ms(),
+            resultado.p95Ms(), resultado.p99Ms(), resultado.maxMs(), resultado.entregadasUsuario(),
+            resultado.entregasPorSegundo());
+    }
+
+    /**
+     * Conecta las sesiones, espera a que todas las suscripciones estén activas y mide la
+     * latencia de fan-out y el throughput.
+     *
+     * @param numSesiones Sesiones SockJS concurrentes
+     * @param numUsuarios Usuarios simulados (cada sesión escucha la cola de uno)
+     * @param mensajesGlobales Notificaciones globales para medir el fan-out
+     * @param mensajesPorUsuario Notificaciones por usuario para medir el throughput
+     */
+    private Resultado ejecutar(int numSesiones, int numUsuarios, int mensajesGlobales, int mensajesPorUsuario)
+            throws Exception {
+        int totalMensajes = mensajesGlobales + numUsuarios * mensajesPorUsuario;
+        Medicion medicion = new Medicion(totalMensajes, mensajesGlobales);
+
+        // Conexión concurrente de todas las sesiones
+        long inicioConexion = System.nanoTime();
+        StompHeaders cabecerasConnect = new StompHeaders();
+        cabecerasConnect.add("Authorization", "Bearer " + token);
+        List<CompletableFuture<StompSession>> conexiones = new ArrayList<>();
+        for (int i = 0; i < numSesiones; i++) {
+            conexiones.add(cliente.connectAsync("http://localhost:" + puerto + "/ws",
+                new WebSocketHttpHeaders(), cabecerasConnect, new StompSessionHandlerAdapter() { }));
+        }
+        CompletableFuture.allOf(conexiones.toArray(CompletableFuture[]::new))
+            .get(ESPERA_MAXIMA.toSeconds(), TimeUnit.SECONDS);
+        long conexionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioConexion);
+
+        AtomicInteger listas = new AtomicInteger();
+        for (int i = 0; i < numSesiones; i++) {
+            StompSession sesion = conexiones.get(i).get();
+            sesiones.add(sesion);
+            Receptor receptor = new Receptor(medicion, listas);
+            sesion.subscribe("/topic/notificaciones", receptor.global());
+            sesion.subscribe("/user/" + (i % numUsuarios + 1) + "/queue/notificaciones", receptor.usuario());
+        }
+
+        // Las suscripciones se procesan de forma asíncrona: se repite un mensaje de
+        // calentamiento hasta que todas las sesiones lo reciben por ambos destinos
+        esperar(() -> {
+            if (listas.get() == numSesiones) {
+                return true;
+            }
+            webSocketNotificationService.enviarNotificacionGlobal(notificacion(ID_CALENTAMIENTO));
+            for (long usuario = 1; usuario <= numUsuarios; usuario++) {
+                webSocketNotificationService.enviarNotificacionAUsuario(usuario, notificacion(ID_CALENTAMIENTO));
+            }
+            return false;
+        }, () -> "Suscripciones activas: " + listas.get() + " de " + numSesiones);
+
+        // Latencia de fan-out: una notificación global cada 20 ms
+        for (int id = 0; id < mensajesGlobales; id++) {
+            medicion.enviado.set(id, System.nanoTime());
+            webSocketNotificationService.enviarNotificacionGlobal(notificacion(id));
+            Thread.sleep(20);
+        }
+        long esperadasGlobal = (long) mensajesGlobales * numSesiones;
+        esperar(() -> medicion.entregadasGlobal.sum() >= esperadasGlobal,
+            () -> "Notificaciones globales entregadas: " + medicion.entregadasGlobal.sum() + " de " + esperadasGlobal);
+
+        // Throughput: ráfaga de notificaciones por usuario
+        long inicioRafaga = System.nanoTime();
+        for (int m = 0; m < mensajesPorUsuario; m++) {
+            for (int usuario = 1; usuario <= numUsuarios; usuario++) {
+                int id = mensajesGlobales + m * numUsuarios + usuario - 1;
+                medicion.enviado.set(id, System.nanoTime());
+                webSocketNotificationService.enviarNotificacionAUsuario((long) usuario, notificacion(id));
+            }
+        }
+        long esperadasUsuario = (long) mensajesPorUsuario * numSesiones;
+        esperar(() -> medicion.entregadasUsuario.sum() >= esperadasUsuario,
+            () -> "Notificaciones por usuario entregadas: " + medicion.entregadasUsuario.sum() + " de " + esperadasUsuario);
+        double segundosRafaga = (medicion.ultimaEntrega.get() - inicioRafaga) / 1e9;
+
+        List<Long> latencias = new ArrayList<>(medicion.latenciasGlobal);
+        latencias.sort(null);
+        return new Resultado(
+            numSesiones, conexionMs,
+            esperadasGlobal, medicion.entregadasGlobal.sum(),
+            esperadasUsuario, medicion.entregadasUsuario.sum(),
+            percentilMs(latencias, 0.50), percentilMs(latencias, 0.95), percentilMs(latencias, 0.99),
+            percentilMs(latencias, 1.0),
+            medicion.entregadasUsuario.sum() / Math.max(segundosRafaga, 1e-9));
+    }
+
+    private static NotificacionWebSocketDTO notificacion(long id) {
+        return NotificacionWebSocketDTO.builder()
+            .id(id)
+            .titulo("Carga")
+            .mensaje("Mensaje de prueba de carga")
+            .tipo(Notificacion.Tipo.SISTEMA)
+            .leida(false)
+            .build();
+    }
+
+    private static double percentilMs(List<Long> ordenadas, double percentil) {
+        if (ordenadas.isEmpty()) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.size()) - 1;
+        return ordenadas.get(Math.max(0, indice)) / 1e6;
+    }
+
+    private static void esperar(BooleanSupplier condicion, Supplier<String> mensaje) throws InterruptedException {
+        long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+        while (!condicion.getAsBoolean()) {
+            if (System.nanoTime() > limite) {
+                fail(mensaje.get());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    /**
+     * Contadores compartidos por todas las sesiones.
+     */
+    private static final class Medicion {
+
+        private final AtomicLongArray enviado;
+        private final int mensajesGlobales;
+        private final LongAdder entregadasGlobal = new LongAdder();
+        private final LongAdder entregadasUsuario = new LongAdder();
+        private final ConcurrentLinkedQueue<Long> latenciasGlobal = new ConcurrentLinkedQueue<>();
+        private final AtomicLong ultimaEntrega = new AtomicLong();
+
+        Medicion(int totalMensajes, int mensajesGlobales) {
+            this.enviado = new AtomicLongArray(totalMensajes);
+            this.mensajesGlobales = mensajesGlobales;
+        }
+
+        void recibido(long id, boolean global) {
+            long ahora = System.nanoTime();
+            if (global && id < mensajesGlobales) {
+                latenciasGlobal.add(ahora - enviado.get((int) id));
+                entregadasGlobal.increment();
+            } else if (!global && id >= mensajesGlobales) {
+                entregadasUsuario.increment();
+                ultimaEntrega.accumulateAndGet(ahora, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Manejadores de una sesión; cuenta la sesión como lista cuando recibe el calentamiento
+     * por sus dos suscripciones.
+     */
+    private static final class Receptor {
+
+        private final Medicion medicion;
+        private final AtomicInteger listas;
+        private final AtomicBoolean globalListo = new AtomicBoolean();
+        private final AtomicBoolean usuarioListo = new AtomicBoolean();
+        private final AtomicInteger pendientes = new AtomicInteger(2);
+
+        Receptor(Medicion medicion, AtomicInteger listas) {
+            this.medicion = medicion;
+            this.listas = listas;
+        }
+
+        StompFrameHandler global() {
+            return manejador(true);
+        }
+
+        StompFrameHandler usuario() {
+            return manejador(false);
+        }
+
+        private StompFrameHandler manejador(boolean global) {
+            return new StompFrameHandler() {
+                @Override
+                @NonNull
+                public Type getPayloadType(@NonNull StompHeaders headers) {
+                    return NotificacionWebSocketDTO.class;
+                }
+
+                @Override
+                public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                    long id = ((NotificacionWebSocketDTO) payload).getId();
+                    if (id == ID_CALENTAMIENTO) {
+                        if (!(global ? globalListo : usuarioListo).getAndSet(true)
+                            && pendientes.decrementAndGet() == 0) {
+                            listas.incrementAndGet();
+                        }
+                        return;
+                    }
+                    medicion.recibido(id, global);
+                }
+            };
+        }
+    }
+
+    private record Resultado(
+        int sesiones, long conexionMs,
+        long esperadasGlobal, long entregadasGlobal,
+        long esperadasUsuario, long entregadasUsuario,
+        double p50Ms, double p95Ms, double p99Ms, double maxMs,
+        double entregasPorSegundo) {}
+}